@@ -0,0 +1,180 @@
+package com.demo.java_utilities;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of the {@link BitUtils} kernels against the loops they replaced. The
+ * {@code loop*} benchmarks are the former single-value implementations applied word
+ * by word; the others call the intrinsic-based and bulk methods on the same data.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BitUtilsBenchmark {
+
+    @Param({ "1024", "65536" })
+    public int words;
+
+    private long[] a;
+    private long[] b;
+    private long[] destination;
+    private ByteBuffer heapA;
+    private ByteBuffer heapB;
+    private ByteBuffer heapDestination;
+    private ByteBuffer directA;
+    private ByteBuffer directB;
+    private ByteBuffer directDestination;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        a = new long[words];
+        b = new long[words];
+        destination = new long[words];
+        for (int i = 0; i < words; i++) {
+            a[i] = random.nextLong();
+            b[i] = random.nextLong();
+        }
+        heapA = toBuffer(a, false);
+        heapB = toBuffer(b, false);
+        heapDestination = ByteBuffer.allocate(words * Long.BYTES);
+        directA = toBuffer(a, true);
+        directB = toBuffer(b, true);
+        directDestination = ByteBuffer.allocateDirect(words * Long.BYTES).order(
+            ByteOrder.nativeOrder()
+        );
+    }
+
+    private static ByteBuffer toBuffer(long[] words, boolean direct) {
+        ByteBuffer buffer = direct
+            ? ByteBuffer.allocateDirect(words.length * Long.BYTES)
+            : ByteBuffer.allocate(words.length * Long.BYTES);
+        buffer.order(ByteOrder.nativeOrder()).asLongBuffer().put(words);
+        return buffer;
+    }
+
+    @Benchmark
+    public long loopCountSetBits() {
+        long count = 0;
+        for (long word : a) {
+            // Kernighan's trick, as countSetBits used to do
+            while (word != 0) {
+                word &= word - 1;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public long countSetBits() {
+        return BitUtils.countSetBits(a);
+    }
+
+    @Benchmark
+    public long countSetBitsHeapBuffer() {
+        return BitUtils.countSetBits(heapA);
+    }
+
+    @Benchmark
+    public long countSetBitsDirectBuffer() {
+        return BitUtils.countSetBits(directA);
+    }
+
+    @Benchmark
+    public int loopParity() {
+        int parity = 0;
+        for (long word : a) {
+            // The shift-and-fold of the former parity, widened to 64 bits
+            word ^= word >> 32;
+            word ^= word >> 16;
+            word ^= word >> 8;
+            word ^= word >> 4;
+            word ^= word >> 2;
+            word ^= word >> 1;
+            parity ^= (int) word & 1;
+        }
+        return parity;
+    }
+
+    @Benchmark
+    public int parity() {
+        return BitUtils.parity(a, 0, a.length);
+    }
+
+    @Benchmark
+    public long[] loopReverseBits() {
+        for (int i = 0; i < words; i++) {
+            long word = a[i];
+            long result = 0;
+            // One bit per iteration, as reverseBits used to do
+            for (int bit = 0; bit < 64; bit++) {
+                result = (result << 1) | (word & 1);
+                word >>>= 1;
+            }
+            destination[i] = result;
+        }
+        return destination;
+    }
+
+    @Benchmark
+    public long[] reverseBits() {
+        for (int i = 0; i < words; i++) {
+            destination[i] = BitUtils.reverseBits(a[i]);
+        }
+        return destination;
+    }
+
+    @Benchmark
+    public long[] reverseBitsRange() {
+        BitUtils.reverseBits(a, 0, a.length);
+        return a;
+    }
+
+    @Benchmark
+    public long[] and() {
+        BitUtils.and(a, b, destination);
+        return destination;
+    }
+
+    @Benchmark
+    public long[] andNot() {
+        BitUtils.andNot(a, b, destination);
+        return destination;
+    }
+
+    @Benchmark
+    public long[] xor() {
+        BitUtils.xor(a, b, destination);
+        return destination;
+    }
+
+    @Benchmark
+    public ByteBuffer andHeapBuffer() {
+        BitUtils.and(heapA, heapB, heapDestination);
+        return heapDestination;
+    }
+
+    @Benchmark
+    public ByteBuffer andDirectBuffer() {
+        BitUtils.and(directA, directB, directDestination);
+        return directDestination;
+    }
+}
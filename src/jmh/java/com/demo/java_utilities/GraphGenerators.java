@@ -0,0 +1,315 @@
+package com.demo.java_utilities;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic graphs for benchmarks. Vertices are the integers
+ * {@code [0, n)} and every edge is undirected. The same shape, size and seed always
+ * give the same graph, so results of different runs can be compared.
+ * <p>
+ * Graphs with coordinates carry a scale that keeps the straight-line distance a lower
+ * bound of every path, so {@link GeneratedGraph#heuristic()} is admissible for A*.
+ */
+public class GraphGenerators {
+
+    /**
+     * The kinds of graph that can be generated.
+     */
+    public enum Shape {
+        /**
+         * A square grid with 4-neighborhoods; many equal-length paths.
+         */
+        GRID,
+        /**
+         * Random points in a square, connected to the points within a fixed radius.
+         */
+        GEOMETRIC,
+        /**
+         * Barabasi-Albert preferential attachment; a few hubs with huge degree.
+         */
+        POWER_LAW,
+        /**
+         * A jittered grid of streets with missing blocks and a sparse grid of faster
+         * highways; low degree and long shortest paths, like a road network.
+         */
+        ROAD,
+    }
+
+    /**
+     * Generate a graph with roughly the requested number of vertices.
+     *
+     * @param shape the kind of graph
+     * @param size  the approximate number of vertices
+     * @param seed  the seed of all random choices
+     * @return the generated graph
+     */
+    public static GeneratedGraph generate(Shape shape, int size, long seed) {
+        switch (shape) {
+            case GRID:
+                return grid((int) Math.ceil(Math.sqrt(size)), seed);
+            case GEOMETRIC:
+                return geometric(size, 8, seed);
+            case POWER_LAW:
+                return powerLaw(size, 4, seed);
+            case ROAD:
+                return road((int) Math.ceil(Math.sqrt(size)), seed);
+            default:
+                throw new IllegalArgumentException("Unknown shape " + shape);
+        }
+    }
+
+    /**
+     * A {@code side x side} grid whose edges weigh between 1 and 2.
+     *
+     * @param side the number of vertices per row and column
+     * @param seed the seed of the weights
+     * @return the generated graph
+     */
+    public static GeneratedGraph grid(int side, long seed) {
+        Random random = new Random(seed);
+        int n = side * side;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        GraphTraversalUtils<Integer> graph = withVertices(n);
+        for (int row = 0; row < side; row++) {
+            for (int col = 0; col < side; col++) {
+                int v = row * side + col;
+                x[v] = col;
+                y[v] = row;
+                if (col + 1 < side) {
+                    graph.addUndirectedEdge(v, v + 1, 1 + random.nextDouble());
+                }
+                if (row + 1 < side) {
+                    graph.addUndirectedEdge(v, v + side, 1 + random.nextDouble());
+                }
+            }
+        }
+        return new GeneratedGraph(graph, n, x, y, 1.0);
+    }
+
+    /**
+     * A random geometric graph: n points uniform in a square of area n, connected to
+     * every point within the radius that gives the requested average degree. Edges
+     * weigh their length times a factor between 1 and 1.2.
+     *
+     * @param n      the number of vertices
+     * @param degree the expected average degree
+     * @param seed   the seed of the points and weights
+     * @return the generated graph
+     */
+    public static GeneratedGraph geometric(int n, int degree, long seed) {
+        Random random = new Random(seed);
+        double side = Math.sqrt(n);
+        double radius = Math.sqrt(degree / Math.PI);
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int v = 0; v < n; v++) {
+            x[v] = random.nextDouble() * side;
+            y[v] = random.nextDouble() * side;
+        }
+
+        // Buckets of one radius per side, so neighbors are in the 3 x 3 cells around
+        int cells = Math.max(1, (int) (side / radius));
+        List<List<Integer>> buckets = new ArrayList<>(cells * cells);
+        for (int c = 0; c < cells * cells; c++) {
+            buckets.add(new ArrayList<>());
+        }
+        for (int v = 0; v < n; v++) {
+            int cell =
+                cellOf(y[v], side, cells) * cells + cellOf(x[v], side, cells);
+            buckets.get(cell).add(v);
+        }
+
+        GraphTraversalUtils<Integer> graph = withVertices(n);
+        for (int v = 0; v < n; v++) {
+            int cx = cellOf(x[v], side, cells);
+            int cy = cellOf(y[v], side, cells);
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dx = -1; dx <= 1; dx++) {
+                    int nx = cx + dx;
+                    int ny = cy + dy;
+                    if (nx < 0 || ny < 0 || nx >= cells || ny >= cells) {
+                        continue;
+                    }
+                    for (int u : buckets.get(ny * cells + nx)) {
+                        double length = Math.hypot(x[u] - x[v], y[u] - y[v]);
+                        // Each pair once, from its smaller endpoint
+                        if (u > v && length <= radius) {
+                            graph.addUndirectedEdge(
+                                v,
+                                u,
+                                length * (1 + 0.2 * random.nextDouble())
+                            );
+                        }
+                    }
+                }
+            }
+        }
+        return new GeneratedGraph(graph, n, x, y, 1.0);
+    }
+
+    /**
+     * A Barabasi-Albert graph: every new vertex attaches to {@code edgesPerVertex}
+     * existing vertices chosen with probability proportional to their degree. Edges
+     * weigh between 1 and 10. There are no coordinates.
+     *
+     * @param n              the number of vertices
+     * @param edgesPerVertex the number of edges each new vertex adds
+     * @param seed           the seed of the attachments and weights
+     * @return the generated graph
+     */
+    public static GeneratedGraph powerLaw(int n, int edgesPerVertex, long seed) {
+        Random random = new Random(seed);
+        GraphTraversalUtils<Integer> graph = withVertices(n);
+        // Every endpoint of every edge, so a uniform pick is a degree-weighted pick
+        int[] endpoints = new int[2 * n * edgesPerVertex];
+        int size = 0;
+        int core = Math.min(n, edgesPerVertex + 1);
+        for (int v = 0; v < core; v++) {
+            for (int u = 0; u < v; u++) {
+                graph.addUndirectedEdge(u, v, 1 + 9 * random.nextDouble());
+                endpoints[size++] = u;
+                endpoints[size++] = v;
+            }
+        }
+        for (int v = core; v < n; v++) {
+            int added = size;
+            for (int i = 0; i < edgesPerVertex; i++) {
+                int u = endpoints[random.nextInt(added)];
+                graph.addUndirectedEdge(u, v, 1 + 9 * random.nextDouble());
+                endpoints[size++] = u;
+                endpoints[size++] = v;
+            }
+        }
+        return new GeneratedGraph(graph, n, null, null, 0.0);
+    }
+
+    /**
+     * A road-like network on a {@code side x side} grid of jittered intersections.
+     * A third of the north-south streets are missing, but every pair of adjacent rows
+     * keeps at least one, so the network stays connected. Streets weigh their length
+     * times a factor between 1 and 2, and every eighth row and column carries a highway
+     * that links every eighth intersection at half the cost of its length.
+     *
+     * @param side the number of intersections per row and column
+     * @param seed the seed of the layout and weights
+     * @return the generated graph
+     */
+    public static GeneratedGraph road(int side, long seed) {
+        Random random = new Random(seed);
+        int n = side * side;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int v = 0; v < n; v++) {
+            x[v] = v % side + 0.6 * (random.nextDouble() - 0.5);
+            y[v] = v / side + 0.6 * (random.nextDouble() - 0.5);
+        }
+
+        GraphTraversalUtils<Integer> graph = withVertices(n);
+        for (int row = 0; row < side; row++) {
+            // Rows are complete, so one kept vertical per pair of rows joins them
+            int kept = random.nextInt(side);
+            for (int col = 0; col < side; col++) {
+                int v = row * side + col;
+                if (col + 1 < side) {
+                    street(graph, random, x, y, v, v + 1);
+                }
+                if (row + 1 < side && (col == kept || random.nextInt(3) != 0)) {
+                    street(graph, random, x, y, v, v + side);
+                }
+                if (row % 8 == 0 && col + 8 < side && col % 8 == 0) {
+                    highway(graph, x, y, v, v + 8);
+                }
+                if (col % 8 == 0 && row + 8 < side && row % 8 == 0) {
+                    highway(graph, x, y, v, v + 8 * side);
+                }
+            }
+        }
+        return new GeneratedGraph(graph, n, x, y, 0.5);
+    }
+
+    private static void street(
+        GraphTraversalUtils<Integer> graph,
+        Random random,
+        double[] x,
+        double[] y,
+        int u,
+        int v
+    ) {
+        double length = Math.hypot(x[u] - x[v], y[u] - y[v]);
+        graph.addUndirectedEdge(u, v, length * (1 + random.nextDouble()));
+    }
+
+    private static void highway(
+        GraphTraversalUtils<Integer> graph,
+        double[] x,
+        double[] y,
+        int u,
+        int v
+    ) {
+        graph.addUndirectedEdge(u, v, 0.5 * Math.hypot(x[u] - x[v], y[u] - y[v]));
+    }
+
+    private static GraphTraversalUtils<Integer> withVertices(int n) {
+        GraphTraversalUtils<Integer> graph = new GraphTraversalUtils<>();
+        for (int v = 0; v < n; v++) {
+            graph.addVertex(v);
+        }
+        return graph;
+    }
+
+    private static int cellOf(double coordinate, double side, int cells) {
+        return Math.min(cells - 1, (int) (coordinate / side * cells));
+    }
+
+    /**
+     * A generated graph with the coordinates of its vertices, if it has any.
+     */
+    public static class GeneratedGraph {
+
+        private final GraphTraversalUtils<Integer> graph;
+        private final int vertexCount;
+        private final double[] x;
+        private final double[] y;
+        private final double scale;
+
+        GeneratedGraph(
+            GraphTraversalUtils<Integer> graph,
+            int vertexCount,
+            double[] x,
+            double[] y,
+            double scale
+        ) {
+            this.graph = graph;
+            this.vertexCount = vertexCount;
+            this.x = x;
+            this.y = y;
+            this.scale = scale;
+        }
+
+        public GraphTraversalUtils<Integer> graph() {
+            return graph;
+        }
+
+        /**
+         * @return the number of vertices
+         */
+        public int vertexCount() {
+            return vertexCount;
+        }
+
+        /**
+         * @return the scaled straight-line distance, or 0 for graphs without
+         *         coordinates
+         */
+        public GraphTraversalUtils.Heuristic<Integer> heuristic() {
+            if (x == null) {
+                return (current, goal) -> 0.0;
+            }
+            return (current, goal) ->
+                scale * Math.hypot(x[current] - x[goal], y[current] - y[goal]);
+        }
+    }
+}
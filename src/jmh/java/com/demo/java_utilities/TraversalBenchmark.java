@@ -0,0 +1,95 @@
+package com.demo.java_utilities;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of the traversals and shortest path searches of
+ * {@link GraphTraversalUtils} on generated graphs of several shapes and sizes. Every
+ * invocation starts from the next of a fixed list of random vertex pairs, so repeated
+ * runs do the same work. Run with {@code ./gradlew jmh}; the gc profiler configured in
+ * the build adds the allocation rate per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TraversalBenchmark {
+
+    private static final long SEED = 42;
+    private static final int QUERY_COUNT = 64;
+
+    @Param({ "GRID", "GEOMETRIC", "POWER_LAW", "ROAD" })
+    public GraphGenerators.Shape shape;
+
+    @Param({ "1000", "10000", "100000" })
+    public int size;
+
+    private GraphTraversalUtils<Integer> graph;
+    private GraphTraversalUtils.Heuristic<Integer> heuristic;
+    private int[] sources;
+    private int[] targets;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        GraphGenerators.GeneratedGraph generated = GraphGenerators.generate(
+            shape,
+            size,
+            SEED
+        );
+        graph = generated.graph();
+        heuristic = generated.heuristic();
+        Random random = new Random(SEED + 1);
+        sources = new int[QUERY_COUNT];
+        targets = new int[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            sources[i] = random.nextInt(generated.vertexCount());
+            targets[i] = random.nextInt(generated.vertexCount());
+        }
+        // Built once here, so dijkstra does not time the first snapshot
+        graph.toCsr();
+    }
+
+    private int nextQuery() {
+        int query = next;
+        next = (next + 1) % QUERY_COUNT;
+        return query;
+    }
+
+    @Benchmark
+    public List<Integer> bfs() {
+        return graph.bfs(sources[nextQuery()]);
+    }
+
+    @Benchmark
+    public List<Integer> dfs() {
+        return graph.dfs(sources[nextQuery()]);
+    }
+
+    @Benchmark
+    public Map<Integer, Double> dijkstra() {
+        return graph.dijkstra(sources[nextQuery()]);
+    }
+
+    @Benchmark
+    public List<Integer> aStar() {
+        int query = nextQuery();
+        return graph.aStar(sources[query], targets[query], heuristic);
+    }
+}
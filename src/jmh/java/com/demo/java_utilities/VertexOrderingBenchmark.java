@@ -0,0 +1,90 @@
+package com.demo.java_utilities;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time of one pull-style scan, reading a per-vertex value for every edge, on a
+ * generated graph in its original order and after each {@link VertexOrdering}
+ * strategy. The ids of the generators follow the layout of the graph, so they are
+ * shuffled first to leave the reordering something to do.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VertexOrderingBenchmark {
+
+    private static final long SEED = 42;
+
+    @Param({ "GRID", "GEOMETRIC", "POWER_LAW", "ROAD" })
+    public GraphGenerators.Shape shape;
+
+    @Param({ "100000" })
+    public int size;
+
+    @Param({ "SHUFFLED", "REVERSE_CUTHILL_MCKEE", "BFS", "DEGREE" })
+    public String order;
+
+    private CsrGraph<Integer> graph;
+    private double[] values;
+
+    @Setup
+    public void setUp() {
+        CsrGraph<Integer> generated = GraphGenerators
+            .generate(shape, size, SEED)
+            .graph()
+            .toCsr();
+        CsrGraph<Integer> shuffled = VertexOrdering.relabel(
+            generated,
+            shuffle(generated.vertexCount())
+        );
+        graph = order.equals("SHUFFLED")
+            ? shuffled
+            : VertexOrdering
+                .apply(shuffled, VertexOrdering.Strategy.valueOf(order))
+                .graph();
+        values = new double[graph.vertexCount()];
+        Arrays.fill(values, 1.0);
+    }
+
+    @Benchmark
+    public double scan() {
+        double sum = 0;
+        for (int v = 0; v < graph.vertexCount(); v++) {
+            for (int e = graph.firstEdge(v); e < graph.endEdge(v); e++) {
+                sum += values[graph.target(e)];
+            }
+        }
+        return sum;
+    }
+
+    private static int[] shuffle(int n) {
+        int[] order = new int[n];
+        for (int v = 0; v < n; v++) {
+            order[v] = v;
+        }
+        Random random = new Random(SEED);
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return order;
+    }
+}
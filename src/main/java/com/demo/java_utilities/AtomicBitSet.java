@@ -0,0 +1,91 @@
+package com.demo.java_utilities;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size bitset whose bits can be set concurrently from many threads, packed 64 bits
+ * per {@code long} word.
+ */
+public class AtomicBitSet {
+
+    private final AtomicLongArray words;
+    private final int size;
+
+    public AtomicBitSet(int size) {
+        this.size = size;
+        this.words = new AtomicLongArray((size + 63) >>> 6);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param i the index of the bit
+     * @return true if bit i is set
+     */
+    public boolean get(int i) {
+        return (words.get(i >>> 6) & (1L << i)) != 0;
+    }
+
+    /**
+     * Atomically sets bit i.
+     *
+     * @param i the index of the bit
+     * @return true if this call set the bit, false if it was already set
+     */
+    public boolean trySet(int i) {
+        int index = i >>> 6;
+        long mask = 1L << i;
+        long old;
+        do {
+            old = words.get(index);
+            if ((old & mask) != 0) {
+                return false;
+            }
+        } while (!words.compareAndSet(index, old, old | mask));
+        return true;
+    }
+
+    /**
+     * Atomically clears bit i.
+     *
+     * @param i the index of the bit
+     */
+    public void clear(int i) {
+        int index = i >>> 6;
+        long mask = 1L << i;
+        long old;
+        do {
+            old = words.get(index);
+        } while (
+            (old & mask) != 0 && !words.compareAndSet(index, old, old & ~mask)
+        );
+    }
+
+    /**
+     * @param index the index of a 64-bit word
+     * @return the word holding bits {@code [64 * index, 64 * index + 64)}
+     */
+    public long word(int index) {
+        return words.get(index);
+    }
+
+    /**
+     * @return the number of 64-bit words
+     */
+    public int wordCount() {
+        return words.length();
+    }
+
+    /**
+     * @return the number of set bits
+     */
+    public int cardinality() {
+        int count = 0;
+        for (int i = 0; i < words.length(); i++) {
+            count += Long.bitCount(words.get(i));
+        }
+        return count;
+    }
+}
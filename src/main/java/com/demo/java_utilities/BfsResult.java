@@ -0,0 +1,109 @@
+package com.demo.java_utilities;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of a breadth-first search on a {@link CsrGraph}: the hop level and BFS tree
+ * parent of every vertex, plus the reached vertices ordered by level.
+ *
+ * @param <V> the type of vertex in the graph
+ */
+public class BfsResult<V> {
+
+    private final CsrGraph<V> graph;
+    private final int source;
+    private final int[] level;
+    private final int[] parent;
+    private final int[] order;
+    private final int depth;
+
+    BfsResult(
+        CsrGraph<V> graph,
+        int source,
+        int[] level,
+        int[] parent,
+        int[] order,
+        int depth
+    ) {
+        this.graph = graph;
+        this.source = source;
+        this.level = level;
+        this.parent = parent;
+        this.order = order;
+        this.depth = depth;
+    }
+
+    /**
+     * @return the id of the source vertex
+     */
+    public int source() {
+        return source;
+    }
+
+    /**
+     * @param v the vertex id
+     * @return the number of hops from the source to v, or -1 if v was not reached
+     */
+    public int level(int v) {
+        return level[v];
+    }
+
+    /**
+     * @param v the vertex id
+     * @return the id of the parent of v in the BFS tree, or -1 for the source and
+     *         unreached vertices
+     */
+    public int parent(int v) {
+        return parent[v];
+    }
+
+    /**
+     * @param vertex a vertex of the graph
+     * @return the number of hops from the source, or -1 if the vertex was not reached
+     */
+    public int levelOf(V vertex) {
+        return level[graph.requireId(vertex)];
+    }
+
+    /**
+     * @param vertex a vertex of the graph
+     * @return the parent of the vertex in the BFS tree, or null if it has none
+     */
+    public V parentOf(V vertex) {
+        int p = parent[graph.requireId(vertex)];
+        return p < 0 ? null : graph.vertexAt(p);
+    }
+
+    /**
+     * @return the number of vertices reached, the source included
+     */
+    public int reachedCount() {
+        return order.length;
+    }
+
+    /**
+     * @return the largest level of any reached vertex
+     */
+    public int depth() {
+        return depth;
+    }
+
+    /**
+     * @return ids of the reached vertices in non-decreasing level order
+     */
+    public int[] order() {
+        return order.clone();
+    }
+
+    /**
+     * @return the reached vertices in non-decreasing level order
+     */
+    public List<V> orderedVertices() {
+        List<V> result = new ArrayList<>(order.length);
+        for (int id : order) {
+            result.add(graph.vertexAt(id));
+        }
+        return result;
+    }
+}
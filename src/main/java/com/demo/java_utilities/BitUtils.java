@@ -1,7 +1,52 @@
 package com.demo.java_utilities;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.LongConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Bit manipulation helpers for single {@code int} and {@code long} values, and bulk
+ * kernels over ranges of {@code long[]} words and {@link ByteBuffer}s.
+ * <p>
+ * Counting, parity and reversal use {@link Integer#bitCount}, {@link Long#bitCount} and
+ * {@code reverse}, which the JIT compiles to single instructions where the CPU has
+ * them. The array kernels are plain counted loops over checked ranges, so C2 can
+ * hoist the bounds checks and compile them to SIMD code.
+ */
 public class BitUtils {
 
+    private static final int LONG_BYTES = Long.BYTES;
+    private static final int AND = 0;
+    private static final int OR = 1;
+    private static final int XOR = 2;
+    private static final int AND_NOT = 3;
+
+    /**
+     * Binomial coefficients {@code BINOMIAL[n][k]} for n up to 64, all of which fit in
+     * a long; used to count and unrank k-of-n subsets.
+     */
+    private static final long[][] BINOMIAL = new long[Long.SIZE + 1][];
+
+    static {
+        for (int n = 0; n <= Long.SIZE; n++) {
+            BINOMIAL[n] = new long[n + 1];
+            BINOMIAL[n][0] = 1;
+            BINOMIAL[n][n] = 1;
+            for (int k = 1; k < n; k++) {
+                BINOMIAL[n][k] = BINOMIAL[n - 1][k - 1] + BINOMIAL[n - 1][k];
+            }
+        }
+    }
+
     /**
      * Checks if a number is a power of two.
      *
@@ -12,6 +57,16 @@ public class BitUtils {
         return x > 0 && (x & (x - 1)) == 0;
     }
 
+    /**
+     * Checks if a number is a power of two.
+     *
+     * @param x the number to check
+     * @return true if x is a power of two, false otherwise
+     */
+    public static boolean isPowerOfTwo(long x) {
+        return x > 0 && (x & (x - 1)) == 0;
+    }
+
     /**
      * Counts the number of set bits (1s) in an integer.
      *
@@ -19,12 +74,17 @@ public class BitUtils {
      * @return the number of set bits in x
      */
     public static int countSetBits(int x) {
-        int count = 0;
-        while (x != 0) {
-            x &= (x - 1);
-            count++;
-        }
-        return count;
+        return Integer.bitCount(x);
+    }
+
+    /**
+     * Counts the number of set bits (1s) in a long.
+     *
+     * @param x the long to count the bits for
+     * @return the number of set bits in x
+     */
+    public static int countSetBits(long x) {
+        return Long.bitCount(x);
     }
 
     /**
@@ -38,6 +98,17 @@ public class BitUtils {
         return (x & (1 << i)) != 0;
     }
 
+    /**
+     * Checks if the ith bit of a number is set (1).
+     *
+     * @param x the number to check
+     * @param i the index of the bit to check (0-based)
+     * @return true if the ith bit is set, false otherwise
+     */
+    public static boolean isBitSet(long x, int i) {
+        return (x & (1L << i)) != 0;
+    }
+
     /**
      * Sets the ith bit of a number to 1.
      *
@@ -49,6 +120,17 @@ public class BitUtils {
         return x | (1 << i);
     }
 
+    /**
+     * Sets the ith bit of a number to 1.
+     *
+     * @param x the number to modify
+     * @param i the index of the bit to set (0-based)
+     * @return the modified number with the ith bit set
+     */
+    public static long setBit(long x, int i) {
+        return x | (1L << i);
+    }
+
     /**
      * Clears the ith bit of a number (sets it to 0).
      *
@@ -60,6 +142,17 @@ public class BitUtils {
         return x & ~(1 << i);
     }
 
+    /**
+     * Clears the ith bit of a number (sets it to 0).
+     *
+     * @param x the number to modify
+     * @param i the index of the bit to clear (0-based)
+     * @return the modified number with the ith bit cleared
+     */
+    public static long clearBit(long x, int i) {
+        return x & ~(1L << i);
+    }
+
     /**
      * Toggles the ith bit of a number (0 to 1 or 1 to 0).
      *
@@ -71,6 +164,17 @@ public class BitUtils {
         return x ^ (1 << i);
     }
 
+    /**
+     * Toggles the ith bit of a number (0 to 1 or 1 to 0).
+     *
+     * @param x the number to modify
+     * @param i the index of the bit to toggle (0-based)
+     * @return the modified number with the ith bit toggled
+     */
+    public static long toggleBit(long x, int i) {
+        return x ^ (1L << i);
+    }
+
     /**
      * Returns the number with the lowest set bit (rightmost 1 bit) erased.
      *
@@ -81,6 +185,16 @@ public class BitUtils {
         return x & (x - 1);
     }
 
+    /**
+     * Returns the number with the lowest set bit (rightmost 1 bit) erased.
+     *
+     * @param x the number to modify
+     * @return the number with the lowest set bit erased
+     */
+    public static long eraseLowestSetBit(long x) {
+        return x & (x - 1);
+    }
+
     /**
      * Gets the value of the lowest set bit (rightmost 1 bit).
      *
@@ -91,6 +205,16 @@ public class BitUtils {
         return x & -x;
     }
 
+    /**
+     * Gets the value of the lowest set bit (rightmost 1 bit).
+     *
+     * @param x the number to check
+     * @return the value of the lowest set bit, or 0 if x is 0
+     */
+    public static long getLowestSetBit(long x) {
+        return x & -x;
+    }
+
     /**
      * Checks if a number has exactly one bit set (is a power of two).
      *
@@ -101,6 +225,16 @@ public class BitUtils {
         return x > 0 && (x & (x - 1)) == 0;
     }
 
+    /**
+     * Checks if a number has exactly one bit set (is a power of two).
+     *
+     * @param x the number to check
+     * @return true if x is a power of two, false otherwise
+     */
+    public static boolean hasExactlyOneBitSet(long x) {
+        return x > 0 && (x & (x - 1)) == 0;
+    }
+
     /**
      * Checks if a number has an odd number of set bits.
      *
@@ -108,7 +242,17 @@ public class BitUtils {
      * @return true if x has an odd number of set bits, false otherwise
      */
     public static boolean hasOddNumberOfSetBits(int x) {
-        return (countSetBits(x) % 2) != 0;
+        return parity(x) != 0;
+    }
+
+    /**
+     * Checks if a number has an odd number of set bits.
+     *
+     * @param x the number to check
+     * @return true if x has an odd number of set bits, false otherwise
+     */
+    public static boolean hasOddNumberOfSetBits(long x) {
+        return parity(x) != 0;
     }
 
     /**
@@ -118,12 +262,17 @@ public class BitUtils {
      * @return the parity of x (1 or 0)
      */
     public static int parity(int x) {
-        x ^= x >> 16;
-        x ^= x >> 8;
-        x ^= x >> 4;
-        x ^= x >> 2;
-        x ^= x >> 1;
-        return x & 1;
+        return Integer.bitCount(x) & 1;
+    }
+
+    /**
+     * Computes the parity of a number (1 if number of set bits is odd, 0 otherwise).
+     *
+     * @param x the number to compute parity for
+     * @return the parity of x (1 or 0)
+     */
+    public static int parity(long x) {
+        return Long.bitCount(x) & 1;
     }
 
     /**
@@ -145,14 +294,17 @@ public class BitUtils {
      * @return the integer with reversed bits
      */
     public static int reverseBits(int x) {
-        int result = 0;
-        int bitLength = 32; // Assuming integer is 32-bit
-        for (int i = 0; i < bitLength; i++) {
-            result <<= 1;
-            result |= (x & 1);
-            x >>>= 1;
-        }
-        return result;
+        return Integer.reverse(x);
+    }
+
+    /**
+     * Reverses the bits of a long.
+     *
+     * @param x the long to reverse bits for
+     * @return the long with reversed bits
+     */
+    public static long reverseBits(long x) {
+        return Long.reverse(x);
     }
 
     /**
@@ -186,7 +338,407 @@ public class BitUtils {
     }
 
     /**
-     * Generates all subsets of a set represented by a bitmask.
+     * Computes the integer logarithm base 2 (floor) of a positive long.
+     *
+     * @param x the long to compute the logarithm for
+     * @return the floor of the logarithm base 2 of x
+     */
+    public static int logBase2(long x) {
+        return 63 - Long.numberOfLeadingZeros(x);
+    }
+
+    /**
+     * Counts the set bits in all words of an array.
+     *
+     * @param words the words to count the bits of
+     * @return the number of set bits
+     */
+    public static long countSetBits(long[] words) {
+        return countSetBits(words, 0, words.length);
+    }
+
+    /**
+     * Counts the set bits in a range of words.
+     *
+     * @param words the words to count the bits of
+     * @param from  the first word, inclusive
+     * @param to    the last word, exclusive
+     * @return the number of set bits in {@code words[from, to)}
+     */
+    public static long countSetBits(long[] words, int from, int to) {
+        Objects.checkFromToIndex(from, to, words.length);
+        long count = 0;
+        for (int i = from; i < to; i++) {
+            count += Long.bitCount(words[i]);
+        }
+        return count;
+    }
+
+    /**
+     * Computes the parity of all set bits in a range of words.
+     *
+     * @param words the words to compute the parity for
+     * @param from  the first word, inclusive
+     * @param to    the last word, exclusive
+     * @return 1 if {@code words[from, to)} has an odd number of set bits, 0 otherwise
+     */
+    public static int parity(long[] words, int from, int to) {
+        Objects.checkFromToIndex(from, to, words.length);
+        // Bits cancel in pairs, so one popcount of the folded word is enough
+        long folded = 0;
+        for (int i = from; i < to; i++) {
+            folded ^= words[i];
+        }
+        return Long.bitCount(folded) & 1;
+    }
+
+    /**
+     * Reverses the order of the bits in a range of words in place, treating the range
+     * as one bit string with bit 0 of {@code words[from]} first.
+     *
+     * @param words the words to modify
+     * @param from  the first word, inclusive
+     * @param to    the last word, exclusive
+     */
+    public static void reverseBits(long[] words, int from, int to) {
+        Objects.checkFromToIndex(from, to, words.length);
+        for (int i = from, j = to - 1; i <= j; i++, j--) {
+            long low = words[i];
+            words[i] = Long.reverse(words[j]);
+            words[j] = Long.reverse(low);
+        }
+    }
+
+    /**
+     * Writes {@code a[i] & b[i]} to {@code destination[i]} for every word of the
+     * arrays.
+     *
+     * @param a           the first operand
+     * @param b           the second operand
+     * @param destination the result, which may be one of the operands
+     */
+    public static void and(long[] a, long[] b, long[] destination) {
+        and(a, b, destination, 0, sameLength(a, b, destination));
+    }
+
+    /**
+     * Writes {@code a[i] & b[i]} to {@code destination[i]} for every i in the range.
+     *
+     * @param a           the first operand
+     * @param b           the second operand
+     * @param destination the result, which may be one of the operands
+     * @param from        the first word, inclusive
+     * @param to          the last word, exclusive
+     */
+    public static void and(
+        long[] a,
+        long[] b,
+        long[] destination,
+        int from,
+        int to
+    ) {
+        checkRange(a, b, destination, from, to);
+        for (int i = from; i < to; i++) {
+            destination[i] = a[i] & b[i];
+        }
+    }
+
+    /**
+     * Writes {@code a[i] | b[i]} to {@code destination[i]} for every word of the
+     * arrays.
+     *
+     * @param a           the first operand
+     * @param b           the second operand
+     * @param destination the result, which may be one of the operands
+     */
+    public static void or(long[] a, long[] b, long[] destination) {
+        or(a, b, destination, 0, sameLength(a, b, destination));
+    }
+
+    /**
+     * Writes {@code a[i] | b[i]} to {@code destination[i]} for every i in the range.
+     *
+     * @param a           the first operand
+     * @param b           the second operand
+     * @param destination the result, which may be one of the operands
+     * @param from        the first word, inclusive
+     * @param to          the last word, exclusive
+     */
+    public static void or(
+        long[] a,
+        long[] b,
+        long[] destination,
+        int from,
+        int to
+    ) {
+        checkRange(a, b, destination, from, to);
+        for (int i = from; i < to; i++) {
+            destination[i] = a[i] | b[i];
+        }
+    }
+
+    /**
+     * Writes {@code a[i] ^ b[i]} to {@code destination[i]} for every word of the
+     * arrays.
+     *
+     * @param a           the first operand
+     * @param b           the second operand
+     * @param destination the result, which may be one of the operands
+     */
+    public static void xor(long[] a, long[] b, long[] destination) {
+        xor(a, b, destination, 0, sameLength(a, b, destination));
+    }
+
+    /**
+     * Writes {@code a[i] ^ b[i]} to {@code destination[i]} for every i in the range.
+     *
+     * @param a           the first operand
+     * @param b           the second operand
+     * @param destination the result, which may be one of the operands
+     * @param from        the first word, inclusive
+     * @param to          the last word, exclusive
+     */
+    public static void xor(
+        long[] a,
+        long[] b,
+        long[] destination,
+        int from,
+        int to
+    ) {
+        checkRange(a, b, destination, from, to);
+        for (int i = from; i < to; i++) {
+            destination[i] = a[i] ^ b[i];
+        }
+    }
+
+    /**
+     * Writes {@code a[i] & ~b[i]} to {@code destination[i]} for every word of the
+     * arrays.
+     *
+     * @param a           the first operand
+     * @param b           the bits to clear from a
+     * @param destination the result, which may be one of the operands
+     */
+    public static void andNot(long[] a, long[] b, long[] destination) {
+        andNot(a, b, destination, 0, sameLength(a, b, destination));
+    }
+
+    /**
+     * Writes {@code a[i] & ~b[i]} to {@code destination[i]} for every i in the range.
+     *
+     * @param a           the first operand
+     * @param b           the bits to clear from a
+     * @param destination the result, which may be one of the operands
+     * @param from        the first word, inclusive
+     * @param to          the last word, exclusive
+     */
+    public static void andNot(
+        long[] a,
+        long[] b,
+        long[] destination,
+        int from,
+        int to
+    ) {
+        checkRange(a, b, destination, from, to);
+        for (int i = from; i < to; i++) {
+            destination[i] = a[i] & ~b[i];
+        }
+    }
+
+    /**
+     * Counts the set bits in the remaining bytes of a buffer, eight bytes at a time.
+     * The position of the buffer is not changed.
+     *
+     * @param buffer the bytes to count the bits of
+     * @return the number of set bits between the position and the limit
+     */
+    public static long countSetBits(ByteBuffer buffer) {
+        int from = buffer.position();
+        int to = buffer.limit();
+        int wordsEnd = from + (to - from) / LONG_BYTES * LONG_BYTES;
+        long count = 0;
+        for (int i = from; i < wordsEnd; i += LONG_BYTES) {
+            count += Long.bitCount(buffer.getLong(i));
+        }
+        for (int i = wordsEnd; i < to; i++) {
+            count += Integer.bitCount(buffer.get(i) & 0xFF);
+        }
+        return count;
+    }
+
+    /**
+     * Computes the parity of the remaining bytes of a buffer. The position of the
+     * buffer is not changed.
+     *
+     * @param buffer the bytes to compute the parity for
+     * @return 1 if the bytes between the position and the limit have an odd number of
+     *         set bits, 0 otherwise
+     */
+    public static int parity(ByteBuffer buffer) {
+        int from = buffer.position();
+        int to = buffer.limit();
+        int wordsEnd = from + (to - from) / LONG_BYTES * LONG_BYTES;
+        long folded = 0;
+        for (int i = from; i < wordsEnd; i += LONG_BYTES) {
+            folded ^= buffer.getLong(i);
+        }
+        for (int i = wordsEnd; i < to; i++) {
+            folded ^= buffer.get(i);
+        }
+        return Long.bitCount(folded) & 1;
+    }
+
+    /**
+     * Writes the AND of the remaining bytes of two buffers to the remaining bytes of a
+     * destination. No position is changed.
+     *
+     * @param a           the first operand
+     * @param b           the second operand
+     * @param destination the result, which may be one of the operands
+     */
+    public static void and(ByteBuffer a, ByteBuffer b, ByteBuffer destination) {
+        combine(a, b, destination, AND);
+    }
+
+    /**
+     * Writes the OR of the remaining bytes of two buffers to the remaining bytes of a
+     * destination. No position is changed.
+     *
+     * @param a           the first operand
+     * @param b           the second operand
+     * @param destination the result, which may be one of the operands
+     */
+    public static void or(ByteBuffer a, ByteBuffer b, ByteBuffer destination) {
+        combine(a, b, destination, OR);
+    }
+
+    /**
+     * Writes the XOR of the remaining bytes of two buffers to the remaining bytes of a
+     * destination. No position is changed.
+     *
+     * @param a           the first operand
+     * @param b           the second operand
+     * @param destination the result, which may be one of the operands
+     */
+    public static void xor(ByteBuffer a, ByteBuffer b, ByteBuffer destination) {
+        combine(a, b, destination, XOR);
+    }
+
+    /**
+     * Writes the remaining bytes of a with the bits of b cleared to the remaining bytes
+     * of a destination. No position is changed.
+     *
+     * @param a           the first operand
+     * @param b           the bits to clear from a
+     * @param destination the result, which may be one of the operands
+     */
+    public static void andNot(ByteBuffer a, ByteBuffer b, ByteBuffer destination) {
+        combine(a, b, destination, AND_NOT);
+    }
+
+    /**
+     * Applies one of the operations word by word. The operation is switched on outside
+     * the loops, so each loop body stays a single instruction the JIT can unroll.
+     */
+    private static void combine(
+        ByteBuffer a,
+        ByteBuffer b,
+        ByteBuffer destination,
+        int operation
+    ) {
+        int length = a.remaining();
+        if (b.remaining() != length || destination.remaining() != length) {
+            throw new IllegalArgumentException(
+                "Buffers differ in length: " +
+                length +
+                ", " +
+                b.remaining() +
+                ", " +
+                destination.remaining()
+            );
+        }
+        // Words must be read and written in one byte order to line up byte by byte
+        ByteBuffer x = a.duplicate().order(ByteOrder.nativeOrder());
+        ByteBuffer y = b.duplicate().order(ByteOrder.nativeOrder());
+        ByteBuffer out = destination.duplicate().order(ByteOrder.nativeOrder());
+        int ax = a.position();
+        int by = b.position();
+        int dz = destination.position();
+        int words = length / LONG_BYTES * LONG_BYTES;
+        switch (operation) {
+            case AND:
+                for (int i = 0; i < words; i += LONG_BYTES) {
+                    out.putLong(dz + i, x.getLong(ax + i) & y.getLong(by + i));
+                }
+                break;
+            case OR:
+                for (int i = 0; i < words; i += LONG_BYTES) {
+                    out.putLong(dz + i, x.getLong(ax + i) | y.getLong(by + i));
+                }
+                break;
+            case XOR:
+                for (int i = 0; i < words; i += LONG_BYTES) {
+                    out.putLong(dz + i, x.getLong(ax + i) ^ y.getLong(by + i));
+                }
+                break;
+            default:
+                for (int i = 0; i < words; i += LONG_BYTES) {
+                    out.putLong(dz + i, x.getLong(ax + i) & ~y.getLong(by + i));
+                }
+        }
+        for (int i = words; i < length; i++) {
+            byte p = x.get(ax + i);
+            byte q = y.get(by + i);
+            int r;
+            switch (operation) {
+                case AND:
+                    r = p & q;
+                    break;
+                case OR:
+                    r = p | q;
+                    break;
+                case XOR:
+                    r = p ^ q;
+                    break;
+                default:
+                    r = p & ~q;
+            }
+            out.put(dz + i, (byte) r);
+        }
+    }
+
+    private static int sameLength(long[] a, long[] b, long[] destination) {
+        if (b.length != a.length || destination.length != a.length) {
+            throw new IllegalArgumentException(
+                "Arrays differ in length: " +
+                a.length +
+                ", " +
+                b.length +
+                ", " +
+                destination.length
+            );
+        }
+        return a.length;
+    }
+
+    /**
+     * Checks the range against every array once, so the loops need no bounds checks.
+     */
+    private static void checkRange(
+        long[] a,
+        long[] b,
+        long[] destination,
+        int from,
+        int to
+    ) {
+        Objects.checkFromToIndex(from, to, a.length);
+        Objects.checkFromToIndex(from, to, b.length);
+        Objects.checkFromToIndex(from, to, destination.length);
+    }
+
+    /**
+     * Generates all subsets of a set represented by a bitmask. The list holds all
+     * {@code 2^n} subsets at once; use {@link #subsets(int)} to enumerate large masks.
      *
      * @param bitmask the bitmask representing the set
      * @return a list of all subsets as bitmasks
@@ -204,6 +756,140 @@ public class BitUtils {
         return subsets;
     }
 
+    /**
+     * Lazily enumerates all subsets of a bitmask in ascending order of their unsigned
+     * value, from 0 to the mask itself. Nothing is allocated per subset, and the stream
+     * splits the subsets into equal halves, so {@code subsets(mask).parallel()} divides
+     * the work across cores.
+     *
+     * @param bitmask the bitmask representing the set
+     * @return a sequential stream of all {@code 2^bitCount(bitmask)} subsets
+     */
+    public static IntStream subsets(int bitmask) {
+        return subsets(Integer.toUnsignedLong(bitmask)).mapToInt(s -> (int) s);
+    }
+
+    /**
+     * Lazily enumerates all subsets of a bitmask in ascending order of their unsigned
+     * value, from 0 to the mask itself. The stream splits like {@link #subsets(int)}.
+     * Masks with more than 62 bits set have more subsets than a long can count, so
+     * their stream reports no exact size.
+     *
+     * @param bitmask the bitmask representing the set
+     * @return a sequential stream of all {@code 2^bitCount(bitmask)} subsets
+     */
+    public static LongStream subsets(long bitmask) {
+        return StreamSupport.longStream(subsetSpliterator(bitmask), false);
+    }
+
+    /**
+     * @param bitmask the bitmask representing the set
+     * @return an iterator over the subsets in the order of {@link #subsets(int)}
+     */
+    public static PrimitiveIterator.OfInt subsetIterator(int bitmask) {
+        return subsets(bitmask).iterator();
+    }
+
+    /**
+     * @param bitmask the bitmask representing the set
+     * @return an iterator over the subsets in the order of {@link #subsets(long)}
+     */
+    public static PrimitiveIterator.OfLong subsetIterator(long bitmask) {
+        return Spliterators.iterator(subsetSpliterator(bitmask));
+    }
+
+    private static Spliterator.OfLong subsetSpliterator(long bitmask) {
+        int bits = Long.bitCount(bitmask);
+        // The rank of the last subset, 2^bits - 1 as an unsigned long
+        long last = bits == Long.SIZE ? -1L : (1L << bits) - 1;
+        return new SubsetSpliterator(bitmask, 0, last);
+    }
+
+    /**
+     * Enumerates every k-of-n subset: the ints with exactly k of their lowest n bits
+     * set, in ascending unsigned order, with Gosper's hack. The stream splits by rank
+     * like {@link #subsets(int)}.
+     *
+     * @param n the number of bits to choose from, at most 32
+     * @param k the number of bits to set
+     * @return a sequential stream of all {@code C(n, k)} subsets
+     * @throws IllegalArgumentException if n or k is out of range
+     */
+    public static IntStream combinations(int n, int k) {
+        if (n > Integer.SIZE) {
+            throw new IllegalArgumentException("n must be at most 32: " + n);
+        }
+        return longCombinations(n, k).mapToInt(s -> (int) s);
+    }
+
+    /**
+     * Enumerates every k-of-n subset: the longs with exactly k of their lowest n bits
+     * set, in ascending unsigned order, with Gosper's hack. The stream splits by rank
+     * like {@link #subsets(int)}.
+     *
+     * @param n the number of bits to choose from, at most 64
+     * @param k the number of bits to set
+     * @return a sequential stream of all {@code C(n, k)} subsets
+     * @throws IllegalArgumentException if n or k is out of range
+     */
+    public static LongStream longCombinations(int n, int k) {
+        if (n < 0 || n > Long.SIZE || k < 0) {
+            throw new IllegalArgumentException(
+                "Invalid k-of-n subset: n=" + n + ", k=" + k
+            );
+        }
+        return StreamSupport.longStream(
+            new CombinationSpliterator(n, k, 0, binomial(n, k)),
+            false
+        );
+    }
+
+    /**
+     * Scatters the low bits of an index onto the set bits of a mask, lowest first, so
+     * index i gives the i-th subset of the mask in ascending order.
+     */
+    private static long deposit(long index, long mask) {
+        long result = 0;
+        for (long m = mask; index != 0 && m != 0; m &= m - 1, index >>>= 1) {
+            if ((index & 1) != 0) {
+                result |= m & -m;
+            }
+        }
+        return result;
+    }
+
+    private static long binomial(int n, int k) {
+        return k > n ? 0 : BINOMIAL[n][k];
+    }
+
+    /**
+     * The next larger long with the same number of set bits (Gosper's hack).
+     */
+    private static long nextCombination(long x) {
+        long lowest = x & -x;
+        long ripple = x + lowest;
+        return (((ripple ^ x) >>> 2) / lowest) | ripple;
+    }
+
+    /**
+     * The k-of-n subset of a given rank in ascending order, through the combinatorial
+     * number system: the rank is the sum of {@code C(c_i, i)} over the set bits
+     * {@code c_1 < ... < c_k}.
+     */
+    private static long unrankCombination(long rank, int n, int k) {
+        long result = 0;
+        int c = n - 1;
+        for (int i = k; i > 0; i--) {
+            while (binomial(c, i) > rank) {
+                c--;
+            }
+            result |= 1L << c;
+            rank -= binomial(c, i);
+            c--;
+        }
+        return result;
+    }
+
     /**
      * Example usage of the BitUtils class.
      */
@@ -259,4 +945,162 @@ public class BitUtils {
             "Subsets of bitmask " + x + ": " + generateSubsets(x)
         );
     }
+
+    /**
+     * Enumerates the subsets of a mask with ranks from {@code index} to {@code last},
+     * both inclusive and unsigned so that all {@code 2^64} subsets of a full mask fit.
+     * Splitting unranks the middle with {@link #deposit}; advancing adds one to the
+     * subset as if the bits outside the mask were set, which carries into the next
+     * mask bit.
+     */
+    private static class SubsetSpliterator implements Spliterator.OfLong {
+
+        private final long mask;
+        private final long last;
+        private long index;
+        private long next;
+        private boolean done;
+
+        SubsetSpliterator(long mask, long index, long last) {
+            this.mask = mask;
+            this.index = index;
+            this.last = last;
+            this.next = deposit(index, mask);
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            if (done) {
+                return false;
+            }
+            action.accept(next);
+            if (index == last) {
+                done = true;
+            } else {
+                index++;
+                next = ((next | ~mask) + 1) & mask;
+            }
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            if (done) {
+                return;
+            }
+            long subset = next;
+            for (long i = index; i != last; i++) {
+                action.accept(subset);
+                subset = ((subset | ~mask) + 1) & mask;
+            }
+            action.accept(subset);
+            index = last;
+            done = true;
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            if (done || index == last) {
+                return null;
+            }
+            long middle = index + ((last - index) >>> 1);
+            Spliterator.OfLong prefix = new SubsetSpliterator(mask, index, middle);
+            index = middle + 1;
+            next = deposit(index, mask);
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            if (done) {
+                return 0;
+            }
+            long size = last - index + 1;
+            // Wrapped around: more than Long.MAX_VALUE subsets are left
+            return size <= 0 ? Long.MAX_VALUE : size;
+        }
+
+        @Override
+        public int characteristics() {
+            int sized = Long.bitCount(mask) < Long.SIZE - 1
+                ? SIZED | SUBSIZED
+                : 0;
+            return ORDERED | DISTINCT | NONNULL | IMMUTABLE | sized;
+        }
+    }
+
+    /**
+     * Enumerates the k-of-n subsets with ranks in {@code [index, end)}. Splitting
+     * unranks the middle with {@link #unrankCombination}.
+     */
+    private static class CombinationSpliterator implements Spliterator.OfLong {
+
+        private final int n;
+        private final int k;
+        private final long end;
+        private long index;
+        private long next;
+
+        CombinationSpliterator(int n, int k, long index, long end) {
+            this.n = n;
+            this.k = k;
+            this.index = index;
+            this.end = end;
+            this.next = index < end ? unrankCombination(index, n, k) : 0;
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            if (index >= end) {
+                return false;
+            }
+            action.accept(next);
+            // The last subset has no successor below bit n, so it is never advanced
+            if (++index < end) {
+                next = nextCombination(next);
+            }
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            if (index >= end) {
+                return;
+            }
+            long subset = next;
+            for (long i = index + 1; i < end; i++) {
+                action.accept(subset);
+                subset = nextCombination(subset);
+            }
+            action.accept(subset);
+            index = end;
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            if (end - index < 2) {
+                return null;
+            }
+            long middle = index + (end - index) / 2;
+            Spliterator.OfLong prefix = new CombinationSpliterator(
+                n,
+                k,
+                index,
+                middle
+            );
+            index = middle;
+            next = unrankCombination(middle, n, k);
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | DISTINCT | NONNULL | IMMUTABLE | SIZED | SUBSIZED;
+        }
+    }
 }
@@ -0,0 +1,446 @@
+package com.demo.java_utilities;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * Vertex centrality measures on a {@link CsrGraph}, computed in parallel on a
+ * {@link ForkJoinPool}. Results are arrays indexed by vertex id.
+ * <p>
+ * {@link #pageRank} iterates in pull style: every vertex sums the shares of its
+ * in-neighbors from the reverse graph, so each thread writes only its own range of
+ * vertices and no atomics are needed. {@link #betweenness} and {@link #closeness} run
+ * one breadth-first or Dijkstra search per sampled source; the sources are split into a
+ * few batches per pool thread that each keep a {@link DijkstraWorkspace} and their own
+ * totals, which are added up at the end.
+ */
+public class Centrality {
+
+    public static final double DEFAULT_DAMPING = 0.85;
+    public static final double DEFAULT_TOLERANCE = 1e-9;
+    public static final int DEFAULT_MAX_ITERATIONS = 100;
+    private static final int GRAIN = 1024;
+
+    /**
+     * Compute PageRank with the default damping and tolerance on the common pool.
+     *
+     * @param graph the graph to rank
+     * @return the rank of every vertex, summing to 1
+     */
+    public static double[] pageRank(CsrGraph<?> graph) {
+        return pageRank(
+            graph,
+            DEFAULT_DAMPING,
+            DEFAULT_TOLERANCE,
+            DEFAULT_MAX_ITERATIONS,
+            ForkJoinPool.commonPool()
+        );
+    }
+
+    /**
+     * Compute PageRank. Edge weights are ignored; the rank of a vertex without
+     * outgoing edges is spread over all vertices.
+     *
+     * @param graph         the graph to rank
+     * @param damping       the probability of following an edge rather than jumping
+     * @param tolerance     stops once the ranks change by less than this in total
+     * @param maxIterations stops after this many iterations at the latest
+     * @param pool          the pool that runs the iterations
+     * @return the rank of every vertex, summing to 1
+     */
+    public static double[] pageRank(
+        CsrGraph<?> graph,
+        double damping,
+        double tolerance,
+        int maxIterations,
+        ForkJoinPool pool
+    ) {
+        if (!(damping >= 0 && damping < 1)) {
+            throw new IllegalArgumentException("Damping must be in [0, 1)");
+        }
+        if (maxIterations < 1) {
+            throw new IllegalArgumentException(
+                "At least one iteration is required"
+            );
+        }
+        int n = graph.vertexCount();
+        CsrGraph<?> reverse = graph.reverse();
+        double[] rank = new double[n];
+        double[] next = new double[n];
+        double[] share = new double[n];
+        Arrays.fill(rank, 1.0 / n);
+
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            double[] current = rank;
+            DoubleAdder dangling = new DoubleAdder();
+            pool.invoke(
+                new RangeTask(
+                    0,
+                    n,
+                    GRAIN,
+                    (lo, hi) -> {
+                        double lost = 0;
+                        for (int v = lo; v < hi; v++) {
+                            int degree = graph.outDegree(v);
+                            if (degree == 0) {
+                                share[v] = 0;
+                                lost += current[v];
+                            } else {
+                                share[v] = current[v] / degree;
+                            }
+                        }
+                        dangling.add(lost);
+                    }
+                )
+            );
+
+            double base = (1 - damping + damping * dangling.sum()) / n;
+            double[] updated = next;
+            DoubleAdder change = new DoubleAdder();
+            pool.invoke(
+                new RangeTask(
+                    0,
+                    n,
+                    GRAIN,
+                    (lo, hi) -> {
+                        double delta = 0;
+                        for (int v = lo; v < hi; v++) {
+                            double sum = 0;
+                            for (
+                                int e = reverse.firstEdge(v);
+                                e < reverse.endEdge(v);
+                                e++
+                            ) {
+                                sum += share[reverse.target(e)];
+                            }
+                            updated[v] = base + damping * sum;
+                            delta += Math.abs(updated[v] - current[v]);
+                        }
+                        change.add(delta);
+                    }
+                )
+            );
+
+            next = rank;
+            rank = updated;
+            if (change.sum() < tolerance) {
+                break;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Estimate weighted betweenness centrality from a sample of sources on the common
+     * pool, with a fixed seed.
+     *
+     * @param graph   the graph to measure
+     * @param samples the number of sources, all vertices if at least the vertex count
+     * @return the betweenness of every vertex
+     */
+    public static double[] betweenness(CsrGraph<?> graph, int samples) {
+        return betweenness(
+            graph,
+            samples,
+            true,
+            0L,
+            ForkJoinPool.commonPool()
+        );
+    }
+
+    /**
+     * Estimate betweenness centrality with Brandes' algorithm run from a random sample
+     * of sources; the sums are scaled by {@code vertexCount / samples}, so with every
+     * vertex as a source the result is exact. Pairs are ordered, so on a graph that
+     * holds both directions of every edge the values are twice the undirected
+     * convention. Weighted searches assume positive weights and count paths of exactly
+     * equal length.
+     *
+     * @param graph    the graph to measure
+     * @param samples  the number of sources, all vertices if at least the vertex count
+     * @param weighted whether path lengths are weight sums rather than hop counts
+     * @param seed     seed for the choice of sources
+     * @param pool     the pool that runs the searches
+     * @return the betweenness of every vertex
+     */
+    public static double[] betweenness(
+        CsrGraph<?> graph,
+        int samples,
+        boolean weighted,
+        long seed,
+        ForkJoinPool pool
+    ) {
+        int[] sources = sample(graph.vertexCount(), samples, seed);
+        Collection<Search> searches = run(
+            graph,
+            sources,
+            weighted,
+            pool,
+            Search::accumulateDependencies
+        );
+
+        double[] result = new double[graph.vertexCount()];
+        for (Search search : searches) {
+            for (int v = 0; v < result.length; v++) {
+                result[v] += search.total[v];
+            }
+        }
+        double scale = sources.length == 0
+            ? 0.0
+            : (double) graph.vertexCount() / sources.length;
+        for (int v = 0; v < result.length; v++) {
+            result[v] *= scale;
+        }
+        return result;
+    }
+
+    /**
+     * Estimate weighted closeness centrality from a sample of targets on the common
+     * pool, with a fixed seed.
+     *
+     * @param graph   the graph to measure
+     * @param samples the number of targets, all vertices if at least the vertex count
+     * @return the closeness of every vertex
+     */
+    public static double[] closeness(CsrGraph<?> graph, int samples) {
+        return closeness(graph, samples, true, 0L, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Estimate closeness centrality: the inverse of the mean distance from a vertex to
+     * the sampled targets it can reach. The searches run backwards from each target on
+     * the reverse graph. With every vertex as a target the result is the exact
+     * closeness within the reachable set of each vertex; a vertex that reaches no
+     * target has closeness 0.
+     *
+     * @param graph    the graph to measure
+     * @param samples  the number of targets, all vertices if at least the vertex count
+     * @param weighted whether path lengths are weight sums rather than hop counts
+     * @param seed     seed for the choice of targets
+     * @param pool     the pool that runs the searches
+     * @return the closeness of every vertex
+     */
+    public static double[] closeness(
+        CsrGraph<?> graph,
+        int samples,
+        boolean weighted,
+        long seed,
+        ForkJoinPool pool
+    ) {
+        int[] targets = sample(graph.vertexCount(), samples, seed);
+        Collection<Search> searches = run(
+            graph.reverse(),
+            targets,
+            weighted,
+            pool,
+            Search::accumulateDistances
+        );
+
+        int n = graph.vertexCount();
+        double[] distanceSum = new double[n];
+        int[] reached = new int[n];
+        for (Search search : searches) {
+            for (int v = 0; v < n; v++) {
+                distanceSum[v] += search.total[v];
+                reached[v] += search.hits[v];
+            }
+        }
+        double[] result = new double[n];
+        for (int v = 0; v < n; v++) {
+            if (distanceSum[v] > 0) {
+                result[v] = reached[v] / distanceSum[v];
+            }
+        }
+        return result;
+    }
+
+    private interface SearchSink {
+        void accept(Search search);
+    }
+
+    /**
+     * Runs one search per source, each batch of sources reusing one {@link Search}.
+     *
+     * @return the searches of all batches, holding their totals
+     */
+    private static Collection<Search> run(
+        CsrGraph<?> graph,
+        int[] sources,
+        boolean weighted,
+        ForkJoinPool pool,
+        SearchSink sink
+    ) {
+        Collection<Search> searches = new ConcurrentLinkedQueue<>();
+        // Each batch sums into its own search, and the caller adds up the searches
+        // collected here, so no totals are shared between threads
+        pool.invoke(
+            RangeTask.batched(
+                pool,
+                sources.length,
+                1,
+                (lo, hi) -> {
+                    Search search = new Search(graph, weighted);
+                    searches.add(search);
+                    for (int i = lo; i < hi; i++) {
+                        search.run(sources[i]);
+                        sink.accept(search);
+                    }
+                }
+            )
+        );
+        return searches;
+    }
+
+    /**
+     * Picks distinct vertices with a partial Fisher-Yates shuffle.
+     */
+    private static int[] sample(int n, int samples, long seed) {
+        if (samples < 1) {
+            throw new IllegalArgumentException(
+                "At least one sample is required"
+            );
+        }
+        int[] ids = new int[n];
+        for (int v = 0; v < n; v++) {
+            ids[v] = v;
+        }
+        if (samples >= n) {
+            return ids;
+        }
+        Random random = new Random(seed);
+        for (int i = 0; i < samples; i++) {
+            int j = i + random.nextInt(n - i);
+            int swap = ids[i];
+            ids[i] = ids[j];
+            ids[j] = swap;
+        }
+        return Arrays.copyOf(ids, samples);
+    }
+
+    /**
+     * State of one batch: a workspace for the distances, the settle order and path
+     * counts of the last search, and the totals of every search of the batch.
+     */
+    private static class Search {
+
+        private final CsrGraph<?> graph;
+        private final boolean weighted;
+        private final DijkstraWorkspace workspace;
+        private final int[] order;
+        private final double[] sigma;
+        private final double[] delta;
+        private final double[] total;
+        private int[] hits;
+        private int source;
+        private int count;
+
+        Search(CsrGraph<?> graph, boolean weighted) {
+            int n = graph.vertexCount();
+            this.graph = graph;
+            this.weighted = weighted;
+            this.workspace = graph.newWorkspace();
+            this.order = new int[n];
+            this.sigma = new double[n];
+            this.delta = new double[n];
+            this.total = new double[n];
+        }
+
+        /**
+         * Searches from source, recording the vertices in settle order and the number
+         * of shortest paths to each of them.
+         */
+        void run(int source) {
+            for (int i = 0; i < count; i++) {
+                sigma[order[i]] = 0;
+                delta[order[i]] = 0;
+            }
+            workspace.reset();
+            this.source = source;
+            this.count = 0;
+            double[] distance = workspace.distance;
+            workspace.update(source, 0.0, -1);
+            sigma[source] = 1;
+
+            if (weighted) {
+                IndexedDaryHeap heap = workspace.heap;
+                heap.insert(source, 0.0);
+                while (!heap.isEmpty()) {
+                    int current = heap.poll();
+                    order[count++] = current;
+                    relax(current, distance);
+                }
+            } else {
+                order[count++] = source;
+                for (int head = 0; head < count; head++) {
+                    relax(order[head], distance);
+                }
+            }
+        }
+
+        private void relax(int current, double[] distance) {
+            for (
+                int e = graph.firstEdge(current);
+                e < graph.endEdge(current);
+                e++
+            ) {
+                int next = graph.target(e);
+                double newDistance = distance[current] + length(e);
+                if (newDistance < distance[next]) {
+                    boolean reached = distance[next] != Double.POSITIVE_INFINITY;
+                    workspace.update(next, newDistance, current);
+                    sigma[next] = sigma[current];
+                    if (weighted) {
+                        workspace.heap.insertOrDecrease(next, newDistance);
+                    } else if (!reached) {
+                        order[count++] = next;
+                    }
+                } else if (newDistance == distance[next]) {
+                    sigma[next] += sigma[current];
+                }
+            }
+        }
+
+        private double length(int e) {
+            return weighted ? graph.weight(e) : 1.0;
+        }
+
+        /**
+         * Adds the dependency of the last source on every vertex, walking the settle
+         * order backwards so that each successor is final before its predecessors.
+         */
+        void accumulateDependencies() {
+            double[] distance = workspace.distance;
+            for (int i = count - 1; i >= 0; i--) {
+                int w = order[i];
+                for (int e = graph.firstEdge(w); e < graph.endEdge(w); e++) {
+                    int x = graph.target(e);
+                    if (x != w && distance[w] + length(e) == distance[x]) {
+                        delta[w] += (sigma[w] / sigma[x]) * (1 + delta[x]);
+                    }
+                }
+                if (w != source) {
+                    total[w] += delta[w];
+                }
+            }
+        }
+
+        /**
+         * Adds the distance from the last source to every other vertex it reached.
+         */
+        void accumulateDistances() {
+            if (hits == null) {
+                hits = new int[graph.vertexCount()];
+            }
+            double[] distance = workspace.distance;
+            for (int i = 1; i < count; i++) {
+                int v = order[i];
+                total[v] += distance[v];
+                hits[v]++;
+            }
+        }
+    }
+}
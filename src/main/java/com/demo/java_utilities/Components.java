@@ -0,0 +1,222 @@
+package com.demo.java_utilities;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Partition of the vertices of a {@link CsrGraph} into components, labelled with dense
+ * component ids in {@code [0, count())}.
+ * <p>
+ * {@link #weak(CsrGraph)} finds the connected components of the graph with every edge
+ * taken as undirected, uniting the endpoints of all edges in parallel in a
+ * {@link ConcurrentUnionFind}. {@link #strong(CsrGraph)} finds the strongly connected
+ * components with an iterative version of Tarjan's algorithm, so deep graphs cannot
+ * overflow the call stack.
+ *
+ * @param <V> the type of vertex in the graph
+ */
+public class Components<V> {
+
+    private static final int GRAIN = 1024;
+
+    private final CsrGraph<V> graph;
+    private final int[] component;
+    private final int[] sizes;
+
+    private Components(CsrGraph<V> graph, int[] component, int count) {
+        this.graph = graph;
+        this.component = component;
+        this.sizes = new int[count];
+        for (int c : component) {
+            sizes[c]++;
+        }
+    }
+
+    /**
+     * Find the weakly connected components on the common fork/join pool.
+     *
+     * @param graph the graph to partition
+     * @param <V>   the type of vertex in the graph
+     * @return the components, numbered by their smallest vertex id
+     */
+    public static <V> Components<V> weak(CsrGraph<V> graph) {
+        return weak(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Find the weakly connected components.
+     *
+     * @param graph the graph to partition
+     * @param pool  the pool that unites the edge endpoints
+     * @param <V>   the type of vertex in the graph
+     * @return the components, numbered by their smallest vertex id
+     */
+    public static <V> Components<V> weak(CsrGraph<V> graph, ForkJoinPool pool) {
+        int n = graph.vertexCount();
+        ConcurrentUnionFind sets = new ConcurrentUnionFind(n);
+        pool.invoke(
+            new RangeTask(
+                0,
+                n,
+                GRAIN,
+                (lo, hi) -> {
+                    for (int v = lo; v < hi; v++) {
+                        for (
+                            int e = graph.firstEdge(v);
+                            e < graph.endEdge(v);
+                            e++
+                        ) {
+                            sets.union(v, graph.target(e));
+                        }
+                    }
+                }
+            )
+        );
+
+        // Roots are the smallest member of their set, so they are labelled first
+        int[] component = new int[n];
+        int count = 0;
+        for (int v = 0; v < n; v++) {
+            int root = sets.find(v);
+            component[v] = root == v ? count++ : component[root];
+        }
+        return new Components<>(graph, component, count);
+    }
+
+    /**
+     * Find the strongly connected components with Tarjan's algorithm, using explicit
+     * stacks instead of recursion.
+     *
+     * @param graph the graph to partition
+     * @param <V>   the type of vertex in the graph
+     * @return the components, numbered in reverse topological order of the condensation:
+     *         every edge between components leads to a smaller component id
+     */
+    public static <V> Components<V> strong(CsrGraph<V> graph) {
+        int n = graph.vertexCount();
+        int[] index = new int[n];
+        int[] lowLink = new int[n];
+        int[] component = new int[n];
+        int[] sccStack = new int[n];
+        int[] callVertex = new int[n];
+        int[] callEdge = new int[n];
+        boolean[] onStack = new boolean[n];
+        int nextIndex = 1; // 0 marks unvisited vertices
+        int sccTop = 0;
+        int count = 0;
+
+        for (int root = 0; root < n; root++) {
+            if (index[root] != 0) {
+                continue;
+            }
+            int depth = 0;
+            index[root] = lowLink[root] = nextIndex++;
+            sccStack[sccTop++] = root;
+            onStack[root] = true;
+            callVertex[depth] = root;
+            callEdge[depth++] = graph.firstEdge(root);
+
+            while (depth > 0) {
+                int v = callVertex[depth - 1];
+                int e = callEdge[depth - 1];
+                if (e < graph.endEdge(v)) {
+                    callEdge[depth - 1] = e + 1;
+                    int w = graph.target(e);
+                    if (index[w] == 0) {
+                        index[w] = lowLink[w] = nextIndex++;
+                        sccStack[sccTop++] = w;
+                        onStack[w] = true;
+                        callVertex[depth] = w;
+                        callEdge[depth++] = graph.firstEdge(w);
+                    } else if (onStack[w]) {
+                        lowLink[v] = Math.min(lowLink[v], index[w]);
+                    }
+                    continue;
+                }
+
+                // All edges of v are done: pop it and close the component at its root
+                depth--;
+                if (lowLink[v] == index[v]) {
+                    int w;
+                    do {
+                        w = sccStack[--sccTop];
+                        onStack[w] = false;
+                        component[w] = count;
+                    } while (w != v);
+                    count++;
+                }
+                if (depth > 0) {
+                    int caller = callVertex[depth - 1];
+                    lowLink[caller] = Math.min(lowLink[caller], lowLink[v]);
+                }
+            }
+        }
+        return new Components<>(graph, component, count);
+    }
+
+    /**
+     * @return the number of components
+     */
+    public int count() {
+        return sizes.length;
+    }
+
+    /**
+     * @param v the vertex id
+     * @return the id of the component holding v
+     */
+    public int component(int v) {
+        return component[v];
+    }
+
+    /**
+     * @param vertex a vertex of the graph
+     * @return the id of the component holding the vertex
+     */
+    public int componentOf(V vertex) {
+        return component[graph.requireId(vertex)];
+    }
+
+    /**
+     * @param c the component id
+     * @return the number of vertices in component c
+     */
+    public int size(int c) {
+        return sizes[c];
+    }
+
+    /**
+     * @return the size of the largest component, 0 for an empty graph
+     */
+    public int largestSize() {
+        int largest = 0;
+        for (int size : sizes) {
+            largest = Math.max(largest, size);
+        }
+        return largest;
+    }
+
+    /**
+     * @return the component id of every vertex, indexed by vertex id
+     */
+    public int[] labels() {
+        return component.clone();
+    }
+
+    /**
+     * Groups the vertices by component.
+     *
+     * @return one list of vertices per component id
+     */
+    public List<List<V>> groups() {
+        List<List<V>> groups = new ArrayList<>(sizes.length);
+        for (int size : sizes) {
+            groups.add(new ArrayList<>(size));
+        }
+        for (int v = 0; v < component.length; v++) {
+            groups.get(component[v]).add(graph.vertexAt(v));
+        }
+        return groups;
+    }
+}
@@ -0,0 +1,1220 @@
+package com.demo.java_utilities;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Compressed set of 32-bit ints in the style of Roaring bitmaps. Values are split into
+ * chunks of 65536 by their high 16 bits, and each chunk is stored in whichever of three
+ * containers suits its content:
+ * <ul>
+ *   <li>an array container: the sorted low 16 bits, 2 bytes per value, for at most
+ *       4096 values;</li>
+ *   <li>a bitmap container: 1024 words with one bit per possible value, 8 KiB;</li>
+ *   <li>a run container: sorted (start, length) pairs of consecutive values, 4 bytes
+ *       per run, created by {@link #addRange} and {@link #runOptimize()}.</li>
+ * </ul>
+ * A sparse set of ids thus takes a little over 2 bytes per value instead of the 50 or
+ * so of a {@code HashSet<Integer>}. Union, intersection and difference work chunk by
+ * chunk; two bitmap containers are combined a word at a time with the bulk kernels of
+ * {@link BitUtils}, and run containers are expanded first.
+ * <p>
+ * Values are ordered as unsigned ints, so negative values come after all positive ones.
+ * Not thread-safe, and the set must not be modified while it is iterated.
+ */
+public class CompressedBitmap {
+
+    private static final int MAGIC = 0x43424D31; // "CBM1"
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1024;
+    private static final int CHUNK_MASK = 0xFFFF;
+    private static final byte ARRAY = 0;
+    private static final byte BITMAP = 1;
+    private static final byte RUN = 2;
+
+    private char[] keys;
+    private Container[] containers;
+    private int size;
+
+    /**
+     * Creates an empty set.
+     */
+    public CompressedBitmap() {
+        this.keys = new char[4];
+        this.containers = new Container[4];
+    }
+
+    /**
+     * @param values the values of the set, in any order and with duplicates
+     * @return a set of the values
+     */
+    public static CompressedBitmap of(int... values) {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (int value : values) {
+            bitmap.add(value);
+        }
+        return bitmap;
+    }
+
+    /**
+     * @param value the value to look up
+     * @return whether the set contains the value
+     */
+    public boolean contains(int value) {
+        int index = indexOf(value >>> 16);
+        return index >= 0 && containers[index].contains(value & CHUNK_MASK);
+    }
+
+    /**
+     * @param value the value to add
+     * @return whether the value was not yet in the set
+     */
+    public boolean add(int value) {
+        int key = value >>> 16;
+        int low = value & CHUNK_MASK;
+        int index = indexOf(key);
+        if (index < 0) {
+            ArrayContainer container = new ArrayContainer(new char[4], 0);
+            insert(-index - 1, key, container.add(low));
+            return true;
+        }
+        Container container = containers[index];
+        if (container.contains(low)) {
+            return false;
+        }
+        containers[index] = container.add(low);
+        return true;
+    }
+
+    /**
+     * @param value the value to remove
+     * @return whether the value was in the set
+     */
+    public boolean remove(int value) {
+        int index = indexOf(value >>> 16);
+        int low = value & CHUNK_MASK;
+        if (index < 0 || !containers[index].contains(low)) {
+            return false;
+        }
+        Container container = containers[index].remove(low);
+        if (container.cardinality() == 0) {
+            delete(index);
+        } else {
+            containers[index] = container;
+        }
+        return true;
+    }
+
+    /**
+     * Add every value of a range. Chunks without values get a single run.
+     *
+     * @param from the first value to add, as an unsigned int
+     * @param to   the value after the last one to add, at most {@code 2^32}
+     * @throws IllegalArgumentException if the range is not within {@code [0, 2^32]}
+     */
+    public void addRange(long from, long to) {
+        if (from < 0 || from > to || to > 1L << 32) {
+            throw new IllegalArgumentException(
+                "Invalid range [" + from + ", " + to + ")"
+            );
+        }
+        if (from == to) {
+            return;
+        }
+        int firstKey = (int) (from >>> 16);
+        int lastKey = (int) ((to - 1) >>> 16);
+        for (int key = firstKey; key <= lastKey; key++) {
+            int start = key == firstKey ? (int) from & CHUNK_MASK : 0;
+            int end = key == lastKey ? (int) (to - 1) & CHUNK_MASK : CHUNK_MASK;
+            RunContainer run = new RunContainer(
+                new char[] { (char) start, (char) (end - start) },
+                1
+            );
+            int index = indexOf(key);
+            if (index < 0) {
+                insert(-index - 1, key, run);
+            } else {
+                containers[index] = or(containers[index], run);
+            }
+        }
+    }
+
+    /**
+     * @return the number of values in the set
+     */
+    public long cardinality() {
+        long cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    /**
+     * @return whether the set has no values
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Convert every container to run, array or bitmap form, whichever is smallest.
+     * Worth calling once a set with long runs of consecutive values is complete.
+     */
+    public void runOptimize() {
+        for (int i = 0; i < size; i++) {
+            containers[i] = containers[i].optimize();
+        }
+    }
+
+    /**
+     * @param a the first set
+     * @param b the second set
+     * @return a new set with the values in both sets
+     */
+    public static CompressedBitmap and(CompressedBitmap a, CompressedBitmap b) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            int compare = Character.compare(a.keys[i], b.keys[j]);
+            if (compare < 0) {
+                i++;
+            } else if (compare > 0) {
+                j++;
+            } else {
+                result.append(a.keys[i], and(a.containers[i], b.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param a the first set
+     * @param b the second set
+     * @return a new set with the values in either set
+     */
+    public static CompressedBitmap or(CompressedBitmap a, CompressedBitmap b) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.size || j < b.size) {
+            int compare = i == a.size
+                ? 1
+                : j == b.size ? -1 : Character.compare(a.keys[i], b.keys[j]);
+            if (compare < 0) {
+                result.append(a.keys[i], a.containers[i].copy());
+                i++;
+            } else if (compare > 0) {
+                result.append(b.keys[j], b.containers[j].copy());
+                j++;
+            } else {
+                result.append(a.keys[i], or(a.containers[i], b.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param a the set to take values from
+     * @param b the values to leave out
+     * @return a new set with the values of a that are not in b
+     */
+    public static CompressedBitmap andNot(CompressedBitmap a, CompressedBitmap b) {
+        CompressedBitmap result = new CompressedBitmap();
+        int j = 0;
+        for (int i = 0; i < a.size; i++) {
+            while (j < b.size && b.keys[j] < a.keys[i]) {
+                j++;
+            }
+            if (j < b.size && b.keys[j] == a.keys[i]) {
+                result.append(a.keys[i], andNot(a.containers[i], b.containers[j]));
+            } else {
+                result.append(a.keys[i], a.containers[i].copy());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Pass every value to an action, in ascending unsigned order. Faster than the
+     * iterator, which has to find its place again for every value.
+     *
+     * @param action the action to run for each value
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            containers[i].forEach(keys[i] << 16, action);
+        }
+    }
+
+    /**
+     * @return an iterator over the values in ascending unsigned order
+     */
+    public PrimitiveIterator.OfInt iterator() {
+        return new BitmapIterator();
+    }
+
+    /**
+     * @return a sequential stream of the values in ascending unsigned order
+     */
+    public IntStream stream() {
+        return StreamSupport.intStream(
+            Spliterators.spliterator(
+                iterator(),
+                cardinality(),
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL
+            ),
+            false
+        );
+    }
+
+    /**
+     * @return the values in ascending unsigned order
+     * @throws IllegalStateException if there are too many values for an array
+     */
+    public int[] toArray() {
+        long cardinality = cardinality();
+        if (cardinality > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException(
+                "Too many values for an array: " + cardinality
+            );
+        }
+        int[] values = new int[(int) cardinality];
+        int[] position = new int[1];
+        forEach(value -> values[position[0]++] = value);
+        return values;
+    }
+
+    /**
+     * @return the number of bytes {@link #write(OutputStream)} produces
+     */
+    public long serializedSizeInBytes() {
+        long bytes = 2 * Integer.BYTES;
+        for (int i = 0; i < size; i++) {
+            bytes += Character.BYTES + 1 + containers[i].serializedBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Serialize the set; every container is written in its current form, so call
+     * {@link #runOptimize()} first for the most compact result.
+     *
+     * @param out the stream to write to; it is flushed but not closed
+     * @throws IOException if writing fails
+     */
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(
+            new BufferedOutputStream(out)
+        );
+        data.writeInt(MAGIC);
+        data.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            data.writeChar(keys[i]);
+            containers[i].write(data);
+        }
+        data.flush();
+    }
+
+    /**
+     * Read a set written by {@link #write(OutputStream)}. Only the bytes of the set are
+     * consumed, so sets written one after another can be read back the same way; pass
+     * a buffered stream, since the set is read a few bytes at a time.
+     *
+     * @param in the stream to read from; it is not closed
+     * @return the set
+     * @throws IOException if reading fails or the data is not a serialized bitmap
+     */
+    public static CompressedBitmap read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a serialized compressed bitmap");
+        }
+        int count = data.readInt();
+        CompressedBitmap bitmap = new CompressedBitmap();
+        int previous = -1;
+        for (int i = 0; i < count; i++) {
+            char key = data.readChar();
+            if (key <= previous) {
+                throw new IOException("Corrupt compressed bitmap");
+            }
+            bitmap.insert(i, key, readContainer(data));
+            previous = key;
+        }
+        return bitmap;
+    }
+
+    /**
+     * Reads one container and checks the invariants the other methods rely on: values
+     * and runs sorted and apart, and no container empty or in a form it cannot have.
+     */
+    private static Container readContainer(DataInputStream data)
+        throws IOException {
+        byte type = data.readByte();
+        int count = data.readInt();
+        switch (type) {
+            case ARRAY: {
+                if (count < 1 || count > ARRAY_MAX) {
+                    throw new IOException("Corrupt compressed bitmap");
+                }
+                char[] values = new char[count];
+                for (int i = 0; i < count; i++) {
+                    values[i] = data.readChar();
+                    if (i > 0 && values[i] <= values[i - 1]) {
+                        throw new IOException("Corrupt compressed bitmap");
+                    }
+                }
+                return new ArrayContainer(values, count);
+            }
+            case BITMAP: {
+                long[] words = new long[BITMAP_WORDS];
+                for (int i = 0; i < BITMAP_WORDS; i++) {
+                    words[i] = data.readLong();
+                }
+                if (
+                    count <= ARRAY_MAX || BitUtils.countSetBits(words) != count
+                ) {
+                    throw new IOException("Corrupt compressed bitmap");
+                }
+                return new BitmapContainer(words, count);
+            }
+            case RUN: {
+                if (count < 1 || count > (CHUNK_MASK + 2) / 2) {
+                    throw new IOException("Corrupt compressed bitmap");
+                }
+                char[] runs = new char[2 * count];
+                int end = -2;
+                for (int i = 0; i < runs.length; i += 2) {
+                    runs[i] = data.readChar();
+                    runs[i + 1] = data.readChar();
+                    if (runs[i] <= end + 1 || runs[i] + runs[i + 1] > CHUNK_MASK) {
+                        throw new IOException("Corrupt compressed bitmap");
+                    }
+                    end = runs[i] + runs[i + 1];
+                }
+                return new RunContainer(runs, count);
+            }
+            default:
+                throw new IOException("Unknown container type " + type);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CompressedBitmap)) {
+            return false;
+        }
+        CompressedBitmap other = (CompressedBitmap) o;
+        if (size != other.size) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            int cardinality = containers[i].cardinality();
+            if (
+                keys[i] != other.keys[i] ||
+                other.containers[i].cardinality() != cardinality ||
+                and(containers[i], other.containers[i]).cardinality() != cardinality
+            ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        PrimitiveIterator.OfInt values = iterator();
+        while (values.hasNext()) {
+            hash = 31 * hash + values.nextInt();
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return (
+            "CompressedBitmap{cardinality=" +
+            cardinality() +
+            ", containers=" +
+            size +
+            ", bytes=" +
+            serializedSizeInBytes() +
+            '}'
+        );
+    }
+
+    /**
+     * @return the index of the container for a key, or {@code -(insertion point) - 1}
+     */
+    private int indexOf(int key) {
+        return Arrays.binarySearch(keys, 0, size, (char) key);
+    }
+
+    private void insert(int index, int key, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, 2 * size);
+            containers = Arrays.copyOf(containers, 2 * size);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = (char) key;
+        containers[index] = container;
+        size++;
+    }
+
+    private void delete(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+        containers[--size] = null;
+    }
+
+    /**
+     * Adds a container after all others, dropping it if it is empty.
+     */
+    private void append(int key, Container container) {
+        if (container.cardinality() > 0) {
+            insert(size, key, container);
+        }
+    }
+
+    /**
+     * Run containers take part in set operations as an array or bitmap.
+     */
+    private static Container dense(Container container) {
+        return container instanceof RunContainer
+            ? ((RunContainer) container).toDense()
+            : container;
+    }
+
+    private static Container and(Container a, Container b) {
+        a = dense(a);
+        b = dense(b);
+        if (a instanceof ArrayContainer) {
+            return b instanceof ArrayContainer
+                ? ((ArrayContainer) a).merge((ArrayContainer) b, true, false)
+                : ((ArrayContainer) a).filter((BitmapContainer) b, true);
+        }
+        if (b instanceof ArrayContainer) {
+            return ((ArrayContainer) b).filter((BitmapContainer) a, true);
+        }
+        long[] words = new long[BITMAP_WORDS];
+        BitUtils.and(
+            ((BitmapContainer) a).words,
+            ((BitmapContainer) b).words,
+            words
+        );
+        return BitmapContainer.normalized(words);
+    }
+
+    private static Container or(Container a, Container b) {
+        a = dense(a);
+        b = dense(b);
+        if (a instanceof ArrayContainer && b instanceof ArrayContainer) {
+            ArrayContainer x = (ArrayContainer) a;
+            ArrayContainer y = (ArrayContainer) b;
+            if (x.size + y.size <= ARRAY_MAX) {
+                return x.merge(y, true, true);
+            }
+            BitmapContainer bitmap = x.toBitmap();
+            y.setAll(bitmap.words);
+            return BitmapContainer.normalized(bitmap.words);
+        }
+        if (a instanceof ArrayContainer || b instanceof ArrayContainer) {
+            ArrayContainer array = (ArrayContainer) (
+                a instanceof ArrayContainer ? a : b
+            );
+            BitmapContainer bitmap = (BitmapContainer) (a == array ? b : a);
+            long[] words = bitmap.words.clone();
+            array.setAll(words);
+            return BitmapContainer.normalized(words);
+        }
+        long[] words = new long[BITMAP_WORDS];
+        BitUtils.or(
+            ((BitmapContainer) a).words,
+            ((BitmapContainer) b).words,
+            words
+        );
+        return BitmapContainer.normalized(words);
+    }
+
+    private static Container andNot(Container a, Container b) {
+        a = dense(a);
+        b = dense(b);
+        if (a instanceof ArrayContainer) {
+            return b instanceof ArrayContainer
+                ? ((ArrayContainer) a).merge((ArrayContainer) b, false, false)
+                : ((ArrayContainer) a).filter((BitmapContainer) b, false);
+        }
+        long[] words;
+        if (b instanceof ArrayContainer) {
+            words = ((BitmapContainer) a).words.clone();
+            ((ArrayContainer) b).clearAll(words);
+        } else {
+            words = new long[BITMAP_WORDS];
+            BitUtils.andNot(
+                ((BitmapContainer) a).words,
+                ((BitmapContainer) b).words,
+                words
+            );
+        }
+        return BitmapContainer.normalized(words);
+    }
+
+    /**
+     * Sets the bits {@code [from, to)} of a bitmap, a word at a time.
+     */
+    private static void setRange(long[] words, int from, int to) {
+        if (from >= to) {
+            return;
+        }
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (first == last) {
+            words[first] |= firstMask & lastMask;
+            return;
+        }
+        words[first] |= firstMask;
+        Arrays.fill(words, first + 1, last, -1L);
+        words[last] |= lastMask;
+    }
+
+    /**
+     * The values of one chunk, by their low 16 bits.
+     */
+    private abstract static class Container {
+
+        abstract boolean contains(int low);
+
+        /**
+         * @return this container with the value added, or a replacement
+         */
+        abstract Container add(int low);
+
+        /**
+         * @return this container with the value removed, or a replacement
+         */
+        abstract Container remove(int low);
+
+        abstract int cardinality();
+
+        /**
+         * @return the smallest value that is at least low, or -1 if there is none
+         */
+        abstract int nextValue(int low);
+
+        abstract void forEach(int high, IntConsumer action);
+
+        abstract BitmapContainer toBitmap();
+
+        abstract int serializedBytes();
+
+        abstract void write(DataOutputStream out) throws IOException;
+
+        abstract Container copy();
+
+        /**
+         * @return the number of runs of consecutive values
+         */
+        abstract int runCount();
+
+        /**
+         * @return the container in the smallest of the three forms
+         */
+        Container optimize() {
+            int cardinality = cardinality();
+            int runBytes = 2 * Character.BYTES * runCount();
+            int denseBytes = cardinality <= ARRAY_MAX
+                ? Character.BYTES * cardinality
+                : BITMAP_WORDS * Long.BYTES;
+            if (runBytes < denseBytes) {
+                return this instanceof RunContainer ? this : toRuns();
+            }
+            if (cardinality <= ARRAY_MAX) {
+                return this instanceof ArrayContainer ? this : toBitmap().toArray();
+            }
+            return this instanceof BitmapContainer ? this : toBitmap();
+        }
+
+        RunContainer toRuns() {
+            char[] runs = new char[2 * runCount()];
+            int[] count = new int[1];
+            int[] end = { -2 };
+            forEach(
+                0,
+                value -> {
+                    if (value == end[0] + 1) {
+                        runs[2 * count[0] - 1]++;
+                    } else {
+                        runs[2 * count[0]] = (char) value;
+                        count[0]++;
+                    }
+                    end[0] = value;
+                }
+            );
+            return new RunContainer(runs, count[0]);
+        }
+    }
+
+    /**
+     * Up to {@link #ARRAY_MAX} values as a sorted array of their low bits.
+     */
+    private static class ArrayContainer extends Container {
+
+        private char[] values;
+        private int size;
+
+        ArrayContainer(char[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        @Override
+        boolean contains(int low) {
+            return Arrays.binarySearch(values, 0, size, (char) low) >= 0;
+        }
+
+        @Override
+        Container add(int low) {
+            int index = Arrays.binarySearch(values, 0, size, (char) low);
+            if (index >= 0) {
+                return this;
+            }
+            if (size == ARRAY_MAX) {
+                BitmapContainer bitmap = toBitmap();
+                return bitmap.add(low);
+            }
+            index = -index - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, 2 * size));
+            }
+            System.arraycopy(values, index, values, index + 1, size - index);
+            values[index] = (char) low;
+            size++;
+            return this;
+        }
+
+        @Override
+        Container remove(int low) {
+            int index = Arrays.binarySearch(values, 0, size, (char) low);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, size - index - 1);
+                size--;
+            }
+            return this;
+        }
+
+        @Override
+        int cardinality() {
+            return size;
+        }
+
+        @Override
+        int nextValue(int low) {
+            int index = Arrays.binarySearch(values, 0, size, (char) low);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            return index < size ? values[index] : -1;
+        }
+
+        @Override
+        void forEach(int high, IntConsumer action) {
+            for (int i = 0; i < size; i++) {
+                action.accept(high | values[i]);
+            }
+        }
+
+        @Override
+        BitmapContainer toBitmap() {
+            long[] words = new long[BITMAP_WORDS];
+            setAll(words);
+            return new BitmapContainer(words, size);
+        }
+
+        @Override
+        int serializedBytes() {
+            return Integer.BYTES + Character.BYTES * size;
+        }
+
+        @Override
+        void write(DataOutputStream out) throws IOException {
+            out.writeByte(ARRAY);
+            out.writeInt(size);
+            for (int i = 0; i < size; i++) {
+                out.writeChar(values[i]);
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, size), size);
+        }
+
+        @Override
+        int runCount() {
+            int runs = 0;
+            for (int i = 0; i < size; i++) {
+                if (i == 0 || values[i] != values[i - 1] + 1) {
+                    runs++;
+                }
+            }
+            return runs;
+        }
+
+        void setAll(long[] words) {
+            for (int i = 0; i < size; i++) {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+        }
+
+        void clearAll(long[] words) {
+            for (int i = 0; i < size; i++) {
+                words[values[i] >>> 6] &= ~(1L << values[i]);
+            }
+        }
+
+        /**
+         * @param keep whether to keep the values that are in the bitmap, or the others
+         */
+        ArrayContainer filter(BitmapContainer bitmap, boolean keep) {
+            char[] result = new char[size];
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (bitmap.contains(values[i]) == keep) {
+                    result[count++] = values[i];
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+
+        /**
+         * Merges two sorted arrays. Values only here are kept unless
+         * {@code inBoth}, values in both are kept if {@code inBoth}, and values only
+         * in the other array are kept if {@code inOther}: intersection, difference and
+         * union are {@code (true, false)}, {@code (false, false)} and
+         * {@code (true, true)}.
+         */
+        ArrayContainer merge(ArrayContainer other, boolean inBoth, boolean inOther) {
+            char[] result = new char[inOther ? size + other.size : size];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < size && j < other.size) {
+                if (values[i] < other.values[j]) {
+                    if (!inBoth || inOther) {
+                        result[count++] = values[i];
+                    }
+                    i++;
+                } else if (values[i] > other.values[j]) {
+                    if (inOther) {
+                        result[count++] = other.values[j];
+                    }
+                    j++;
+                } else {
+                    if (inBoth) {
+                        result[count++] = values[i];
+                    }
+                    i++;
+                    j++;
+                }
+            }
+            if (!inBoth || inOther) {
+                while (i < size) {
+                    result[count++] = values[i++];
+                }
+            }
+            if (inOther) {
+                while (j < other.size) {
+                    result[count++] = other.values[j++];
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+    }
+
+    /**
+     * One bit for each of the 65536 possible values.
+     */
+    private static class BitmapContainer extends Container {
+
+        private final long[] words;
+        private int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        /**
+         * @return the words as a bitmap container, or as an array container if there
+         *         are few enough values
+         */
+        static Container normalized(long[] words) {
+            BitmapContainer bitmap = new BitmapContainer(
+                words,
+                (int) BitUtils.countSetBits(words)
+            );
+            return bitmap.cardinality <= ARRAY_MAX ? bitmap.toArray() : bitmap;
+        }
+
+        @Override
+        boolean contains(int low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        Container add(int low) {
+            long before = words[low >>> 6];
+            words[low >>> 6] = before | (1L << low);
+            if (words[low >>> 6] != before) {
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(int low) {
+            long before = words[low >>> 6];
+            words[low >>> 6] = before & ~(1L << low);
+            if (words[low >>> 6] != before) {
+                cardinality--;
+            }
+            return cardinality <= ARRAY_MAX ? toArray() : this;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        int nextValue(int low) {
+            int index = low >>> 6;
+            long word = words[index] & (-1L << low);
+            while (word == 0) {
+                if (++index == BITMAP_WORDS) {
+                    return -1;
+                }
+                word = words[index];
+            }
+            return (index << 6) + Long.numberOfTrailingZeros(word);
+        }
+
+        @Override
+        void forEach(int high, IntConsumer action) {
+            for (int index = 0; index < BITMAP_WORDS; index++) {
+                for (long word = words[index]; word != 0; ) {
+                    action.accept(
+                        high | (index << 6) + Long.numberOfTrailingZeros(word)
+                    );
+                    word = BitUtils.eraseLowestSetBit(word);
+                }
+            }
+        }
+
+        @Override
+        BitmapContainer toBitmap() {
+            return this;
+        }
+
+        ArrayContainer toArray() {
+            char[] values = new char[cardinality];
+            int count = 0;
+            for (int index = 0; index < BITMAP_WORDS; index++) {
+                for (long word = words[index]; word != 0; ) {
+                    values[count++] = (char) (
+                        (index << 6) + Long.numberOfTrailingZeros(word)
+                    );
+                    word = BitUtils.eraseLowestSetBit(word);
+                }
+            }
+            return new ArrayContainer(values, count);
+        }
+
+        @Override
+        int serializedBytes() {
+            return Integer.BYTES + Long.BYTES * BITMAP_WORDS;
+        }
+
+        @Override
+        void write(DataOutputStream out) throws IOException {
+            out.writeByte(BITMAP);
+            out.writeInt(cardinality);
+            for (long word : words) {
+                out.writeLong(word);
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        int runCount() {
+            int runs = 0;
+            long previous = 0;
+            for (long word : words) {
+                // A run starts at every set bit whose lower neighbor is clear
+                runs += Long.bitCount(word & ~((word << 1) | (previous >>> 63)));
+                previous = word;
+            }
+            return runs;
+        }
+    }
+
+    /**
+     * Runs of consecutive values as (start, length - 1) pairs sorted by start, never
+     * touching or overlapping.
+     */
+    private static class RunContainer extends Container {
+
+        private char[] runs;
+        private int count;
+        private int cardinality;
+
+        RunContainer(char[] runs, int count) {
+            this.runs = runs;
+            this.count = count;
+            for (int i = 0; i < count; i++) {
+                cardinality += length(i) + 1;
+            }
+        }
+
+        private int start(int run) {
+            return runs[2 * run];
+        }
+
+        private int length(int run) {
+            return runs[2 * run + 1];
+        }
+
+        private int end(int run) {
+            return start(run) + length(run);
+        }
+
+        /**
+         * @return the last run starting at or before low, or -1
+         */
+        private int runBefore(int low) {
+            int lo = 0;
+            int hi = count - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (start(mid) <= low) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return hi;
+        }
+
+        private void set(int run, int start, int end) {
+            runs[2 * run] = (char) start;
+            runs[2 * run + 1] = (char) (end - start);
+        }
+
+        private void insertRun(int run, int start, int end) {
+            if (2 * count == runs.length) {
+                runs = Arrays.copyOf(runs, Math.max(4, 2 * runs.length));
+            }
+            System.arraycopy(runs, 2 * run, runs, 2 * run + 2, 2 * (count - run));
+            count++;
+            set(run, start, end);
+        }
+
+        private void deleteRun(int run) {
+            System.arraycopy(
+                runs,
+                2 * run + 2,
+                runs,
+                2 * run,
+                2 * (count - run - 1)
+            );
+            count--;
+        }
+
+        @Override
+        boolean contains(int low) {
+            int run = runBefore(low);
+            return run >= 0 && low <= end(run);
+        }
+
+        @Override
+        Container add(int low) {
+            int run = runBefore(low);
+            if (run >= 0 && low <= end(run)) {
+                return this;
+            }
+            boolean joinsPrevious = run >= 0 && end(run) + 1 == low;
+            boolean joinsNext = run + 1 < count && start(run + 1) == low + 1;
+            if (joinsPrevious && joinsNext) {
+                set(run, start(run), end(run + 1));
+                deleteRun(run + 1);
+            } else if (joinsPrevious) {
+                set(run, start(run), low);
+            } else if (joinsNext) {
+                set(run + 1, low, end(run + 1));
+            } else {
+                insertRun(run + 1, low, low);
+            }
+            cardinality++;
+            return tooFragmented() ? toDense() : this;
+        }
+
+        @Override
+        Container remove(int low) {
+            int run = runBefore(low);
+            if (run < 0 || low > end(run)) {
+                return this;
+            }
+            int start = start(run);
+            int end = end(run);
+            if (start == end) {
+                deleteRun(run);
+            } else if (low == start) {
+                set(run, start + 1, end);
+            } else if (low == end) {
+                set(run, start, end - 1);
+            } else {
+                set(run, start, low - 1);
+                insertRun(run + 1, low + 1, end);
+            }
+            cardinality--;
+            return tooFragmented() ? toDense() : this;
+        }
+
+        /**
+         * @return whether the runs take more space than an array or bitmap would
+         */
+        private boolean tooFragmented() {
+            int runBytes = 2 * Character.BYTES * count;
+            return cardinality <= ARRAY_MAX
+                ? runBytes > Character.BYTES * cardinality
+                : runBytes > Long.BYTES * BITMAP_WORDS;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        int nextValue(int low) {
+            int run = runBefore(low);
+            if (run >= 0 && low <= end(run)) {
+                return low;
+            }
+            return run + 1 < count ? start(run + 1) : -1;
+        }
+
+        @Override
+        void forEach(int high, IntConsumer action) {
+            for (int run = 0; run < count; run++) {
+                for (int low = start(run); low <= end(run); low++) {
+                    action.accept(high | low);
+                }
+            }
+        }
+
+        @Override
+        BitmapContainer toBitmap() {
+            long[] words = new long[BITMAP_WORDS];
+            for (int run = 0; run < count; run++) {
+                setRange(words, start(run), end(run) + 1);
+            }
+            return new BitmapContainer(words, cardinality);
+        }
+
+        Container toDense() {
+            BitmapContainer bitmap = toBitmap();
+            return cardinality <= ARRAY_MAX ? bitmap.toArray() : bitmap;
+        }
+
+        @Override
+        int serializedBytes() {
+            return Integer.BYTES + 2 * Character.BYTES * count;
+        }
+
+        @Override
+        void write(DataOutputStream out) throws IOException {
+            out.writeByte(RUN);
+            out.writeInt(count);
+            for (int i = 0; i < 2 * count; i++) {
+                out.writeChar(runs[i]);
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new RunContainer(Arrays.copyOf(runs, 2 * count), count);
+        }
+
+        @Override
+        int runCount() {
+            return count;
+        }
+    }
+
+    /**
+     * Walks the containers, finding the next value of the current one each time.
+     */
+    private class BitmapIterator implements PrimitiveIterator.OfInt {
+
+        private int container;
+        private int next;
+
+        BitmapIterator() {
+            seek(0);
+        }
+
+        private void seek(int low) {
+            for (; container < size; container++, low = 0) {
+                next = containers[container].nextValue(low);
+                if (next >= 0) {
+                    return;
+                }
+            }
+            next = -1;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next >= 0;
+        }
+
+        @Override
+        public int nextInt() {
+            if (next < 0) {
+                throw new NoSuchElementException();
+            }
+            int value = keys[container] << 16 | next;
+            if (next == CHUNK_MASK) {
+                container++;
+                seek(0);
+            } else {
+                seek(next + 1);
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package com.demo.java_utilities;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Read-mostly graph for many concurrent readers and occasional writers. Readers take an
+ * immutable {@link #snapshot()} with a single volatile read and run any
+ * {@link GraphTraversalUtils} algorithm on it without locking. Writers collect mutations
+ * in a {@link Batch} and publish a new version atomically.
+ * <p>
+ * The adjacency of a version is a persistent {@link HashTrie}. Publishing copies the edge
+ * list of every vertex a batch touched once and puts it into a new trie that shares all
+ * other nodes with the previous version, so an insert costs one edge list and a few small
+ * trie nodes rather than a table of vertices.
+ *
+ * @param <V> the type of vertex in the graph
+ */
+public class ConcurrentGraph<V> {
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile State<V> state;
+    // Guarded by writeLock; the settings every new version copies into its own cache
+    private ShortestPathCache<V> pathCache;
+
+    public ConcurrentGraph() {
+        this.state = new State<>(HashTrie.empty(), 0L, null);
+    }
+
+    /**
+     * Returns the current version of the graph as a read-only graph. The snapshot never
+     * changes, so it may be shared between threads; calling a mutating method on it
+     * throws {@link UnsupportedOperationException}.
+     *
+     * @return the latest published snapshot
+     */
+    public GraphTraversalUtils<V> snapshot() {
+        return state.view;
+    }
+
+    /**
+     * @return the version of the latest published snapshot
+     */
+    public long version() {
+        return state.version;
+    }
+
+    /**
+     * @return the number of vertices in the latest published snapshot
+     */
+    public int vertexCount() {
+        return state.adjacency.size();
+    }
+
+    /**
+     * Cache path results per version. The given cache serves the latest snapshot, and
+     * every later version gets its own empty cache with the same weight budget and
+     * policy. Readers of an older snapshot therefore keep their entries instead of
+     * having them dropped by the next version, and each cache is collected with its
+     * snapshot. Snapshots taken before this call keep caching as they did.
+     *
+     * @param cache the cache for the latest snapshot, or null to stop caching
+     */
+    public void setPathCache(ShortestPathCache<V> cache) {
+        writeLock.lock();
+        try {
+            this.pathCache = cache;
+            State<V> current = state;
+            state = new State<>(current.adjacency, current.version, cache);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * @return a new batch of mutations for this graph
+     */
+    public Batch<V> batch() {
+        return new Batch<>(this);
+    }
+
+    /**
+     * Apply a group of mutations and publish them as one new version.
+     *
+     * @param mutations adds vertices and edges to the batch
+     * @return the version that holds the mutations
+     */
+    public long update(Consumer<Batch<V>> mutations) {
+        Batch<V> batch = batch();
+        mutations.accept(batch);
+        return batch.commit();
+    }
+
+    /**
+     * Add a vertex and publish a new version.
+     *
+     * @param vertex the vertex to add
+     */
+    public void addVertex(V vertex) {
+        batch().addVertex(vertex).commit();
+    }
+
+    /**
+     * Add a directed edge and publish a new version.
+     *
+     * @param source      the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @param weight      the weight of the edge
+     */
+    public void addDirectedEdge(V source, V destination, double weight) {
+        batch().addDirectedEdge(source, destination, weight).commit();
+    }
+
+    /**
+     * Add an undirected edge and publish a new version.
+     *
+     * @param source      the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @param weight      the weight of the edge
+     */
+    public void addUndirectedEdge(V source, V destination, double weight) {
+        batch().addUndirectedEdge(source, destination, weight).commit();
+    }
+
+    /**
+     * Applies a batch on top of the current state under the write lock, copying each
+     * touched edge list once, and publishes the result.
+     */
+    private long publish(List<Object[]> mutations) {
+        writeLock.lock();
+        try {
+            State<V> current = state;
+            if (mutations.isEmpty()) {
+                return current.version;
+            }
+            HashTrie<V, List<GraphTraversalUtils.Edge<V>>> adjacency =
+                current.adjacency;
+            Map<V, List<GraphTraversalUtils.Edge<V>>> freshLists =
+                new HashMap<>();
+
+            for (Object[] mutation : mutations) {
+                @SuppressWarnings("unchecked")
+                V source = (V) mutation[0];
+                adjacency = addVertex(adjacency, source);
+                if (mutation.length == 1) {
+                    continue;
+                }
+                @SuppressWarnings("unchecked")
+                V destination = (V) mutation[1];
+                adjacency = addVertex(adjacency, destination);
+                List<GraphTraversalUtils.Edge<V>> edges = freshLists.get(
+                    source
+                );
+                if (edges == null) {
+                    edges = new ArrayList<>(adjacency.get(source));
+                    freshLists.put(source, edges);
+                }
+                double weight = (double) mutation[2];
+                edges.add(new GraphTraversalUtils.Edge<>(destination, weight));
+            }
+
+            for (Map.Entry<V, List<GraphTraversalUtils.Edge<V>>> entry :
+                freshLists.entrySet()) {
+                adjacency = adjacency.put(
+                    entry.getKey(),
+                    Collections.unmodifiableList(entry.getValue())
+                );
+            }
+            ShortestPathCache<V> cache = pathCache == null
+                ? null
+                : new ShortestPathCache<>(pathCache.maxWeight(), pathCache.policy());
+            State<V> next = new State<>(adjacency, current.version + 1, cache);
+            state = next;
+            return next.version;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static <V> HashTrie<V, List<GraphTraversalUtils.Edge<V>>> addVertex(
+        HashTrie<V, List<GraphTraversalUtils.Edge<V>>> adjacency,
+        V vertex
+    ) {
+        if (adjacency.containsKey(vertex)) {
+            return adjacency;
+        }
+        return adjacency.put(vertex, Collections.emptyList());
+    }
+
+    /**
+     * Mutations collected by one writer and published together by {@link #commit()}.
+     * A batch is not thread-safe; every writer uses its own.
+     *
+     * @param <V> the type of vertex in the graph
+     */
+    public static class Batch<V> {
+
+        private final ConcurrentGraph<V> graph;
+        private final List<Object[]> mutations = new ArrayList<>();
+
+        private Batch(ConcurrentGraph<V> graph) {
+            this.graph = graph;
+        }
+
+        /**
+         * @param vertex the vertex to add
+         * @return this batch
+         */
+        public Batch<V> addVertex(V vertex) {
+            mutations.add(new Object[] { vertex });
+            return this;
+        }
+
+        /**
+         * @param source      the source vertex of the edge
+         * @param destination the destination vertex of the edge
+         * @param weight      the weight of the edge
+         * @return this batch
+         */
+        public Batch<V> addDirectedEdge(V source, V destination, double weight) {
+            mutations.add(new Object[] { source, destination, weight });
+            return this;
+        }
+
+        /**
+         * @param source      the source vertex of the edge
+         * @param destination the destination vertex of the edge
+         * @param weight      the weight of the edge
+         * @return this batch
+         */
+        public Batch<V> addUndirectedEdge(V source, V destination, double weight) {
+            addDirectedEdge(source, destination, weight);
+            return addDirectedEdge(destination, source, weight);
+        }
+
+        /**
+         * @return the number of mutations not yet committed
+         */
+        public int size() {
+            return mutations.size();
+        }
+
+        /**
+         * Publish all collected mutations as one new version and empty the batch.
+         * An empty batch publishes nothing.
+         *
+         * @return the version that holds the mutations
+         */
+        public long commit() {
+            long version = graph.publish(mutations);
+            mutations.clear();
+            return version;
+        }
+    }
+
+    /**
+     * One published version: the adjacency trie, which is never modified after
+     * publishing, and the read-only graph view over it with the path cache of the
+     * version.
+     */
+    private static class State<V> {
+
+        private final HashTrie<V, List<GraphTraversalUtils.Edge<V>>> adjacency;
+        private final long version;
+        private final GraphTraversalUtils<V> view;
+
+        State(
+            HashTrie<V, List<GraphTraversalUtils.Edge<V>>> adjacency,
+            long version,
+            ShortestPathCache<V> cache
+        ) {
+            this.adjacency = adjacency;
+            this.version = version;
+            this.view = new SnapshotView<>(new TrieMap<>(adjacency), version);
+            view.setPathCache(cache);
+        }
+    }
+
+    /**
+     * Read-only graph of one version. Its CSR snapshot is built at most once, on first
+     * use, and published through a volatile field, so threads sharing the view never see
+     * a partly built snapshot.
+     */
+    private static class SnapshotView<V> extends GraphTraversalUtils<V> {
+
+        private volatile CsrGraph<V> csr;
+
+        SnapshotView(Map<V, List<GraphTraversalUtils.Edge<V>>> adjacency, long version) {
+            super(adjacency, version);
+        }
+
+        @Override
+        public CsrGraph<V> toCsr() {
+            CsrGraph<V> result = csr;
+            if (result == null) {
+                synchronized (this) {
+                    result = csr;
+                    if (result == null) {
+                        result = super.toCsr();
+                        csr = result;
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Unmodifiable map view over the adjacency trie of one version.
+     */
+    private static class TrieMap<V>
+        extends AbstractMap<V, List<GraphTraversalUtils.Edge<V>>> {
+
+        private final HashTrie<V, List<GraphTraversalUtils.Edge<V>>> adjacency;
+
+        TrieMap(HashTrie<V, List<GraphTraversalUtils.Edge<V>>> adjacency) {
+            this.adjacency = adjacency;
+        }
+
+        @Override
+        public List<GraphTraversalUtils.Edge<V>> get(Object key) {
+            return adjacency.get(key);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return adjacency.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return adjacency.size();
+        }
+
+        @Override
+        public Set<Entry<V, List<GraphTraversalUtils.Edge<V>>>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<
+                    Entry<V, List<GraphTraversalUtils.Edge<V>>>
+                > iterator() {
+                    return adjacency.iterator();
+                }
+
+                @Override
+                public int size() {
+                    return adjacency.size();
+                }
+            };
+        }
+    }
+}
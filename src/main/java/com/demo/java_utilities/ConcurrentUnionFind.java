@@ -0,0 +1,105 @@
+package com.demo.java_utilities;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Lock-free disjoint-set forest over the ints {@code [0, size())}. Roots are linked with
+ * a compare-and-set, always the larger root under the smaller one, so concurrent unions
+ * can never form a cycle; {@link #find(int)} compresses paths by halving, also with
+ * compare-and-set, so a lost race only skips one shortcut.
+ */
+public class ConcurrentUnionFind {
+
+    private final AtomicIntegerArray parent;
+
+    public ConcurrentUnionFind(int size) {
+        this.parent = new AtomicIntegerArray(size);
+        for (int i = 0; i < size; i++) {
+            parent.set(i, i);
+        }
+    }
+
+    public int size() {
+        return parent.length();
+    }
+
+    /**
+     * Finds the representative of the set holding x.
+     *
+     * @param x the element
+     * @return the root of the set; the smallest element of the set once all unions finished
+     */
+    public int find(int x) {
+        while (true) {
+            int p = parent.get(x);
+            if (p == x) {
+                return x;
+            }
+            int grandparent = parent.get(p);
+            if (grandparent == p) {
+                return p;
+            }
+            parent.compareAndSet(x, p, grandparent);
+            x = grandparent;
+        }
+    }
+
+    /**
+     * Merges the sets holding a and b.
+     *
+     * @param a an element
+     * @param b another element
+     * @return true if the sets were different and this call merged them
+     */
+    public boolean union(int a, int b) {
+        while (true) {
+            a = find(a);
+            b = find(b);
+            if (a == b) {
+                return false;
+            }
+            if (a < b) {
+                int swap = a;
+                a = b;
+                b = swap;
+            }
+            if (parent.compareAndSet(a, a, b)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param a an element
+     * @param b another element
+     * @return true if a and b are in the same set
+     */
+    public boolean sameSet(int a, int b) {
+        while (true) {
+            a = find(a);
+            b = find(b);
+            if (a == b) {
+                return true;
+            }
+            // a is still a root, so the sets really were different at this point
+            if (parent.get(a) == a) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Counts the sets. Only exact while no union is running.
+     *
+     * @return the number of disjoint sets
+     */
+    public int setCount() {
+        int count = 0;
+        for (int i = 0; i < parent.length(); i++) {
+            if (parent.get(i) == i) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,900 @@
+package com.demo.java_utilities;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Contraction Hierarchies (CH) for fast point-to-point shortest path queries on a graph
+ * that rarely changes. Preprocessing contracts vertices in order of importance and adds
+ * shortcut edges that preserve shortest path distances; queries then run a bidirectional
+ * Dijkstra that only follows edges towards more important vertices, settling a few
+ * hundred vertices instead of a large part of the graph.
+ * <p>
+ * Vertices are contracted in rounds. Each round picks an independent set of vertices
+ * whose priority is a local minimum among their neighbors and computes their shortcuts
+ * in parallel on the common fork/join pool. A built hierarchy is immutable and can be
+ * queried from many threads at once.
+ *
+ * @param <V> the type of vertex in the graph
+ */
+public class ContractionHierarchy<V> {
+
+    private static final int MAGIC = 0x43484731; // "CHG1"
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+    private static final int SIMULATION_SETTLE_LIMIT = 50;
+
+    private final Object[] vertices;
+    private final Map<V, Integer> ids;
+    private final int[] rank;
+    private final int[] upOffsets;
+    private final int[] upTargets;
+    private final double[] upWeights;
+    private final int[] upMiddle;
+    private final int[] downOffsets;
+    private final int[] downSources;
+    private final double[] downWeights;
+    private final int[] downMiddle;
+    private final WorkspacePool workspaces;
+
+    private ContractionHierarchy(
+        Object[] vertices,
+        int[] rank,
+        int[] upOffsets,
+        int[] upTargets,
+        double[] upWeights,
+        int[] upMiddle,
+        int[] downOffsets,
+        int[] downSources,
+        double[] downWeights,
+        int[] downMiddle
+    ) {
+        this.vertices = vertices;
+        this.rank = rank;
+        this.upOffsets = upOffsets;
+        this.upTargets = upTargets;
+        this.upWeights = upWeights;
+        this.upMiddle = upMiddle;
+        this.downOffsets = downOffsets;
+        this.downSources = downSources;
+        this.downWeights = downWeights;
+        this.downMiddle = downMiddle;
+        this.ids = new HashMap<>((int) (vertices.length / 0.75f) + 1);
+        for (int i = 0; i < vertices.length; i++) {
+            @SuppressWarnings("unchecked")
+            V vertex = (V) vertices[i];
+            ids.put(vertex, i);
+        }
+        this.workspaces = new WorkspacePool(vertices.length);
+    }
+
+    /**
+     * Build a contraction hierarchy from the current state of a graph.
+     * Assumes non-negative weights for edges.
+     *
+     * @param graph the graph to preprocess
+     * @param <V>   the type of vertex in the graph
+     * @return the contraction hierarchy
+     */
+    public static <V> ContractionHierarchy<V> build(
+        GraphTraversalUtils<V> graph
+    ) {
+        return build(graph.toCsr());
+    }
+
+    /**
+     * Build a contraction hierarchy from a CSR snapshot.
+     * Assumes non-negative weights for edges.
+     *
+     * @param graph the snapshot to preprocess
+     * @param <V>   the type of vertex in the graph
+     * @return the contraction hierarchy
+     */
+    public static <V> ContractionHierarchy<V> build(CsrGraph<V> graph) {
+        return new Builder(graph).contract().toHierarchy(graph);
+    }
+
+    /**
+     * @return the number of vertices in the hierarchy
+     */
+    public int vertexCount() {
+        return vertices.length;
+    }
+
+    /**
+     * @return the number of upward and downward edges, shortcuts included
+     */
+    public int edgeCount() {
+        return upTargets.length + downSources.length;
+    }
+
+    /**
+     * @param vertex a vertex of the graph
+     * @return the contraction rank of the vertex, higher meaning more important
+     */
+    public int rankOf(V vertex) {
+        return rank[requireId(vertex)];
+    }
+
+    /**
+     * Find the shortest path between two vertices, unpacking all shortcuts.
+     *
+     * @param source the source vertex
+     * @param target the target vertex
+     * @return the shortest path including both endpoints together with its cost
+     */
+    public GraphTraversalUtils.PathResult<V> shortestPath(V source, V target) {
+        int s = requireId(source);
+        int t = requireId(target);
+        DijkstraWorkspace forward = workspaces.borrow();
+        DijkstraWorkspace backward = workspaces.borrow();
+        try {
+            return unpackedPath(s, t, forward, backward);
+        } finally {
+            workspaces.release(forward);
+            workspaces.release(backward);
+        }
+    }
+
+    private GraphTraversalUtils.PathResult<V> unpackedPath(
+        int s,
+        int t,
+        DijkstraWorkspace forward,
+        DijkstraWorkspace backward
+    ) {
+        int meeting = search(s, t, forward, backward);
+        if (meeting < 0) {
+            return GraphTraversalUtils.PathResult.notFound();
+        }
+
+        List<V> path = new ArrayList<>();
+        path.add(vertexAt(s));
+        int[] hops = new int[0];
+        int hopCount = 0;
+        for (int v = meeting; forward.parent[v] != -1; v = forward.parent[v]) {
+            if (hopCount == hops.length) {
+                hops = Arrays.copyOf(hops, Math.max(8, hopCount * 2));
+            }
+            hops[hopCount++] = v;
+        }
+        for (int i = hopCount - 1; i >= 0; i--) {
+            int to = hops[i];
+            unpack(forward.parent[to], to, path);
+        }
+        for (int v = meeting; backward.parent[v] != -1; v = backward.parent[v]) {
+            unpack(v, backward.parent[v], path);
+        }
+        return new GraphTraversalUtils.PathResult<>(
+            path,
+            forward.distance[meeting] + backward.distance[meeting]
+        );
+    }
+
+    /**
+     * Compute the shortest path distance between two vertices without unpacking the path.
+     *
+     * @param source the source vertex
+     * @param target the target vertex
+     * @return the distance, {@code POSITIVE_INFINITY} if the target is unreachable
+     */
+    public double distance(V source, V target) {
+        return distanceIds(requireId(source), requireId(target));
+    }
+
+    /**
+     * Compute the shortest path distance between two vertex ids.
+     *
+     * @param source the id of the source vertex
+     * @param target the id of the target vertex
+     * @return the distance, {@code POSITIVE_INFINITY} if the target is unreachable
+     */
+    public double distanceIds(int source, int target) {
+        DijkstraWorkspace forward = workspaces.borrow();
+        DijkstraWorkspace backward = workspaces.borrow();
+        try {
+            int meeting = search(source, target, forward, backward);
+            return meeting < 0
+                ? Double.POSITIVE_INFINITY
+                : forward.distance[meeting] + backward.distance[meeting];
+        } finally {
+            workspaces.release(forward);
+            workspaces.release(backward);
+        }
+    }
+
+    /**
+     * Bidirectional upward search with stall-on-demand.
+     *
+     * @return the vertex where the shortest path peaks, or -1 if there is no path
+     */
+    private int search(
+        int source,
+        int target,
+        DijkstraWorkspace forward,
+        DijkstraWorkspace backward
+    ) {
+        forward.reset();
+        backward.reset();
+        forward.update(source, 0.0, -1);
+        forward.heap.insert(source, 0.0);
+        backward.update(target, 0.0, -1);
+        backward.heap.insert(target, 0.0);
+        double best = source == target ? 0.0 : Double.POSITIVE_INFINITY;
+        int meeting = source == target ? source : -1;
+
+        while (true) {
+            boolean forwardOpen =
+                !forward.heap.isEmpty() && forward.heap.peekKey() < best;
+            boolean backwardOpen =
+                !backward.heap.isEmpty() && backward.heap.peekKey() < best;
+            if (!forwardOpen && !backwardOpen) {
+                break;
+            }
+            boolean forwardStep =
+                forwardOpen &&
+                (!backwardOpen ||
+                    forward.heap.peekKey() <= backward.heap.peekKey());
+
+            DijkstraWorkspace own = forwardStep ? forward : backward;
+            DijkstraWorkspace other = forwardStep ? backward : forward;
+            int[] offsets = forwardStep ? upOffsets : downOffsets;
+            int[] heads = forwardStep ? upTargets : downSources;
+            double[] weights = forwardStep ? upWeights : downWeights;
+            int[] stallOffsets = forwardStep ? downOffsets : upOffsets;
+            int[] stallHeads = forwardStep ? downSources : upTargets;
+            double[] stallWeights = forwardStep ? downWeights : upWeights;
+
+            int current = own.heap.poll();
+            double currentDistance = own.distance[current];
+            double through = currentDistance + other.distance[current];
+            if (through < best) {
+                best = through;
+                meeting = current;
+            }
+
+            boolean stalled = false;
+            for (
+                int e = stallOffsets[current];
+                e < stallOffsets[current + 1] && !stalled;
+                e++
+            ) {
+                stalled =
+                    own.distance[stallHeads[e]] + stallWeights[e] <
+                    currentDistance;
+            }
+            if (stalled) {
+                continue;
+            }
+
+            for (int e = offsets[current]; e < offsets[current + 1]; e++) {
+                int next = heads[e];
+                double newDistance = currentDistance + weights[e];
+                if (newDistance < own.distance[next]) {
+                    own.update(next, newDistance, current);
+                    own.heap.insertOrDecrease(next, newDistance);
+                }
+            }
+        }
+
+        return meeting;
+    }
+
+    /**
+     * Appends the original vertices of edge {@code from -> to} to the path, excluding
+     * {@code from}, by recursively replacing shortcuts with the two edges they bypass.
+     */
+    private void unpack(int from, int to, List<V> path) {
+        Deque<int[]> stack = new ArrayDeque<>();
+        stack.push(new int[] { from, to });
+        while (!stack.isEmpty()) {
+            int[] edge = stack.pop();
+            int middle = middleOf(edge[0], edge[1]);
+            if (middle < 0) {
+                path.add(vertexAt(edge[1]));
+            } else {
+                stack.push(new int[] { middle, edge[1] });
+                stack.push(new int[] { edge[0], middle });
+            }
+        }
+    }
+
+    private int middleOf(int from, int to) {
+        if (rank[from] < rank[to]) {
+            for (int e = upOffsets[from]; e < upOffsets[from + 1]; e++) {
+                if (upTargets[e] == to) {
+                    return upMiddle[e];
+                }
+            }
+        } else {
+            for (int e = downOffsets[to]; e < downOffsets[to + 1]; e++) {
+                if (downSources[e] == from) {
+                    return downMiddle[e];
+                }
+            }
+        }
+        throw new IllegalStateException(
+            "No edge between " + vertexAt(from) + " and " + vertexAt(to)
+        );
+    }
+
+    /**
+     * Serialize the hierarchy. Vertices must be {@link Serializable}.
+     *
+     * @param out the stream to write to; it is flushed but not closed
+     * @throws IOException if writing fails
+     */
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(
+            new BufferedOutputStream(out)
+        );
+        data.writeInt(MAGIC);
+        data.writeInt(vertices.length);
+        writeInts(data, rank);
+        writeInts(data, upOffsets);
+        writeInts(data, upTargets);
+        writeDoubles(data, upWeights);
+        writeInts(data, upMiddle);
+        writeInts(data, downOffsets);
+        writeInts(data, downSources);
+        writeDoubles(data, downWeights);
+        writeInts(data, downMiddle);
+        ObjectOutputStream objects = new ObjectOutputStream(data);
+        objects.writeObject(vertices);
+        objects.flush();
+    }
+
+    /**
+     * Read a hierarchy written by {@link #write(OutputStream)}.
+     *
+     * @param in  the stream to read from; it is not closed
+     * @param <V> the type of vertex in the graph
+     * @return the hierarchy
+     * @throws IOException if reading fails or the data is not a serialized hierarchy
+     */
+    public static <V> ContractionHierarchy<V> read(InputStream in)
+        throws IOException {
+        DataInputStream data = new DataInputStream(
+            new BufferedInputStream(in)
+        );
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a serialized contraction hierarchy");
+        }
+        int n = data.readInt();
+        int[] rank = readInts(data);
+        int[] upOffsets = readInts(data);
+        int[] upTargets = readInts(data);
+        double[] upWeights = readDoubles(data);
+        int[] upMiddle = readInts(data);
+        int[] downOffsets = readInts(data);
+        int[] downSources = readInts(data);
+        double[] downWeights = readDoubles(data);
+        int[] downMiddle = readInts(data);
+        Object[] vertices;
+        try {
+            vertices = (Object[]) new ObjectInputStream(data).readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Cannot read vertex dictionary", e);
+        }
+        if (vertices.length != n || rank.length != n) {
+            throw new IOException("Corrupt contraction hierarchy");
+        }
+        return new ContractionHierarchy<>(
+            vertices,
+            rank,
+            upOffsets,
+            upTargets,
+            upWeights,
+            upMiddle,
+            downOffsets,
+            downSources,
+            downWeights,
+            downMiddle
+        );
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values)
+        throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    private static void writeDoubles(DataOutputStream out, double[] values)
+        throws IOException {
+        out.writeInt(values.length);
+        for (double value : values) {
+            out.writeDouble(value);
+        }
+    }
+
+    private static int[] readInts(DataInputStream in) throws IOException {
+        int[] values = new int[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+
+    private static double[] readDoubles(DataInputStream in)
+        throws IOException {
+        double[] values = new double[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readDouble();
+        }
+        return values;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V vertexAt(int id) {
+        return (V) vertices[id];
+    }
+
+    private int requireId(V vertex) {
+        Integer id = ids.get(vertex);
+        if (id == null) {
+            throw new IllegalArgumentException(
+                "Vertex " + vertex + " is not part of the graph"
+            );
+        }
+        return id;
+    }
+
+    /**
+     * Mutable state of the contraction: dynamic in and out adjacency, vertex priorities
+     * and the contraction order.
+     */
+    private static class Builder {
+
+        private final int n;
+        private final EdgeList[] out;
+        private final EdgeList[] in;
+        private final boolean[] contracted;
+        private final int[] priority;
+        private final int[] contractedNeighbors;
+        private final int[] level;
+        private final int[] rank;
+        // Idle witness contexts, at most one per thread contracting at the same time
+        private final Queue<WitnessContext> witnessContexts =
+            new ConcurrentLinkedQueue<>();
+
+        Builder(CsrGraph<?> graph) {
+            n = graph.vertexCount();
+            out = new EdgeList[n];
+            in = new EdgeList[n];
+            for (int v = 0; v < n; v++) {
+                out[v] = new EdgeList(graph.outDegree(v));
+                in[v] = new EdgeList(2);
+            }
+            for (int v = 0; v < n; v++) {
+                for (int e = graph.firstEdge(v); e < graph.endEdge(v); e++) {
+                    addEdge(v, graph.target(e), graph.weight(e), -1);
+                }
+            }
+            contracted = new boolean[n];
+            priority = new int[n];
+            contractedNeighbors = new int[n];
+            level = new int[n];
+            rank = new int[n];
+        }
+
+        Builder contract() {
+            IntStream.range(0, n)
+                .parallel()
+                .forEach(v -> priority[v] = computePriority(v));
+
+            int[] remaining = IntStream.range(0, n).toArray();
+            int remainingCount = n;
+            int nextRank = 0;
+            boolean[] touched = new boolean[n];
+
+            while (remainingCount > 0) {
+                int[] candidates = Arrays.copyOf(remaining, remainingCount);
+                int[] round = Arrays.stream(candidates)
+                    .parallel()
+                    .filter(this::isLocalMinimum)
+                    .toArray();
+
+                for (int v : round) {
+                    contracted[v] = true;
+                    rank[v] = nextRank++;
+                }
+                List<List<Shortcut>> shortcuts = Arrays.stream(round)
+                    .parallel()
+                    .mapToObj(v -> {
+                        List<Shortcut> list = new ArrayList<>();
+                        shortcutsOf(v, WITNESS_SETTLE_LIMIT, list);
+                        return list;
+                    })
+                    .collect(Collectors.toList());
+                for (List<Shortcut> list : shortcuts) {
+                    for (Shortcut shortcut : list) {
+                        addEdge(
+                            shortcut.from,
+                            shortcut.to,
+                            shortcut.weight,
+                            shortcut.middle
+                        );
+                    }
+                }
+                // Unlink the contracted vertices so later searches never scan their
+                // edges; their own lists are now frozen as their upward edges
+                for (int v : round) {
+                    for (int i = 0; i < out[v].size; i++) {
+                        in[out[v].to[i]].remove(v);
+                    }
+                    for (int i = 0; i < in[v].size; i++) {
+                        out[in[v].to[i]].remove(v);
+                    }
+                }
+
+                int touchedCount = 0;
+                int[] neighbors = new int[16];
+                for (int v : round) {
+                    for (EdgeList edges : new EdgeList[] { out[v], in[v] }) {
+                        for (int i = 0; i < edges.size; i++) {
+                            int u = edges.to[i];
+                            contractedNeighbors[u]++;
+                            level[u] = Math.max(level[u], level[v] + 1);
+                            if (!touched[u]) {
+                                touched[u] = true;
+                                if (touchedCount == neighbors.length) {
+                                    neighbors = Arrays.copyOf(
+                                        neighbors,
+                                        touchedCount * 2
+                                    );
+                                }
+                                neighbors[touchedCount++] = u;
+                            }
+                        }
+                    }
+                }
+                int[] update = Arrays.copyOf(neighbors, touchedCount);
+                Arrays.stream(update)
+                    .parallel()
+                    .forEach(u -> priority[u] = computePriority(u));
+                for (int u : update) {
+                    touched[u] = false;
+                }
+
+                int kept = 0;
+                for (int i = 0; i < remainingCount; i++) {
+                    if (!contracted[remaining[i]]) {
+                        remaining[kept++] = remaining[i];
+                    }
+                }
+                remainingCount = kept;
+            }
+            return this;
+        }
+
+        /**
+         * A vertex is contracted in the current round when its priority is smaller than
+         * that of every uncontracted neighbor, which makes each round an independent set.
+         */
+        private boolean isLocalMinimum(int v) {
+            for (EdgeList edges : new EdgeList[] { out[v], in[v] }) {
+                for (int i = 0; i < edges.size; i++) {
+                    int u = edges.to[i];
+                    if (u != v && !contracted[u] && precedes(u, v)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        private boolean precedes(int u, int v) {
+            if (priority[u] != priority[v]) {
+                return priority[u] < priority[v];
+            }
+            int hu = mix(u);
+            int hv = mix(v);
+            return hu != hv ? hu < hv : u < v;
+        }
+
+        private static int mix(int v) {
+            int h = v * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+
+        private int computePriority(int v) {
+            int degree = 0;
+            for (EdgeList edges : new EdgeList[] { out[v], in[v] }) {
+                for (int i = 0; i < edges.size; i++) {
+                    if (!contracted[edges.to[i]]) {
+                        degree++;
+                    }
+                }
+            }
+            int edgeDifference =
+                shortcutsOf(v, SIMULATION_SETTLE_LIMIT, null) - degree;
+            return 2 * edgeDifference + contractedNeighbors[v] + level[v];
+        }
+
+        /**
+         * Computes the shortcuts needed to contract {@code v}: one for every pair of
+         * uncontracted neighbors {@code u -> v -> w} without a witness path of at most the
+         * same length that avoids {@code v} and all contracted vertices. A witness search
+         * that gives up after {@code settleLimit} vertices errs towards a shortcut.
+         *
+         * @param sink receives the shortcuts, or null to only count them
+         * @return the number of shortcuts
+         */
+        private int shortcutsOf(int v, int settleLimit, List<Shortcut> sink) {
+            EdgeList outgoing = out[v];
+            double maxOut = 0.0;
+            for (int j = 0; j < outgoing.size; j++) {
+                if (!isExcluded(outgoing.to[j], v)) {
+                    maxOut = Math.max(maxOut, outgoing.weight[j]);
+                }
+            }
+            WitnessContext context = witnessContexts.poll();
+            if (context == null) {
+                context = new WitnessContext(n);
+            }
+            try {
+                return shortcutsOf(v, settleLimit, sink, maxOut, context);
+            } finally {
+                witnessContexts.offer(context);
+            }
+        }
+
+        private int shortcutsOf(
+            int v,
+            int settleLimit,
+            List<Shortcut> sink,
+            double maxOut,
+            WitnessContext context
+        ) {
+            int count = 0;
+            EdgeList incoming = in[v];
+            EdgeList outgoing = out[v];
+            DijkstraWorkspace workspace = context.workspace;
+            for (int i = 0; i < incoming.size; i++) {
+                int u = incoming.to[i];
+                if (isExcluded(u, v)) {
+                    continue;
+                }
+                int stamp = context.nextStamp();
+                int targets = 0;
+                for (int j = 0; j < outgoing.size; j++) {
+                    int w = outgoing.to[j];
+                    if (w != u && !isExcluded(w, v)) {
+                        context.targetStamp[w] = stamp;
+                        targets++;
+                    }
+                }
+                if (targets == 0) {
+                    continue;
+                }
+                double toV = incoming.weight[i];
+                witnessSearch(u, toV + maxOut, v, settleLimit, targets, context);
+                for (int j = 0; j < outgoing.size; j++) {
+                    int w = outgoing.to[j];
+                    if (w == u || isExcluded(w, v)) {
+                        continue;
+                    }
+                    double viaV = toV + outgoing.weight[j];
+                    if (workspace.distance[w] > viaV) {
+                        count++;
+                        if (sink != null) {
+                            sink.add(new Shortcut(u, w, viaV, v));
+                        }
+                    }
+                }
+            }
+            return count;
+        }
+
+        private boolean isExcluded(int v, int excluded) {
+            return v == excluded || contracted[v];
+        }
+
+        private void witnessSearch(
+            int source,
+            double bound,
+            int excluded,
+            int settleLimit,
+            int targets,
+            WitnessContext context
+        ) {
+            DijkstraWorkspace workspace = context.workspace;
+            workspace.reset();
+            workspace.update(source, 0.0, -1);
+            workspace.heap.insert(source, 0.0);
+            int settled = 0;
+            while (
+                !workspace.heap.isEmpty() &&
+                settled++ < settleLimit &&
+                workspace.heap.peekKey() <= bound
+            ) {
+                int current = workspace.heap.poll();
+                if (
+                    context.targetStamp[current] == context.stamp &&
+                    --targets == 0
+                ) {
+                    break;
+                }
+                double currentDistance = workspace.distance[current];
+                EdgeList edges = out[current];
+                for (int i = 0; i < edges.size; i++) {
+                    int next = edges.to[i];
+                    if (isExcluded(next, excluded)) {
+                        continue;
+                    }
+                    double newDistance = currentDistance + edges.weight[i];
+                    if (newDistance < workspace.distance[next]) {
+                        workspace.update(next, newDistance, current);
+                        workspace.heap.insertOrDecrease(next, newDistance);
+                    }
+                }
+            }
+        }
+
+        private void addEdge(int from, int to, double weight, int middle) {
+            if (from == to) {
+                return;
+            }
+            if (out[from].put(to, weight, middle)) {
+                in[to].put(from, weight, middle);
+            }
+        }
+
+        <V> ContractionHierarchy<V> toHierarchy(CsrGraph<V> graph) {
+            int[] upOffsets = new int[n + 1];
+            int[] downOffsets = new int[n + 1];
+            for (int v = 0; v < n; v++) {
+                upOffsets[v + 1] = upOffsets[v] + out[v].size;
+                downOffsets[v + 1] = downOffsets[v] + in[v].size;
+            }
+            int[] upTargets = new int[upOffsets[n]];
+            double[] upWeights = new double[upOffsets[n]];
+            int[] upMiddle = new int[upOffsets[n]];
+            int[] downSources = new int[downOffsets[n]];
+            double[] downWeights = new double[downOffsets[n]];
+            int[] downMiddle = new int[downOffsets[n]];
+            for (int v = 0; v < n; v++) {
+                copyEdges(out[v], upOffsets[v], upTargets, upWeights, upMiddle);
+                copyEdges(
+                    in[v],
+                    downOffsets[v],
+                    downSources,
+                    downWeights,
+                    downMiddle
+                );
+            }
+            Object[] vertices = new Object[n];
+            for (int v = 0; v < n; v++) {
+                vertices[v] = graph.vertexAt(v);
+            }
+            return new ContractionHierarchy<>(
+                vertices,
+                rank,
+                upOffsets,
+                upTargets,
+                upWeights,
+                upMiddle,
+                downOffsets,
+                downSources,
+                downWeights,
+                downMiddle
+            );
+        }
+
+        private static void copyEdges(
+            EdgeList edges,
+            int offset,
+            int[] heads,
+            double[] weights,
+            int[] middles
+        ) {
+            System.arraycopy(edges.to, 0, heads, offset, edges.size);
+            System.arraycopy(edges.weight, 0, weights, offset, edges.size);
+            System.arraycopy(edges.middle, 0, middles, offset, edges.size);
+        }
+    }
+
+    /**
+     * Growable adjacency of one vertex during preprocessing, holding at most one edge per
+     * neighbor. Once the vertex is contracted the list only holds its upward edges.
+     */
+    private static class EdgeList {
+
+        private int[] to;
+        private double[] weight;
+        private int[] middle;
+        private int size;
+
+        EdgeList(int capacity) {
+            capacity = Math.max(capacity, 2);
+            to = new int[capacity];
+            weight = new double[capacity];
+            middle = new int[capacity];
+        }
+
+        /**
+         * Adds the edge, or shortens an existing edge to the same neighbor.
+         *
+         * @return true if the adjacency changed
+         */
+        boolean put(int target, double w, int mid) {
+            for (int i = 0; i < size; i++) {
+                if (to[i] == target) {
+                    if (w < weight[i]) {
+                        weight[i] = w;
+                        middle[i] = mid;
+                        return true;
+                    }
+                    return false;
+                }
+            }
+            if (size == to.length) {
+                to = Arrays.copyOf(to, size * 2);
+                weight = Arrays.copyOf(weight, size * 2);
+                middle = Arrays.copyOf(middle, size * 2);
+            }
+            to[size] = target;
+            weight[size] = w;
+            middle[size] = mid;
+            size++;
+            return true;
+        }
+
+        void remove(int target) {
+            for (int i = 0; i < size; i++) {
+                if (to[i] == target) {
+                    size--;
+                    to[i] = to[size];
+                    weight[i] = weight[size];
+                    middle[i] = middle[size];
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * State of one running witness search: a workspace plus stamps marking the vertices
+     * the current search still has to settle.
+     */
+    private static class WitnessContext {
+
+        private final DijkstraWorkspace workspace;
+        private final int[] targetStamp;
+        private int stamp;
+
+        WitnessContext(int vertexCount) {
+            workspace = new DijkstraWorkspace(vertexCount);
+            targetStamp = new int[vertexCount];
+        }
+
+        int nextStamp() {
+            if (++stamp == Integer.MAX_VALUE) {
+                Arrays.fill(targetStamp, 0);
+                stamp = 1;
+            }
+            return stamp;
+        }
+    }
+
+    /**
+     * A shortcut edge {@code from -> to} that bypasses the contracted vertex {@code middle}.
+     */
+    private static class Shortcut {
+
+        private final int from;
+        private final int to;
+        private final double weight;
+        private final int middle;
+
+        Shortcut(int from, int to, double weight, int middle) {
+            this.from = from;
+            this.to = to;
+            this.weight = weight;
+            this.middle = middle;
+        }
+    }
+}
@@ -0,0 +1,1013 @@
+package com.demo.java_utilities;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Immutable compressed sparse row (CSR) snapshot of a {@link GraphTraversalUtils} graph.
+ * Vertices are interned to dense int ids in {@code [0, vertexCount())} and the outgoing
+ * edges of vertex {@code v} occupy the range {@code [firstEdge(v), endEdge(v))} of the
+ * {@code targets} and {@code weights} arrays.
+ * <p>
+ * A graph can also be stored in a {@link GraphFile} and opened with {@link #open(Path)};
+ * its arrays then stay in the memory-mapped file instead of the heap, and every
+ * algorithm reads them through the same accessors.
+ *
+ * @param <V> the type of vertex in the graph
+ */
+public class CsrGraph<V> {
+
+    private final int vertexCount;
+    private final int edgeCount;
+    private final VertexDictionary<V> dictionary;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+    private final GraphFile.Adjacency mapped;
+    private volatile CsrGraph<V> reverse;
+    private final WorkspacePool workspaces;
+
+    CsrGraph(
+        Object[] vertices,
+        Map<V, Integer> ids,
+        int[] offsets,
+        int[] targets,
+        double[] weights
+    ) {
+        this(
+            new VertexDictionary<>(vertices, ids),
+            offsets,
+            targets,
+            weights
+        );
+    }
+
+    CsrGraph(
+        VertexDictionary<V> dictionary,
+        int[] offsets,
+        int[] targets,
+        double[] weights
+    ) {
+        this.vertexCount = dictionary.size;
+        this.edgeCount = targets.length;
+        this.dictionary = dictionary;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.mapped = null;
+        this.workspaces = new WorkspacePool(vertexCount);
+    }
+
+    /**
+     * Creates a graph whose edges are read from a mapped {@link GraphFile}.
+     */
+    CsrGraph(VertexDictionary<V> dictionary, GraphFile.Adjacency mapped) {
+        this.vertexCount = dictionary.size;
+        this.edgeCount = mapped.edgeCount();
+        this.dictionary = dictionary;
+        this.offsets = null;
+        this.targets = null;
+        this.weights = null;
+        this.mapped = mapped;
+        this.workspaces = new WorkspacePool(vertexCount);
+    }
+
+    /**
+     * @return the number of vertices in the snapshot
+     */
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * @return the number of directed edges in the snapshot
+     */
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Looks up the dense id of a vertex.
+     *
+     * @param vertex the vertex to look up
+     * @return the id of the vertex, or -1 if it is not part of the snapshot
+     */
+    public int idOf(V vertex) {
+        Integer id = dictionary.ids().get(vertex);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Returns the vertex interned under the given id.
+     *
+     * @param id the dense vertex id
+     * @return the vertex with that id
+     */
+    @SuppressWarnings("unchecked")
+    public V vertexAt(int id) {
+        return (V) dictionary.vertices()[id];
+    }
+
+    /**
+     * @param v the dense vertex id
+     * @return index of the first outgoing edge of v
+     */
+    public int firstEdge(int v) {
+        return mapped == null ? offsets[v] : mapped.offset(v);
+    }
+
+    /**
+     * @param v the dense vertex id
+     * @return index one past the last outgoing edge of v
+     */
+    public int endEdge(int v) {
+        return mapped == null ? offsets[v + 1] : mapped.offset(v + 1);
+    }
+
+    /**
+     * @param v the dense vertex id
+     * @return the number of outgoing edges of v
+     */
+    public int outDegree(int v) {
+        return endEdge(v) - firstEdge(v);
+    }
+
+    /**
+     * @param e the edge index
+     * @return the id of the destination vertex of edge e
+     */
+    public int target(int e) {
+        return mapped == null ? targets[e] : mapped.target(e);
+    }
+
+    /**
+     * @param e the edge index
+     * @return the weight of edge e
+     */
+    public double weight(int e) {
+        return mapped == null ? weights[e] : mapped.weight(e);
+    }
+
+    /**
+     * Perform Breadth-First Search (BFS) on the snapshot.
+     *
+     * @param start the starting vertex for BFS
+     * @return list of vertices in BFS order
+     */
+    public List<V> bfs(V start) {
+        return toVertices(bfsIds(requireId(start)));
+    }
+
+    /**
+     * Perform Breadth-First Search (BFS) over vertex ids.
+     *
+     * @param start the id of the starting vertex
+     * @return ids of the reachable vertices in BFS order
+     */
+    public int[] bfsIds(int start) {
+        int[] queue = new int[vertexCount()];
+        boolean[] visited = new boolean[vertexCount()];
+        int head = 0;
+        int tail = 0;
+
+        queue[tail++] = start;
+        visited[start] = true;
+
+        while (head < tail) {
+            int vertex = queue[head++];
+            for (int e = firstEdge(vertex); e < endEdge(vertex); e++) {
+                int next = target(e);
+                if (!visited[next]) {
+                    visited[next] = true;
+                    queue[tail++] = next;
+                }
+            }
+        }
+
+        return Arrays.copyOf(queue, tail);
+    }
+
+    /**
+     * Perform a level-synchronous parallel BFS on the common fork/join pool, switching
+     * between top-down and bottom-up steps as the frontier grows and shrinks.
+     *
+     * @param start the starting vertex for BFS
+     * @return the level and BFS tree parent of every vertex
+     */
+    public BfsResult<V> parallelBfs(V start) {
+        return ParallelBfs.run(this, requireId(start));
+    }
+
+    /**
+     * Compute hop distances from many sources with bit-parallel multi-source BFS, which
+     * shares every neighbor scan among up to 64 searches.
+     *
+     * @param sources the source vertices
+     * @return {@code distances[i][v]}, the hops from {@code sources.get(i)} to vertex id v,
+     *         or -1 if unreachable
+     */
+    public int[][] hopDistances(List<V> sources) {
+        return MultiSourceBfs.run(this, requireIds(sources));
+    }
+
+    /**
+     * Compute shortest path distances from every source to every target, running one
+     * search per source in parallel on the common fork/join pool. Each search stops once
+     * all targets are settled.
+     *
+     * @param sources the source vertices
+     * @param targets the target vertices
+     * @return {@code matrix[i][j]}, the distance from {@code sources.get(i)} to
+     *         {@code targets.get(j)}, {@code POSITIVE_INFINITY} if unreachable
+     */
+    public double[][] distanceMatrix(List<V> sources, List<V> targets) {
+        return DistanceMatrix.compute(
+            this,
+            requireIds(sources),
+            requireIds(targets)
+        );
+    }
+
+    /**
+     * Perform Depth-First Search (DFS) on the snapshot. The visiting order is the same
+     * pre-order {@link GraphTraversalUtils#dfs(Object)} produces.
+     *
+     * @param start the starting vertex for DFS
+     * @return list of vertices in DFS order
+     */
+    public List<V> dfs(V start) {
+        return toVertices(dfsIds(requireId(start)));
+    }
+
+    /**
+     * Perform Depth-First Search (DFS) over vertex ids using an explicit stack.
+     *
+     * @param start the id of the starting vertex
+     * @return ids of the reachable vertices in DFS pre-order
+     */
+    public int[] dfsIds(int start) {
+        int n = vertexCount();
+        int[] order = new int[n];
+        int[] stackVertex = new int[n];
+        int[] stackEdge = new int[n];
+        boolean[] visited = new boolean[n];
+        int count = 0;
+        int depth = 0;
+
+        visited[start] = true;
+        order[count++] = start;
+        stackVertex[depth] = start;
+        stackEdge[depth++] = firstEdge(start);
+
+        while (depth > 0) {
+            int vertex = stackVertex[depth - 1];
+            int e = stackEdge[depth - 1];
+            if (e == endEdge(vertex)) {
+                depth--;
+                continue;
+            }
+            stackEdge[depth - 1] = e + 1;
+            int next = target(e);
+            if (!visited[next]) {
+                visited[next] = true;
+                order[count++] = next;
+                stackVertex[depth] = next;
+                stackEdge[depth++] = firstEdge(next);
+            }
+        }
+
+        return Arrays.copyOf(order, count);
+    }
+
+    /**
+     * Perform Dijkstra's algorithm to find the shortest paths from a source vertex to all other vertices.
+     * Assumes non-negative weights for edges.
+     *
+     * @param source the source vertex
+     * @return a map of vertices to their shortest distance from the source
+     */
+    public Map<V, Double> dijkstra(V source) {
+        DijkstraWorkspace workspace = workspaces.borrow();
+        try {
+            return toVertexMap(dijkstra(requireId(source), workspace).distance);
+        } finally {
+            workspaces.release(workspace);
+        }
+    }
+
+    /**
+     * Perform Dijkstra's algorithm over vertex ids.
+     *
+     * @param source the id of the source vertex
+     * @return distances indexed by vertex id, {@code POSITIVE_INFINITY} for unreachable vertices
+     */
+    public double[] dijkstraIds(int source) {
+        return dijkstra(source, newWorkspace()).distance;
+    }
+
+    /**
+     * Perform Dijkstra's algorithm over vertex ids inside a reusable workspace. Uses an
+     * indexed d-ary heap with decrease-key and primitive distance arrays, so a query
+     * allocates nothing once the workspace exists.
+     *
+     * @param source    the id of the source vertex
+     * @param workspace the workspace to reset and fill with distances and predecessors
+     * @return the given workspace
+     */
+    public DijkstraWorkspace dijkstra(int source, DijkstraWorkspace workspace) {
+        return dijkstra(source, workspace, null);
+    }
+
+    /**
+     * Perform Dijkstra's algorithm over vertex ids inside a reusable workspace,
+     * counting the work done.
+     *
+     * @param source    the id of the source vertex
+     * @param workspace the workspace to reset and fill with distances and predecessors
+     * @param stats     receives the work done by the query, or null
+     * @return the given workspace
+     */
+    public DijkstraWorkspace dijkstra(
+        int source,
+        DijkstraWorkspace workspace,
+        TraversalStats stats
+    ) {
+        requireCapacity(workspace);
+        if (stats != null) {
+            stats.start();
+        }
+        try {
+            workspace.reset();
+            IndexedDaryHeap heap = workspace.heap;
+            double[] distance = workspace.distance;
+
+            workspace.update(source, 0.0, -1);
+            push(heap, source, 0.0, stats);
+
+            while (!heap.isEmpty()) {
+                int current = heap.poll();
+                double currentDistance = distance[current];
+                if (stats != null) {
+                    stats.popped();
+                    stats.settled();
+                }
+
+                for (int e = firstEdge(current); e < endEdge(current); e++) {
+                    int next = target(e);
+                    double newDistance = currentDistance + weight(e);
+                    if (stats != null) {
+                        stats.relaxed();
+                    }
+                    if (newDistance < distance[next]) {
+                        workspace.update(next, newDistance, current);
+                        push(heap, next, newDistance, stats);
+                    }
+                }
+            }
+
+            return workspace;
+        } finally {
+            if (stats != null) {
+                stats.stop();
+            }
+        }
+    }
+
+    /**
+     * Inserts or decreases an id, telling the stats which of the two it was.
+     */
+    private static void push(
+        IndexedDaryHeap heap,
+        int id,
+        double key,
+        TraversalStats stats
+    ) {
+        if (stats == null) {
+            heap.insertOrDecrease(id, key);
+            return;
+        }
+        boolean decrease = heap.contains(id);
+        heap.insertOrDecrease(id, key);
+        stats.pushed(decrease, heap.size());
+    }
+
+    /**
+     * @return a new workspace sized for this graph
+     */
+    public DijkstraWorkspace newWorkspace() {
+        return new DijkstraWorkspace(vertexCount());
+    }
+
+    /**
+     * @return an idle workspace from the pool of this graph, or a new one
+     */
+    DijkstraWorkspace borrowWorkspace() {
+        return workspaces.borrow();
+    }
+
+    /**
+     * @param workspace a workspace obtained from {@link #borrowWorkspace()}
+     */
+    void releaseWorkspace(DijkstraWorkspace workspace) {
+        workspaces.release(workspace);
+    }
+
+    /**
+     * Returns the transposed graph, in which every edge points the other way. It shares
+     * the vertex ids of this graph and is built once on first use.
+     *
+     * @return the reverse graph
+     */
+    public CsrGraph<V> reverse() {
+        CsrGraph<V> result = reverse;
+        if (result == null) {
+            synchronized (this) {
+                result = reverse;
+                if (result == null) {
+                    result = mapped != null && mapped.reverse() != null
+                        ? new CsrGraph<>(dictionary, mapped.reverse())
+                        : buildReverse();
+                    result.reverse = this;
+                    reverse = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private CsrGraph<V> buildReverse() {
+        int n = vertexCount();
+        int[] reverseOffsets = new int[n + 1];
+        int[] reverseTargets = new int[edgeCount];
+        double[] reverseWeights = new double[edgeCount];
+
+        for (int e = 0; e < edgeCount; e++) {
+            reverseOffsets[target(e) + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            reverseOffsets[v + 1] += reverseOffsets[v];
+        }
+        int[] next = Arrays.copyOf(reverseOffsets, n);
+        for (int v = 0; v < n; v++) {
+            for (int e = firstEdge(v); e < endEdge(v); e++) {
+                int slot = next[target(e)]++;
+                reverseTargets[slot] = v;
+                reverseWeights[slot] = weight(e);
+            }
+        }
+
+        return new CsrGraph<>(
+            dictionary,
+            reverseOffsets,
+            reverseTargets,
+            reverseWeights
+        );
+    }
+
+    /**
+     * @return true if the edges are read from a memory-mapped {@link GraphFile}
+     */
+    public boolean isMapped() {
+        return mapped != null;
+    }
+
+    /**
+     * Write this graph to a {@link GraphFile} that {@link #open(Path)} maps back in.
+     * The reverse edges are stored too, so searches that walk edges backwards need no
+     * transposition after opening.
+     *
+     * @param path the file to create or overwrite
+     * @throws IOException if writing fails or a vertex is not serializable
+     */
+    public void write(Path path) throws IOException {
+        GraphFile.write(this, path, true);
+    }
+
+    /**
+     * Open a graph written by {@link #write(Path)}. See {@link GraphFile#open(Path)}.
+     *
+     * @param path the graph file
+     * @param <V>  the type of vertex in the graph
+     * @return a graph that reads its edges from the mapped file
+     * @throws IOException if the file cannot be mapped or is not a graph file
+     */
+    public static <V> CsrGraph<V> open(Path path) throws IOException {
+        return GraphFile.open(path);
+    }
+
+    /**
+     * Find the shortest path between two vertices with bidirectional Dijkstra.
+     * Borrows its workspaces from a small pool kept on this snapshot.
+     *
+     * @param source the source vertex
+     * @param target the target vertex
+     * @return the shortest path including both endpoints together with its cost
+     */
+    public GraphTraversalUtils.PathResult<V> shortestPath(V source, V target) {
+        return shortestPath(source, target, (TraversalStats) null);
+    }
+
+    /**
+     * Find the shortest path between two vertices with bidirectional Dijkstra, counting
+     * the work done.
+     *
+     * @param source the source vertex
+     * @param target the target vertex
+     * @param stats  receives the work done by the query, or null
+     * @return the shortest path including both endpoints together with its cost
+     */
+    public GraphTraversalUtils.PathResult<V> shortestPath(
+        V source,
+        V target,
+        TraversalStats stats
+    ) {
+        return pooledShortestPath(
+            requireId(source),
+            requireId(target),
+            null,
+            stats
+        );
+    }
+
+    /**
+     * Find the shortest path between two vertices with bidirectional A*, using the
+     * average of the forward and backward heuristic as potential. The heuristic must be
+     * consistent for the result to be optimal.
+     *
+     * @param source    the source vertex
+     * @param target    the target vertex
+     * @param heuristic a consistent heuristic estimating the cost between two vertices
+     * @return the shortest path including both endpoints together with its cost
+     */
+    public GraphTraversalUtils.PathResult<V> shortestPath(
+        V source,
+        V target,
+        GraphTraversalUtils.Heuristic<V> heuristic
+    ) {
+        return shortestPath(source, target, heuristic, null);
+    }
+
+    /**
+     * Find the shortest path between two vertices with bidirectional A*, counting the
+     * work done.
+     *
+     * @param source    the source vertex
+     * @param target    the target vertex
+     * @param heuristic a consistent heuristic estimating the cost between two vertices
+     * @param stats     receives the work done by the query, or null
+     * @return the shortest path including both endpoints together with its cost
+     */
+    @SuppressWarnings("unchecked")
+    public GraphTraversalUtils.PathResult<V> shortestPath(
+        V source,
+        V target,
+        GraphTraversalUtils.Heuristic<V> heuristic,
+        TraversalStats stats
+    ) {
+        int sourceId = requireId(source);
+        int targetId = requireId(target);
+        IntToDoubleFunction potential;
+        if (
+            heuristic instanceof Landmarks &&
+            ((Landmarks<V>) heuristic).isFor(this)
+        ) {
+            // Landmark bounds work on ids, which skips two dictionary lookups per call
+            Landmarks<V> landmarks = (Landmarks<V>) heuristic;
+            potential = v ->
+                (landmarks.lowerBound(v, targetId) -
+                    landmarks.lowerBound(sourceId, v)) /
+                2;
+        } else {
+            potential = v -> {
+                V vertex = vertexAt(v);
+                return (
+                    (heuristic.calculate(vertex, target) -
+                        heuristic.calculate(source, vertex)) /
+                    2
+                );
+            };
+        }
+        return pooledShortestPath(sourceId, targetId, potential, stats);
+    }
+
+    /**
+     * Runs a bidirectional search in two workspaces borrowed from the pool of this graph.
+     */
+    private GraphTraversalUtils.PathResult<V> pooledShortestPath(
+        int source,
+        int target,
+        IntToDoubleFunction potential,
+        TraversalStats stats
+    ) {
+        DijkstraWorkspace forward = workspaces.borrow();
+        DijkstraWorkspace backward = workspaces.borrow();
+        try {
+            return shortestPath(source, target, potential, forward, backward, stats);
+        } finally {
+            workspaces.release(forward);
+            workspaces.release(backward);
+        }
+    }
+
+    /**
+     * Bidirectional point-to-point search over vertex ids. The forward search orders
+     * vertices by {@code d(s, v) + p(v)} and the backward search by {@code d(v, t) - p(v)};
+     * the search stops once the sum of both minimum keys reaches the best path seen.
+     * With a zero potential this is bidirectional Dijkstra, with a consistent potential
+     * it is bidirectional A*.
+     *
+     * @param source    the id of the source vertex
+     * @param target    the id of the target vertex
+     * @param potential the forward potential p, or null for none
+     * @param forward   workspace for the forward search
+     * @param backward  workspace for the backward search
+     * @return the shortest path including both endpoints together with its cost
+     */
+    public GraphTraversalUtils.PathResult<V> shortestPath(
+        int source,
+        int target,
+        IntToDoubleFunction potential,
+        DijkstraWorkspace forward,
+        DijkstraWorkspace backward
+    ) {
+        return shortestPath(source, target, potential, forward, backward, null);
+    }
+
+    /**
+     * Bidirectional point-to-point search over vertex ids, counting the work done.
+     *
+     * @param source    the id of the source vertex
+     * @param target    the id of the target vertex
+     * @param potential the forward potential p, or null for none
+     * @param forward   workspace for the forward search
+     * @param backward  workspace for the backward search
+     * @param stats     receives the work done by the query, or null
+     * @return the shortest path including both endpoints together with its cost
+     */
+    public GraphTraversalUtils.PathResult<V> shortestPath(
+        int source,
+        int target,
+        IntToDoubleFunction potential,
+        DijkstraWorkspace forward,
+        DijkstraWorkspace backward,
+        TraversalStats stats
+    ) {
+        requireCapacity(forward);
+        requireCapacity(backward);
+        if (stats == null) {
+            return bidirectional(source, target, potential, forward, backward, null);
+        }
+        stats.start();
+        try {
+            return bidirectional(source, target, potential, forward, backward, stats);
+        } finally {
+            stats.stop();
+        }
+    }
+
+    private GraphTraversalUtils.PathResult<V> bidirectional(
+        int source,
+        int target,
+        IntToDoubleFunction potential,
+        DijkstraWorkspace forward,
+        DijkstraWorkspace backward,
+        TraversalStats stats
+    ) {
+        forward.reset();
+        backward.reset();
+        if (source == target) {
+            return new GraphTraversalUtils.PathResult<>(
+                Collections.singletonList(vertexAt(source)),
+                0.0
+            );
+        }
+
+        CsrGraph<V> backwardGraph = reverse();
+        IndexedDaryHeap forwardHeap = forward.heap;
+        IndexedDaryHeap backwardHeap = backward.heap;
+        double best = Double.POSITIVE_INFINITY;
+        int meeting = -1;
+
+        forward.update(source, 0.0, -1);
+        push(forwardHeap, source, potentialOf(potential, source), stats);
+        backward.update(target, 0.0, -1);
+        push(backwardHeap, target, -potentialOf(potential, target), stats);
+
+        while (!forwardHeap.isEmpty() && !backwardHeap.isEmpty()) {
+            if (forwardHeap.peekKey() + backwardHeap.peekKey() >= best) {
+                break;
+            }
+            boolean forwardStep = forwardHeap.peekKey() <= backwardHeap.peekKey();
+            CsrGraph<V> graph = forwardStep ? this : backwardGraph;
+            DijkstraWorkspace own = forwardStep ? forward : backward;
+            DijkstraWorkspace other = forwardStep ? backward : forward;
+            double sign = forwardStep ? 1.0 : -1.0;
+
+            int current = own.heap.poll();
+            double currentDistance = own.distance[current];
+            if (stats != null) {
+                stats.popped();
+                stats.settled();
+            }
+            for (
+                int e = graph.firstEdge(current);
+                e < graph.endEdge(current);
+                e++
+            ) {
+                int next = graph.target(e);
+                double newDistance = currentDistance + graph.weight(e);
+                if (stats != null) {
+                    stats.relaxed();
+                }
+                if (newDistance < own.distance[next]) {
+                    own.update(next, newDistance, current);
+                    push(
+                        own.heap,
+                        next,
+                        newDistance + sign * potentialOf(potential, next),
+                        stats
+                    );
+                    double through = newDistance + other.distance[next];
+                    if (through < best) {
+                        best = through;
+                        meeting = next;
+                    }
+                }
+            }
+        }
+
+        if (meeting < 0) {
+            return GraphTraversalUtils.PathResult.notFound();
+        }
+        List<V> path = new ArrayList<>();
+        for (int v = meeting; v != -1; v = forward.parent[v]) {
+            path.add(vertexAt(v));
+        }
+        Collections.reverse(path);
+        for (int v = backward.parent[meeting]; v != -1; v = backward.parent[v]) {
+            path.add(vertexAt(v));
+        }
+        return new GraphTraversalUtils.PathResult<>(path, best);
+    }
+
+    private static double potentialOf(IntToDoubleFunction potential, int v) {
+        return potential == null ? 0.0 : potential.applyAsDouble(v);
+    }
+
+    /**
+     * A-star (A*) search on the snapshot. Follows the same contract as
+     * {@link GraphTraversalUtils#aStar(Object, Object, GraphTraversalUtils.Heuristic)}:
+     * the returned path excludes the start vertex and is empty if the goal is unreachable.
+     *
+     * @param start the starting vertex
+     * @param goal  the goal vertex
+     * @param heuristic a heuristic function estimating cost from current to goal
+     * @return list of vertices representing the shortest path from start to goal
+     */
+    public List<V> aStar(
+        V start,
+        V goal,
+        GraphTraversalUtils.Heuristic<V> heuristic
+    ) {
+        return aStar(start, goal, heuristic, null);
+    }
+
+    /**
+     * A-star (A*) search on the snapshot, counting the work done.
+     *
+     * @param start     the starting vertex
+     * @param goal      the goal vertex
+     * @param heuristic a heuristic function estimating cost from current to goal
+     * @param stats     receives the work done by the query, or null
+     * @return list of vertices representing the shortest path from start to goal
+     */
+    public List<V> aStar(
+        V start,
+        V goal,
+        GraphTraversalUtils.Heuristic<V> heuristic,
+        TraversalStats stats
+    ) {
+        int startId = requireId(start);
+        int goalId = requireId(goal);
+        if (stats == null) {
+            return aStar(startId, goalId, heuristic, null);
+        }
+        stats.start();
+        try {
+            return aStar(startId, goalId, heuristic, stats);
+        } finally {
+            stats.stop();
+        }
+    }
+
+    /**
+     * A* over vertex ids in a workspace borrowed from the pool of this graph. Does not
+     * time the query; the public overloads and the graph do that around it.
+     *
+     * @param startId   the id of the starting vertex
+     * @param goalId    the id of the goal vertex
+     * @param heuristic a heuristic function estimating cost from current to goal
+     * @param stats     receives the work done by the query, or null
+     * @return list of vertices on the path, excluding the start vertex
+     */
+    List<V> aStar(
+        int startId,
+        int goalId,
+        GraphTraversalUtils.Heuristic<V> heuristic,
+        TraversalStats stats
+    ) {
+        DijkstraWorkspace workspace = workspaces.borrow();
+        try {
+            return aStar(startId, goalId, heuristic, workspace, stats);
+        } finally {
+            workspaces.release(workspace);
+        }
+    }
+
+    /**
+     * A* over vertex ids in a workspace: the indexed heap is keyed by {@code g + h} and
+     * the distance array holds g, so an improved vertex is decreased in place instead of
+     * pushed again.
+     */
+    private List<V> aStar(
+        int startId,
+        int goalId,
+        GraphTraversalUtils.Heuristic<V> heuristic,
+        DijkstraWorkspace workspace,
+        TraversalStats stats
+    ) {
+        V goal = vertexAt(goalId);
+        workspace.reset();
+        IndexedDaryHeap heap = workspace.heap;
+        double[] gScore = workspace.distance;
+
+        workspace.update(startId, 0.0, -1);
+        push(heap, startId, heuristic.calculate(vertexAt(startId), goal), stats);
+
+        while (!heap.isEmpty()) {
+            int current = heap.poll();
+            if (stats != null) {
+                stats.popped();
+                stats.settled();
+            }
+            if (current == goalId) {
+                return reconstructPath(workspace.parent, current);
+            }
+
+            double currentGScore = gScore[current];
+            for (int e = firstEdge(current); e < endEdge(current); e++) {
+                int next = target(e);
+                double tentativeGScore = currentGScore + weight(e);
+                if (stats != null) {
+                    stats.relaxed();
+                }
+                if (tentativeGScore < gScore[next]) {
+                    workspace.update(next, tentativeGScore, current);
+                    push(
+                        heap,
+                        next,
+                        tentativeGScore + heuristic.calculate(vertexAt(next), goal),
+                        stats
+                    );
+                }
+            }
+        }
+
+        return Collections.emptyList(); // No path found
+    }
+
+    /**
+     * Reconstructs the path ending in {@code current} from a predecessor array.
+     *
+     * @param cameFrom predecessor id of every vertex, -1 where there is none
+     * @param current  the id of the last vertex of the path
+     * @return list of vertices on the path, excluding the vertex without predecessor
+     */
+    List<V> reconstructPath(int[] cameFrom, int current) {
+        List<V> path = new ArrayList<>();
+        while (cameFrom[current] != -1) {
+            path.add(vertexAt(current));
+            current = cameFrom[current];
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    void requireCapacity(DijkstraWorkspace workspace) {
+        if (workspace.capacity() < vertexCount()) {
+            throw new IllegalArgumentException(
+                "Workspace holds " +
+                workspace.capacity() +
+                " vertices but the graph has " +
+                vertexCount()
+            );
+        }
+    }
+
+    int requireId(V vertex) {
+        int id = idOf(vertex);
+        if (id < 0) {
+            throw new IllegalArgumentException(
+                "Vertex " + vertex + " is not part of the graph"
+            );
+        }
+        return id;
+    }
+
+    int[] requireIds(List<V> vertices) {
+        int[] result = new int[vertices.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = requireId(vertices.get(i));
+        }
+        return result;
+    }
+
+    Map<V, Double> toVertexMap(double[] values) {
+        Map<V, Double> result = new HashMap<>(
+            (int) (values.length / 0.75f) + 1
+        );
+        for (int v = 0; v < values.length; v++) {
+            result.put(vertexAt(v), values[v]);
+        }
+        return result;
+    }
+
+    List<V> toVertices(int[] order) {
+        List<V> result = new ArrayList<>(order.length);
+        for (int id : order) {
+            result.add(vertexAt(id));
+        }
+        return result;
+    }
+
+    /**
+     * The vertices of a graph and their dense ids, shared by a graph and its reverse.
+     * A dictionary read from a {@link GraphFile} is loaded on first lookup only, so
+     * algorithms that work on ids alone never pay for deserializing it.
+     */
+    static class VertexDictionary<V> {
+
+        private final int size;
+        private final Callable<Object[]> loader;
+        private volatile Object[] vertices;
+        private Map<V, Integer> ids;
+
+        VertexDictionary(Object[] vertices, Map<V, Integer> ids) {
+            this.size = vertices.length;
+            this.loader = null;
+            this.ids = ids;
+            this.vertices = vertices;
+        }
+
+        VertexDictionary(int size, Callable<Object[]> loader) {
+            this.size = size;
+            this.loader = loader;
+        }
+
+        Object[] vertices() {
+            Object[] result = vertices;
+            if (result == null) {
+                synchronized (this) {
+                    result = vertices;
+                    if (result == null) {
+                        result = load();
+                    }
+                }
+            }
+            return result;
+        }
+
+        Map<V, Integer> ids() {
+            vertices();
+            return ids;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Object[] load() {
+            Object[] loaded;
+            try {
+                loaded = loader.call();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (Exception e) {
+                throw new IllegalStateException(
+                    "Cannot load vertex dictionary",
+                    e
+                );
+            }
+            Map<V, Integer> index = new HashMap<>(
+                (int) (loaded.length / 0.75f) + 1
+            );
+            for (int i = 0; i < loaded.length; i++) {
+                index.put((V) loaded[i], i);
+            }
+            ids = index;
+            vertices = loaded;
+            return loaded;
+        }
+    }
+}
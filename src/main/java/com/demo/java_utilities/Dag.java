@@ -0,0 +1,352 @@
+package com.demo.java_utilities;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Topological view of an acyclic {@link CsrGraph}. The vertices are sorted with Kahn's
+ * algorithm one level at a time: level 0 holds the vertices without incoming edges and
+ * level {@code k + 1} the vertices whose last predecessor is on level {@code k}. The
+ * vertices of one level never depend on each other, so each level can be run in
+ * parallel once the previous one is done, and the levels themselves are found that way.
+ * <p>
+ * Shortest and longest paths relax every edge once in topological order, which takes
+ * linear time, needs no heap and allows negative weights.
+ *
+ * @param <V> the type of vertex in the graph
+ */
+public class Dag<V> {
+
+    private static final int GRAIN = 1024;
+
+    private final CsrGraph<V> graph;
+    private final int[] order;
+    private final int[] position;
+    private final int[] level;
+    private final int[] levelStart;
+
+    private Dag(CsrGraph<V> graph, int[] order, int[] level, int[] levelStart) {
+        this.graph = graph;
+        this.order = order;
+        this.level = level;
+        this.levelStart = levelStart;
+        this.position = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            position[order[i]] = i;
+        }
+    }
+
+    /**
+     * Sort a graph topologically on the common fork/join pool.
+     *
+     * @param graph the graph to sort
+     * @param <V>   the type of vertex in the graph
+     * @return the topological view, or empty if the graph has a cycle
+     */
+    public static <V> Optional<Dag<V>> of(CsrGraph<V> graph) {
+        return of(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sort a graph topologically. Large levels are processed in parallel, the vertices
+     * of a level sorted by id so that the result does not depend on scheduling.
+     *
+     * @param graph the graph to sort
+     * @param pool  the pool that processes the levels
+     * @param <V>   the type of vertex in the graph
+     * @return the topological view, or empty if the graph has a cycle
+     */
+    public static <V> Optional<Dag<V>> of(CsrGraph<V> graph, ForkJoinPool pool) {
+        int n = graph.vertexCount();
+        AtomicIntegerArray inDegree = new AtomicIntegerArray(n);
+        pool.invoke(
+            new RangeTask(
+                0,
+                n,
+                GRAIN,
+                (lo, hi) -> {
+                    for (int v = lo; v < hi; v++) {
+                        for (
+                            int e = graph.firstEdge(v);
+                            e < graph.endEdge(v);
+                            e++
+                        ) {
+                            inDegree.incrementAndGet(graph.target(e));
+                        }
+                    }
+                }
+            )
+        );
+
+        int[] order = new int[n];
+        int[] level = new int[n];
+        AtomicInteger size = new AtomicInteger();
+        for (int v = 0; v < n; v++) {
+            if (inDegree.get(v) == 0) {
+                order[size.getAndIncrement()] = v;
+            }
+        }
+
+        List<Integer> levelStart = new ArrayList<>();
+        int start = 0;
+        while (start < size.get()) {
+            int end = size.get();
+            int depth = levelStart.size();
+            levelStart.add(start);
+            // Releases the successors of the level into the next one
+            RangeTask.Body body = (lo, hi) -> {
+                for (int i = lo; i < hi; i++) {
+                    int v = order[i];
+                    for (
+                        int e = graph.firstEdge(v);
+                        e < graph.endEdge(v);
+                        e++
+                    ) {
+                        int next = graph.target(e);
+                        if (inDegree.decrementAndGet(next) == 0) {
+                            level[next] = depth + 1;
+                            order[size.getAndIncrement()] = next;
+                        }
+                    }
+                }
+            };
+            if (end - start <= GRAIN) {
+                body.apply(start, end);
+            } else {
+                pool.invoke(new RangeTask(start, end, GRAIN, body));
+            }
+            Arrays.sort(order, end, size.get());
+            start = end;
+        }
+
+        if (size.get() < n) {
+            return Optional.empty();
+        }
+        levelStart.add(n);
+        int[] starts = new int[levelStart.size()];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = levelStart.get(i);
+        }
+        return Optional.of(new Dag<>(graph, order, level, starts));
+    }
+
+    /**
+     * @return the graph this view sorts
+     */
+    public CsrGraph<V> graph() {
+        return graph;
+    }
+
+    /**
+     * @return the vertices in topological order
+     */
+    public List<V> order() {
+        return graph.toVertices(order);
+    }
+
+    /**
+     * @return the vertex ids in topological order
+     */
+    public int[] orderIds() {
+        return order.clone();
+    }
+
+    /**
+     * @return the number of levels, the number of vertices on the longest path
+     */
+    public int levelCount() {
+        return levelStart.length - 1;
+    }
+
+    /**
+     * @param v the vertex id
+     * @return the level of v
+     */
+    public int level(int v) {
+        return level[v];
+    }
+
+    /**
+     * @param vertex a vertex of the graph
+     * @return the level of the vertex
+     */
+    public int levelOf(V vertex) {
+        return level[graph.requireId(vertex)];
+    }
+
+    /**
+     * @param depth the level
+     * @return the ids of the vertices on that level, in ascending order
+     */
+    public int[] levelIds(int depth) {
+        return Arrays.copyOfRange(
+            order,
+            levelStart[depth],
+            levelStart[depth + 1]
+        );
+    }
+
+    /**
+     * Groups the vertices by level: a schedule in which every vertex of a level may run
+     * in parallel once all levels before it are done.
+     *
+     * @return one list of vertices per level
+     */
+    public List<List<V>> levels() {
+        List<List<V>> levels = new ArrayList<>(levelCount());
+        for (int depth = 0; depth < levelCount(); depth++) {
+            levels.add(graph.toVertices(levelIds(depth)));
+        }
+        return levels;
+    }
+
+    /**
+     * Find the shortest distance from a source to every vertex.
+     *
+     * @param source the source vertex
+     * @return a map of vertices to their shortest distance from the source,
+     *         {@code POSITIVE_INFINITY} if unreachable
+     */
+    public Map<V, Double> shortestPaths(V source) {
+        return graph.toVertexMap(shortestDistances(graph.requireId(source)));
+    }
+
+    /**
+     * @param source the id of the source vertex
+     * @return shortest distances indexed by vertex id, {@code POSITIVE_INFINITY} for
+     *         unreachable vertices
+     */
+    public double[] shortestDistances(int source) {
+        return relax(source, false, null);
+    }
+
+    /**
+     * Find the longest distance from a source to every vertex.
+     *
+     * @param source the source vertex
+     * @return a map of vertices to their longest distance from the source,
+     *         {@code NEGATIVE_INFINITY} if unreachable
+     */
+    public Map<V, Double> longestPaths(V source) {
+        return graph.toVertexMap(longestDistances(graph.requireId(source)));
+    }
+
+    /**
+     * @param source the id of the source vertex
+     * @return longest distances indexed by vertex id, {@code NEGATIVE_INFINITY} for
+     *         unreachable vertices
+     */
+    public double[] longestDistances(int source) {
+        return relax(source, true, null);
+    }
+
+    /**
+     * Find the shortest path between two vertices.
+     *
+     * @param source the source vertex
+     * @param target the target vertex
+     * @return the shortest path including both endpoints together with its cost
+     */
+    public GraphTraversalUtils.PathResult<V> shortestPath(V source, V target) {
+        return path(graph.requireId(source), graph.requireId(target), false);
+    }
+
+    /**
+     * Find the longest path between two vertices.
+     *
+     * @param source the source vertex
+     * @param target the target vertex
+     * @return the longest path including both endpoints together with its cost
+     */
+    public GraphTraversalUtils.PathResult<V> longestPath(V source, V target) {
+        return path(graph.requireId(source), graph.requireId(target), true);
+    }
+
+    /**
+     * Find the critical path: the longest path between any two vertices, which bounds
+     * the run time of a schedule when the weights are task durations.
+     *
+     * @return the longest path in the graph together with its cost, not found for an
+     *         empty graph
+     */
+    public GraphTraversalUtils.PathResult<V> criticalPath() {
+        if (order.length == 0) {
+            return GraphTraversalUtils.PathResult.notFound();
+        }
+        int[] parent = new int[order.length];
+        double[] distance = relax(-1, true, parent);
+        int end = 0;
+        for (int v = 1; v < distance.length; v++) {
+            if (distance[v] > distance[end]) {
+                end = v;
+            }
+        }
+        return pathTo(end, distance[end], parent);
+    }
+
+    private GraphTraversalUtils.PathResult<V> path(
+        int source,
+        int target,
+        boolean longest
+    ) {
+        int[] parent = new int[order.length];
+        double[] distance = relax(source, longest, parent);
+        if (Double.isInfinite(distance[target])) {
+            return GraphTraversalUtils.PathResult.notFound();
+        }
+        return pathTo(target, distance[target], parent);
+    }
+
+    private GraphTraversalUtils.PathResult<V> pathTo(
+        int target,
+        double cost,
+        int[] parent
+    ) {
+        List<V> path = new ArrayList<>();
+        for (int v = target; v != -1; v = parent[v]) {
+            path.add(graph.vertexAt(v));
+        }
+        Collections.reverse(path);
+        return new GraphTraversalUtils.PathResult<>(path, cost);
+    }
+
+    /**
+     * Relaxes the edges in topological order starting at the source, or at every
+     * vertex with distance 0 if source is -1.
+     *
+     * @param parent receives the predecessor of every vertex, or null
+     */
+    private double[] relax(int source, boolean longest, int[] parent) {
+        double unreached = longest
+            ? Double.NEGATIVE_INFINITY
+            : Double.POSITIVE_INFINITY;
+        double[] distance = new double[order.length];
+        Arrays.fill(distance, source == -1 ? 0.0 : unreached);
+        if (parent != null) {
+            Arrays.fill(parent, -1);
+        }
+        if (source != -1) {
+            distance[source] = 0.0;
+        }
+
+        for (int i = source == -1 ? 0 : position[source]; i < order.length; i++) {
+            int v = order[i];
+            if (distance[v] == unreached) {
+                continue;
+            }
+            for (int e = graph.firstEdge(v); e < graph.endEdge(v); e++) {
+                int next = graph.target(e);
+                double candidate = distance[v] + graph.weight(e);
+                if (longest ? candidate > distance[next] : candidate < distance[next]) {
+                    distance[next] = candidate;
+                    if (parent != null) {
+                        parent[next] = v;
+                    }
+                }
+            }
+        }
+        return distance;
+    }
+}
@@ -0,0 +1,369 @@
+package com.demo.java_utilities;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAccumulator;
+
+/**
+ * Parallel single-source shortest paths with delta-stepping (Meyer and Sanders).
+ * Vertices are kept in buckets of width {@code delta} by tentative distance. All vertices
+ * of the lowest non-empty bucket are relaxed at once across a {@link ForkJoinPool}:
+ * light edges (weight at most delta) repeatedly until the bucket stays empty, then the
+ * heavy edges of every vertex removed from it, which can never land in the same bucket.
+ * Distances are updated with a lock-free compare-and-set minimum.
+ * <p>
+ * A small delta approaches Dijkstra with little parallelism per bucket; a large delta
+ * approaches Bellman-Ford with more redundant relaxations. {@link #suggestDelta(CsrGraph)}
+ * gives a reasonable starting point. Assumes non-negative weights for edges.
+ * <p>
+ * Splitting the edges of every vertex into light and heavy ones takes a pass over the
+ * whole graph. {@link #split(CsrGraph, double)} does it once into a {@link Split} that
+ * any number of queries with the same graph and delta can share.
+ */
+public class DeltaStepping {
+
+    private static final int MAX_BUCKETS = 1 << 20;
+    private static final int GRAIN = 256;
+    private static final int VERTEX_GRAIN = 4096;
+    private static final int EDGE_GRAIN = 1 << 16;
+
+    /**
+     * Run delta-stepping on the common fork/join pool.
+     *
+     * @param graph  the graph to search
+     * @param source the id of the source vertex
+     * @param delta  the bucket width
+     * @return distances indexed by vertex id, {@code POSITIVE_INFINITY} for unreachable vertices
+     */
+    public static double[] run(CsrGraph<?> graph, int source, double delta) {
+        return run(graph, source, delta, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Run delta-stepping on the given pool.
+     *
+     * @param graph  the graph to search
+     * @param source the id of the source vertex
+     * @param delta  the bucket width; raised if it would need more than 2^20 buckets
+     * @param pool   the pool that relaxes the edges of each bucket
+     * @return distances indexed by vertex id, {@code POSITIVE_INFINITY} for unreachable vertices
+     */
+    public static double[] run(
+        CsrGraph<?> graph,
+        int source,
+        double delta,
+        ForkJoinPool pool
+    ) {
+        return run(split(graph, delta, pool), source, pool);
+    }
+
+    /**
+     * Run delta-stepping on a prepared split on the common fork/join pool.
+     *
+     * @param split  the light and heavy edges of the graph to search
+     * @param source the id of the source vertex
+     * @return distances indexed by vertex id, {@code POSITIVE_INFINITY} for unreachable vertices
+     */
+    public static double[] run(Split split, int source) {
+        return run(split, source, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Run delta-stepping on a prepared split on the given pool.
+     *
+     * @param split  the light and heavy edges of the graph to search
+     * @param source the id of the source vertex
+     * @param pool   the pool that relaxes the edges of each bucket
+     * @return distances indexed by vertex id, {@code POSITIVE_INFINITY} for unreachable vertices
+     */
+    public static double[] run(Split split, int source, ForkJoinPool pool) {
+        return new Search(split, pool).run(source);
+    }
+
+    /**
+     * Split the edges of a graph into light and heavy ones on the common fork/join pool.
+     *
+     * @param graph the graph to search
+     * @param delta the bucket width; raised if it would need more than 2^20 buckets
+     * @return the split, reusable by every query with this graph and delta
+     */
+    public static Split split(CsrGraph<?> graph, double delta) {
+        return split(graph, delta, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Split the edges of a graph into light and heavy ones on the given pool.
+     *
+     * @param graph the graph to search
+     * @param delta the bucket width; raised if it would need more than 2^20 buckets
+     * @param pool  the pool that scans the edges
+     * @return the split, reusable by every query with this graph and delta
+     */
+    public static Split split(CsrGraph<?> graph, double delta, ForkJoinPool pool) {
+        if (!(delta > 0)) {
+            throw new IllegalArgumentException("Delta must be positive");
+        }
+        return new Split(graph, delta, pool);
+    }
+
+    /**
+     * Suggests a bucket width of the maximum edge weight divided by the average out-degree.
+     *
+     * @param graph the graph to search
+     * @return a positive bucket width
+     */
+    public static double suggestDelta(CsrGraph<?> graph) {
+        double maxWeight = maxWeight(graph, ForkJoinPool.commonPool());
+        if (maxWeight == 0.0 || graph.vertexCount() == 0) {
+            return 1.0;
+        }
+        double averageDegree = Math.max(
+            1.0,
+            (double) graph.edgeCount() / graph.vertexCount()
+        );
+        return maxWeight / averageDegree;
+    }
+
+    private static double maxWeight(CsrGraph<?> graph, ForkJoinPool pool) {
+        DoubleAccumulator max = new DoubleAccumulator(Math::max, 0.0);
+        forRange(pool, graph.edgeCount(), EDGE_GRAIN, (lo, hi) -> {
+            double local = 0.0;
+            for (int e = lo; e < hi; e++) {
+                local = Math.max(local, graph.weight(e));
+            }
+            max.accumulate(local);
+        });
+        return max.get();
+    }
+
+    /**
+     * Runs the body over {@code [0, size)}, in parallel if the range exceeds one grain.
+     */
+    private static void forRange(
+        ForkJoinPool pool,
+        int size,
+        int grain,
+        RangeTask.Body body
+    ) {
+        if (size <= grain) {
+            body.apply(0, size);
+        } else {
+            pool.invoke(new RangeTask(0, size, grain, body));
+        }
+    }
+
+    /**
+     * The edges of a graph reordered so that within each adjacency range the light edges
+     * of a bucket width come first. Immutable, so one split can serve concurrent queries.
+     */
+    public static final class Split {
+
+        private final CsrGraph<?> graph;
+        private final double requestedDelta;
+        private final double delta;
+        private final double maxWeight;
+        private final int[] targets;
+        private final double[] weights;
+        private final int[] lightEnd;
+
+        private Split(CsrGraph<?> graph, double delta, ForkJoinPool pool) {
+            this.graph = graph;
+            this.requestedDelta = delta;
+            this.maxWeight = maxWeight(graph, pool);
+            this.delta = Math.max(delta, maxWeight / (MAX_BUCKETS - 2));
+            int n = graph.vertexCount();
+            this.targets = new int[graph.edgeCount()];
+            this.weights = new double[graph.edgeCount()];
+            this.lightEnd = new int[n];
+            // Every vertex owns its adjacency range, so ranges of vertices split alone
+            forRange(pool, n, VERTEX_GRAIN, (lo, hi) -> {
+                for (int v = lo; v < hi; v++) {
+                    int light = graph.firstEdge(v);
+                    int heavy = graph.endEdge(v);
+                    for (int e = graph.firstEdge(v); e < graph.endEdge(v); e++) {
+                        int slot = graph.weight(e) <= this.delta ? light++ : --heavy;
+                        targets[slot] = graph.target(e);
+                        weights[slot] = graph.weight(e);
+                    }
+                    lightEnd[v] = light;
+                }
+            });
+        }
+
+        /**
+         * @param graph a graph
+         * @param delta a bucket width
+         * @return whether this split was made for that graph and bucket width
+         */
+        public boolean isFor(CsrGraph<?> graph, double delta) {
+            return this.graph == graph && requestedDelta == delta;
+        }
+
+        /**
+         * @return the bucket width in use, raised from the requested one if needed
+         */
+        public double delta() {
+            return delta;
+        }
+    }
+
+    private static class Search {
+
+        private final CsrGraph<?> graph;
+        private final ForkJoinPool pool;
+        private final int n;
+        private final double delta;
+        private final AtomicLongArray distance;
+        private final int[] splitTargets;
+        private final double[] splitWeights;
+        private final int[] lightEnd;
+        private final IntList[] buckets;
+        private final int[] phaseStamp;
+        private final int[] bucketStamp;
+        private final ConcurrentLinkedQueue<IntList> improved =
+            new ConcurrentLinkedQueue<>();
+        private long queued;
+
+        Search(Split split, ForkJoinPool pool) {
+            this.graph = split.graph;
+            this.pool = pool;
+            this.n = graph.vertexCount();
+            this.delta = split.delta;
+            this.splitTargets = split.targets;
+            this.splitWeights = split.weights;
+            this.lightEnd = split.lightEnd;
+            this.distance = new AtomicLongArray(n);
+            long infinity = Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+            for (int v = 0; v < n; v++) {
+                distance.set(v, infinity);
+            }
+
+            int bucketCount = (int) Math.min(
+                MAX_BUCKETS,
+                (long) Math.ceil(split.maxWeight / delta) + 2
+            );
+            this.buckets = new IntList[bucketCount];
+            for (int i = 0; i < bucketCount; i++) {
+                buckets[i] = new IntList();
+            }
+            this.phaseStamp = new int[n];
+            this.bucketStamp = new int[n];
+        }
+
+        double[] run(int source) {
+            distance.set(source, Double.doubleToRawLongBits(0.0));
+            enqueue(source);
+
+            IntList settled = new IntList();
+            int phase = 0;
+            int bucketRound = 0;
+            for (long current = 0; queued > 0; current++) {
+                IntList bucket = buckets[(int) (current % buckets.length)];
+                if (bucket.size == 0) {
+                    continue;
+                }
+                settled.size = 0;
+                bucketRound++;
+                while (bucket.size > 0) {
+                    phase++;
+                    IntList requests = new IntList();
+                    for (int i = 0; i < bucket.size; i++) {
+                        int v = bucket.items[i];
+                        if (bucketOf(v) != current || phaseStamp[v] == phase) {
+                            continue;
+                        }
+                        phaseStamp[v] = phase;
+                        requests.add(v);
+                        if (bucketStamp[v] != bucketRound) {
+                            bucketStamp[v] = bucketRound;
+                            settled.add(v);
+                        }
+                    }
+                    queued -= bucket.size;
+                    bucket.size = 0;
+                    relax(requests, true);
+                }
+                relax(settled, false);
+            }
+
+            double[] result = new double[n];
+            for (int v = 0; v < n; v++) {
+                result[v] = Double.longBitsToDouble(distance.get(v));
+            }
+            return result;
+        }
+
+        /**
+         * Relaxes the light or heavy edges of all given vertices in parallel and puts every
+         * improved vertex into the bucket of its new distance.
+         */
+        private void relax(IntList vertices, boolean light) {
+            int[] items = vertices.items;
+            RangeTask.Body body = (lo, hi) -> {
+                IntList local = new IntList();
+                for (int i = lo; i < hi; i++) {
+                    int v = items[i];
+                    double base = Double.longBitsToDouble(distance.get(v));
+                    int from = light ? graph.firstEdge(v) : lightEnd[v];
+                    int to = light ? lightEnd[v] : graph.endEdge(v);
+                    for (int e = from; e < to; e++) {
+                        if (tryLower(splitTargets[e], base + splitWeights[e])) {
+                            local.add(splitTargets[e]);
+                        }
+                    }
+                }
+                if (local.size > 0) {
+                    improved.add(local);
+                }
+            };
+            forRange(pool, vertices.size, GRAIN, body);
+
+            IntList batch;
+            while ((batch = improved.poll()) != null) {
+                for (int i = 0; i < batch.size; i++) {
+                    enqueue(batch.items[i]);
+                }
+            }
+        }
+
+        /**
+         * Lowers the distance of v to d with a compare-and-set loop. Non-negative doubles
+         * order the same way as their raw long bits.
+         */
+        private boolean tryLower(int v, double d) {
+            long bits = Double.doubleToRawLongBits(d);
+            long old;
+            do {
+                old = distance.get(v);
+                if (old <= bits) {
+                    return false;
+                }
+            } while (!distance.compareAndSet(v, old, bits));
+            return true;
+        }
+
+        private long bucketOf(int v) {
+            return (long) (Double.longBitsToDouble(distance.get(v)) / delta);
+        }
+
+        private void enqueue(int v) {
+            buckets[(int) (bucketOf(v) % buckets.length)].add(v);
+            queued++;
+        }
+    }
+
+    private static class IntList {
+
+        private int[] items = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = value;
+        }
+    }
+}
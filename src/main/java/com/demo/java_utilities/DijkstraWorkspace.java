@@ -0,0 +1,107 @@
+package com.demo.java_utilities;
+
+import java.util.Arrays;
+
+/**
+ * Reusable scratch space for shortest path queries on a {@link CsrGraph}: a distance
+ * array, a predecessor array and an {@link IndexedDaryHeap}. Only the vertices touched by
+ * the previous query are reset, so repeated queries on the same graph allocate nothing.
+ * A workspace is not thread-safe; use one per thread.
+ */
+public class DijkstraWorkspace {
+
+    final double[] distance;
+    final int[] parent;
+    final IndexedDaryHeap heap;
+    private final int[] touched;
+    private int touchedCount;
+
+    public DijkstraWorkspace(int vertexCount) {
+        this(vertexCount, IndexedDaryHeap.DEFAULT_ARITY);
+    }
+
+    public DijkstraWorkspace(int vertexCount, int arity) {
+        this.distance = new double[vertexCount];
+        this.parent = new int[vertexCount];
+        this.heap = new IndexedDaryHeap(vertexCount, arity);
+        this.touched = new int[vertexCount];
+        Arrays.fill(distance, Double.POSITIVE_INFINITY);
+        Arrays.fill(parent, -1);
+    }
+
+    /**
+     * @return the number of vertices the workspace was sized for
+     */
+    public int capacity() {
+        return distance.length;
+    }
+
+    /**
+     * @param v the vertex id
+     * @return the distance found by the last query, {@code POSITIVE_INFINITY} if not reached
+     */
+    public double distance(int v) {
+        return distance[v];
+    }
+
+    /**
+     * @param v the vertex id
+     * @return the predecessor of v in the last shortest path tree, or -1
+     */
+    public int parent(int v) {
+        return parent[v];
+    }
+
+    /**
+     * @return the number of vertices reached by the last query
+     */
+    public int reachedCount() {
+        return touchedCount;
+    }
+
+    /**
+     * @param i index in {@code [0, reachedCount())}
+     * @return the id of the i-th vertex reached by the last query
+     */
+    public int reached(int i) {
+        return touched[i];
+    }
+
+    /**
+     * Copies the distances of the last query into a new array.
+     *
+     * @return distances indexed by vertex id
+     */
+    public double[] distances() {
+        return distance.clone();
+    }
+
+    /**
+     * Restores the workspace to its initial state, touching only vertices reached since
+     * the previous reset.
+     */
+    public void reset() {
+        for (int i = 0; i < touchedCount; i++) {
+            int v = touched[i];
+            distance[v] = Double.POSITIVE_INFINITY;
+            parent[v] = -1;
+        }
+        touchedCount = 0;
+        heap.clear();
+    }
+
+    /**
+     * Records a tentative distance for v, remembering v for the next reset.
+     *
+     * @param v        the vertex id
+     * @param d        the new distance
+     * @param previous the predecessor of v, or -1
+     */
+    void update(int v, double d, int previous) {
+        if (distance[v] == Double.POSITIVE_INFINITY) {
+            touched[touchedCount++] = v;
+        }
+        distance[v] = d;
+        parent[v] = previous;
+    }
+}
@@ -0,0 +1,201 @@
+package com.demo.java_utilities;
+
+import java.nio.DoubleBuffer;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Many-to-many shortest path distances on a {@link CsrGraph}. One Dijkstra search runs
+ * per source, spread across a {@link ForkJoinPool}; the sources are split into a few
+ * batches per pool thread that each reuse one {@link DijkstraWorkspace} for all their
+ * searches, and each search stops as soon as the last of the targets is settled instead
+ * of exploring the whole graph.
+ * Assumes non-negative weights for edges.
+ */
+public class DistanceMatrix {
+
+    private static final int GRAIN = 4;
+
+    /**
+     * Compute the distance from every source to every target on the common pool.
+     *
+     * @param graph   the graph to search
+     * @param sources ids of the source vertices
+     * @param targets ids of the target vertices
+     * @return {@code matrix[i][j]}, the distance from {@code sources[i]} to
+     *         {@code targets[j]}, {@code POSITIVE_INFINITY} if unreachable
+     */
+    public static double[][] compute(
+        CsrGraph<?> graph,
+        int[] sources,
+        int[] targets
+    ) {
+        return compute(graph, sources, targets, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Compute the distance from every source to every target.
+     *
+     * @param graph   the graph to search
+     * @param sources ids of the source vertices
+     * @param targets ids of the target vertices
+     * @param pool    the pool that runs the searches
+     * @return {@code matrix[i][j]}, the distance from {@code sources[i]} to
+     *         {@code targets[j]}, {@code POSITIVE_INFINITY} if unreachable
+     */
+    public static double[][] compute(
+        CsrGraph<?> graph,
+        int[] sources,
+        int[] targets,
+        ForkJoinPool pool
+    ) {
+        double[][] matrix = new double[sources.length][];
+        run(
+            graph,
+            sources,
+            targets,
+            pool,
+            (i, search) -> {
+                double[] row = new double[targets.length];
+                for (int j = 0; j < targets.length; j++) {
+                    row[j] = search.distance[targets[j]];
+                }
+                matrix[i] = row;
+            }
+        );
+        return matrix;
+    }
+
+    /**
+     * Compute the distance from every source to every target into a buffer, row by row,
+     * starting at the buffer's position. With a direct buffer the matrix lives off-heap;
+     * the position of the buffer is not changed.
+     *
+     * @param graph   the graph to search
+     * @param sources ids of the source vertices
+     * @param targets ids of the target vertices
+     * @param out     receives the distance from {@code sources[i]} to {@code targets[j]}
+     *                at {@code position + i * targets.length + j}
+     * @param pool    the pool that runs the searches
+     */
+    public static void compute(
+        CsrGraph<?> graph,
+        int[] sources,
+        int[] targets,
+        DoubleBuffer out,
+        ForkJoinPool pool
+    ) {
+        long cells = (long) sources.length * targets.length;
+        if (cells > out.remaining()) {
+            throw new IllegalArgumentException(
+                "Buffer holds " +
+                out.remaining() +
+                " values, " +
+                cells +
+                " needed"
+            );
+        }
+        int base = out.position();
+        run(
+            graph,
+            sources,
+            targets,
+            pool,
+            (i, search) -> {
+                int at = base + i * targets.length;
+                for (int j = 0; j < targets.length; j++) {
+                    out.put(at + j, search.distance[targets[j]]);
+                }
+            }
+        );
+    }
+
+    private interface RowSink {
+        void accept(int source, DijkstraWorkspace search);
+    }
+
+    private static void run(
+        CsrGraph<?> graph,
+        int[] sources,
+        int[] targets,
+        ForkJoinPool pool,
+        RowSink sink
+    ) {
+        // The searches belong to the call, so no n-sized state outlives it on the
+        // pool's worker threads
+        pool.invoke(
+            RangeTask.batched(
+                pool,
+                sources.length,
+                GRAIN,
+                (lo, hi) -> {
+                    Search search = new Search(graph);
+                    for (int i = lo; i < hi; i++) {
+                        sink.accept(i, search.run(sources[i], targets));
+                    }
+                }
+            )
+        );
+    }
+
+    /**
+     * State of one batch of searches: a workspace plus stamps that mark the targets of
+     * the current search, so marking and unmarking them costs nothing per query.
+     */
+    private static class Search {
+
+        private final CsrGraph<?> graph;
+        private final DijkstraWorkspace workspace;
+        private final int[] targetStamp;
+        private int stamp;
+
+        Search(CsrGraph<?> graph) {
+            this.graph = graph;
+            this.workspace = graph.newWorkspace();
+            this.targetStamp = new int[graph.vertexCount()];
+        }
+
+        DijkstraWorkspace run(int source, int[] targets) {
+            if (targets.length == 0) {
+                // An empty row reads no distances, and with no target to settle last
+                // the search below would explore the whole graph
+                return workspace;
+            }
+            stamp++;
+            int remaining = 0;
+            for (int target : targets) {
+                if (targetStamp[target] != stamp) {
+                    targetStamp[target] = stamp;
+                    remaining++;
+                }
+            }
+
+            workspace.reset();
+            IndexedDaryHeap heap = workspace.heap;
+            double[] distance = workspace.distance;
+            workspace.update(source, 0.0, -1);
+            heap.insert(source, 0.0);
+
+            while (!heap.isEmpty()) {
+                int current = heap.poll();
+                if (targetStamp[current] == stamp && --remaining == 0) {
+                    break;
+                }
+                double currentDistance = distance[current];
+                for (
+                    int e = graph.firstEdge(current);
+                    e < graph.endEdge(current);
+                    e++
+                ) {
+                    int next = graph.target(e);
+                    double newDistance = currentDistance + graph.weight(e);
+                    if (newDistance < distance[next]) {
+                        workspace.update(next, newDistance, current);
+                        heap.insertOrDecrease(next, newDistance);
+                    }
+                }
+            }
+            // Every target is settled or unreachable, so its distance is final
+            return workspace;
+        }
+    }
+}
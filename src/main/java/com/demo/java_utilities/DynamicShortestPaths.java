@@ -0,0 +1,294 @@
+package com.demo.java_utilities;
+
+import java.util.*;
+
+/**
+ * Shortest path trees from registered sources that stay up to date while the graph
+ * changes, without rerunning Dijkstra over the whole graph. It listens to a
+ * {@link GraphTraversalUtils} graph and repairs each tree after every modification:
+ * <ul>
+ *   <li>An inserted edge or a lowered weight can only shorten paths, so Dijkstra
+ *       restarts from the edge's head and visits only vertices whose distance improves.</li>
+ *   <li>A raised weight only matters if the edge is in the tree. Then the subtree
+ *       below it loses its distances, each of its vertices takes the best in-edge from
+ *       outside the subtree, and Dijkstra settles the subtree from there.</li>
+ * </ul>
+ * The reverse adjacency needed for the second case is kept alongside the trees.
+ * Assumes non-negative weights for edges. Not thread-safe, like the graph itself.
+ *
+ * @param <V> the type of vertex in the graph
+ */
+public class DynamicShortestPaths<V>
+    implements GraphTraversalUtils.GraphListener<V> {
+
+    private final GraphTraversalUtils<V> graph;
+    private final Map<V, List<InEdge<V>>> incoming = new HashMap<>();
+    private final Map<V, Tree> trees = new LinkedHashMap<>();
+    private long repairedCount;
+
+    /**
+     * Starts listening to the graph.
+     *
+     * @param graph the graph to follow
+     */
+    public DynamicShortestPaths(GraphTraversalUtils<V> graph) {
+        this.graph = graph;
+        for (V vertex : graph.vertices()) {
+            for (GraphTraversalUtils.Edge<V> edge : graph.edgesFrom(vertex)) {
+                incomingOf(edge.getDestination()).add(
+                    new InEdge<>(vertex, edge.getWeight())
+                );
+            }
+        }
+        graph.addListener(this);
+    }
+
+    /**
+     * Stops listening to the graph. The trees keep their last state.
+     */
+    public void close() {
+        graph.removeListener(this);
+    }
+
+    /**
+     * Register a source and compute its shortest path tree.
+     *
+     * @param source the source vertex
+     */
+    public void addSource(V source) {
+        if (trees.containsKey(source)) {
+            return;
+        }
+        Tree tree = new Tree();
+        tree.distance.put(source, 0.0);
+        PriorityQueue<QueueEntry<V>> queue = new PriorityQueue<>();
+        queue.add(new QueueEntry<>(source, 0.0));
+        propagate(tree, queue);
+        trees.put(source, tree);
+    }
+
+    /**
+     * @param source the source vertex to forget
+     */
+    public void removeSource(V source) {
+        trees.remove(source);
+    }
+
+    /**
+     * @return the registered sources
+     */
+    public Set<V> sources() {
+        return Collections.unmodifiableSet(trees.keySet());
+    }
+
+    /**
+     * @param source a registered source
+     * @param target any vertex
+     * @return the current shortest distance, {@code POSITIVE_INFINITY} if unreachable
+     */
+    public double distance(V source, V target) {
+        return tree(source).distance(target);
+    }
+
+    /**
+     * @param source a registered source
+     * @return live read-only view of the distances of all vertices reachable from source
+     */
+    public Map<V, Double> distances(V source) {
+        return Collections.unmodifiableMap(tree(source).distance);
+    }
+
+    /**
+     * @param source a registered source
+     * @param target any vertex
+     * @return the current shortest path including both endpoints, empty if unreachable
+     */
+    public List<V> path(V source, V target) {
+        Tree tree = tree(source);
+        if (!tree.distance.containsKey(target)) {
+            return Collections.emptyList();
+        }
+        List<V> path = new ArrayList<>();
+        for (V v = target; v != null; v = tree.parent.get(v)) {
+            path.add(v);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * @return the total number of vertices whose distance was recomputed by repairs
+     */
+    public long repairedCount() {
+        return repairedCount;
+    }
+
+    @Override
+    public void edgeAdded(V source, V destination, double weight) {
+        incomingOf(destination).add(new InEdge<>(source, weight));
+        for (Tree tree : trees.values()) {
+            lowered(tree, source, destination, weight);
+        }
+    }
+
+    @Override
+    public void edgeWeightChanged(
+        V source,
+        V destination,
+        double oldWeight,
+        double newWeight
+    ) {
+        for (InEdge<V> edge : incomingOf(destination)) {
+            if (edge.weight == oldWeight && edge.source.equals(source)) {
+                edge.weight = newWeight;
+                break;
+            }
+        }
+        for (Tree tree : trees.values()) {
+            if (newWeight < oldWeight) {
+                lowered(tree, source, destination, newWeight);
+            } else if (newWeight > oldWeight) {
+                raised(tree, source, destination);
+            }
+        }
+    }
+
+    private void lowered(Tree tree, V source, V destination, double weight) {
+        double candidate = tree.distance(source) + weight;
+        if (candidate < tree.distance(destination)) {
+            tree.distance.put(destination, candidate);
+            tree.parent.put(destination, source);
+            PriorityQueue<QueueEntry<V>> queue = new PriorityQueue<>();
+            queue.add(new QueueEntry<>(destination, candidate));
+            repairedCount += propagate(tree, queue);
+        }
+    }
+
+    private void raised(Tree tree, V source, V destination) {
+        if (!source.equals(tree.parent.get(destination))) {
+            return;
+        }
+
+        // Collect the subtree hanging below the edge; tree children are the out-neighbors
+        // whose parent is the current vertex
+        Set<V> affected = new LinkedHashSet<>();
+        ArrayDeque<V> pending = new ArrayDeque<>();
+        affected.add(destination);
+        pending.add(destination);
+        while (!pending.isEmpty()) {
+            V current = pending.poll();
+            for (GraphTraversalUtils.Edge<V> edge : graph.edgesFrom(current)) {
+                V child = edge.getDestination();
+                if (current.equals(tree.parent.get(child)) && affected.add(child)) {
+                    pending.add(child);
+                }
+            }
+        }
+        for (V v : affected) {
+            tree.distance.remove(v);
+            tree.parent.remove(v);
+        }
+
+        PriorityQueue<QueueEntry<V>> queue = new PriorityQueue<>();
+        for (V v : affected) {
+            for (InEdge<V> edge : incomingOf(v)) {
+                if (affected.contains(edge.source)) {
+                    continue;
+                }
+                double candidate = tree.distance(edge.source) + edge.weight;
+                if (candidate < tree.distance(v)) {
+                    tree.distance.put(v, candidate);
+                    tree.parent.put(v, edge.source);
+                }
+            }
+            if (tree.distance.containsKey(v)) {
+                queue.add(new QueueEntry<>(v, tree.distance.get(v)));
+            }
+        }
+        propagate(tree, queue);
+        repairedCount += affected.size();
+    }
+
+    /**
+     * Dijkstra from the queued vertices, relaxing only edges that improve a distance.
+     *
+     * @return the number of vertices settled
+     */
+    private int propagate(Tree tree, PriorityQueue<QueueEntry<V>> queue) {
+        int settled = 0;
+        while (!queue.isEmpty()) {
+            QueueEntry<V> entry = queue.poll();
+            if (entry.distance > tree.distance(entry.vertex)) {
+                continue; // stale entry
+            }
+            settled++;
+            for (GraphTraversalUtils.Edge<V> edge : graph.edgesFrom(entry.vertex)) {
+                V next = edge.getDestination();
+                double candidate = entry.distance + edge.getWeight();
+                if (candidate < tree.distance(next)) {
+                    tree.distance.put(next, candidate);
+                    tree.parent.put(next, entry.vertex);
+                    queue.add(new QueueEntry<>(next, candidate));
+                }
+            }
+        }
+        return settled;
+    }
+
+    private Tree tree(V source) {
+        Tree tree = trees.get(source);
+        if (tree == null) {
+            throw new IllegalArgumentException(
+                "Vertex " + source + " is not a registered source"
+            );
+        }
+        return tree;
+    }
+
+    private List<InEdge<V>> incomingOf(V vertex) {
+        return incoming.computeIfAbsent(vertex, v -> new ArrayList<>());
+    }
+
+    /**
+     * Distances and parents of the vertices reachable from one source.
+     */
+    private class Tree {
+
+        private final Map<V, Double> distance = new HashMap<>();
+        private final Map<V, V> parent = new HashMap<>();
+
+        double distance(V vertex) {
+            return distance.getOrDefault(vertex, Double.POSITIVE_INFINITY);
+        }
+    }
+
+    /**
+     * An edge of the reverse adjacency, weight kept in sync with the graph.
+     */
+    private static class InEdge<V> {
+
+        private final V source;
+        private double weight;
+
+        InEdge(V source, double weight) {
+            this.source = source;
+            this.weight = weight;
+        }
+    }
+
+    private static class QueueEntry<V> implements Comparable<QueueEntry<V>> {
+
+        private final V vertex;
+        private final double distance;
+
+        QueueEntry(V vertex, double distance) {
+            this.vertex = vertex;
+            this.distance = distance;
+        }
+
+        @Override
+        public int compareTo(QueueEntry<V> other) {
+            return Double.compare(distance, other.distance);
+        }
+    }
+}
@@ -0,0 +1,498 @@
+package com.demo.java_utilities;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Bulk loader that turns an edge-list file straight into a {@link CsrGraph}, without
+ * going through {@link GraphTraversalUtils#addDirectedEdge} edge by edge.
+ * <p>
+ * Every non-empty line holds {@code source target [weight]}, separated by spaces, tabs
+ * or commas; vertices are integer ids, the weight defaults to 1 and further columns are
+ * ignored. Lines starting with {@code #} or {@code %} are comments. The input is read
+ * in blocks cut at line ends, and every block is parsed on a {@link ForkJoinPool} while
+ * the next one is read, straight from its bytes into primitive arrays. A gzip file is
+ * decompressed by the reading thread, so only its parsing runs in parallel.
+ * <p>
+ * Vertex ids are interned in ascending order, so vertex {@code i} of the graph is the
+ * {@code i}-th smallest id in the file. The graph's vertex dictionary is built on the
+ * first lookup by vertex only.
+ */
+public class EdgeListLoader {
+
+    private static final int BLOCK_BYTES = 1 << 22;
+    private static final int GRAIN = 1 << 16;
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22,
+    };
+
+    /**
+     * Load a directed graph on the common fork/join pool.
+     *
+     * @param file the edge list, gzip-compressed if its name contains {@code .gz}
+     * @return the graph
+     * @throws IOException if the file cannot be read or holds a malformed line
+     */
+    public static CsrGraph<Long> load(File file) throws IOException {
+        return load(file, false, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Load a graph.
+     *
+     * @param file       the edge list, gzip-compressed if its name contains {@code .gz}
+     * @param undirected whether every line adds the edge in both directions; a
+     *                   self-loop is added once
+     * @param pool       the pool that parses the blocks and builds the graph
+     * @return the graph
+     * @throws IOException if the file cannot be read or holds a malformed line
+     */
+    public static CsrGraph<Long> load(
+        File file,
+        boolean undirected,
+        ForkJoinPool pool
+    ) throws IOException {
+        try (InputStream in = FileUtils.getInputStreamFromFile(file)) {
+            return load(in, undirected, pool);
+        }
+    }
+
+    /**
+     * Load a graph from a stream, which is read to its end but not closed.
+     *
+     * @param in         the edge list
+     * @param undirected whether every line adds the edge in both directions; a
+     *                   self-loop is added once
+     * @param pool       the pool that parses the blocks and builds the graph
+     * @return the graph
+     * @throws IOException if the stream cannot be read or holds a malformed line
+     */
+    public static CsrGraph<Long> load(
+        InputStream in,
+        boolean undirected,
+        ForkJoinPool pool
+    ) throws IOException {
+        return load(in, undirected, pool, BLOCK_BYTES);
+    }
+
+    /**
+     * Load a graph from a stream in blocks of a given size, so that tests can cut lines
+     * at block ends with small inputs.
+     */
+    static CsrGraph<Long> load(
+        InputStream in,
+        boolean undirected,
+        ForkJoinPool pool,
+        int blockBytes
+    ) throws IOException {
+        List<ParseTask> tasks = new ArrayList<>();
+        // Parsed blocks are small, raw ones are not: bound how many wait for a thread
+        int maxPending = 2 * pool.getParallelism();
+        byte[] buffer = new byte[blockBytes];
+        int filled = 0;
+        long offset = 0;
+        boolean eof = false;
+
+        while (!eof) {
+            int read = in.read(buffer, filled, buffer.length - filled);
+            if (read < 0) {
+                eof = true;
+            } else {
+                filled += read;
+                if (filled < buffer.length) {
+                    continue;
+                }
+            }
+            if (filled == 0) {
+                break;
+            }
+            int cut = eof ? filled : lastLineEnd(buffer, filled);
+            if (cut == 0) {
+                // A single line longer than the buffer
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                continue;
+            }
+
+            ParseTask task = new ParseTask(buffer, cut, offset);
+            pool.execute(task);
+            tasks.add(task);
+            if (tasks.size() > maxPending) {
+                join(tasks.get(tasks.size() - 1 - maxPending));
+            }
+
+            byte[] next = new byte[buffer.length];
+            System.arraycopy(buffer, cut, next, 0, filled - cut);
+            buffer = next;
+            filled -= cut;
+            offset += cut;
+        }
+
+        long total = 0;
+        for (ParseTask task : tasks) {
+            total += join(task).size;
+        }
+        if ((undirected ? 2 * total : total) > Integer.MAX_VALUE) {
+            throw new IOException(
+                "Edge list holds " + total + " edges, too many for a CsrGraph"
+            );
+        }
+        int m = (int) total;
+        long[] sources = new long[m];
+        long[] targets = new long[m];
+        double[] weights = new double[m];
+        int at = 0;
+        for (ParseTask task : tasks) {
+            Edges edges = join(task);
+            System.arraycopy(edges.sources, 0, sources, at, edges.size);
+            System.arraycopy(edges.targets, 0, targets, at, edges.size);
+            System.arraycopy(edges.weights, 0, weights, at, edges.size);
+            at += edges.size;
+        }
+        tasks.clear();
+
+        return build(sources, targets, weights, undirected, pool);
+    }
+
+    private static CsrGraph<Long> build(
+        long[] sources,
+        long[] targets,
+        double[] weights,
+        boolean undirected,
+        ForkJoinPool pool
+    ) {
+        int m = sources.length;
+        long[] keys = mergeDistinct(
+            sortedDistinct(sources),
+            sortedDistinct(targets)
+        );
+        int n = keys.length;
+
+        int[] from = new int[m];
+        int[] to = new int[m];
+        pool.invoke(
+            new RangeTask(
+                0,
+                m,
+                GRAIN,
+                (lo, hi) -> {
+                    for (int i = lo; i < hi; i++) {
+                        from[i] = Arrays.binarySearch(keys, sources[i]);
+                        to[i] = Arrays.binarySearch(keys, targets[i]);
+                    }
+                }
+            )
+        );
+
+        // Counting sort by source keeps the edges of a vertex in file order
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < m; i++) {
+            offsets[from[i] + 1]++;
+            if (undirected && from[i] != to[i]) {
+                offsets[to[i] + 1]++;
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] cursor = Arrays.copyOf(offsets, n);
+        int[] edgeTargets = new int[offsets[n]];
+        double[] edgeWeights = new double[offsets[n]];
+        for (int i = 0; i < m; i++) {
+            int e = cursor[from[i]]++;
+            edgeTargets[e] = to[i];
+            edgeWeights[e] = weights[i];
+            if (undirected && from[i] != to[i]) {
+                e = cursor[to[i]]++;
+                edgeTargets[e] = from[i];
+                edgeWeights[e] = weights[i];
+            }
+        }
+
+        CsrGraph.VertexDictionary<Long> dictionary =
+            new CsrGraph.VertexDictionary<>(n, () -> {
+                Object[] vertices = new Object[n];
+                for (int v = 0; v < n; v++) {
+                    vertices[v] = keys[v];
+                }
+                return vertices;
+            });
+        return new CsrGraph<>(dictionary, offsets, edgeTargets, edgeWeights);
+    }
+
+    private static long[] sortedDistinct(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.parallelSort(sorted);
+        int size = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (size == 0 || sorted[i] != sorted[size - 1]) {
+                sorted[size++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, size);
+    }
+
+    private static long[] mergeDistinct(long[] a, long[] b) {
+        long[] merged = new long[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < a.length || j < b.length) {
+            long next;
+            if (j == b.length || (i < a.length && a[i] <= b[j])) {
+                next = a[i++];
+            } else {
+                next = b[j++];
+            }
+            if (size == 0 || merged[size - 1] != next) {
+                merged[size++] = next;
+            }
+        }
+        return Arrays.copyOf(merged, size);
+    }
+
+    private static int lastLineEnd(byte[] buffer, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (buffer[i] == '\n') {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    private static Edges join(ParseTask task) throws IOException {
+        try {
+            return task.join();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * The edges of one block, in file order.
+     */
+    private static class Edges {
+
+        private long[] sources;
+        private long[] targets;
+        private double[] weights;
+        private int size;
+
+        Edges(int capacity) {
+            sources = new long[capacity];
+            targets = new long[capacity];
+            weights = new double[capacity];
+        }
+
+        void add(long source, long target, double weight) {
+            if (size == sources.length) {
+                int capacity = Math.max(16, size * 2);
+                sources = Arrays.copyOf(sources, capacity);
+                targets = Arrays.copyOf(targets, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            sources[size] = source;
+            targets[size] = target;
+            weights[size] = weight;
+            size++;
+        }
+    }
+
+    /**
+     * Parses one block of whole lines. The block is released once parsed, so a finished
+     * task holds only its edges.
+     */
+    private static class ParseTask extends RecursiveTask<Edges> {
+
+        private static final long serialVersionUID = 1L;
+
+        private byte[] data;
+        private final int end;
+        private final long offset;
+        private int pos;
+        private int lineStart;
+
+        ParseTask(byte[] data, int end, long offset) {
+            this.data = data;
+            this.end = end;
+            this.offset = offset;
+        }
+
+        @Override
+        protected Edges compute() {
+            try {
+                return parse();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                data = null;
+            }
+        }
+
+        private Edges parse() throws IOException {
+            // Edge lines are rarely shorter than 8 bytes
+            Edges edges = new Edges(end / 8 + 1);
+            while (pos < end) {
+                byte b = data[pos];
+                if (b == '\n' || isSeparator(b)) {
+                    pos++;
+                    continue;
+                }
+                lineStart = pos;
+                if (b == '#' || b == '%') {
+                    skipLine();
+                    continue;
+                }
+                long source = nextLong();
+                if (!skipSeparators()) {
+                    throw malformed("missing target vertex");
+                }
+                long target = nextLong();
+                double weight = skipSeparators() ? nextDouble() : 1.0;
+                skipLine();
+                edges.add(source, target, weight);
+            }
+            return edges;
+        }
+
+        /**
+         * Skips separators and reports whether another field follows on this line.
+         */
+        private boolean skipSeparators() {
+            while (pos < end && isSeparator(data[pos])) {
+                pos++;
+            }
+            return pos < end && data[pos] != '\n';
+        }
+
+        private void skipLine() {
+            while (pos < end && data[pos] != '\n') {
+                pos++;
+            }
+        }
+
+        private long nextLong() throws IOException {
+            boolean negative = pos < end && data[pos] == '-';
+            if (negative) {
+                pos++;
+            }
+            int start = pos;
+            long value = 0;
+            while (pos < end) {
+                int digit = data[pos] - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                if (value > (Long.MAX_VALUE - digit) / 10) {
+                    throw malformed("vertex id out of range");
+                }
+                value = value * 10 + digit;
+                pos++;
+            }
+            if (pos == start || !atFieldEnd()) {
+                throw malformed("vertex ids must be integers");
+            }
+            return negative ? -value : value;
+        }
+
+        /**
+         * Plain decimals with up to 15 significant digits, the common case, are
+         * computed exactly from their digits; anything else goes through
+         * {@link Double#parseDouble}.
+         */
+        private double nextDouble() throws IOException {
+            int start = pos;
+            boolean negative = data[pos] == '-';
+            if (negative || data[pos] == '+') {
+                pos++;
+            }
+            long mantissa = 0;
+            boolean anyDigit = false;
+            int digits = 0;
+            int scale = 0;
+            boolean fraction = false;
+            while (pos < end) {
+                byte b = data[pos];
+                if (b >= '0' && b <= '9') {
+                    anyDigit = true;
+                    mantissa = mantissa * 10 + (b - '0');
+                    if (fraction) {
+                        scale++;
+                    }
+                    if (mantissa != 0 && ++digits > 15) {
+                        break;
+                    }
+                } else if (b == '.' && !fraction) {
+                    fraction = true;
+                } else {
+                    break;
+                }
+                pos++;
+            }
+            if (atFieldEnd() && anyDigit && digits <= 15) {
+                // Both operands are exact, so the division rounds correctly
+                double value = mantissa / POWERS_OF_TEN[Math.min(scale, 22)];
+                if (scale <= 22) {
+                    return negative ? -value : value;
+                }
+            }
+
+            while (!atFieldEnd()) {
+                pos++;
+            }
+            try {
+                return Double.parseDouble(
+                    new String(
+                        data,
+                        start,
+                        pos - start,
+                        StandardCharsets.US_ASCII
+                    )
+                );
+            } catch (NumberFormatException e) {
+                throw malformed("weight must be a number");
+            }
+        }
+
+        private boolean atFieldEnd() {
+            return pos == end || data[pos] == '\n' || isSeparator(data[pos]);
+        }
+
+        private static boolean isSeparator(byte b) {
+            return b == ' ' || b == '\t' || b == ',' || b == '\r';
+        }
+
+        private IOException malformed(String reason) {
+            int lineEnd = lineStart;
+            while (
+                lineEnd < end &&
+                lineEnd - lineStart < 80 &&
+                data[lineEnd] != '\n'
+            ) {
+                lineEnd++;
+            }
+            String line = new String(
+                data,
+                lineStart,
+                lineEnd - lineStart,
+                StandardCharsets.US_ASCII
+            );
+            return new IOException(
+                "Malformed edge at byte " +
+                (offset + lineStart) +
+                ", " +
+                reason +
+                ": " +
+                line
+            );
+        }
+    }
+}
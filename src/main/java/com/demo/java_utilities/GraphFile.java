@@ -0,0 +1,401 @@
+package com.demo.java_utilities;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary on-disk format for {@link CsrGraph}, read back through {@link FileChannel#map}
+ * so graphs larger than the heap can be searched. Opening a file only reads its header
+ * and maps the sections; pages are loaded by the OS on first access and shared through
+ * the page cache by every JVM on the host that maps the same file.
+ * <p>
+ * Layout, little-endian, every section aligned to 8 bytes:
+ * <pre>
+ * header      magic, version, vertex count n, flags, edge count m,
+ *             dictionary position and length (64 bytes)
+ * offsets     n + 1 ints
+ * targets     m ints
+ * weights     m doubles
+ * reverse     offsets, targets and weights of the transposed graph (if flagged)
+ * dictionary  the vertices by id, as a Java-serialized Object[]
+ * </pre>
+ * The vertex dictionary is deserialized on the first lookup by vertex only, so id-based
+ * algorithms never load it.
+ */
+public class GraphFile {
+
+    private static final int MAGIC = 0x47524631; // "GRF1"
+    private static final int VERSION = 1;
+    private static final int FLAG_REVERSE = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int SEGMENT_SHIFT = 30;
+    private static final int WRITE_BUFFER_BYTES = 1 << 16;
+
+    /**
+     * Write a graph to a file.
+     *
+     * @param graph       the graph to write
+     * @param path        the file to create or overwrite
+     * @param withReverse whether to store the transposed graph as well
+     * @param <V>         the type of vertex in the graph
+     * @throws IOException if writing fails or a vertex is not serializable
+     */
+    public static <V> void write(
+        CsrGraph<V> graph,
+        Path path,
+        boolean withReverse
+    ) throws IOException {
+        try (
+            FileChannel channel = FileChannel.open(
+                path,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE
+            )
+        ) {
+            Output out = new Output(channel);
+            out.position(HEADER_BYTES);
+            writeAdjacency(out, graph);
+            if (withReverse) {
+                writeAdjacency(out, graph.reverse());
+            }
+            out.flush();
+
+            long dictionaryPosition = channel.position();
+            Object[] vertices = new Object[graph.vertexCount()];
+            for (int v = 0; v < vertices.length; v++) {
+                vertices[v] = graph.vertexAt(v);
+            }
+            ObjectOutputStream objects = new ObjectOutputStream(
+                new BufferedOutputStream(Channels.newOutputStream(channel))
+            );
+            objects.writeObject(vertices);
+            objects.flush();
+            long dictionaryLength = channel.position() - dictionaryPosition;
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(
+                ByteOrder.LITTLE_ENDIAN
+            );
+            header.putInt(MAGIC);
+            header.putInt(VERSION);
+            header.putInt(graph.vertexCount());
+            header.putInt(withReverse ? FLAG_REVERSE : 0);
+            header.putLong(graph.edgeCount());
+            header.putLong(dictionaryPosition);
+            header.putLong(dictionaryLength);
+            header.clear();
+            channel.write(header, 0);
+        }
+    }
+
+    /**
+     * Map a graph file into memory.
+     *
+     * @param path the file written by {@link #write(CsrGraph, Path, boolean)}
+     * @param <V>  the type of vertex in the graph
+     * @return a graph whose edges are read from the mapped file
+     * @throws IOException if the file cannot be mapped or is not a graph file
+     */
+    public static <V> CsrGraph<V> open(Path path) throws IOException {
+        return open(path, SEGMENT_SHIFT);
+    }
+
+    /**
+     * Map a graph file into memory in segments of a given size, so that tests can cross
+     * segment boundaries with small graphs.
+     *
+     * @param path         the file written by {@link #write(CsrGraph, Path, boolean)}
+     * @param segmentShift log2 of the segment size in bytes, from 3 to 30
+     * @param <V>          the type of vertex in the graph
+     * @return a graph whose edges are read from the mapped file
+     * @throws IOException if the file cannot be mapped or is not a graph file
+     */
+    static <V> CsrGraph<V> open(Path path, int segmentShift) throws IOException {
+        if (segmentShift < 3 || segmentShift > SEGMENT_SHIFT) {
+            throw new IllegalArgumentException(
+                "Segment shift must be in [3, " + SEGMENT_SHIFT + "]"
+            );
+        }
+        try (
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)
+        ) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(
+                ByteOrder.LITTLE_ENDIAN
+            );
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    throw new IOException(
+                        "Truncated graph file header: " + path
+                    );
+                }
+            }
+            header.flip();
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a graph file: " + path);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException(
+                    "Unsupported graph file version " + version
+                );
+            }
+            int n = header.getInt();
+            int flags = header.getInt();
+            long m = header.getLong();
+            long dictionaryPosition = header.getLong();
+            long dictionaryLength = header.getLong();
+            if (
+                n < 0 ||
+                m < 0 ||
+                m > Integer.MAX_VALUE ||
+                dictionaryPosition + dictionaryLength > channel.size()
+            ) {
+                throw new IOException("Corrupt graph file header: " + path);
+            }
+
+            long position = HEADER_BYTES;
+            Adjacency adjacency = new Adjacency(
+                channel,
+                position,
+                n,
+                (int) m,
+                segmentShift
+            );
+            position += adjacencyBytes(n, m);
+            if ((flags & FLAG_REVERSE) != 0) {
+                adjacency = new Adjacency(
+                    adjacency,
+                    new Adjacency(channel, position, n, (int) m, segmentShift)
+                );
+                position += adjacencyBytes(n, m);
+            }
+            if (position > dictionaryPosition) {
+                throw new IOException("Corrupt graph file header: " + path);
+            }
+
+            CsrGraph.VertexDictionary<V> dictionary =
+                new CsrGraph.VertexDictionary<>(n, () ->
+                    readDictionary(path, dictionaryPosition, n)
+                );
+            return new CsrGraph<>(dictionary, adjacency);
+        }
+    }
+
+    private static Object[] readDictionary(Path path, long position, int n)
+        throws IOException, ClassNotFoundException {
+        try (
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)
+        ) {
+            channel.position(position);
+            ObjectInputStream objects = new ObjectInputStream(
+                new BufferedInputStream(Channels.newInputStream(channel))
+            );
+            Object[] vertices = (Object[]) objects.readObject();
+            if (vertices.length != n) {
+                throw new IOException(
+                    "Vertex dictionary holds " +
+                    vertices.length +
+                    " vertices, expected " +
+                    n
+                );
+            }
+            return vertices;
+        }
+    }
+
+    private static void writeAdjacency(Output out, CsrGraph<?> graph)
+        throws IOException {
+        int n = graph.vertexCount();
+        for (int v = 0; v < n; v++) {
+            out.putInt(graph.firstEdge(v));
+        }
+        out.putInt(n == 0 ? 0 : graph.endEdge(n - 1));
+        out.align();
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            out.putInt(graph.target(e));
+        }
+        out.align();
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            out.putDouble(graph.weight(e));
+        }
+    }
+
+    private static long adjacencyBytes(int n, long m) {
+        return align(4L * (n + 1)) + align(4L * m) + 8L * m;
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    /**
+     * Maps a section of the file as segments of {@code 2^segmentShift} bytes, at most
+     * 1 GiB each since a single {@link java.nio.MappedByteBuffer} cannot exceed 2 GiB.
+     */
+    private static ByteBuffer[] map(
+        FileChannel channel,
+        long position,
+        long bytes,
+        int segmentShift
+    ) throws IOException {
+        long segmentBytes = 1L << segmentShift;
+        int count = (int) ((bytes + segmentBytes - 1) >>> segmentShift);
+        ByteBuffer[] segments = new ByteBuffer[Math.max(1, count)];
+        for (int i = 0; i < segments.length; i++) {
+            long start = (long) i << segmentShift;
+            segments[i] = channel
+                .map(
+                    FileChannel.MapMode.READ_ONLY,
+                    position + start,
+                    Math.min(segmentBytes, bytes - start)
+                )
+                .order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return segments;
+    }
+
+    /**
+     * Mapped offsets, targets and weights of one direction of a graph.
+     */
+    static class Adjacency {
+
+        private final int intShift;
+        private final int intMask;
+        private final int doubleShift;
+        private final int doubleMask;
+        private final IntBuffer[] offsets;
+        private final IntBuffer[] targets;
+        private final DoubleBuffer[] weights;
+        private final int edgeCount;
+        private final Adjacency reverse;
+
+        Adjacency(FileChannel channel, long position, int n, int m, int segmentShift)
+            throws IOException {
+            this.intShift = segmentShift - 2;
+            this.intMask = (1 << intShift) - 1;
+            this.doubleShift = segmentShift - 3;
+            this.doubleMask = (1 << doubleShift) - 1;
+            // Past 2^28 vertices the offsets span more than one segment too
+            this.offsets = asInts(map(channel, position, 4L * (n + 1), segmentShift));
+            position += align(4L * (n + 1));
+            this.targets = asInts(map(channel, position, 4L * m, segmentShift));
+            position += align(4L * m);
+            ByteBuffer[] weightBytes = map(channel, position, 8L * m, segmentShift);
+            this.weights = new DoubleBuffer[weightBytes.length];
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] = weightBytes[i].asDoubleBuffer();
+            }
+            this.edgeCount = m;
+            this.reverse = null;
+        }
+
+        /**
+         * Links a forward adjacency with its reverse.
+         */
+        private Adjacency(Adjacency forward, Adjacency backward) {
+            this.intShift = forward.intShift;
+            this.intMask = forward.intMask;
+            this.doubleShift = forward.doubleShift;
+            this.doubleMask = forward.doubleMask;
+            this.offsets = forward.offsets;
+            this.targets = forward.targets;
+            this.weights = forward.weights;
+            this.edgeCount = forward.edgeCount;
+            this.reverse = backward;
+        }
+
+        int edgeCount() {
+            return edgeCount;
+        }
+
+        int offset(int v) {
+            return offsets[v >>> intShift].get(v & intMask);
+        }
+
+        int target(int e) {
+            return targets[e >>> intShift].get(e & intMask);
+        }
+
+        double weight(int e) {
+            return weights[e >>> doubleShift].get(e & doubleMask);
+        }
+
+        /**
+         * @return the mapped transposed graph, or null if the file does not store it
+         */
+        Adjacency reverse() {
+            return reverse;
+        }
+    }
+
+    private static IntBuffer[] asInts(ByteBuffer[] segments) {
+        IntBuffer[] ints = new IntBuffer[segments.length];
+        for (int i = 0; i < ints.length; i++) {
+            ints[i] = segments[i].asIntBuffer();
+        }
+        return ints;
+    }
+
+    /**
+     * Buffered little-endian writer on a file channel.
+     */
+    private static class Output {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(
+            WRITE_BUFFER_BYTES
+        ).order(ByteOrder.LITTLE_ENDIAN);
+        private long written;
+
+        Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void position(long position) throws IOException {
+            flush();
+            channel.position(position);
+            written = position;
+        }
+
+        void putInt(int value) throws IOException {
+            if (buffer.remaining() < 4) {
+                flush();
+            }
+            buffer.putInt(value);
+            written += 4;
+        }
+
+        void putDouble(double value) throws IOException {
+            if (buffer.remaining() < 8) {
+                flush();
+            }
+            buffer.putDouble(value);
+            written += 8;
+        }
+
+        void align() throws IOException {
+            while ((written & 7) != 0) {
+                if (!buffer.hasRemaining()) {
+                    flush();
+                }
+                buffer.put((byte) 0);
+                written++;
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.demo.java_utilities;
+
+import java.io.Closeable;
+import java.io.File;
+import java.util.*;
+import org.mapdb.Atomic;
+import org.mapdb.BTreeMap;
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+import org.mapdb.HTreeMap;
+import org.mapdb.Serializer;
+import org.mapdb.serializer.SerializerArrayTuple;
+
+/**
+ * Persistent storage of a {@link GraphTraversalUtils} graph in MapDB. Every vertex gets
+ * a dense int id when it is added, and every edge is one entry of a B-tree keyed by
+ * (source id, sequence number, target id), so the edges of a vertex are one contiguous
+ * key range in insertion order.
+ * <p>
+ * The graph returned by {@link #graph()} writes every modification through to the store
+ * as it happens, so edges are appended incrementally instead of rewriting the graph.
+ * Reopening a store reads nothing up front: the edges of a vertex are loaded the first
+ * time the graph asks for them and kept on the heap afterwards. Whole-graph operations
+ * such as {@link GraphTraversalUtils#toCsr()} still visit every vertex.
+ * <p>
+ * Vertices are stored with Java serialization and must be {@link java.io.Serializable}
+ * with stable {@code equals} and {@code hashCode}. Requires MapDB on the classpath. Not
+ * thread-safe, like the graph it backs.
+ *
+ * @param <V> the type of vertex in the graph
+ */
+public class GraphStore<V>
+    implements GraphTraversalUtils.GraphListener<V>, Closeable {
+
+    private final DB db;
+    private final HTreeMap<Object, Integer> ids;
+    private final BTreeMap<Integer, Object> vertices;
+    private final BTreeMap<Object[], Double> edges;
+    private final Atomic.Integer vertexCount;
+    private final Atomic.Long edgeSequence;
+    private final Map<V, Integer> idCache = new HashMap<>();
+    private final Map<V, List<GraphTraversalUtils.Edge<V>>> loaded =
+        new HashMap<>();
+    private final GraphTraversalUtils<V> graph;
+
+    private GraphStore(DB db) {
+        this.db = db;
+        this.ids = db.hashMap("ids", Serializer.JAVA, Serializer.INTEGER)
+            .createOrOpen();
+        this.vertices = db.treeMap("vertices", Serializer.INTEGER, Serializer.JAVA)
+            .createOrOpen();
+        this.edges = db.treeMap(
+                "edges",
+                new SerializerArrayTuple(
+                    Serializer.INTEGER,
+                    Serializer.LONG,
+                    Serializer.INTEGER
+                ),
+                Serializer.DOUBLE
+            )
+            .createOrOpen();
+        this.vertexCount = db.atomicInteger("vertexCount").createOrOpen();
+        this.edgeSequence = db.atomicLong("edgeSequence").createOrOpen();
+        this.graph = new GraphTraversalUtils<>(new LazyAdjacency(), 0);
+        graph.addListener(this);
+    }
+
+    /**
+     * Open a store in a file, creating it if it does not exist. The file is memory
+     * mapped where supported, and modifications become durable on
+     * {@link #commit()} or {@link #close()}.
+     *
+     * @param file the file of the store
+     * @param <V>  the type of vertex in the graph
+     * @return the opened store
+     */
+    public static <V> GraphStore<V> open(File file) {
+        return new GraphStore<>(
+            DBMaker.fileDB(file)
+                .fileMmapEnableIfSupported()
+                .transactionEnable()
+                .make()
+        );
+    }
+
+    /**
+     * Open an empty store in direct memory, outside the Java heap. Its content is lost
+     * when it is closed.
+     *
+     * @param <V> the type of vertex in the graph
+     * @return the opened store
+     */
+    public static <V> GraphStore<V> openOffHeap() {
+        return new GraphStore<>(DBMaker.memoryDirectDB().make());
+    }
+
+    /**
+     * @return the graph backed by this store; modify it to modify the store
+     */
+    public GraphTraversalUtils<V> graph() {
+        return graph;
+    }
+
+    /**
+     * @return the number of stored vertices
+     */
+    public int vertexCount() {
+        return vertexCount.get();
+    }
+
+    /**
+     * @return the number of vertices whose edges have been loaded onto the heap
+     */
+    public int loadedCount() {
+        return loaded.size();
+    }
+
+    /**
+     * Make every modification so far durable.
+     */
+    public void commit() {
+        db.commit();
+    }
+
+    /**
+     * Commit and close the store. The graph must not be used afterwards.
+     */
+    @Override
+    public void close() {
+        graph.removeListener(this);
+        db.commit();
+        db.close();
+    }
+
+    @Override
+    public void vertexAdded(V vertex) {
+        int id = vertexCount.getAndIncrement();
+        vertices.put(id, vertex);
+        ids.put(vertex, id);
+        idCache.put(vertex, id);
+    }
+
+    @Override
+    public void edgeAdded(V source, V destination, double weight) {
+        edges.put(
+            new Object[] {
+                idOf(source),
+                edgeSequence.getAndIncrement(),
+                idOf(destination),
+            },
+            weight
+        );
+    }
+
+    @Override
+    public void edgeWeightChanged(
+        V source,
+        V destination,
+        double oldWeight,
+        double newWeight
+    ) {
+        Integer target = idOf(destination);
+        // One event per changed edge, in edge order: the first entry still holding the
+        // old weight is this one. Entries of the B-tree are immutable, so it is put
+        // again once the scan is over
+        Object[] changed = null;
+        for (Map.Entry<Object[], Double> entry : edgesOf(idOf(source)).entrySet()) {
+            Object[] key = entry.getKey();
+            if (target.equals(key[2]) && entry.getValue() == oldWeight) {
+                changed = key;
+                break;
+            }
+        }
+        if (changed != null) {
+            edges.put(changed, newWeight);
+        }
+    }
+
+    /**
+     * @return the id of a stored vertex, or null if it is not stored
+     */
+    private Integer idOf(Object vertex) {
+        Integer id = idCache.get(vertex);
+        if (id == null) {
+            id = ids.get(vertex);
+            if (id != null) {
+                @SuppressWarnings("unchecked")
+                V key = (V) vertex;
+                idCache.put(key, id);
+            }
+        }
+        return id;
+    }
+
+    private Map<Object[], Double> edgesOf(int id) {
+        return edges.prefixSubMap(new Object[] { id });
+    }
+
+    /**
+     * Reads the edges of a vertex from the store.
+     */
+    private List<GraphTraversalUtils.Edge<V>> load(int id) {
+        List<GraphTraversalUtils.Edge<V>> list = new ArrayList<>();
+        for (Map.Entry<Object[], Double> entry : edgesOf(id).entrySet()) {
+            @SuppressWarnings("unchecked")
+            V destination = (V) vertices.get((Integer) entry.getKey()[2]);
+            list.add(new GraphTraversalUtils.Edge<>(destination, entry.getValue()));
+        }
+        return list;
+    }
+
+    /**
+     * Adjacency map of the graph. Stored vertices are loaded on first access; vertices
+     * put by the graph are only held here until {@link #vertexAdded} stores them.
+     */
+    private class LazyAdjacency
+        extends AbstractMap<V, List<GraphTraversalUtils.Edge<V>>> {
+
+        @Override
+        public List<GraphTraversalUtils.Edge<V>> get(Object key) {
+            List<GraphTraversalUtils.Edge<V>> list = loaded.get(key);
+            if (list == null) {
+                Integer id = idOf(key);
+                if (id == null) {
+                    return null;
+                }
+                list = load(id);
+                @SuppressWarnings("unchecked")
+                V vertex = (V) key;
+                loaded.put(vertex, list);
+            }
+            return list;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return loaded.containsKey(key) || idOf(key) != null;
+        }
+
+        @Override
+        public List<GraphTraversalUtils.Edge<V>> put(
+            V key,
+            List<GraphTraversalUtils.Edge<V>> value
+        ) {
+            return loaded.put(key, value);
+        }
+
+        @Override
+        public int size() {
+            return vertexCount.get();
+        }
+
+        @Override
+        public Set<Entry<V, List<GraphTraversalUtils.Edge<V>>>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<
+                    Entry<V, List<GraphTraversalUtils.Edge<V>>>
+                > iterator() {
+                    Iterator<Object> stored = vertices.values().iterator();
+                    return new Iterator<>() {
+                        @Override
+                        public boolean hasNext() {
+                            return stored.hasNext();
+                        }
+
+                        @Override
+                        public Entry<V, List<GraphTraversalUtils.Edge<V>>> next() {
+                            @SuppressWarnings("unchecked")
+                            V vertex = (V) stored.next();
+                            return new SimpleImmutableEntry<>(vertex, get(vertex));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return vertexCount.get();
+                }
+            };
+        }
+    }
+}
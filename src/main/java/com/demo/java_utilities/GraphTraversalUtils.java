@@ -1,15 +1,35 @@
 package com.demo.java_utilities;
 
 import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class GraphTraversalUtils<V> {
 
     private Map<V, List<Edge<V>>> adjacencyList;
+    private long version;
+    private CsrGraph<V> csrSnapshot;
+    private DeltaStepping.Split deltaSplit;
+    private ShortestPathCache<V> pathCache;
+    private final List<GraphListener<V>> listeners = new ArrayList<>();
 
     public GraphTraversalUtils() {
         this.adjacencyList = new HashMap<>();
     }
 
+    /**
+     * Creates a graph over an existing adjacency map, used for read-only snapshot views
+     * whose map rejects modification.
+     *
+     * @param adjacencyList the adjacency of every vertex
+     * @param version       the version the graph starts at
+     */
+    GraphTraversalUtils(Map<V, List<Edge<V>>> adjacencyList, long version) {
+        this.adjacencyList = adjacencyList;
+        this.version = version;
+    }
+
     /**
      * Add a vertex to the graph.
      *
@@ -18,6 +38,10 @@ public class GraphTraversalUtils<V> {
     public void addVertex(V vertex) {
         if (!adjacencyList.containsKey(vertex)) {
             adjacencyList.put(vertex, new ArrayList<>());
+            modified();
+            for (GraphListener<V> listener : listeners) {
+                listener.vertexAdded(vertex);
+            }
         }
     }
 
@@ -48,6 +72,160 @@ public class GraphTraversalUtils<V> {
             addVertex(destination);
         }
         adjacencyList.get(source).add(new Edge<>(destination, weight));
+        modified();
+        for (GraphListener<V> listener : listeners) {
+            listener.edgeAdded(source, destination, weight);
+        }
+    }
+
+    /**
+     * Change the weight of every directed edge from source to destination.
+     *
+     * @param source      the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @param weight      the new weight of the edge
+     * @return the number of edges changed, 0 if there is no such edge
+     */
+    public int updateEdgeWeight(V source, V destination, double weight) {
+        List<Edge<V>> edges = adjacencyList.get(source);
+        if (edges == null) {
+            return 0;
+        }
+        int updated = 0;
+        for (int i = 0; i < edges.size(); i++) {
+            Edge<V> edge = edges.get(i);
+            if (!edge.getDestination().equals(destination)) {
+                continue;
+            }
+            edges.set(i, new Edge<>(destination, weight));
+            modified();
+            updated++;
+            for (GraphListener<V> listener : listeners) {
+                listener.edgeWeightChanged(
+                    source,
+                    destination,
+                    edge.getWeight(),
+                    weight
+                );
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Register a listener that is told about every modification after it is applied.
+     *
+     * @param listener the listener to add
+     */
+    public void addListener(GraphListener<V> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @param listener the listener to remove
+     */
+    public void removeListener(GraphListener<V> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @param vertex a vertex
+     * @return the outgoing edges of the vertex, empty if it is not part of the graph
+     */
+    List<Edge<V>> edgesFrom(V vertex) {
+        return adjacencyList.getOrDefault(vertex, Collections.emptyList());
+    }
+
+    /**
+     * @return the vertices of the graph
+     */
+    Set<V> vertices() {
+        return adjacencyList.keySet();
+    }
+
+    /**
+     * Bumps the version and drops the CSR snapshot along with the delta-stepping split
+     * made from it. Cached paths are dropped lazily by the cache once it sees the new
+     * version.
+     */
+    private void modified() {
+        version++;
+        csrSnapshot = null;
+        deltaSplit = null;
+    }
+
+    /**
+     * @return a counter that increases with every modification of the graph
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Cache the results of {@link #dijkstra(Object)},
+     * {@link #aStar(Object, Object, Heuristic)} and both {@code shortestPath} methods.
+     * While a cache is set these methods return unmodifiable results that may be shared
+     * between calls.
+     *
+     * @param cache the cache to use, or null to stop caching
+     */
+    public void setPathCache(ShortestPathCache<V> cache) {
+        this.pathCache = cache;
+    }
+
+    /**
+     * @return the path cache, or null if results are not cached
+     */
+    public ShortestPathCache<V> getPathCache() {
+        return pathCache;
+    }
+
+    /**
+     * Freeze the graph into an immutable compressed sparse row (CSR) snapshot.
+     * Vertices are interned to dense int ids and adjacency is packed into primitive
+     * arrays, so traversals on the snapshot avoid boxed edges and pointer chasing.
+     * The snapshot is cached until the graph is mutated again.
+     *
+     * @return the CSR snapshot of the current graph
+     */
+    public CsrGraph<V> toCsr() {
+        if (csrSnapshot == null) {
+            csrSnapshot = buildCsr();
+        }
+        return csrSnapshot;
+    }
+
+    /**
+     * Builds a CSR snapshot from the adjacency list.
+     *
+     * @return a new CSR snapshot
+     */
+    private CsrGraph<V> buildCsr() {
+        int vertexCount = adjacencyList.size();
+        Object[] vertices = new Object[vertexCount];
+        Map<V, Integer> ids = new HashMap<>((int) (vertexCount / 0.75f) + 1);
+        int[] offsets = new int[vertexCount + 1];
+
+        int id = 0;
+        for (Map.Entry<V, List<Edge<V>>> entry : adjacencyList.entrySet()) {
+            vertices[id] = entry.getKey();
+            ids.put(entry.getKey(), id);
+            offsets[id + 1] = offsets[id] + entry.getValue().size();
+            id++;
+        }
+
+        int[] targets = new int[offsets[vertexCount]];
+        double[] weights = new double[offsets[vertexCount]];
+        int e = 0;
+        for (List<Edge<V>> edges : adjacencyList.values()) {
+            for (Edge<V> edge : edges) {
+                targets[e] = ids.get(edge.getDestination());
+                weights[e] = edge.getWeight();
+                e++;
+            }
+        }
+
+        return new CsrGraph<>(vertices, ids, offsets, targets, weights);
     }
 
     /**
@@ -57,30 +235,18 @@ public class GraphTraversalUtils<V> {
      * @return list of vertices in DFS order
      */
     public List<V> dfs(V start) {
-        List<V> dfsOrder = new ArrayList<>();
-        Set<V> visited = new HashSet<>();
-        dfsRecursive(start, visited, dfsOrder);
-        return dfsOrder;
+        return dfs(start, null);
     }
 
     /**
-     * Helper method for performing DFS recursively.
+     * Perform Depth-First Search (DFS) on the graph, counting the work done.
      *
-     * @param vertex    the current vertex for DFS
-     * @param visited   set of visited vertices
-     * @param dfsOrder  list to store vertices in DFS order
+     * @param start the starting vertex for DFS
+     * @param stats receives the work done by the traversal, or null
+     * @return list of vertices in DFS order
      */
-    private void dfsRecursive(V vertex, Set<V> visited, List<V> dfsOrder) {
-        visited.add(vertex);
-        dfsOrder.add(vertex);
-        for (Edge<V> neighbor : adjacencyList.getOrDefault(
-            vertex,
-            Collections.emptyList()
-        )) {
-            if (!visited.contains(neighbor.getDestination())) {
-                dfsRecursive(neighbor.getDestination(), visited, dfsOrder);
-            }
-        }
+    public List<V> dfs(V start, TraversalStats stats) {
+        return collect(new DfsIterator(start, stats), stats);
     }
 
     /**
@@ -90,80 +256,222 @@ public class GraphTraversalUtils<V> {
      * @return list of vertices in BFS order
      */
     public List<V> bfs(V start) {
-        List<V> bfsOrder = new ArrayList<>();
-        Queue<V> queue = new LinkedList<>();
-        Set<V> visited = new HashSet<>();
+        return bfs(start, null);
+    }
 
-        queue.offer(start);
-        visited.add(start);
+    /**
+     * Perform Breadth-First Search (BFS) on the graph, counting the work done.
+     *
+     * @param start the starting vertex for BFS
+     * @param stats receives the work done by the traversal, or null
+     * @return list of vertices in BFS order
+     */
+    public List<V> bfs(V start, TraversalStats stats) {
+        return collect(new BfsIterator(start, stats), stats);
+    }
 
-        while (!queue.isEmpty()) {
-            V vertex = queue.poll();
-            bfsOrder.add(vertex);
-            for (Edge<V> neighbor : adjacencyList.getOrDefault(
-                vertex,
-                Collections.emptyList()
-            )) {
-                if (!visited.contains(neighbor.getDestination())) {
-                    queue.offer(neighbor.getDestination());
-                    visited.add(neighbor.getDestination());
-                }
+    private static <V> List<V> collect(Iterator<V> iterator, TraversalStats stats) {
+        if (stats != null) {
+            stats.start();
+        }
+        try {
+            List<V> order = new ArrayList<>();
+            iterator.forEachRemaining(order::add);
+            return order;
+        } finally {
+            if (stats != null) {
+                stats.stop();
             }
         }
+    }
+
+    /**
+     * Lazily iterate the graph in DFS pre-order. Uses an explicit stack instead of
+     * recursion, so long chains cannot overflow the call stack, and only explores as far
+     * as the consumer pulls. The graph must not be modified while iterating.
+     *
+     * @param start the starting vertex for DFS
+     * @return iterator over vertices in DFS order
+     */
+    public Iterator<V> dfsIterator(V start) {
+        return new DfsIterator(start, null);
+    }
+
+    /**
+     * Lazily iterate the graph in BFS order. Neighbors of a vertex are only queued when
+     * the vertex itself is returned. The graph must not be modified while iterating.
+     *
+     * @param start the starting vertex for BFS
+     * @return iterator over vertices in BFS order
+     */
+    public Iterator<V> bfsIterator(V start) {
+        return new BfsIterator(start, null);
+    }
+
+    /**
+     * @param start the starting vertex for DFS
+     * @return lazy sequential stream of vertices in DFS order
+     * @see #dfsIterator(Object)
+     */
+    public Stream<V> dfsStream(V start) {
+        return toStream(dfsIterator(start));
+    }
+
+    /**
+     * @param start the starting vertex for BFS
+     * @return lazy sequential stream of vertices in BFS order
+     * @see #bfsIterator(Object)
+     */
+    public Stream<V> bfsStream(V start) {
+        return toStream(bfsIterator(start));
+    }
 
-        return bfsOrder;
+    /**
+     * Find the vertex closest to start, in hops, that matches a predicate. The traversal
+     * stops as soon as a match is found.
+     *
+     * @param start     the starting vertex
+     * @param predicate the condition to match
+     * @return the first matching vertex in BFS order, or empty if none is reachable
+     */
+    public Optional<V> findFirst(V start, Predicate<? super V> predicate) {
+        return bfsStream(start).filter(predicate).findFirst();
+    }
+
+    private static <V> Stream<V> toStream(Iterator<V> iterator) {
+        return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(
+                iterator,
+                Spliterator.ORDERED | Spliterator.DISTINCT
+            ),
+            false
+        );
+    }
+
+    /**
+     * Perform a parallel direction-optimizing BFS on the CSR snapshot of the graph.
+     * Each level is split across the common fork/join pool.
+     *
+     * @param start the starting vertex for BFS
+     * @return the level and BFS tree parent of every vertex
+     */
+    public BfsResult<V> parallelBfs(V start) {
+        return toCsr().parallelBfs(start);
     }
 
     /**
      * Perform Dijkstra's algorithm to find the shortest paths from a source vertex to all other vertices.
      * Assumes non-negative weights for edges.
+     * <p>
+     * The search runs on the snapshot of {@link #toCsr()}, which every modification
+     * drops. The first query after a modification therefore rebuilds it in O(V + E), so a
+     * workload that alternates single modifications with queries pays one rebuild per
+     * query; batch modifications before querying where possible.
      *
      * @param source the source vertex
      * @return a map of vertices to their shortest distance from the source
      */
     public Map<V, Double> dijkstra(V source) {
-        Map<V, Double> shortestDistances = new HashMap<>();
-        PriorityQueue<VertexDistance<V>> priorityQueue = new PriorityQueue<>(
-            Comparator.comparing(VertexDistance::getDistance)
-        );
-        Set<V> visited = new HashSet<>();
+        return dijkstra(source, null);
+    }
 
-        // Initialize distances
-        for (V vertex : adjacencyList.keySet()) {
-            shortestDistances.put(vertex, Double.POSITIVE_INFINITY);
+    /**
+     * Perform Dijkstra's algorithm from a source vertex, counting the work done.
+     *
+     * @param source the source vertex
+     * @param stats  receives the work done by the query, or null
+     * @return a map of vertices to their shortest distance from the source
+     */
+    public Map<V, Double> dijkstra(V source, TraversalStats stats) {
+        if (stats != null) {
+            stats.start();
         }
-        shortestDistances.put(source, 0.0);
-        priorityQueue.offer(new VertexDistance<>(source, 0.0));
-
-        while (!priorityQueue.isEmpty()) {
-            V current = priorityQueue.poll().getVertex();
-            if (visited.contains(current)) {
-                continue;
+        try {
+            ShortestPathCache<V> cache = pathCache;
+            if (cache == null) {
+                return computeDijkstra(source, stats);
+            }
+            return cache.get(
+                new ShortestPathCache.Key("dijkstra", source, null, null),
+                version,
+                () ->
+                    Collections.unmodifiableMap(computeDijkstra(source, stats)),
+                Map::size
+            );
+        } finally {
+            if (stats != null) {
+                stats.stop();
             }
-            visited.add(current);
+        }
+    }
 
-            for (Edge<V> neighbor : adjacencyList.getOrDefault(
-                current,
-                Collections.emptyList()
-            )) {
-                V next = neighbor.getDestination();
-                double newDistance =
-                    shortestDistances.get(current) + neighbor.getWeight();
-                if (newDistance < shortestDistances.get(next)) {
-                    shortestDistances.put(next, newDistance);
-                    priorityQueue.offer(
-                        new VertexDistance<>(next, newDistance)
-                    );
-                }
+    private Map<V, Double> computeDijkstra(V source, TraversalStats stats) {
+        if (!adjacencyList.containsKey(source)) {
+            Map<V, Double> shortestDistances = new HashMap<>();
+            for (V vertex : adjacencyList.keySet()) {
+                shortestDistances.put(vertex, Double.POSITIVE_INFINITY);
             }
+            shortestDistances.put(source, 0.0);
+            return shortestDistances;
+        }
+        // Runs on the CSR snapshot with an indexed heap instead of boxed queue entries
+        CsrGraph<V> csr = toCsr();
+        DijkstraWorkspace workspace = csr.borrowWorkspace();
+        try {
+            return csr.toVertexMap(
+                csr.dijkstra(csr.idOf(source), workspace, stats).distance
+            );
+        } finally {
+            csr.releaseWorkspace(workspace);
         }
+    }
 
+    /**
+     * Parallel single-source shortest paths with delta-stepping on the common fork/join
+     * pool. Returns the same result as {@link #dijkstra(Object)}. The light and heavy
+     * edge split of the snapshot is kept for the next query with the same delta.
+     *
+     * @param source the source vertex
+     * @param delta  the bucket width, see {@link DeltaStepping#suggestDelta(CsrGraph)}
+     * @return a map of vertices to their shortest distance from the source
+     */
+    public Map<V, Double> deltaStepping(V source, double delta) {
+        if (!adjacencyList.containsKey(source)) {
+            return computeDijkstra(source, null);
+        }
+        CsrGraph<V> csr = toCsr();
+        // A split is immutable, so read-only views may share it through this field
+        DeltaStepping.Split split = deltaSplit;
+        if (split == null || !split.isFor(csr, delta)) {
+            split = DeltaStepping.split(csr, delta);
+            deltaSplit = split;
+        }
+        double[] distances = DeltaStepping.run(split, csr.idOf(source));
+        Map<V, Double> shortestDistances = new HashMap<>(
+            (int) (distances.length / 0.75f) + 1
+        );
+        for (int v = 0; v < distances.length; v++) {
+            shortestDistances.put(csr.vertexAt(v), distances[v]);
+        }
         return shortestDistances;
     }
 
+    /**
+     * Parallel single-source shortest paths with delta-stepping, using the suggested
+     * bucket width for this graph.
+     *
+     * @param source the source vertex
+     * @return a map of vertices to their shortest distance from the source
+     */
+    public Map<V, Double> deltaStepping(V source) {
+        return deltaStepping(source, DeltaStepping.suggestDelta(toCsr()));
+    }
+
     /**
      * A-star (A*) search algorithm to find the shortest path from start to goal vertex.
      * Uses a heuristic function for estimating the cost from current to goal vertex.
+     * Like {@link #dijkstra(Object)} it runs on the snapshot of {@link #toCsr()}, which
+     * is rebuilt by the first query after a modification.
      *
      * @param start the starting vertex
      * @param goal  the goal vertex
@@ -171,71 +479,382 @@ public class GraphTraversalUtils<V> {
      * @return list of vertices representing the shortest path from start to goal
      */
     public List<V> aStar(V start, V goal, Heuristic<V> heuristic) {
-        Map<V, Double> gScore = new HashMap<>();
-        Map<V, Double> fScore = new HashMap<>();
-        Map<V, V> cameFrom = new HashMap<>();
-        PriorityQueue<VertexDistance<V>> priorityQueue = new PriorityQueue<>(
-            Comparator.comparing(VertexDistance::getDistance)
-        );
-        Set<V> visited = new HashSet<>();
+        return aStar(start, goal, heuristic, null);
+    }
+
+    /**
+     * A-star (A*) search from start to goal, counting the work done.
+     *
+     * @param start     the starting vertex
+     * @param goal      the goal vertex
+     * @param heuristic a heuristic function estimating cost from current to goal
+     * @param stats     receives the work done by the query, or null
+     * @return list of vertices representing the shortest path from start to goal
+     */
+    public List<V> aStar(
+        V start,
+        V goal,
+        Heuristic<V> heuristic,
+        TraversalStats stats
+    ) {
+        if (stats != null) {
+            stats.start();
+        }
+        try {
+            ShortestPathCache<V> cache = pathCache;
+            if (cache == null) {
+                return computeAStar(start, goal, heuristic, stats);
+            }
+            return cache.get(
+                new ShortestPathCache.Key("aStar", start, goal, heuristic),
+                version,
+                () ->
+                    Collections.unmodifiableList(
+                        computeAStar(start, goal, heuristic, stats)
+                    ),
+                List::size
+            );
+        } finally {
+            if (stats != null) {
+                stats.stop();
+            }
+        }
+    }
+
+    private List<V> computeAStar(
+        V start,
+        V goal,
+        Heuristic<V> heuristic,
+        TraversalStats stats
+    ) {
+        if (!adjacencyList.containsKey(start) || !adjacencyList.containsKey(goal)) {
+            return Collections.emptyList(); // No path found
+        }
+        // Runs on the CSR snapshot with an indexed heap instead of boxed queue entries
+        CsrGraph<V> csr = toCsr();
+        return csr.aStar(csr.idOf(start), csr.idOf(goal), heuristic, stats);
+    }
+
+    /**
+     * Find the shortest path between two vertices with bidirectional Dijkstra.
+     * Searches forward from the source and backward from the target at the same time,
+     * stopping once the two frontiers prove no shorter connection exists.
+     * Assumes non-negative weights for edges.
+     *
+     * @param source the source vertex
+     * @param target the target vertex
+     * @return the shortest path including both endpoints together with its cost
+     */
+    public PathResult<V> shortestPath(V source, V target) {
+        return shortestPath(source, target, (TraversalStats) null);
+    }
+
+    /**
+     * Find the shortest path between two vertices with bidirectional Dijkstra, counting
+     * the work done.
+     *
+     * @param source the source vertex
+     * @param target the target vertex
+     * @param stats  receives the work done by the query, or null
+     * @return the shortest path including both endpoints together with its cost
+     */
+    public PathResult<V> shortestPath(V source, V target, TraversalStats stats) {
+        return shortestPath(source, target, null, stats);
+    }
 
-        gScore.put(start, 0.0);
-        fScore.put(start, heuristic.calculate(start, goal));
-        priorityQueue.offer(new VertexDistance<>(start, fScore.get(start)));
+    /**
+     * Find the shortest path between two vertices with bidirectional A*.
+     * The heuristic must be consistent, and is evaluated both as
+     * {@code calculate(v, target)} for the forward search and as
+     * {@code calculate(source, v)} for the backward search.
+     *
+     * @param source    the source vertex
+     * @param target    the target vertex
+     * @param heuristic a consistent heuristic estimating the cost between two vertices
+     * @return the shortest path including both endpoints together with its cost
+     */
+    public PathResult<V> shortestPath(
+        V source,
+        V target,
+        Heuristic<V> heuristic
+    ) {
+        return shortestPath(source, target, heuristic, null);
+    }
 
-        while (!priorityQueue.isEmpty()) {
-            V current = priorityQueue.poll().getVertex();
-            if (current.equals(goal)) {
-                return reconstructPath(cameFrom, current);
+    /**
+     * Find the shortest path between two vertices with bidirectional A*, counting the
+     * work done.
+     *
+     * @param source    the source vertex
+     * @param target    the target vertex
+     * @param heuristic a consistent heuristic, or null for bidirectional Dijkstra
+     * @param stats     receives the work done by the query, or null
+     * @return the shortest path including both endpoints together with its cost
+     */
+    public PathResult<V> shortestPath(
+        V source,
+        V target,
+        Heuristic<V> heuristic,
+        TraversalStats stats
+    ) {
+        if (stats != null) {
+            stats.start();
+        }
+        try {
+            if (
+                !adjacencyList.containsKey(source) ||
+                !adjacencyList.containsKey(target)
+            ) {
+                return PathResult.notFound();
             }
-            if (visited.contains(current)) {
-                continue;
+            ShortestPathCache<V> cache = pathCache;
+            if (cache == null) {
+                return search(source, target, heuristic, stats);
+            }
+            return cache.get(
+                new ShortestPathCache.Key(
+                    "shortestPath",
+                    source,
+                    target,
+                    heuristic
+                ),
+                version,
+                () -> unmodifiable(search(source, target, heuristic, stats)),
+                result -> result.getPath().size()
+            );
+        } finally {
+            if (stats != null) {
+                stats.stop();
             }
-            visited.add(current);
+        }
+    }
 
-            for (Edge<V> neighbor : adjacencyList.getOrDefault(
-                current,
-                Collections.emptyList()
-            )) {
-                V next = neighbor.getDestination();
-                double tentativeGScore =
-                    gScore.getOrDefault(current, Double.POSITIVE_INFINITY) +
-                    neighbor.getWeight();
-                if (
-                    tentativeGScore <
-                    gScore.getOrDefault(next, Double.POSITIVE_INFINITY)
-                ) {
-                    cameFrom.put(next, current);
-                    gScore.put(next, tentativeGScore);
-                    fScore.put(
-                        next,
-                        gScore.get(next) + heuristic.calculate(next, goal)
-                    );
-                    priorityQueue.offer(
-                        new VertexDistance<>(next, fScore.get(next))
-                    );
+    private PathResult<V> search(
+        V source,
+        V target,
+        Heuristic<V> heuristic,
+        TraversalStats stats
+    ) {
+        return heuristic == null
+            ? toCsr().shortestPath(source, target, stats)
+            : toCsr().shortestPath(source, target, heuristic, stats);
+    }
+
+    private static <V> PathResult<V> unmodifiable(PathResult<V> result) {
+        return new PathResult<>(
+            Collections.unmodifiableList(result.getPath()),
+            result.getCost()
+        );
+    }
+
+    /**
+     * Compute an N x M table of shortest path distances, running the searches in
+     * parallel on the CSR snapshot. Each search stops once all targets are settled.
+     *
+     * @param sources the source vertices
+     * @param targets the target vertices
+     * @return {@code matrix[i][j]}, the distance from {@code sources.get(i)} to
+     *         {@code targets.get(j)}, {@code POSITIVE_INFINITY} if unreachable
+     * @throws IllegalArgumentException if a vertex is not part of the graph
+     */
+    public double[][] distanceMatrix(List<V> sources, List<V> targets) {
+        return toCsr().distanceMatrix(sources, targets);
+    }
+
+    /**
+     * Select landmarks with avoid selection and precompute their distances, giving a
+     * heuristic for {@link #aStar(Object, Object, Heuristic)} and
+     * {@link #shortestPath(Object, Object, Heuristic)} on graphs without coordinates.
+     * The bounds are only valid until the graph is modified.
+     *
+     * @param count the number of landmarks
+     * @return the landmark heuristic
+     */
+    public Landmarks<V> landmarks(int count) {
+        return Landmarks.build(toCsr(), count, Landmarks.Selection.AVOID);
+    }
+
+    /**
+     * Find the connected components, treating every edge as undirected.
+     *
+     * @return the components of the current graph
+     */
+    public Components<V> connectedComponents() {
+        return Components.weak(toCsr());
+    }
+
+    /**
+     * Find the strongly connected components.
+     *
+     * @return the components of the current graph, in reverse topological order
+     */
+    public Components<V> stronglyConnectedComponents() {
+        return Components.strong(toCsr());
+    }
+
+    /**
+     * @return true if the graph has no directed cycle
+     */
+    public boolean isAcyclic() {
+        return toDag().isPresent();
+    }
+
+    /**
+     * Sort the CSR snapshot topologically, for linear-time shortest and longest paths
+     * and a level-by-level schedule of the vertices. The result is only valid until
+     * the graph is modified.
+     *
+     * @return the topological view, or empty if the graph has a cycle
+     */
+    public Optional<Dag<V>> toDag() {
+        return Dag.of(toCsr());
+    }
+
+    /**
+     * Compute PageRank in parallel on the CSR snapshot, ignoring edge weights.
+     *
+     * @return the rank of every vertex, summing to 1
+     */
+    public Map<V, Double> pageRank() {
+        CsrGraph<V> csr = toCsr();
+        return csr.toVertexMap(Centrality.pageRank(csr));
+    }
+
+    /**
+     * Estimate weighted betweenness centrality in parallel on the CSR snapshot.
+     *
+     * @param samples the number of sampled sources, all vertices if at least the
+     *                vertex count
+     * @return the betweenness of every vertex
+     */
+    public Map<V, Double> betweenness(int samples) {
+        CsrGraph<V> csr = toCsr();
+        return csr.toVertexMap(Centrality.betweenness(csr, samples));
+    }
+
+    /**
+     * Estimate weighted closeness centrality in parallel on the CSR snapshot.
+     *
+     * @param samples the number of sampled targets, all vertices if at least the
+     *                vertex count
+     * @return the closeness of every vertex
+     */
+    public Map<V, Double> closeness(int samples) {
+        CsrGraph<V> csr = toCsr();
+        return csr.toVertexMap(Centrality.closeness(csr, samples));
+    }
+
+    /**
+     * DFS pre-order iterator holding one edge iterator per vertex on the current path.
+     */
+    private class DfsIterator implements Iterator<V> {
+
+        private final Deque<Iterator<Edge<V>>> stack = new ArrayDeque<>();
+        private final Set<V> visited = new HashSet<>();
+        private final TraversalStats stats;
+        private V pending;
+        private boolean hasPending;
+
+        DfsIterator(V start, TraversalStats stats) {
+            this.stats = stats;
+            visited.add(start);
+            pending = start;
+            hasPending = true;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!hasPending && !stack.isEmpty()) {
+                Iterator<Edge<V>> edges = stack.peek();
+                if (!edges.hasNext()) {
+                    stack.pop();
+                    if (stats != null) {
+                        stats.popped();
+                    }
+                    continue;
+                }
+                V next = edges.next().getDestination();
+                if (stats != null) {
+                    stats.relaxed();
+                }
+                if (visited.add(next)) {
+                    pending = next;
+                    hasPending = true;
                 }
             }
+            return hasPending;
         }
 
-        return Collections.emptyList(); // No path found
+        @Override
+        public V next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            V vertex = pending;
+            pending = null;
+            hasPending = false;
+            stack.push(
+                adjacencyList
+                    .getOrDefault(vertex, Collections.emptyList())
+                    .iterator()
+            );
+            if (stats != null) {
+                stats.settled();
+                stats.pushed(false, stack.size());
+            }
+            return vertex;
+        }
     }
 
     /**
-     * Reconstructs the path from start to goal using the cameFrom map.
-     *
-     * @param cameFrom map containing the previous vertex for each vertex in the path
-     * @param current  the current vertex
-     * @return list of vertices representing the reconstructed path from start to goal
+     * BFS iterator that expands a vertex when it is returned.
      */
-    private List<V> reconstructPath(Map<V, V> cameFrom, V current) {
-        List<V> path = new ArrayList<>();
-        while (cameFrom.containsKey(current)) {
-            path.add(current);
-            current = cameFrom.get(current);
+    private class BfsIterator implements Iterator<V> {
+
+        private final Queue<V> queue = new ArrayDeque<>();
+        private final Set<V> visited = new HashSet<>();
+        private final TraversalStats stats;
+
+        BfsIterator(V start, TraversalStats stats) {
+            this.stats = stats;
+            queue.offer(start);
+            visited.add(start);
+            if (stats != null) {
+                stats.pushed(false, 1);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !queue.isEmpty();
+        }
+
+        @Override
+        public V next() {
+            V vertex = queue.poll();
+            if (vertex == null) {
+                throw new NoSuchElementException();
+            }
+            if (stats != null) {
+                stats.popped();
+                stats.settled();
+            }
+            for (Edge<V> neighbor : adjacencyList.getOrDefault(
+                vertex,
+                Collections.emptyList()
+            )) {
+                if (stats != null) {
+                    stats.relaxed();
+                }
+                if (visited.add(neighbor.getDestination())) {
+                    queue.offer(neighbor.getDestination());
+                    if (stats != null) {
+                        stats.pushed(false, queue.size());
+                    }
+                }
+            }
+            return vertex;
         }
-        Collections.reverse(path);
-        return path;
     }
 
     /**
@@ -243,7 +862,7 @@ public class GraphTraversalUtils<V> {
      *
      * @param <V> the type of vertex in the graph
      */
-    private static class Edge<V> {
+    static class Edge<V> {
 
         private V destination;
         private double weight;
@@ -263,26 +882,48 @@ public class GraphTraversalUtils<V> {
     }
 
     /**
-     * Represents a vertex and its distance used in priority queues.
+     * Represents the result of a point-to-point shortest path query.
      *
      * @param <V> the type of vertex in the graph
      */
-    private static class VertexDistance<V> {
+    public static class PathResult<V> {
 
-        private V vertex;
-        private double distance;
+        private final List<V> path;
+        private final double cost;
 
-        public VertexDistance(V vertex, double distance) {
-            this.vertex = vertex;
-            this.distance = distance;
+        public PathResult(List<V> path, double cost) {
+            this.path = path;
+            this.cost = cost;
         }
 
-        public V getVertex() {
-            return vertex;
+        public static <V> PathResult<V> notFound() {
+            return new PathResult<>(
+                Collections.emptyList(),
+                Double.POSITIVE_INFINITY
+            );
+        }
+
+        /**
+         * @return vertices from source to target inclusive, empty if no path exists
+         */
+        public List<V> getPath() {
+            return path;
+        }
+
+        /**
+         * @return total weight of the path, {@code POSITIVE_INFINITY} if no path exists
+         */
+        public double getCost() {
+            return cost;
+        }
+
+        public boolean isFound() {
+            return cost != Double.POSITIVE_INFINITY;
         }
 
-        public double getDistance() {
-            return distance;
+        @Override
+        public String toString() {
+            return "PathResult{path=" + path + ", cost=" + cost + "}";
         }
     }
 
@@ -294,4 +935,22 @@ public class GraphTraversalUtils<V> {
     public interface Heuristic<V> {
         double calculate(V current, V goal);
     }
+
+    /**
+     * Receives the modifications of a graph, after they are applied.
+     *
+     * @param <V> the type of vertex in the graph
+     */
+    public interface GraphListener<V> {
+        default void vertexAdded(V vertex) {}
+
+        void edgeAdded(V source, V destination, double weight);
+
+        void edgeWeightChanged(
+            V source,
+            V destination,
+            double oldWeight,
+            double newWeight
+        );
+    }
 }
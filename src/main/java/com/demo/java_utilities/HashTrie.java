@@ -0,0 +1,275 @@
+package com.demo.java_utilities;
+
+import java.util.AbstractMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Persistent hash map: a hash array mapped trie (Bagwell, "Ideal Hash Trees") in which
+ * {@link #put} returns a new map and leaves this one unchanged. The new map shares every
+ * node off the path to the changed key, so a put copies at most seven small nodes instead
+ * of the whole table, and any number of versions can be read concurrently.
+ * <p>
+ * Every node holds up to 32 slots selected by five bits of the hash and keeps only the
+ * occupied ones, indexed by a bitmap. Keys whose 32-bit hashes are equal end up in a
+ * collision node that is searched linearly. Null keys and values are allowed.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+final class HashTrie<K, V> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    // Marks a slot pair whose second element is a child node
+    private static final Object CHILD = new Object();
+    private static final Object NOT_FOUND = new Object();
+    private static final HashTrie<?, ?> EMPTY = new HashTrie<>(Node.EMPTY, 0);
+
+    private final Node root;
+    private final int size;
+
+    private HashTrie(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * @param <K> the type of keys
+     * @param <V> the type of values
+     * @return the empty map
+     */
+    @SuppressWarnings("unchecked")
+    static <K, V> HashTrie<K, V> empty() {
+        return (HashTrie<K, V>) EMPTY;
+    }
+
+    /**
+     * @return the number of keys
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param key the key to look up
+     * @return the value of the key, or null if it is absent
+     */
+    @SuppressWarnings("unchecked")
+    V get(Object key) {
+        Object value = root.find(hash(key), key, 0);
+        return value == NOT_FOUND ? null : (V) value;
+    }
+
+    /**
+     * @param key the key to look up
+     * @return whether the map holds the key
+     */
+    boolean containsKey(Object key) {
+        return root.find(hash(key), key, 0) != NOT_FOUND;
+    }
+
+    /**
+     * Returns a map that also maps the key to the value. This map is not modified.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return the new map
+     */
+    HashTrie<K, V> put(K key, V value) {
+        boolean[] added = new boolean[1];
+        Node next = root.put(hash(key), key, value, 0, added);
+        return new HashTrie<>(next, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * @return an iterator over the entries in no particular order
+     */
+    Iterator<Map.Entry<K, V>> iterator() {
+        return new EntryIterator<>(root);
+    }
+
+    private static int hash(Object key) {
+        int h = key == null ? 0 : key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * A trie node. The slots are pairs of key and value, or of {@link #CHILD} and a child
+     * node. A collision node holds key and value pairs only, all with the same hash.
+     */
+    private static final class Node {
+
+        static final Node EMPTY = new Node(0, new Object[0], false);
+
+        private final int bitmap;
+        private final Object[] slots;
+        private final boolean collision;
+
+        Node(int bitmap, Object[] slots, boolean collision) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+            this.collision = collision;
+        }
+
+        Object find(int hash, Object key, int shift) {
+            Node node = this;
+            while (!node.collision) {
+                int bit = 1 << ((hash >>> shift) & MASK);
+                if ((node.bitmap & bit) == 0) {
+                    return NOT_FOUND;
+                }
+                int i = 2 * Integer.bitCount(node.bitmap & (bit - 1));
+                Object k = node.slots[i];
+                if (k != CHILD) {
+                    return Objects.equals(k, key) ? node.slots[i + 1] : NOT_FOUND;
+                }
+                node = (Node) node.slots[i + 1];
+                shift += BITS;
+            }
+            for (int i = 0; i < node.slots.length; i += 2) {
+                if (Objects.equals(node.slots[i], key)) {
+                    return node.slots[i + 1];
+                }
+            }
+            return NOT_FOUND;
+        }
+
+        /**
+         * @param added set to true if the key was not present before
+         * @return the node with the key put, sharing every untouched child
+         */
+        Node put(int hash, Object key, Object value, int shift, boolean[] added) {
+            if (collision) {
+                for (int i = 0; i < slots.length; i += 2) {
+                    if (Objects.equals(slots[i], key)) {
+                        Object[] copy = slots.clone();
+                        copy[i + 1] = value;
+                        return new Node(0, copy, true);
+                    }
+                }
+                added[0] = true;
+                return new Node(0, insert(slots, slots.length, key, value), true);
+            }
+            int bit = 1 << ((hash >>> shift) & MASK);
+            int i = 2 * Integer.bitCount(bitmap & (bit - 1));
+            if ((bitmap & bit) == 0) {
+                added[0] = true;
+                return new Node(bitmap | bit, insert(slots, i, key, value), false);
+            }
+            Object k = slots[i];
+            Object[] copy = slots.clone();
+            if (k == CHILD) {
+                copy[i + 1] = ((Node) slots[i + 1]).put(
+                    hash,
+                    key,
+                    value,
+                    shift + BITS,
+                    added
+                );
+            } else if (Objects.equals(k, key)) {
+                copy[i + 1] = value;
+            } else {
+                added[0] = true;
+                copy[i] = CHILD;
+                copy[i + 1] = pair(
+                    hash(k),
+                    k,
+                    slots[i + 1],
+                    hash,
+                    key,
+                    value,
+                    shift + BITS
+                );
+            }
+            return new Node(bitmap, copy, false);
+        }
+
+        private static Object[] insert(Object[] slots, int i, Object key, Object value) {
+            Object[] copy = new Object[slots.length + 2];
+            System.arraycopy(slots, 0, copy, 0, i);
+            copy[i] = key;
+            copy[i + 1] = value;
+            System.arraycopy(slots, i, copy, i + 2, slots.length - i);
+            return copy;
+        }
+
+        /**
+         * @return a node holding two keys with different positions at {@code shift}, or
+         *         a chain of nodes down to where they differ
+         */
+        private static Node pair(
+            int hash1,
+            Object key1,
+            Object value1,
+            int hash2,
+            Object key2,
+            Object value2,
+            int shift
+        ) {
+            if (shift >= Integer.SIZE) {
+                return new Node(0, new Object[] { key1, value1, key2, value2 }, true);
+            }
+            int position1 = (hash1 >>> shift) & MASK;
+            int position2 = (hash2 >>> shift) & MASK;
+            if (position1 == position2) {
+                Node child = pair(hash1, key1, value1, hash2, key2, value2, shift + BITS);
+                return new Node(1 << position1, new Object[] { CHILD, child }, false);
+            }
+            Object[] slots = position1 < position2
+                ? new Object[] { key1, value1, key2, value2 }
+                : new Object[] { key2, value2, key1, value1 };
+            return new Node((1 << position1) | (1 << position2), slots, false);
+        }
+    }
+
+    /**
+     * Depth-first walk over the slots with an explicit stack of nodes and positions.
+     */
+    private static final class EntryIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+
+        // A 32-bit hash is consumed after seven levels; the eighth is a collision node
+        private final Node[] nodes = new Node[8];
+        private final int[] positions = new int[8];
+        private int depth;
+
+        EntryIterator(Node root) {
+            nodes[0] = root;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (depth >= 0) {
+                Node node = nodes[depth];
+                int i = positions[depth];
+                if (i >= node.slots.length) {
+                    depth--;
+                } else if (node.slots[i] == CHILD) {
+                    positions[depth] = i + 2;
+                    nodes[++depth] = (Node) node.slots[i + 1];
+                    positions[depth] = 0;
+                } else {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map.Entry<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Node node = nodes[depth];
+            int i = positions[depth];
+            positions[depth] = i + 2;
+            return new AbstractMap.SimpleImmutableEntry<>(
+                (K) node.slots[i],
+                (V) node.slots[i + 1]
+            );
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.demo.java_utilities;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Indexed d-ary min-heap over int ids in {@code [0, capacity)} with double keys.
+ * Every id is in the heap at most once and its key can be lowered in place with
+ * {@link #decreaseKey(int, double)}, so shortest path searches never accumulate
+ * stale entries. All storage is allocated up front; no operation allocates.
+ */
+public class IndexedDaryHeap {
+
+    public static final int DEFAULT_ARITY = 4;
+
+    private final int arity;
+    private final int[] heap;
+    private final int[] position;
+    private final double[] keys;
+    private int size;
+
+    public IndexedDaryHeap(int capacity) {
+        this(capacity, DEFAULT_ARITY);
+    }
+
+    public IndexedDaryHeap(int capacity, int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("Arity must be at least 2");
+        }
+        this.arity = arity;
+        this.heap = new int[capacity];
+        this.position = new int[capacity];
+        this.keys = new double[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    /**
+     * @return the largest id plus one the heap can hold
+     */
+    public int capacity() {
+        return heap.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param id the id to check
+     * @return true if the id is currently in the heap
+     */
+    public boolean contains(int id) {
+        return position[id] >= 0;
+    }
+
+    /**
+     * @param id an id contained in the heap
+     * @return the current key of the id
+     */
+    public double key(int id) {
+        return keys[id];
+    }
+
+    /**
+     * Inserts an id that is not yet in the heap.
+     *
+     * @param id  the id to insert
+     * @param key the key of the id
+     */
+    public void insert(int id, double key) {
+        if (position[id] >= 0) {
+            throw new IllegalStateException("Id " + id + " is already queued");
+        }
+        keys[id] = key;
+        heap[size] = id;
+        position[id] = size;
+        siftUp(size++);
+    }
+
+    /**
+     * Lowers the key of an id already in the heap.
+     *
+     * @param id  the id to update
+     * @param key the new key, not larger than the current one
+     */
+    public void decreaseKey(int id, double key) {
+        keys[id] = key;
+        siftUp(position[id]);
+    }
+
+    /**
+     * Inserts the id, or lowers its key if it is queued with a larger key.
+     *
+     * @param id  the id to insert or update
+     * @param key the candidate key
+     * @return true if the heap changed
+     */
+    public boolean insertOrDecrease(int id, double key) {
+        int pos = position[id];
+        if (pos < 0) {
+            insert(id, key);
+            return true;
+        }
+        if (key < keys[id]) {
+            keys[id] = key;
+            siftUp(pos);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the id with the smallest key, without removing it
+     */
+    public int peek() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return heap[0];
+    }
+
+    /**
+     * @return the smallest key in the heap
+     */
+    public double peekKey() {
+        return keys[peek()];
+    }
+
+    /**
+     * Removes and returns the id with the smallest key.
+     *
+     * @return the removed id
+     */
+    public int poll() {
+        int top = peek();
+        position[top] = -1;
+        int last = heap[--size];
+        if (size > 0) {
+            heap[0] = last;
+            position[last] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    /**
+     * Removes every id from the heap in time proportional to the current size.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int pos) {
+        int id = heap[pos];
+        double key = keys[id];
+        while (pos > 0) {
+            int parentPos = (pos - 1) / arity;
+            int parent = heap[parentPos];
+            if (keys[parent] <= key) {
+                break;
+            }
+            heap[pos] = parent;
+            position[parent] = pos;
+            pos = parentPos;
+        }
+        heap[pos] = id;
+        position[id] = pos;
+    }
+
+    private void siftDown(int pos) {
+        int id = heap[pos];
+        double key = keys[id];
+        while (true) {
+            int firstChild = pos * arity + 1;
+            if (firstChild >= size) {
+                break;
+            }
+            int lastChild = Math.min(firstChild + arity, size);
+            int best = firstChild;
+            double bestKey = keys[heap[firstChild]];
+            for (int c = firstChild + 1; c < lastChild; c++) {
+                double childKey = keys[heap[c]];
+                if (childKey < bestKey) {
+                    best = c;
+                    bestKey = childKey;
+                }
+            }
+            if (bestKey >= key) {
+                break;
+            }
+            int child = heap[best];
+            heap[pos] = child;
+            position[child] = pos;
+            pos = best;
+        }
+        heap[pos] = id;
+        position[id] = pos;
+    }
+}
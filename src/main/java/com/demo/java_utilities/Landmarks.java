@@ -0,0 +1,453 @@
+package com.demo.java_utilities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Landmark lower bounds for A* on graphs without a geometric heuristic (ALT, Goldberg and
+ * Harrelson, "Computing the Shortest Path: A* Search Meets Graph Theory"). For every
+ * landmark L the exact distances {@code d(L, v)} and {@code d(v, L)} are precomputed, and
+ * the triangle inequality gives
+ * <pre>
+ * d(v, t) &gt;= max(d(L, t) - d(L, v), d(v, L) - d(t, L))
+ * </pre>
+ * The heuristic is the maximum of these bounds over all landmarks. Distances are stored as
+ * floats, vertex-major so the bounds of one vertex share a cache line, and every bound is
+ * lowered by the worst-case float rounding error so it never overestimates.
+ * <p>
+ * The bounds hold for the snapshot the landmarks were built on; rebuild them after the
+ * graph changes.
+ *
+ * @param <V> the type of vertex in the graph
+ */
+public class Landmarks<V> implements GraphTraversalUtils.Heuristic<V> {
+
+    /**
+     * Strategy for choosing landmarks.
+     */
+    public enum Selection {
+        /**
+         * Greedily picks the vertex farthest from all landmarks chosen so far.
+         */
+        FARTHEST,
+        /**
+         * Picks landmarks behind the parts of sampled shortest path trees where the
+         * current bounds are weakest, which usually gives tighter bounds than FARTHEST.
+         * Every pick needs both distance columns of all earlier landmarks, so landmarks
+         * are chosen one after another and only the forward and backward search of each
+         * landmark run concurrently.
+         */
+        AVOID,
+    }
+
+    // Rounding a distance to float moves it by at most half an ulp, 2^-24 of the stored
+    // value. Without that slack the difference of two rounded distances can exceed the
+    // true distance; a full ulp also covers the double rounding in Dijkstra's sums.
+    private static final double FLOAT_ERROR = 0x1p-23;
+    private static final int AVOID_ATTEMPTS = 16;
+
+    private final CsrGraph<V> graph;
+    private final int[] landmarks;
+    private final int count;
+    private final float[] from;
+    private final float[] to;
+
+    private Landmarks(CsrGraph<V> graph, int count) {
+        if ((long) graph.vertexCount() * count > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException(
+                "Too many landmarks for " + graph.vertexCount() + " vertices"
+            );
+        }
+        this.graph = graph;
+        this.count = count;
+        this.landmarks = new int[count];
+        this.from = new float[graph.vertexCount() * count];
+        this.to = new float[graph.vertexCount() * count];
+    }
+
+    /**
+     * Select landmarks and precompute their distances on the common fork/join pool.
+     *
+     * @param graph     the graph to build landmarks for
+     * @param count     the number of landmarks, capped at the number of vertices
+     * @param selection how to choose the landmarks
+     * @param <V>       the type of vertex in the graph
+     * @return the landmark heuristic
+     */
+    public static <V> Landmarks<V> build(
+        CsrGraph<V> graph,
+        int count,
+        Selection selection
+    ) {
+        return build(graph, count, selection, 0L, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Select landmarks and precompute their distances. Selection is sequential, since
+     * each landmark is chosen by the distances of the earlier ones; the pool runs the
+     * searches that do not depend on each other, see {@link Selection}.
+     *
+     * @param graph     the graph to build landmarks for
+     * @param count     the number of landmarks, capped at the number of vertices
+     * @param selection how to choose the landmarks
+     * @param seed      seed for the random start vertices of the selection
+     * @param pool      the pool that runs the forward and backward searches
+     * @param <V>       the type of vertex in the graph
+     * @return the landmark heuristic
+     */
+    public static <V> Landmarks<V> build(
+        CsrGraph<V> graph,
+        int count,
+        Selection selection,
+        long seed,
+        ForkJoinPool pool
+    ) {
+        if (count < 1) {
+            throw new IllegalArgumentException(
+                "At least one landmark is required"
+            );
+        }
+        Landmarks<V> result = new Landmarks<>(
+            graph,
+            Math.min(count, graph.vertexCount())
+        );
+        new Selector<>(result, new Random(seed), pool).select(selection);
+        return result;
+    }
+
+    /**
+     * @return the number of landmarks
+     */
+    public int landmarkCount() {
+        return count;
+    }
+
+    /**
+     * @param i index in {@code [0, landmarkCount())}
+     * @return the id of the i-th landmark
+     */
+    public int landmark(int i) {
+        return landmarks[i];
+    }
+
+    /**
+     * @return the landmark vertices in selection order
+     */
+    public List<V> landmarks() {
+        List<V> result = new ArrayList<>(count);
+        for (int landmark : landmarks) {
+            result.add(graph.vertexAt(landmark));
+        }
+        return result;
+    }
+
+    /**
+     * Lower bound on the distance between two vertex ids.
+     *
+     * @param v the id of the current vertex
+     * @param t the id of the goal vertex
+     * @return a lower bound on {@code d(v, t)}, at least 0
+     */
+    public double lowerBound(int v, int t) {
+        double best = 0.0;
+        int vBase = v * count;
+        int tBase = t * count;
+        for (int l = 0; l < count; l++) {
+            double fromT = from[tBase + l];
+            double fromV = from[vBase + l];
+            double forward = fromT - fromV - (fromT + fromV) * FLOAT_ERROR;
+            double toV = to[vBase + l];
+            double toT = to[tBase + l];
+            double backward = toV - toT - (toV + toT) * FLOAT_ERROR;
+            // Terms with an unreachable landmark are NaN and never compare greater
+            if (forward > best) {
+                best = forward;
+            }
+            if (backward > best) {
+                best = backward;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Lower bound on the distance between two vertices, 0 if either is unknown.
+     *
+     * @param current the current vertex
+     * @param goal    the goal vertex
+     * @return a lower bound on the distance from current to goal
+     */
+    @Override
+    public double calculate(V current, V goal) {
+        int v = graph.idOf(current);
+        int t = graph.idOf(goal);
+        return v < 0 || t < 0 ? 0.0 : lowerBound(v, t);
+    }
+
+    /**
+     * @param other a graph
+     * @return true if these landmarks were built on that graph, so ids can be used directly
+     */
+    boolean isFor(CsrGraph<?> other) {
+        return graph == other;
+    }
+
+    private static class Selector<V> {
+
+        private final Landmarks<V> target;
+        private final CsrGraph<V> graph;
+        private final Random random;
+        private final ForkJoinPool pool;
+        private final int n;
+        private final boolean[] isLandmark;
+        private final boolean[] filledFrom;
+        private final boolean[] filledTo;
+        private final DijkstraWorkspace workspace;
+        private final DijkstraWorkspace backwardWorkspace;
+
+        Selector(Landmarks<V> target, Random random, ForkJoinPool pool) {
+            this.target = target;
+            this.graph = target.graph;
+            this.random = random;
+            this.pool = pool;
+            this.n = graph.vertexCount();
+            this.isLandmark = new boolean[n];
+            this.filledFrom = new boolean[target.count];
+            this.filledTo = new boolean[target.count];
+            this.workspace = graph.newWorkspace();
+            this.backwardWorkspace = graph.newWorkspace();
+        }
+
+        void select(Selection selection) {
+            if (target.count == 0) {
+                return;
+            }
+            graph.dijkstra(random.nextInt(n), workspace);
+            choose(0, farthestReached());
+            if (selection == Selection.FARTHEST) {
+                selectFarthest();
+            } else {
+                selectAvoid();
+            }
+
+            // Fill every distance column the selection did not need, in parallel
+            pool.invoke(
+                new RangeTask(
+                    0,
+                    2 * target.count,
+                    1,
+                    (lo, hi) -> {
+                        DijkstraWorkspace local = graph.newWorkspace();
+                        for (int i = lo; i < hi; i++) {
+                            int l = i >> 1;
+                            boolean forward = (i & 1) == 0;
+                            if (!(forward ? filledFrom[l] : filledTo[l])) {
+                                fill(l, forward, local);
+                            }
+                        }
+                    }
+                )
+            );
+        }
+
+        private void selectFarthest() {
+            double[] nearest = new double[n];
+            Arrays.fill(nearest, Double.POSITIVE_INFINITY);
+            for (int l = 0; l < target.count; l++) {
+                if (l > 0) {
+                    int best = -1;
+                    for (int v = 0; v < n; v++) {
+                        if (
+                            !isLandmark[v] &&
+                            (best < 0 || nearest[v] > nearest[best])
+                        ) {
+                            best = v;
+                        }
+                    }
+                    choose(l, best);
+                }
+                fill(l, true, workspace);
+                filledFrom[l] = true;
+                for (int v = 0; v < n; v++) {
+                    nearest[v] = Math.min(
+                        nearest[v],
+                        target.from[v * target.count + l]
+                    );
+                }
+            }
+        }
+
+        private void selectAvoid() {
+            int[] childHead = new int[n];
+            int[] nextSibling = new int[n];
+            int[] order = new int[n];
+            double[] size = new double[n];
+            boolean[] covered = new boolean[n];
+            Arrays.fill(childHead, -1);
+
+            for (int l = 0; l < target.count; l++) {
+                if (l > 0) {
+                    int chosen = -1;
+                    for (
+                        int attempt = 0;
+                        attempt < AVOID_ATTEMPTS && chosen < 0;
+                        attempt++
+                    ) {
+                        chosen = avoidCandidate(
+                            randomFreeVertex(),
+                            childHead,
+                            nextSibling,
+                            order,
+                            size,
+                            covered
+                        );
+                    }
+                    choose(l, chosen >= 0 ? chosen : randomFreeVertex());
+                }
+                fillBoth(l);
+                filledFrom[l] = true;
+                filledTo[l] = true;
+            }
+        }
+
+        /**
+         * Grows a shortest path tree from the root and weighs every vertex by how much its
+         * current lower bound from the root falls short of the true distance. Subtree
+         * weights are summed, subtrees holding a landmark count as zero, and the walk from
+         * the root into the heaviest child ends at the new landmark.
+         *
+         * @return the id of the new landmark, or -1 if every subtree is covered
+         */
+        private int avoidCandidate(
+            int root,
+            int[] childHead,
+            int[] nextSibling,
+            int[] order,
+            double[] size,
+            boolean[] covered
+        ) {
+            graph.dijkstra(root, workspace);
+            int reached = workspace.reachedCount();
+            for (int i = 0; i < reached; i++) {
+                int v = workspace.reached(i);
+                int p = workspace.parent(v);
+                if (p >= 0) {
+                    nextSibling[v] = childHead[p];
+                    childHead[p] = v;
+                }
+                size[v] = workspace.distance(v) - target.lowerBound(root, v);
+                covered[v] = isLandmark[v];
+            }
+
+            // Pre-order with an explicit stack, then accumulate children before parents.
+            // The stack grows from the front of the array and the visited vertices from
+            // the back; together they never hold more than the reached vertices.
+            int count = 0;
+            int top = 0;
+            order[top++] = root;
+            while (top > 0) {
+                int v = order[--top];
+                order[n - 1 - count++] = v;
+                for (int c = childHead[v]; c >= 0; c = nextSibling[c]) {
+                    order[top++] = c;
+                }
+            }
+            for (int i = n - count; i < n; i++) {
+                int v = order[i];
+                if (covered[v]) {
+                    size[v] = 0.0;
+                }
+                int p = workspace.parent(v);
+                if (v != root && p >= 0) {
+                    size[p] += size[v];
+                    covered[p] |= covered[v];
+                }
+            }
+
+            int chosen = -1;
+            if (size[root] > 0.0) {
+                int v = root;
+                while (true) {
+                    int heaviest = -1;
+                    for (int c = childHead[v]; c >= 0; c = nextSibling[c]) {
+                        if (
+                            size[c] > 0.0 &&
+                            (heaviest < 0 || size[c] > size[heaviest])
+                        ) {
+                            heaviest = c;
+                        }
+                    }
+                    if (heaviest < 0) {
+                        break;
+                    }
+                    v = heaviest;
+                }
+                chosen = v;
+            }
+
+            for (int i = 0; i < reached; i++) {
+                childHead[workspace.reached(i)] = -1;
+            }
+            return chosen;
+        }
+
+        private int farthestReached() {
+            int best = -1;
+            for (int i = 0; i < workspace.reachedCount(); i++) {
+                int v = workspace.reached(i);
+                if (
+                    best < 0 ||
+                    workspace.distance(v) > workspace.distance(best) ||
+                    (workspace.distance(v) == workspace.distance(best) &&
+                        v < best)
+                ) {
+                    best = v;
+                }
+            }
+            return best;
+        }
+
+        private int randomFreeVertex() {
+            int v = random.nextInt(n);
+            while (isLandmark[v]) {
+                v = v + 1 == n ? 0 : v + 1;
+            }
+            return v;
+        }
+
+        private void choose(int l, int v) {
+            target.landmarks[l] = v;
+            isLandmark[v] = true;
+        }
+
+        /**
+         * Fills both columns of landmark l, running the backward search on the pool while
+         * the calling thread runs the forward one.
+         */
+        private void fillBoth(int l) {
+            ForkJoinTask<?> backward = pool.submit(() ->
+                fill(l, false, backwardWorkspace)
+            );
+            fill(l, true, workspace);
+            backward.join();
+        }
+
+        /**
+         * Stores {@code d(L, v)} (forward) or {@code d(v, L)} (backward) of landmark l for
+         * every vertex. Each call writes a distinct column, so calls may run concurrently.
+         */
+        private void fill(int l, boolean forward, DijkstraWorkspace local) {
+            CsrGraph<V> searched = forward ? graph : graph.reverse();
+            searched.dijkstra(target.landmarks[l], local);
+            float[] column = forward ? target.from : target.to;
+            int stride = target.count;
+            for (int v = 0; v < n; v++) {
+                column[v * stride + l] = (float) local.distance(v);
+            }
+        }
+    }
+}
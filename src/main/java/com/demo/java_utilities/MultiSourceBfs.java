@@ -0,0 +1,147 @@
+package com.demo.java_utilities;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Multi-source bit-parallel breadth-first search (MS-BFS, Then et al., "The More the
+ * Merrier: Efficient Multi-Source Graph Traversal"). Sources are processed in batches of
+ * {@code 64 * wordsPerVertex}; every vertex carries one bit per source of the batch for
+ * "seen" and "visit this level", so a single scan of a vertex's neighbors advances all
+ * searches of the batch at once. Batches run in parallel on a {@link ForkJoinPool}.
+ */
+public class MultiSourceBfs {
+
+    public static final int DEFAULT_WORDS_PER_VERTEX = 1;
+
+    /**
+     * Compute hop distances from every source, 64 sources per batch, on the common pool.
+     *
+     * @param graph   the graph to search
+     * @param sources ids of the source vertices
+     * @return {@code distances[i][v]}, the hops from {@code sources[i]} to v or -1 if unreachable
+     */
+    public static int[][] run(CsrGraph<?> graph, int[] sources) {
+        return run(
+            graph,
+            sources,
+            DEFAULT_WORDS_PER_VERTEX,
+            ForkJoinPool.commonPool()
+        );
+    }
+
+    /**
+     * Compute hop distances from every source.
+     *
+     * @param graph          the graph to search
+     * @param sources        ids of the source vertices
+     * @param wordsPerVertex 64-bit words of state per vertex, so each batch runs
+     *                       {@code 64 * wordsPerVertex} searches together
+     * @param pool           the pool that runs the batches
+     * @return {@code distances[i][v]}, the hops from {@code sources[i]} to v or -1 if unreachable
+     */
+    public static int[][] run(
+        CsrGraph<?> graph,
+        int[] sources,
+        int wordsPerVertex,
+        ForkJoinPool pool
+    ) {
+        if (wordsPerVertex < 1) {
+            throw new IllegalArgumentException(
+                "At least one word per vertex is required"
+            );
+        }
+        int[][] distances = new int[sources.length][];
+        int batchSize = 64 * wordsPerVertex;
+        int batches = (sources.length + batchSize - 1) / batchSize;
+        pool.invoke(
+            new RangeTask(
+                0,
+                batches,
+                1,
+                (lo, hi) -> {
+                    for (int b = lo; b < hi; b++) {
+                        int from = b * batchSize;
+                        int to = Math.min(sources.length, from + batchSize);
+                        runBatch(graph, sources, from, to, distances);
+                    }
+                }
+            )
+        );
+        return distances;
+    }
+
+    private static void runBatch(
+        CsrGraph<?> graph,
+        int[] sources,
+        int from,
+        int to,
+        int[][] distances
+    ) {
+        int n = graph.vertexCount();
+        int words = (to - from + 63) >>> 6;
+        long[] seen = new long[n * words];
+        long[] visit = new long[n * words];
+        long[] visitNext = new long[n * words];
+
+        for (int i = from; i < to; i++) {
+            int[] distance = new int[n];
+            Arrays.fill(distance, -1);
+            distances[i] = distance;
+            int bit = i - from;
+            int slot = sources[i] * words + (bit >>> 6);
+            seen[slot] |= 1L << bit;
+            visit[slot] |= 1L << bit;
+            distance[sources[i]] = 0;
+        }
+
+        for (int level = 1;; level++) {
+            // Push every active search bit of v to all of its neighbors in one scan
+            for (int v = 0; v < n; v++) {
+                int base = v * words;
+                boolean active = false;
+                for (int w = 0; w < words && !active; w++) {
+                    active = visit[base + w] != 0;
+                }
+                if (!active) {
+                    continue;
+                }
+                for (int e = graph.firstEdge(v); e < graph.endEdge(v); e++) {
+                    int next = graph.target(e) * words;
+                    for (int w = 0; w < words; w++) {
+                        visitNext[next + w] |= visit[base + w];
+                    }
+                }
+            }
+
+            boolean discovered = false;
+            for (int v = 0; v < n; v++) {
+                int base = v * words;
+                for (int w = 0; w < words; w++) {
+                    long fresh = visitNext[base + w] & ~seen[base + w];
+                    visitNext[base + w] = fresh;
+                    if (fresh == 0) {
+                        continue;
+                    }
+                    discovered = true;
+                    seen[base + w] |= fresh;
+                    while (fresh != 0) {
+                        int bit = BitUtils.logBase2(
+                            BitUtils.getLowestSetBit(fresh)
+                        );
+                        distances[from + (w << 6) + bit][v] = level;
+                        fresh = BitUtils.eraseLowestSetBit(fresh);
+                    }
+                }
+            }
+            if (!discovered) {
+                break;
+            }
+
+            long[] swap = visit;
+            visit = visitNext;
+            visitNext = swap;
+            Arrays.fill(visitNext, 0L);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.demo.java_utilities;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Level-synchronous, direction-optimizing parallel breadth-first search on a
+ * {@link CsrGraph}. Each level is split across a {@link ForkJoinPool}; visited vertices
+ * are claimed in an {@link AtomicBitSet} so every vertex gets exactly one parent.
+ * <p>
+ * Small frontiers are expanded top-down, scanning the out-edges of frontier vertices.
+ * Once the frontier touches a large share of the remaining edges the search switches to
+ * bottom-up steps, where every unvisited vertex scans its in-edges for a parent in the
+ * frontier and stops at the first hit (Beamer et al., "Direction-Optimizing
+ * Breadth-First Search").
+ */
+public class ParallelBfs {
+
+    private static final int ALPHA = 14;
+    private static final int BETA = 24;
+    private static final int FRONTIER_GRAIN = 512;
+    private static final int WORD_GRAIN = 64;
+    private static final int BUFFER_SIZE = 256;
+
+    /**
+     * Run a parallel BFS on the common fork/join pool.
+     *
+     * @param graph  the graph to search
+     * @param source the id of the source vertex
+     * @param <V>    the type of vertex in the graph
+     * @return levels, parents and the level order of the reached vertices
+     */
+    public static <V> BfsResult<V> run(CsrGraph<V> graph, int source) {
+        return run(graph, source, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Run a parallel BFS on the given pool.
+     *
+     * @param graph  the graph to search
+     * @param source the id of the source vertex
+     * @param pool   the pool that executes each level
+     * @param <V>    the type of vertex in the graph
+     * @return levels, parents and the level order of the reached vertices
+     */
+    public static <V> BfsResult<V> run(
+        CsrGraph<V> graph,
+        int source,
+        ForkJoinPool pool
+    ) {
+        return new Search<>(graph, pool).run(source);
+    }
+
+    private static class Search<V> {
+
+        private final CsrGraph<V> graph;
+        private final ForkJoinPool pool;
+        private final int n;
+        private final AtomicBitSet visited;
+        private final int[] level;
+        private final int[] parent;
+        private final int[] order;
+        private final AtomicInteger orderSize = new AtomicInteger();
+        private final LongAdder nextFrontierEdges = new LongAdder();
+        private long[] frontierBits;
+        private int frontierStart;
+        private int frontierEnd;
+        private int depth;
+
+        Search(CsrGraph<V> graph, ForkJoinPool pool) {
+            this.graph = graph;
+            this.pool = pool;
+            this.n = graph.vertexCount();
+            this.visited = new AtomicBitSet(n);
+            this.level = new int[n];
+            this.parent = new int[n];
+            this.order = new int[n];
+            Arrays.fill(level, -1);
+            Arrays.fill(parent, -1);
+        }
+
+        BfsResult<V> run(int source) {
+            visited.trySet(source);
+            level[source] = 0;
+            order[0] = source;
+            orderSize.set(1);
+            frontierEnd = 1;
+
+            long frontierEdges = graph.outDegree(source);
+            long unexploredEdges = graph.edgeCount() - frontierEdges;
+            boolean bottomUp = false;
+
+            while (frontierEnd > frontierStart) {
+                int frontierSize = frontierEnd - frontierStart;
+                if (!bottomUp && frontierEdges > unexploredEdges / ALPHA) {
+                    bottomUp = true;
+                } else if (bottomUp && frontierSize < n / BETA) {
+                    bottomUp = false;
+                }
+
+                nextFrontierEdges.reset();
+                if (bottomUp) {
+                    bottomUpStep();
+                } else {
+                    topDownStep();
+                }
+                depth++;
+
+                frontierStart = frontierEnd;
+                frontierEnd = orderSize.get();
+                frontierEdges = nextFrontierEdges.sum();
+                unexploredEdges -= frontierEdges;
+            }
+
+            return new BfsResult<>(
+                graph,
+                source,
+                level,
+                parent,
+                Arrays.copyOf(order, frontierEnd),
+                Math.max(0, depth - 1)
+            );
+        }
+
+        private void topDownStep() {
+            pool.invoke(
+                new RangeTask(
+                    frontierStart,
+                    frontierEnd,
+                    FRONTIER_GRAIN,
+                    (lo, hi) -> {
+                        Buffer buffer = new Buffer();
+                        for (int i = lo; i < hi; i++) {
+                            int v = order[i];
+                            for (
+                                int e = graph.firstEdge(v);
+                                e < graph.endEdge(v);
+                                e++
+                            ) {
+                                int w = graph.target(e);
+                                if (!visited.get(w) && visited.trySet(w)) {
+                                    discover(w, v, buffer);
+                                }
+                            }
+                        }
+                        flush(buffer);
+                    }
+                )
+            );
+        }
+
+        private void bottomUpStep() {
+            CsrGraph<V> reverse = graph.reverse();
+            int words = (n + 63) >>> 6;
+            if (frontierBits == null) {
+                frontierBits = new long[words];
+            } else {
+                Arrays.fill(frontierBits, 0L);
+            }
+            for (int i = frontierStart; i < frontierEnd; i++) {
+                int v = order[i];
+                frontierBits[v >>> 6] |= 1L << v;
+            }
+            long[] bits = frontierBits;
+
+            // Ranges are whole words, so no two tasks ever touch the same visited word
+            pool.invoke(
+                new RangeTask(
+                    0,
+                    words,
+                    WORD_GRAIN,
+                    (lo, hi) -> {
+                        Buffer buffer = new Buffer();
+                        int end = Math.min(n, hi << 6);
+                        for (int v = lo << 6; v < end; v++) {
+                            if (visited.get(v)) {
+                                continue;
+                            }
+                            for (
+                                int e = reverse.firstEdge(v);
+                                e < reverse.endEdge(v);
+                                e++
+                            ) {
+                                int u = reverse.target(e);
+                                if ((bits[u >>> 6] & (1L << u)) != 0) {
+                                    visited.trySet(v);
+                                    discover(v, u, buffer);
+                                    break;
+                                }
+                            }
+                        }
+                        flush(buffer);
+                    }
+                )
+            );
+        }
+
+        private void discover(int v, int from, Buffer buffer) {
+            parent[v] = from;
+            level[v] = depth + 1;
+            if (buffer.size == buffer.items.length) {
+                flush(buffer);
+            }
+            buffer.items[buffer.size++] = v;
+            buffer.edges += graph.outDegree(v);
+        }
+
+        /**
+         * Appends a task-local batch of discovered vertices to the shared order array.
+         */
+        private void flush(Buffer buffer) {
+            if (buffer.size > 0) {
+                int at = orderSize.getAndAdd(buffer.size);
+                System.arraycopy(buffer.items, 0, order, at, buffer.size);
+                buffer.size = 0;
+            }
+            nextFrontierEdges.add(buffer.edges);
+            buffer.edges = 0;
+        }
+    }
+
+    private static class Buffer {
+
+        private final int[] items = new int[BUFFER_SIZE];
+        private int size;
+        private long edges;
+    }
+}
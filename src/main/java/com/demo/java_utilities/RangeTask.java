@@ -0,0 +1,60 @@
+package com.demo.java_utilities;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fork/join action that splits {@code [lo, hi)} in halves until a range holds at most
+ * {@code grain} items and then runs the body on it.
+ */
+class RangeTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+    private static final int BATCHES_PER_THREAD = 4;
+
+    interface Body {
+        void apply(int lo, int hi);
+    }
+
+    private final int lo;
+    private final int hi;
+    private final int grain;
+    private final Body body;
+
+    RangeTask(int lo, int hi, int grain, Body body) {
+        this.lo = lo;
+        this.hi = hi;
+        this.grain = Math.max(1, grain);
+        this.body = body;
+    }
+
+    /**
+     * Splits {@code [0, size)} into about four ranges per pool thread, for bodies that
+     * allocate per-range state such as a search workspace. Allocations then stay close
+     * to one per thread, while the extra ranges still let idle threads steal work.
+     *
+     * @param pool     the pool the task will run on
+     * @param size     the number of items
+     * @param minGrain the fewest items in a range
+     * @param body     the body to run on every range
+     * @return the task
+     */
+    static RangeTask batched(ForkJoinPool pool, int size, int minGrain, Body body) {
+        int batches = BATCHES_PER_THREAD * pool.getParallelism();
+        int grain = Math.max(minGrain, (size + batches - 1) / batches);
+        return new RangeTask(0, size, grain, body);
+    }
+
+    @Override
+    protected void compute() {
+        if (hi - lo <= grain) {
+            body.apply(lo, hi);
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        invokeAll(
+            new RangeTask(lo, mid, grain, body),
+            new RangeTask(mid, hi, grain, body)
+        );
+    }
+}
@@ -0,0 +1,307 @@
+package com.demo.java_utilities;
+
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounded cache of shortest path results for a {@link GraphTraversalUtils} graph.
+ * Shortest path trees and point-to-point paths are stored under their query, and each
+ * entry is weighed by the number of vertices it holds so that one large tree cannot
+ * crowd out the budget unnoticed.
+ * <p>
+ * Every graph mutation bumps the graph's version; the cache remembers the version its
+ * entries were computed for and drops all of them as soon as it is asked under another
+ * one, so a stale result is never returned. A cache belongs to a single graph. Cached
+ * collections are unmodifiable.
+ * All methods are thread-safe; results are computed outside the lock.
+ *
+ * @param <V> the type of vertex in the graph
+ */
+public class ShortestPathCache<V> {
+
+    /**
+     * Which entry to evict when the cache is over its weight budget.
+     */
+    public enum Policy {
+        /**
+         * Evicts the least recently used entry.
+         */
+        LRU,
+        /**
+         * Evicts the least frequently used entry, the least recently used among equals.
+         */
+        LFU,
+    }
+
+    private final long maxWeight;
+    private final Policy policy;
+    // In access order, so the first key is the least recently used
+    private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<>(
+        16,
+        0.75f,
+        true
+    );
+    private final TreeMap<Long, LinkedHashSet<Object>> byFrequency =
+        new TreeMap<>();
+    private long version;
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     * @param maxWeight the total number of vertices the cached results may hold
+     * @param policy    the eviction policy
+     */
+    public ShortestPathCache(long maxWeight, Policy policy) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("Maximum weight must be positive");
+        }
+        this.maxWeight = maxWeight;
+        this.policy = Objects.requireNonNull(policy);
+    }
+
+    /**
+     * Returns the cached result of a query, or computes and caches it.
+     *
+     * @param key          the query, compared with equals
+     * @param graphVersion the current version of the graph
+     * @param compute      computes the result on a miss
+     * @param weigher      the weight of a computed result
+     * @param <T>          the type of the result
+     * @return the cached or computed result
+     */
+    @SuppressWarnings("unchecked")
+    <T> T get(
+        Object key,
+        long graphVersion,
+        Supplier<T> compute,
+        ToLongFunction<T> weigher
+    ) {
+        synchronized (this) {
+            invalidateIfStale(graphVersion);
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                hits++;
+                if (policy == Policy.LFU) {
+                    touch(key, entry);
+                }
+                return (T) entry.value;
+            }
+            misses++;
+        }
+
+        T value = compute.get();
+        long valueWeight = Math.max(1, weigher.applyAsLong(value));
+        synchronized (this) {
+            invalidateIfStale(graphVersion);
+            if (valueWeight <= maxWeight && !entries.containsKey(key)) {
+                // Make room first: under LFU the new entry has the lowest frequency and
+                // would otherwise be its own victim whenever the others have been hit
+                evictFor(valueWeight);
+                Entry entry = new Entry(value, valueWeight);
+                entries.put(key, entry);
+                if (policy == Policy.LFU) {
+                    byFrequency
+                        .computeIfAbsent(1L, f -> new LinkedHashSet<>())
+                        .add(key);
+                }
+                weight += valueWeight;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Drops every entry when they were computed for another version of the graph.
+     */
+    private void invalidateIfStale(long graphVersion) {
+        if (graphVersion != version) {
+            invalidations += entries.size();
+            entries.clear();
+            byFrequency.clear();
+            weight = 0;
+            version = graphVersion;
+        }
+    }
+
+    private void touch(Object key, Entry entry) {
+        LinkedHashSet<Object> keys = byFrequency.get(entry.frequency);
+        keys.remove(key);
+        if (keys.isEmpty()) {
+            byFrequency.remove(entry.frequency);
+        }
+        entry.frequency++;
+        byFrequency
+            .computeIfAbsent(entry.frequency, f -> new LinkedHashSet<>())
+            .add(key);
+    }
+
+    /**
+     * Evicts entries until one of the given weight fits in the budget.
+     */
+    private void evictFor(long incoming) {
+        while (weight + incoming > maxWeight) {
+            Object victim;
+            if (policy == Policy.LRU) {
+                victim = entries.keySet().iterator().next();
+            } else {
+                Map.Entry<Long, LinkedHashSet<Object>> lowest =
+                    byFrequency.firstEntry();
+                Iterator<Object> keys = lowest.getValue().iterator();
+                victim = keys.next();
+                keys.remove();
+                if (lowest.getValue().isEmpty()) {
+                    byFrequency.remove(lowest.getKey());
+                }
+            }
+            weight -= entries.remove(victim).weight;
+            evictions++;
+        }
+    }
+
+    /**
+     * Drops every entry. Statistics are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        byFrequency.clear();
+        weight = 0;
+    }
+
+    /**
+     * @return the number of cached results
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the total weight of the cached results
+     */
+    public synchronized long weight() {
+        return weight;
+    }
+
+    public long maxWeight() {
+        return maxWeight;
+    }
+
+    public Policy policy() {
+        return policy;
+    }
+
+    /**
+     * @return the number of queries answered from the cache
+     */
+    public synchronized long hitCount() {
+        return hits;
+    }
+
+    /**
+     * @return the number of queries that had to be computed
+     */
+    public synchronized long missCount() {
+        return misses;
+    }
+
+    /**
+     * @return the number of entries evicted to stay within the weight budget
+     */
+    public synchronized long evictionCount() {
+        return evictions;
+    }
+
+    /**
+     * @return the number of entries dropped because the graph changed
+     */
+    public synchronized long invalidationCount() {
+        return invalidations;
+    }
+
+    /**
+     * @return the share of queries answered from the cache, 0 if there were none
+     */
+    public synchronized double hitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return (
+            "ShortestPathCache{size=" +
+            entries.size() +
+            ", weight=" +
+            weight +
+            "/" +
+            maxWeight +
+            ", policy=" +
+            policy +
+            ", hits=" +
+            hits +
+            ", misses=" +
+            misses +
+            ", evictions=" +
+            evictions +
+            ", invalidations=" +
+            invalidations +
+            '}'
+        );
+    }
+
+    /**
+     * Identifies a query: its kind, endpoints and heuristic. Heuristics are compared with
+     * equals, which for lambdas means the same instance.
+     */
+    static final class Key {
+
+        private final String kind;
+        private final Object source;
+        private final Object target;
+        private final Object heuristic;
+
+        Key(String kind, Object source, Object target, Object heuristic) {
+            this.kind = kind;
+            this.source = source;
+            this.target = target;
+            this.heuristic = heuristic;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return (
+                kind.equals(other.kind) &&
+                Objects.equals(source, other.source) &&
+                Objects.equals(target, other.target) &&
+                Objects.equals(heuristic, other.heuristic)
+            );
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, source, target, heuristic);
+        }
+    }
+
+    private static class Entry {
+
+        private final Object value;
+        private final long weight;
+        private long frequency = 1;
+
+        Entry(Object value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.demo.java_utilities;
+
+/**
+ * Counters describing the work done by traversals and shortest path queries. Pass an
+ * instance to the overloads of {@link GraphTraversalUtils} and {@link CsrGraph} that
+ * take one; every query adds to it, so one object can sum up a whole workload or be
+ * {@link #reset()} between queries. Passing null disables counting, and the algorithms
+ * then only test that reference.
+ * <p>
+ * The time of a query is measured once, at the outermost method that received the
+ * stats. A query answered from a {@link ShortestPathCache} does no search, so only
+ * its time is added. Not thread-safe; use one instance per thread.
+ */
+public class TraversalStats {
+
+    private long queries;
+    private long settled;
+    private long relaxed;
+    private long pushes;
+    private long decreases;
+    private long pops;
+    private int peakQueueSize;
+    private long elapsedNanos;
+    private int depth;
+    private long startNanos;
+
+    /**
+     * Starts timing a query unless one is already running.
+     */
+    void start() {
+        if (depth++ == 0) {
+            startNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Stops timing the query started by the matching {@link #start()}.
+     */
+    void stop() {
+        if (--depth == 0) {
+            elapsedNanos += System.nanoTime() - startNanos;
+            queries++;
+        }
+    }
+
+    void settled() {
+        settled++;
+    }
+
+    void relaxed() {
+        relaxed++;
+    }
+
+    /**
+     * @param decrease  whether the vertex was already queued and only got a smaller key
+     * @param queueSize the size of the queue afterwards
+     */
+    void pushed(boolean decrease, int queueSize) {
+        if (decrease) {
+            decreases++;
+        } else {
+            pushes++;
+        }
+        if (queueSize > peakQueueSize) {
+            peakQueueSize = queueSize;
+        }
+    }
+
+    void popped() {
+        pops++;
+    }
+
+    /**
+     * Clears every counter.
+     */
+    public void reset() {
+        queries = 0;
+        settled = 0;
+        relaxed = 0;
+        pushes = 0;
+        decreases = 0;
+        pops = 0;
+        peakQueueSize = 0;
+        elapsedNanos = 0;
+    }
+
+    /**
+     * @return the number of queries counted
+     */
+    public long queryCount() {
+        return queries;
+    }
+
+    /**
+     * @return the number of vertices settled, or visited by a traversal
+     */
+    public long settledCount() {
+        return settled;
+    }
+
+    /**
+     * @return the number of edges scanned out of settled vertices
+     */
+    public long relaxedCount() {
+        return relaxed;
+    }
+
+    /**
+     * @return the number of entries added to a queue, stack or heap
+     */
+    public long pushCount() {
+        return pushes;
+    }
+
+    /**
+     * @return the number of decrease-key operations on an indexed heap
+     */
+    public long decreaseCount() {
+        return decreases;
+    }
+
+    /**
+     * @return the number of entries removed from a queue, stack or heap
+     */
+    public long popCount() {
+        return pops;
+    }
+
+    /**
+     * @return the largest number of entries queued at once in any query
+     */
+    public int peakQueueSize() {
+        return peakQueueSize;
+    }
+
+    /**
+     * @return the total wall time of the queries, in nanoseconds
+     */
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return (
+            "TraversalStats{queries=" +
+            queries +
+            ", settled=" +
+            settled +
+            ", relaxed=" +
+            relaxed +
+            ", pushes=" +
+            pushes +
+            ", decreases=" +
+            decreases +
+            ", pops=" +
+            pops +
+            ", peakQueueSize=" +
+            peakQueueSize +
+            ", elapsed=" +
+            String.format("%.3f ms", elapsedNanos / 1e6) +
+            '}'
+        );
+    }
+}
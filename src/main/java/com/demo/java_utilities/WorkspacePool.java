@@ -0,0 +1,43 @@
+package com.demo.java_utilities;
+
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Small bounded pool of {@link DijkstraWorkspace}s sized for one graph. A query borrows
+ * a workspace and releases it when done; a workspace is created when the pool is empty
+ * and dropped when it is full. The pool therefore never holds more than a few workspaces,
+ * however many threads query the graph, and they are collected together with the graph.
+ */
+final class WorkspacePool {
+
+    static final int DEFAULT_SIZE = 4;
+
+    private final int vertexCount;
+    private final ArrayBlockingQueue<DijkstraWorkspace> idle;
+
+    WorkspacePool(int vertexCount) {
+        this(vertexCount, DEFAULT_SIZE);
+    }
+
+    WorkspacePool(int vertexCount, int size) {
+        this.vertexCount = vertexCount;
+        this.idle = new ArrayBlockingQueue<>(size);
+    }
+
+    /**
+     * @return an idle workspace, or a new one if there is none
+     */
+    DijkstraWorkspace borrow() {
+        DijkstraWorkspace workspace = idle.poll();
+        return workspace != null ? workspace : new DijkstraWorkspace(vertexCount);
+    }
+
+    /**
+     * Returns a workspace to the pool. It is dropped if the pool is full.
+     *
+     * @param workspace a workspace obtained from {@link #borrow()}
+     */
+    void release(DijkstraWorkspace workspace) {
+        idle.offer(workspace);
+    }
+}
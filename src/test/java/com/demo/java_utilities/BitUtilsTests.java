@@ -0,0 +1,450 @@
+package com.demo.java_utilities;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+
+class BitUtilsTests {
+
+	private static final int AND = 0;
+	private static final int OR = 1;
+	private static final int XOR = 2;
+	private static final int AND_NOT = 3;
+
+	@Test
+	void bufferKernelsMatchBytewiseReference() {
+		Random random = new Random(1);
+		for (boolean direct : new boolean[] { false, true }) {
+			// Lengths around word multiples leave tails of every size
+			for (int length = 0; length <= 41; length++) {
+				for (int operation = AND; operation <= AND_NOT; operation++) {
+					// The operands start at different offsets within their words
+					ByteBuffer a = randomBuffer(length, 3, direct, ByteOrder.BIG_ENDIAN, random);
+					ByteBuffer b = randomBuffer(length, 6, direct, ByteOrder.LITTLE_ENDIAN, random);
+					ByteBuffer destination = randomBuffer(
+						length,
+						1,
+						direct,
+						ByteOrder.BIG_ENDIAN,
+						random
+					);
+					byte[] before = bytes(destination, 0, destination.capacity());
+					byte[] expected = reference(a, b, operation);
+
+					apply(a, b, destination, operation);
+					assertArrayEquals(expected, remaining(destination));
+					assertEquals(3, a.position());
+					assertEquals(6, b.position());
+					assertEquals(1, destination.position());
+					// Bytes outside the destination's remaining range are untouched
+					assertEquals(before[0], destination.get(0));
+					assertArrayEquals(
+						bytes(before, destination.limit(), before.length),
+						bytes(destination, destination.limit(), destination.capacity())
+					);
+
+					// The destination may be the first operand
+					ByteBuffer copy = direct
+						? ByteBuffer.allocateDirect(a.capacity())
+						: ByteBuffer.allocate(a.capacity());
+					copy.put(bytes(a, 0, a.capacity())).position(a.position()).limit(a.limit());
+					apply(copy, b, copy, operation);
+					assertArrayEquals(expected, remaining(copy));
+				}
+			}
+		}
+		assertThrows(
+			IllegalArgumentException.class,
+			() ->
+				BitUtils.and(
+					ByteBuffer.allocate(9),
+					ByteBuffer.allocate(9),
+					ByteBuffer.allocate(8)
+				)
+		);
+	}
+
+	@Test
+	void bufferCountAndParityMatchBytes() {
+		Random random = new Random(2);
+		for (boolean direct : new boolean[] { false, true }) {
+			for (int length = 0; length <= 41; length++) {
+				for (int offset : new int[] { 0, 1, 5, 8 }) {
+					ByteBuffer buffer = randomBuffer(
+						length,
+						offset,
+						direct,
+						ByteOrder.BIG_ENDIAN,
+						random
+					);
+					long count = 0;
+					for (byte value : remaining(buffer)) {
+						count += Integer.bitCount(value & 0xFF);
+					}
+					assertEquals(count, BitUtils.countSetBits(buffer));
+					assertEquals((int) (count & 1), BitUtils.parity(buffer));
+					assertEquals(offset, buffer.position());
+				}
+			}
+		}
+	}
+
+	@Test
+	void reverseBitsMatchesBitByBitReference() {
+		Random random = new Random(3);
+		long[] words = new long[12];
+		// Odd ranges swap around a middle word, which must be reversed in place
+		for (int from = 0; from <= words.length; from++) {
+			for (int to = from; to <= words.length; to++) {
+				for (int i = 0; i < words.length; i++) {
+					words[i] = random.nextLong();
+				}
+				long[] expected = words.clone();
+				int bits = (to - from) * Long.SIZE;
+				for (int bit = 0; bit < bits; bit++) {
+					int source = from * Long.SIZE + bits - 1 - bit;
+					long mask = 1L << (bit % Long.SIZE);
+					int word = from + bit / Long.SIZE;
+					if ((words[source / Long.SIZE] >>> (source % Long.SIZE) & 1) != 0) {
+						expected[word] |= mask;
+					} else {
+						expected[word] &= ~mask;
+					}
+				}
+				BitUtils.reverseBits(words, from, to);
+				assertArrayEquals(expected, words);
+			}
+		}
+		assertThrows(
+			IndexOutOfBoundsException.class,
+			() -> BitUtils.reverseBits(new long[2], 1, 3)
+		);
+	}
+
+	@Test
+	void arrayKernelsTouchOnlyTheirRange() {
+		Random random = new Random(4);
+		long[] a = randomWords(20, random);
+		long[] b = randomWords(20, random);
+		for (int operation = AND; operation <= AND_NOT; operation++) {
+			long[] destination = randomWords(20, random);
+			long[] expected = destination.clone();
+			for (int i = 3; i < 17; i++) {
+				expected[i] = combine(a[i], b[i], operation);
+			}
+			switch (operation) {
+				case AND:
+					BitUtils.and(a, b, destination, 3, 17);
+					break;
+				case OR:
+					BitUtils.or(a, b, destination, 3, 17);
+					break;
+				case XOR:
+					BitUtils.xor(a, b, destination, 3, 17);
+					break;
+				default:
+					BitUtils.andNot(a, b, destination, 3, 17);
+			}
+			assertArrayEquals(expected, destination);
+		}
+
+		long count = 0;
+		long folded = 0;
+		for (int i = 5; i < 18; i++) {
+			count += Long.bitCount(a[i]);
+			folded ^= a[i];
+		}
+		assertEquals(count, BitUtils.countSetBits(a, 5, 18));
+		assertEquals(Long.bitCount(folded) & 1, BitUtils.parity(a, 5, 18));
+		assertEquals(0, BitUtils.countSetBits(a, 7, 7));
+		assertThrows(
+			IllegalArgumentException.class,
+			() -> BitUtils.xor(new long[3], new long[3], new long[2])
+		);
+	}
+
+	@Test
+	void subsetsSplitIntoTheSequentialOrder() {
+		Random random = new Random(5);
+		List<Long> masks = new ArrayList<>(
+			List.of(0L, 1L, 0b1011L, 0xFFFFL << 48, 1L << 63 | 0x5555L)
+		);
+		for (int i = 0; i < 20; i++) {
+			masks.add(randomMask(1 + random.nextInt(16), random));
+		}
+		for (long mask : masks) {
+			long[] expected = subsetsOf(mask);
+			long[] sequential = BitUtils.subsets(mask).toArray();
+			assertArrayEquals(expected, sequential);
+			assertArrayEquals(sequential, BitUtils.subsets(mask).parallel().toArray());
+			assertArrayEquals(sequential, splitAll(BitUtils.subsets(mask).spliterator()));
+			assertEquals(
+				expected.length,
+				BitUtils.subsets(mask).spliterator().getExactSizeIfKnown()
+			);
+			PrimitiveIterator.OfLong iterator = BitUtils.subsetIterator(mask);
+			for (long subset : expected) {
+				assertEquals(subset, iterator.nextLong());
+			}
+			assertFalse(iterator.hasNext());
+
+			if ((mask >>> 32) == 0) {
+				int intMask = (int) mask;
+				int[] ints = BitUtils.subsets(intMask).toArray();
+				assertArrayEquals(ints, BitUtils.subsets(intMask).parallel().toArray());
+				assertArrayEquals(
+					expected,
+					Arrays.stream(ints).mapToLong(Integer::toUnsignedLong).toArray()
+				);
+			}
+		}
+		// Bit 31 of an int mask is the largest element, not a sign
+		assertArrayEquals(
+			new int[] { 0, 1, 2, 3, 0x80000000, 0x80000001, 0x80000002, 0x80000003 },
+			BitUtils.subsets(0x80000003).parallel().toArray()
+		);
+	}
+
+	@Test
+	void fullMaskSplitsAcrossTheSignBit() {
+		Spliterator.OfLong all = BitUtils.subsets(-1L).spliterator();
+		assertEquals(Long.MAX_VALUE, all.estimateSize());
+		assertFalse(all.hasCharacteristics(Spliterator.SIZED));
+		Spliterator.OfLong prefix = all.trySplit();
+		// Each half holds 2^63 subsets, one more than a long can count
+		long[] first = new long[1];
+		assertTrue(prefix.tryAdvance((long subset) -> first[0] = subset));
+		assertEquals(0L, first[0]);
+		assertTrue(all.tryAdvance((long subset) -> first[0] = subset));
+		assertEquals(Long.MIN_VALUE, first[0]);
+
+		PrimitiveIterator.OfInt iterator = BitUtils.subsetIterator(-1);
+		for (int expected = 0; expected < 1_000; expected++) {
+			assertEquals(expected, iterator.nextInt());
+		}
+		assertEquals(1L << 62, BitUtils.subsets(~3L).spliterator().getExactSizeIfKnown());
+		assertEquals(-1, BitUtils.subsets(~(1L << 5)).spliterator().getExactSizeIfKnown());
+	}
+
+	@Test
+	void combinationsSplitIntoTheSequentialOrder() {
+		for (int n = 0; n <= 16; n++) {
+			for (int k = 0; k <= n + 1; k++) {
+				long[] expected = combinationsOf(n, k);
+				long[] sequential = BitUtils.longCombinations(n, k).toArray();
+				assertArrayEquals(expected, sequential);
+				assertArrayEquals(sequential, BitUtils.longCombinations(n, k).parallel().toArray());
+				assertArrayEquals(sequential, splitAll(BitUtils.longCombinations(n, k).spliterator()));
+				assertArrayEquals(
+					sequential,
+					BitUtils.combinations(n, k).parallel().asLongStream().toArray()
+				);
+			}
+		}
+		for (int k : new int[] { 0, 1, 2, 30, 31, 32 }) {
+			int[] sequential = BitUtils.combinations(32, k).toArray();
+			assertArrayEquals(sequential, BitUtils.combinations(32, k).parallel().toArray());
+			assertAscendingWithBits(
+				Arrays.stream(sequential).mapToLong(Integer::toUnsignedLong).toArray(),
+				k,
+				binomial(32, k)
+			);
+		}
+	}
+
+	@Test
+	void combinationsCoverAllSixtyFourBits() {
+		// k = 0 and k = n have a single subset, which is never advanced past
+		assertArrayEquals(new long[] { 0L }, BitUtils.longCombinations(64, 0).parallel().toArray());
+		assertArrayEquals(new long[] { -1L }, BitUtils.longCombinations(64, 64).parallel().toArray());
+		assertArrayEquals(new long[0], BitUtils.longCombinations(64, 65).toArray());
+		for (int k : new int[] { 1, 2, 3, 62, 63 }) {
+			long[] sequential = BitUtils.longCombinations(64, k).toArray();
+			assertArrayEquals(sequential, BitUtils.longCombinations(64, k).parallel().toArray());
+			assertArrayEquals(sequential, splitAll(BitUtils.longCombinations(64, k).spliterator()));
+			assertAscendingWithBits(sequential, k, binomial(64, k));
+		}
+		assertEquals(
+			Long.MIN_VALUE,
+			BitUtils.longCombinations(64, 1).skip(63).findFirst().getAsLong()
+		);
+		assertEquals(
+			binomial(64, 5),
+			BitUtils.longCombinations(64, 5).parallel().filter(s -> Long.bitCount(s) == 5).count()
+		);
+
+		assertThrows(IllegalArgumentException.class, () -> BitUtils.combinations(33, 1));
+		assertThrows(IllegalArgumentException.class, () -> BitUtils.longCombinations(65, 1));
+		assertThrows(IllegalArgumentException.class, () -> BitUtils.longCombinations(-1, 0));
+		assertThrows(IllegalArgumentException.class, () -> BitUtils.longCombinations(3, -1));
+		assertNull(BitUtils.longCombinations(64, 0).spliterator().trySplit());
+	}
+
+	/**
+	 * @return a buffer with random bytes throughout and {@code length} bytes remaining
+	 *         from {@code offset}, followed by a few bytes past the limit
+	 */
+	private static ByteBuffer randomBuffer(
+		int length,
+		int offset,
+		boolean direct,
+		ByteOrder order,
+		Random random
+	) {
+		int capacity = offset + length + 3;
+		ByteBuffer buffer = direct
+			? ByteBuffer.allocateDirect(capacity)
+			: ByteBuffer.allocate(capacity);
+		byte[] content = new byte[capacity];
+		random.nextBytes(content);
+		buffer.put(content).order(order);
+		buffer.position(offset).limit(offset + length);
+		return buffer;
+	}
+
+	private static void apply(ByteBuffer a, ByteBuffer b, ByteBuffer destination, int operation) {
+		switch (operation) {
+			case AND:
+				BitUtils.and(a, b, destination);
+				break;
+			case OR:
+				BitUtils.or(a, b, destination);
+				break;
+			case XOR:
+				BitUtils.xor(a, b, destination);
+				break;
+			default:
+				BitUtils.andNot(a, b, destination);
+		}
+	}
+
+	private static byte[] reference(ByteBuffer a, ByteBuffer b, int operation) {
+		byte[] x = remaining(a);
+		byte[] y = remaining(b);
+		byte[] result = new byte[x.length];
+		for (int i = 0; i < x.length; i++) {
+			result[i] = (byte) combine(x[i], y[i], operation);
+		}
+		return result;
+	}
+
+	private static long combine(long x, long y, int operation) {
+		switch (operation) {
+			case AND:
+				return x & y;
+			case OR:
+				return x | y;
+			case XOR:
+				return x ^ y;
+			default:
+				return x & ~y;
+		}
+	}
+
+	private static byte[] remaining(ByteBuffer buffer) {
+		return bytes(buffer, buffer.position(), buffer.limit());
+	}
+
+	/**
+	 * Reads bytes by index, including those past the limit.
+	 */
+	private static byte[] bytes(ByteBuffer buffer, int from, int to) {
+		ByteBuffer whole = buffer.duplicate();
+		whole.clear();
+		byte[] bytes = new byte[to - from];
+		for (int i = from; i < to; i++) {
+			bytes[i - from] = whole.get(i);
+		}
+		return bytes;
+	}
+
+	private static byte[] bytes(byte[] bytes, int from, int to) {
+		byte[] copy = new byte[to - from];
+		System.arraycopy(bytes, from, copy, 0, copy.length);
+		return copy;
+	}
+
+	/**
+	 * Splits down to single elements, trying each prefix before the rest, and
+	 * concatenates what the pieces yield.
+	 */
+	private static long[] splitAll(Spliterator.OfLong spliterator) {
+		LongStream.Builder builder = LongStream.builder();
+		splitAll(spliterator, builder);
+		return builder.build().toArray();
+	}
+
+	private static void splitAll(Spliterator.OfLong spliterator, LongStream.Builder builder) {
+		Spliterator.OfLong prefix = spliterator.trySplit();
+		if (prefix == null) {
+			spliterator.forEachRemaining((long value) -> builder.add(value));
+			return;
+		}
+		splitAll(prefix, builder);
+		splitAll(spliterator, builder);
+	}
+
+	/**
+	 * @return the subsets of a mask in ascending unsigned order, walked down from the
+	 *         mask with {@code (s - 1) & mask}
+	 */
+	private static long[] subsetsOf(long mask) {
+		long[] subsets = new long[1 << Long.bitCount(mask)];
+		long subset = mask;
+		for (int i = subsets.length - 1; i >= 0; i--) {
+			subsets[i] = subset;
+			subset = (subset - 1) & mask;
+		}
+		return subsets;
+	}
+
+	private static long[] combinationsOf(int n, int k) {
+		return LongStream.range(0, 1L << n).filter(s -> Long.bitCount(s) == k).toArray();
+	}
+
+	private static void assertAscendingWithBits(long[] subsets, int k, long count) {
+		assertEquals(count, subsets.length);
+		for (int i = 0; i < subsets.length; i++) {
+			assertEquals(k, Long.bitCount(subsets[i]));
+			assertTrue(i == 0 || Long.compareUnsigned(subsets[i - 1], subsets[i]) < 0);
+		}
+	}
+
+	private static long binomial(int n, int k) {
+		long result = 1;
+		for (int i = 1; i <= k; i++) {
+			result = result * (n - k + i) / i;
+		}
+		return result;
+	}
+
+	private static long randomMask(int bits, Random random) {
+		long mask = 0;
+		while (Long.bitCount(mask) < bits) {
+			mask |= 1L << random.nextInt(Long.SIZE);
+		}
+		return mask;
+	}
+
+	private static long[] randomWords(int length, Random random) {
+		long[] words = new long[length];
+		for (int i = 0; i < length; i++) {
+			words[i] = random.nextLong();
+		}
+		return words;
+	}
+}
@@ -0,0 +1,239 @@
+package com.demo.java_utilities;
+
+import static com.demo.java_utilities.TestGraphs.randomGraph;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+class ComponentsTests {
+
+	@Test
+	void weakComponentsMatchRepeatedBfs() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			Random random = new Random(1);
+			for (int round = 0; round < 20; round++) {
+				int n = 1 + random.nextInt(5_000);
+				// Below one edge per vertex the graph falls apart into many components
+				CsrGraph<Integer> graph = randomGraph(n, random.nextInt(n), 1, random).toCsr();
+				int[] expected = bfsComponents(graph);
+				Components<Integer> components = round % 2 == 0
+					? Components.weak(graph, pool)
+					: Components.weak(graph);
+				assertSamePartition(expected, components);
+
+				// Numbered by the smallest vertex id of each component
+				int next = 0;
+				for (int v = 0; v < n; v++) {
+					int c = components.component(v);
+					assertTrue(c <= next);
+					if (c == next) {
+						next++;
+					}
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void strongComponentsMatchRecursiveTarjan() {
+		Random random = new Random(2);
+		for (int round = 0; round < 50; round++) {
+			int n = 1 + random.nextInt(300);
+			CsrGraph<Integer> graph = randomGraph(
+				n,
+				random.nextInt(2 * n),
+				1,
+				random
+			).toCsr();
+			assertSamePartition(new Tarjan(graph).component, Components.strong(graph));
+			assertReverseTopological(graph, Components.strong(graph));
+		}
+	}
+
+	@Test
+	void handlesSelfLoopsAndIsolatedVertices() {
+		GraphTraversalUtils<Integer> graph = new GraphTraversalUtils<>();
+		for (int v = 0; v < 10; v++) {
+			graph.addDirectedEdge(v, v, 1.0);
+		}
+		graph.addVertex(10);
+		graph.addDirectedEdge(11, 12, 1.0);
+		graph.addDirectedEdge(12, 11, 1.0);
+		graph.addDirectedEdge(12, 12, 1.0);
+
+		Components<Integer> weak = graph.connectedComponents();
+		assertEquals(12, weak.count());
+		assertEquals(2, weak.largestSize());
+		assertEquals(weak.componentOf(11), weak.componentOf(12));
+
+		Components<Integer> strong = graph.stronglyConnectedComponents();
+		assertEquals(12, strong.count());
+		assertEquals(strong.componentOf(11), strong.componentOf(12));
+		assertEquals(List.of(10), strong.groups().get(strong.componentOf(10)));
+	}
+
+	@Test
+	void deepChainsDoNotOverflowTheStack() {
+		int n = 200_000;
+		GraphTraversalUtils<Integer> graph = new GraphTraversalUtils<>();
+		for (int v = 0; v + 1 < n; v++) {
+			graph.addDirectedEdge(v, v + 1, 1.0);
+		}
+		Components<Integer> chain = Components.strong(graph.toCsr());
+		assertEquals(n, chain.count());
+		assertEquals(1, chain.largestSize());
+		// The last vertex of the chain closes first
+		assertTrue(chain.componentOf(n - 1) < chain.componentOf(0));
+		assertEquals(1, graph.connectedComponents().count());
+
+		graph.addDirectedEdge(n - 1, 0, 1.0);
+		Components<Integer> cycle = Components.strong(graph.toCsr());
+		assertEquals(1, cycle.count());
+		assertEquals(n, cycle.size(0));
+	}
+
+	private static void assertSamePartition(int[] expected, Components<?> actual) {
+		int n = expected.length;
+		int[] labels = actual.labels();
+		assertEquals(n, labels.length);
+		// Map every expected label to the first actual label seen with it, both ways
+		int[] forward = new int[n];
+		int[] backward = new int[actual.count()];
+		Arrays.fill(forward, -1);
+		Arrays.fill(backward, -1);
+		int[] sizes = new int[actual.count()];
+		for (int v = 0; v < n; v++) {
+			int c = labels[v];
+			assertEquals(c, actual.component(v));
+			if (forward[expected[v]] < 0) {
+				forward[expected[v]] = c;
+			}
+			if (backward[c] < 0) {
+				backward[c] = expected[v];
+			}
+			assertEquals(forward[expected[v]], c);
+			assertEquals(backward[c], expected[v]);
+			sizes[c]++;
+		}
+		int largest = 0;
+		for (int c = 0; c < actual.count(); c++) {
+			assertTrue(sizes[c] > 0);
+			assertEquals(sizes[c], actual.size(c));
+			assertEquals(sizes[c], actual.groups().get(c).size());
+			largest = Math.max(largest, sizes[c]);
+		}
+		assertEquals(largest, actual.largestSize());
+	}
+
+	private static void assertReverseTopological(CsrGraph<?> graph, Components<?> components) {
+		for (int v = 0; v < graph.vertexCount(); v++) {
+			for (int e = graph.firstEdge(v); e < graph.endEdge(v); e++) {
+				assertTrue(components.component(v) >= components.component(graph.target(e)));
+			}
+		}
+	}
+
+	/**
+	 * Labels the connected components with one BFS per unlabelled vertex, following edges
+	 * in both directions.
+	 */
+	private static int[] bfsComponents(CsrGraph<?> graph) {
+		int n = graph.vertexCount();
+		List<List<Integer>> neighbors = new ArrayList<>();
+		for (int v = 0; v < n; v++) {
+			neighbors.add(new ArrayList<>());
+		}
+		for (int v = 0; v < n; v++) {
+			for (int e = graph.firstEdge(v); e < graph.endEdge(v); e++) {
+				neighbors.get(v).add(graph.target(e));
+				neighbors.get(graph.target(e)).add(v);
+			}
+		}
+		int[] component = new int[n];
+		Arrays.fill(component, -1);
+		int[] queue = new int[n];
+		int count = 0;
+		for (int root = 0; root < n; root++) {
+			if (component[root] >= 0) {
+				continue;
+			}
+			int size = 0;
+			component[root] = count;
+			queue[size++] = root;
+			for (int head = 0; head < size; head++) {
+				for (int next : neighbors.get(queue[head])) {
+					if (component[next] < 0) {
+						component[next] = count;
+						queue[size++] = next;
+					}
+				}
+			}
+			count++;
+		}
+		return component;
+	}
+
+	/**
+	 * Textbook recursive Tarjan, fine for the small graphs it checks.
+	 */
+	private static class Tarjan {
+
+		private final CsrGraph<?> graph;
+		private final int[] index;
+		private final int[] lowLink;
+		private final boolean[] onStack;
+		private final int[] stack;
+		private final int[] component;
+		private int nextIndex = 1;
+		private int top;
+		private int count;
+
+		Tarjan(CsrGraph<?> graph) {
+			int n = graph.vertexCount();
+			this.graph = graph;
+			this.index = new int[n];
+			this.lowLink = new int[n];
+			this.onStack = new boolean[n];
+			this.stack = new int[n];
+			this.component = new int[n];
+			for (int v = 0; v < n; v++) {
+				if (index[v] == 0) {
+					visit(v);
+				}
+			}
+		}
+
+		private void visit(int v) {
+			index[v] = lowLink[v] = nextIndex++;
+			stack[top++] = v;
+			onStack[v] = true;
+			for (int e = graph.firstEdge(v); e < graph.endEdge(v); e++) {
+				int w = graph.target(e);
+				if (index[w] == 0) {
+					visit(w);
+					lowLink[v] = Math.min(lowLink[v], lowLink[w]);
+				} else if (onStack[w]) {
+					lowLink[v] = Math.min(lowLink[v], index[w]);
+				}
+			}
+			if (lowLink[v] == index[v]) {
+				int w;
+				do {
+					w = stack[--top];
+					onStack[w] = false;
+					component[w] = count;
+				} while (w != v);
+				count++;
+			}
+		}
+	}
+}
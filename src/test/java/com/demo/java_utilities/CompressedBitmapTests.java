@@ -0,0 +1,243 @@
+package com.demo.java_utilities;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class CompressedBitmapTests {
+
+	private static final int ARRAY_MAX = 4096;
+	private static final int CHUNK = 1 << 16;
+
+	@Test
+	void switchesBetweenArrayAndBitmapAtArrayMax() {
+		Random random = new Random(1);
+		BitSet expected = new BitSet();
+		CompressedBitmap bitmap = new CompressedBitmap();
+		while (expected.cardinality() < ARRAY_MAX + 1) {
+			int value = random.nextInt(CHUNK);
+			assertEquals(!expected.get(value), bitmap.add(value));
+			expected.set(value);
+			if (expected.cardinality() >= ARRAY_MAX - 1) {
+				assertSameValues(expected, bitmap);
+			}
+		}
+		while (expected.cardinality() > ARRAY_MAX - 2) {
+			int value = expected.nextSetBit(random.nextInt(CHUNK));
+			if (value < 0) {
+				continue;
+			}
+			assertTrue(bitmap.remove(value));
+			assertFalse(bitmap.remove(value));
+			expected.clear(value);
+			assertSameValues(expected, bitmap);
+		}
+	}
+
+	@Test
+	void keepsValuesApartAtChunkEdges() {
+		BitSet expected = new BitSet();
+		CompressedBitmap bitmap = new CompressedBitmap();
+		for (int value : new int[] { 0, CHUNK - 1, CHUNK, 2 * CHUNK - 1, 2 * CHUNK }) {
+			bitmap.add(value);
+			expected.set(value);
+		}
+		assertSameValues(expected, bitmap);
+		assertFalse(bitmap.contains(CHUNK + 1));
+		assertFalse(bitmap.contains(CHUNK - 2));
+
+		bitmap.addRange(CHUNK - 10, CHUNK + 10);
+		expected.set(CHUNK - 10, CHUNK + 10);
+		bitmap.addRange(3 * CHUNK - 1, 3 * CHUNK + 1);
+		expected.set(3 * CHUNK - 1, 3 * CHUNK + 1);
+		assertSameValues(expected, bitmap);
+
+		assertTrue(bitmap.remove(CHUNK - 1));
+		assertTrue(bitmap.remove(CHUNK));
+		expected.clear(CHUNK - 1);
+		expected.clear(CHUNK);
+		assertSameValues(expected, bitmap);
+
+		// Emptying a chunk drops it without touching its neighbors
+		assertTrue(bitmap.remove(3 * CHUNK));
+		expected.clear(3 * CHUNK);
+		assertSameValues(expected, bitmap);
+		assertTrue(bitmap.contains(3 * CHUNK - 1));
+	}
+
+	@Test
+	void matchesBitSetForOperationsAcrossContainerKinds() {
+		Random random = new Random(2);
+		List<BitSet> sets = new ArrayList<>();
+		for (int kind = 0; kind < 4; kind++) {
+			sets.add(randomSet(kind, random));
+		}
+		for (BitSet a : sets) {
+			for (BitSet b : sets) {
+				for (boolean optimize : new boolean[] { false, true }) {
+					CompressedBitmap x = toBitmap(a, optimize);
+					CompressedBitmap y = toBitmap(b, !optimize);
+
+					BitSet and = (BitSet) a.clone();
+					and.and(b);
+					assertSameValues(and, CompressedBitmap.and(x, y));
+
+					BitSet or = (BitSet) a.clone();
+					or.or(b);
+					assertSameValues(or, CompressedBitmap.or(x, y));
+
+					BitSet andNot = (BitSet) a.clone();
+					andNot.andNot(b);
+					assertSameValues(andNot, CompressedBitmap.andNot(x, y));
+
+					// The operands are left unchanged
+					assertSameValues(a, x);
+					assertSameValues(b, y);
+				}
+			}
+		}
+	}
+
+	@Test
+	void iteratesInAscendingOrder() {
+		Random random = new Random(3);
+		for (int kind = 0; kind < 4; kind++) {
+			BitSet expected = randomSet(kind, random);
+			CompressedBitmap bitmap = toBitmap(expected, kind % 2 == 0);
+			PrimitiveIterator.OfInt iterator = bitmap.iterator();
+			expected.stream().forEach(value -> {
+				assertTrue(iterator.hasNext());
+				assertEquals(value, iterator.nextInt());
+			});
+			assertFalse(iterator.hasNext());
+			assertThrows(NoSuchElementException.class, iterator::nextInt);
+			assertArrayEquals(expected.stream().toArray(), bitmap.stream().toArray());
+		}
+		assertFalse(new CompressedBitmap().iterator().hasNext());
+	}
+
+	@Test
+	void survivesSerializationRoundTrip() throws IOException {
+		Random random = new Random(4);
+		for (int kind = 0; kind < 4; kind++) {
+			BitSet expected = randomSet(kind, random);
+			for (boolean optimize : new boolean[] { false, true }) {
+				CompressedBitmap bitmap = toBitmap(expected, optimize);
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				bitmap.write(out);
+				assertEquals(bitmap.serializedSizeInBytes(), out.size());
+
+				CompressedBitmap read = CompressedBitmap.read(
+					new ByteArrayInputStream(out.toByteArray())
+				);
+				assertEquals(bitmap, read);
+				assertSameValues(expected, read);
+			}
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new CompressedBitmap().write(out);
+		byte[] empty = out.toByteArray();
+		assertTrue(CompressedBitmap.read(new ByteArrayInputStream(empty)).isEmpty());
+		assertThrows(
+			IOException.class,
+			() -> CompressedBitmap.read(new ByteArrayInputStream(new byte[8]))
+		);
+	}
+
+	@Test
+	void readsConsecutiveBitmapsFromOneStream() throws IOException {
+		Random random = new Random(5);
+		BitSet first = randomSet(3, random);
+		BitSet second = randomSet(2, random);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		toBitmap(first, false).write(out);
+		toBitmap(second, true).write(out);
+		out.write(42);
+
+		// Reading the first set must leave the stream at the start of the second
+		ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+		assertSameValues(first, CompressedBitmap.read(in));
+		assertSameValues(second, CompressedBitmap.read(in));
+		assertEquals(42, in.read());
+		assertEquals(-1, in.read());
+	}
+
+	/**
+	 * @param kind 0 for sparse chunks held in arrays, 1 for dense chunks held in
+	 *             bitmaps, 2 for long runs, 3 for a mix of all three around the edges
+	 *             of the chunks
+	 */
+	private static BitSet randomSet(int kind, Random random) {
+		BitSet set = new BitSet();
+		switch (kind) {
+			case 0:
+				for (int i = 0; i < 3_000; i++) {
+					set.set(random.nextInt(3 * CHUNK));
+				}
+				break;
+			case 1:
+				for (int i = 0; i < 40_000; i++) {
+					set.set(random.nextInt(2 * CHUNK));
+				}
+				break;
+			case 2:
+				for (int i = 0; i < 20; i++) {
+					int start = random.nextInt(4 * CHUNK);
+					set.set(start, start + random.nextInt(20_000));
+				}
+				break;
+			default:
+				set.set(CHUNK - ARRAY_MAX, CHUNK + ARRAY_MAX);
+				for (int i = 0; i < ARRAY_MAX; i++) {
+					set.set(2 * CHUNK + random.nextInt(CHUNK));
+				}
+				set.set(3 * CHUNK - 1);
+				set.set(4 * CHUNK);
+				break;
+		}
+		return set;
+	}
+
+	private static CompressedBitmap toBitmap(BitSet set, boolean optimize) {
+		CompressedBitmap bitmap = new CompressedBitmap();
+		for (int v = set.nextSetBit(0); v >= 0; v = set.nextSetBit(v + 1)) {
+			bitmap.add(v);
+		}
+		if (optimize) {
+			bitmap.runOptimize();
+		}
+		return bitmap;
+	}
+
+	private static void assertSameValues(BitSet expected, CompressedBitmap actual) {
+		assertEquals(expected.cardinality(), actual.cardinality());
+		assertEquals(expected.isEmpty(), actual.isEmpty());
+		int[] values = expected.stream().toArray();
+		assertArrayEquals(values, actual.toArray());
+		List<Integer> visited = new ArrayList<>();
+		actual.forEach(visited::add);
+		assertEquals(values.length, visited.size());
+		for (int i = 0; i < values.length; i++) {
+			assertEquals(values[i], (int) visited.get(i));
+		}
+		for (int value = 0; value < expected.length() + CHUNK; value += 97) {
+			assertEquals(expected.get(value), actual.contains(value));
+		}
+		for (int value : new int[] { CHUNK - 1, CHUNK, 2 * CHUNK - 1, 2 * CHUNK }) {
+			assertEquals(expected.get(value), actual.contains(value));
+		}
+	}
+}
@@ -0,0 +1,166 @@
+package com.demo.java_utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentGraphTests {
+
+	private static final int VERSIONS = 300;
+	private static final int READERS = 4;
+
+	@Test
+	void readersSeeConsistentSnapshotsWhileWriterPublishes() throws Exception {
+		ConcurrentGraph<Integer> graph = new ConcurrentGraph<>();
+		AtomicBoolean done = new AtomicBoolean();
+		ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+		CountDownLatch started = new CountDownLatch(READERS);
+		Thread[] readers = new Thread[READERS];
+		for (int r = 0; r < READERS; r++) {
+			readers[r] = new Thread(() -> {
+				started.countDown();
+				try {
+					int checked = 0;
+					while (!done.get() || checked == 0) {
+						checkSnapshot(graph.snapshot());
+						checked++;
+					}
+				} catch (Throwable t) {
+					failures.add(t);
+				}
+			});
+			readers[r].start();
+		}
+
+		started.await();
+		for (int i = 1; i <= VERSIONS; i++) {
+			int step = i;
+			long version = graph.update(batch -> {
+				batch.addDirectedEdge(step - 1, step, 1.0);
+				batch.addDirectedEdge(0, -step, step);
+			});
+			assertEquals(step, version);
+		}
+		done.set(true);
+		for (Thread reader : readers) {
+			reader.join();
+		}
+		assertTrue(failures.isEmpty(), () -> failures.peek().toString());
+		checkSnapshot(graph.snapshot());
+	}
+
+	@Test
+	void snapshotIgnoresLaterVersions() {
+		ConcurrentGraph<Integer> graph = new ConcurrentGraph<>();
+		graph.addDirectedEdge(0, 1, 1.0);
+		GraphTraversalUtils<Integer> before = graph.snapshot();
+		graph.addDirectedEdge(1, 2, 1.0);
+		graph.addVertex(3);
+
+		assertEquals(1, before.version());
+		assertEquals(2, before.vertices().size());
+		assertEquals(Map.of(0, 0.0, 1, 1.0), before.dijkstra(0));
+		assertEquals(4, graph.vertexCount());
+		assertEquals(2.0, graph.snapshot().dijkstra(0).get(2), 0.0);
+	}
+
+	@Test
+	void snapshotRejectsModification() {
+		ConcurrentGraph<Integer> graph = new ConcurrentGraph<>();
+		graph.addVertex(0);
+		GraphTraversalUtils<Integer> snapshot = graph.snapshot();
+		assertThrows(UnsupportedOperationException.class, () -> snapshot.addVertex(1));
+	}
+
+	@Test
+	void sharesOneCsrPerSnapshotAcrossThreads() throws Exception {
+		ConcurrentGraph<Integer> graph = new ConcurrentGraph<>();
+		graph.update(batch -> {
+			for (int v = 0; v < 1_000; v++) {
+				batch.addDirectedEdge(v, (v * 7 + 1) % 1_000, v % 5);
+			}
+		});
+		GraphTraversalUtils<Integer> snapshot = graph.snapshot();
+		CsrGraph<?>[] built = new CsrGraph<?>[8];
+		Thread[] threads = new Thread[built.length];
+		CountDownLatch start = new CountDownLatch(1);
+		for (int t = 0; t < threads.length; t++) {
+			int index = t;
+			threads[t] = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				built[index] = snapshot.toCsr();
+			});
+			threads[t].start();
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		for (CsrGraph<?> csr : built) {
+			assertSame(built[0], csr);
+		}
+	}
+
+	@Test
+	void keepsPathCachePerVersion() {
+		ConcurrentGraph<Integer> graph = new ConcurrentGraph<>();
+		graph.addDirectedEdge(0, 1, 1.0);
+		ShortestPathCache<Integer> cache = new ShortestPathCache<>(
+			1_000,
+			ShortestPathCache.Policy.LRU
+		);
+		graph.setPathCache(cache);
+		GraphTraversalUtils<Integer> old = graph.snapshot();
+		assertSame(cache, old.getPathCache());
+		old.dijkstra(0);
+
+		graph.addDirectedEdge(1, 2, 1.0);
+		GraphTraversalUtils<Integer> latest = graph.snapshot();
+		ShortestPathCache<Integer> latestCache = latest.getPathCache();
+		assertNotNull(latestCache);
+		assertTrue(latestCache != cache);
+		assertEquals(cache.maxWeight(), latestCache.maxWeight());
+		assertEquals(cache.policy(), latestCache.policy());
+
+		latest.dijkstra(0);
+		old.dijkstra(0);
+		assertEquals(1, cache.hitCount());
+		assertEquals(0, cache.invalidationCount());
+		assertEquals(1, latestCache.size());
+	}
+
+	/**
+	 * Checks the content a snapshot must have at its version: a chain
+	 * {@code 0 -> 1 -> ... -> v} of unit edges and an edge {@code 0 -> -i} of weight i for
+	 * every i up to v.
+	 */
+	private static void checkSnapshot(GraphTraversalUtils<Integer> snapshot) {
+		int version = (int) snapshot.version();
+		int vertices = version == 0 ? 0 : 2 * version + 1;
+		assertEquals(vertices, snapshot.vertices().size());
+		assertEquals(2 * version, snapshot.toCsr().edgeCount());
+		assertSame(snapshot.toCsr(), snapshot.toCsr());
+		if (version == 0) {
+			return;
+		}
+		Map<Integer, Double> distances = snapshot.dijkstra(0);
+		assertEquals(vertices, distances.size());
+		for (int i = 1; i <= version; i++) {
+			assertEquals(i, distances.get(i), 0.0);
+			assertEquals(i, distances.get(-i), 0.0);
+		}
+		assertEquals(version, snapshot.aStar(0, version, (a, b) -> 0.0).size());
+	}
+}
@@ -0,0 +1,150 @@
+package com.demo.java_utilities;
+
+import static com.demo.java_utilities.TestGraphs.costOf;
+import static com.demo.java_utilities.TestGraphs.randomGraph;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class ContractionHierarchyTests {
+
+	private static final double EPSILON = 1e-9;
+
+	@Test
+	void matchesDijkstraOnRandomGraphs() {
+		Random random = new Random(1);
+		for (int round = 0; round < 20; round++) {
+			int n = 2 + random.nextInt(60);
+			assertMatchesDijkstra(randomGraph(n, n * 3, 20, random));
+		}
+	}
+
+	@Test
+	void matchesDijkstraOnSparseGraphsWithUnreachablePairs() {
+		Random random = new Random(2);
+		int unreachable = 0;
+		for (int round = 0; round < 20; round++) {
+			int n = 10 + random.nextInt(40);
+			unreachable += assertMatchesDijkstra(randomGraph(n, n / 2, 20, random));
+		}
+		assertTrue(unreachable > 0, "sparse graphs should have unreachable pairs");
+	}
+
+	@Test
+	void matchesDijkstraOnGrids() {
+		assertMatchesDijkstra(grid(12, new Random(3)));
+	}
+
+	@Test
+	void findsNoPathToIsolatedVertex() {
+		GraphTraversalUtils<Integer> graph = grid(4, new Random(4));
+		graph.addVertex(-1);
+		ContractionHierarchy<Integer> hierarchy = ContractionHierarchy.build(graph);
+		assertFalse(hierarchy.shortestPath(0, -1).isFound());
+		assertFalse(hierarchy.shortestPath(-1, 0).isFound());
+		assertEquals(Double.POSITIVE_INFINITY, hierarchy.distance(0, -1));
+		assertEquals(0.0, hierarchy.distance(-1, -1));
+	}
+
+	@Test
+	void rejectsUnknownVertex() {
+		ContractionHierarchy<Integer> hierarchy = ContractionHierarchy.build(
+			grid(3, new Random(5))
+		);
+		assertThrows(IllegalArgumentException.class, () -> hierarchy.distance(0, 99));
+	}
+
+	@Test
+	void roundTripsThroughWriteAndRead() throws IOException {
+		GraphTraversalUtils<Integer> graph = randomGraph(50, 150, 20, new Random(6));
+		ContractionHierarchy<Integer> hierarchy = ContractionHierarchy.build(graph);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		hierarchy.write(bytes);
+		ContractionHierarchy<Integer> copy = ContractionHierarchy.read(
+			new ByteArrayInputStream(bytes.toByteArray())
+		);
+
+		assertEquals(hierarchy.vertexCount(), copy.vertexCount());
+		assertEquals(hierarchy.edgeCount(), copy.edgeCount());
+		for (int s = 0; s < 50; s++) {
+			assertEquals(hierarchy.rankOf(s), copy.rankOf(s));
+			for (int t = 0; t < 50; t++) {
+				assertEquals(hierarchy.distance(s, t), copy.distance(s, t));
+				assertEquals(
+					hierarchy.shortestPath(s, t).getPath(),
+					copy.shortestPath(s, t).getPath()
+				);
+			}
+		}
+	}
+
+	@Test
+	void rejectsForeignStream() {
+		byte[] bytes = new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 };
+		assertThrows(
+			IOException.class,
+			() -> ContractionHierarchy.read(new ByteArrayInputStream(bytes))
+		);
+	}
+
+	/**
+	 * Compares every pair against Dijkstra on the CSR snapshot.
+	 *
+	 * @return the number of unreachable pairs
+	 */
+	private static int assertMatchesDijkstra(GraphTraversalUtils<Integer> graph) {
+		CsrGraph<Integer> csr = graph.toCsr();
+		ContractionHierarchy<Integer> hierarchy = ContractionHierarchy.build(csr);
+		DijkstraWorkspace workspace = csr.newWorkspace();
+		int unreachable = 0;
+		for (int s = 0; s < csr.vertexCount(); s++) {
+			csr.dijkstra(s, workspace);
+			Integer source = csr.vertexAt(s);
+			for (int t = 0; t < csr.vertexCount(); t++) {
+				Integer target = csr.vertexAt(t);
+				double expected = workspace.distance(t);
+				GraphTraversalUtils.PathResult<Integer> path = hierarchy.shortestPath(
+					source,
+					target
+				);
+				assertEquals(expected, hierarchy.distanceIds(s, t), EPSILON);
+				if (expected == Double.POSITIVE_INFINITY) {
+					unreachable++;
+					assertFalse(path.isFound(), source + " -> " + target);
+					continue;
+				}
+				assertEquals(expected, path.getCost(), EPSILON);
+				assertEquals(expected, costOf(graph, path.getPath()), EPSILON);
+				assertEquals(source, path.getPath().get(0));
+				assertEquals(target, path.getPath().get(path.getPath().size() - 1));
+			}
+		}
+		return unreachable;
+	}
+
+	private static GraphTraversalUtils<Integer> grid(int side, Random random) {
+		GraphTraversalUtils<Integer> graph = new GraphTraversalUtils<>();
+		for (int v = 0; v < side * side; v++) {
+			graph.addVertex(v);
+		}
+		for (int row = 0; row < side; row++) {
+			for (int column = 0; column < side; column++) {
+				int v = row * side + column;
+				if (column + 1 < side) {
+					graph.addUndirectedEdge(v, v + 1, 1 + random.nextInt(5));
+				}
+				if (row + 1 < side) {
+					graph.addUndirectedEdge(v, v + side, 1 + random.nextInt(5));
+				}
+			}
+		}
+		return graph;
+	}
+}
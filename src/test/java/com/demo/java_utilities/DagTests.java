@@ -0,0 +1,243 @@
+package com.demo.java_utilities;
+
+import static com.demo.java_utilities.TestGraphs.costOf;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+class DagTests {
+
+	private static final double EPSILON = 1e-9;
+
+	@Test
+	void rejectsCycles() {
+		Random random = new Random(1);
+		for (int round = 0; round < 20; round++) {
+			int n = 2 + random.nextInt(200);
+			GraphTraversalUtils<Integer> graph = randomDag(n, 3 * n, 0.0, random);
+			assertTrue(graph.isAcyclic());
+			assertTrue(graph.toDag().isPresent());
+
+			// An edge back along a path closes a cycle, however long
+			int[] order = graph.toDag().get().orderIds();
+			CsrGraph<Integer> csr = graph.toCsr();
+			int from = order[random.nextInt(n)];
+			int to = from;
+			while (csr.outDegree(to) > 0) {
+				to = csr.target(csr.firstEdge(to) + random.nextInt(csr.outDegree(to)));
+			}
+			graph.addDirectedEdge(csr.vertexAt(to), csr.vertexAt(from), 1.0);
+			assertFalse(graph.isAcyclic());
+			assertFalse(graph.toDag().isPresent());
+		}
+
+		GraphTraversalUtils<Integer> loop = new GraphTraversalUtils<>();
+		loop.addDirectedEdge(0, 1, 1.0);
+		loop.addDirectedEdge(1, 1, 1.0);
+		assertFalse(loop.isAcyclic());
+		assertTrue(new GraphTraversalUtils<Integer>().isAcyclic());
+	}
+
+	@Test
+	void levelsDependOnlyOnEarlierLevels() {
+		Random random = new Random(2);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			// Wide graphs give levels above the grain, which run on the pool
+			for (int n : new int[] { 1, 50, 5_000, 40_000 }) {
+				CsrGraph<Integer> graph = randomDag(n, 2 * n, 0.0, random).toCsr();
+				Dag<Integer> dag = Dag.of(graph, pool).get();
+				assertLevels(graph, dag);
+				assertArrayEquals(dag.orderIds(), Dag.of(graph).get().orderIds());
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void shortestPathsMatchDijkstra() {
+		Random random = new Random(3);
+		for (int round = 0; round < 10; round++) {
+			int n = 1 + random.nextInt(500);
+			GraphTraversalUtils<Integer> graph = randomDag(n, 4 * n, 0.0, random);
+			CsrGraph<Integer> csr = graph.toCsr();
+			Dag<Integer> dag = graph.toDag().get();
+			for (int query = 0; query < 10; query++) {
+				int source = random.nextInt(n);
+				int target = random.nextInt(n);
+				double[] expected = csr.dijkstraIds(source);
+				double[] actual = dag.shortestDistances(source);
+				for (int v = 0; v < n; v++) {
+					assertEquals(expected[v], actual[v], EPSILON);
+				}
+				GraphTraversalUtils.PathResult<Integer> path = dag.shortestPath(
+					csr.vertexAt(source),
+					csr.vertexAt(target)
+				);
+				assertEquals(!Double.isInfinite(expected[target]), path.isFound());
+				if (path.isFound()) {
+					assertEquals(expected[target], path.getCost(), EPSILON);
+					assertEquals(expected[target], costOf(graph, path.getPath()), EPSILON);
+				}
+			}
+		}
+	}
+
+	@Test
+	void pathsMatchBruteForceWithNegativeWeights() {
+		Random random = new Random(4);
+		for (int round = 0; round < 200; round++) {
+			int n = 1 + random.nextInt(10);
+			GraphTraversalUtils<Integer> graph = randomDag(n, 2 * n, -5.0, random);
+			CsrGraph<Integer> csr = graph.toCsr();
+			Dag<Integer> dag = graph.toDag().get();
+			double critical = Double.NEGATIVE_INFINITY;
+			for (int source = 0; source < n; source++) {
+				double[] shortest = new double[n];
+				double[] longest = new double[n];
+				Arrays.fill(shortest, Double.POSITIVE_INFINITY);
+				Arrays.fill(longest, Double.NEGATIVE_INFINITY);
+				allPaths(csr, source, 0.0, shortest, longest);
+				assertArrayEquals(shortest, dag.shortestDistances(source), EPSILON);
+				assertArrayEquals(longest, dag.longestDistances(source), EPSILON);
+				for (int target = 0; target < n; target++) {
+					critical = Math.max(critical, longest[target]);
+					GraphTraversalUtils.PathResult<Integer> path = dag.longestPath(
+						csr.vertexAt(source),
+						csr.vertexAt(target)
+					);
+					if (path.isFound()) {
+						assertEquals(longest[target], path.getCost(), EPSILON);
+						assertEquals(
+							longest[target],
+							maxCostOf(graph, path.getPath()),
+							EPSILON
+						);
+					}
+				}
+			}
+			GraphTraversalUtils.PathResult<Integer> path = dag.criticalPath();
+			assertEquals(critical, path.getCost(), EPSILON);
+			assertEquals(critical, maxCostOf(graph, path.getPath()), EPSILON);
+		}
+		Dag<Integer> empty = new GraphTraversalUtils<Integer>().toDag().get();
+		assertFalse(empty.criticalPath().isFound());
+	}
+
+	/**
+	 * Checks that level 0 holds the vertices without predecessors and every other vertex
+	 * sits one level after its latest predecessor, and that the order lists the levels
+	 * one after another.
+	 */
+	private static void assertLevels(CsrGraph<Integer> graph, Dag<Integer> dag) {
+		int n = graph.vertexCount();
+		int[] latest = new int[n];
+		Arrays.fill(latest, -1);
+		for (int v = 0; v < n; v++) {
+			for (int e = graph.firstEdge(v); e < graph.endEdge(v); e++) {
+				int next = graph.target(e);
+				assertTrue(dag.level(v) < dag.level(next));
+				latest[next] = Math.max(latest[next], dag.level(v));
+			}
+		}
+		for (int v = 0; v < n; v++) {
+			assertEquals(latest[v] + 1, dag.level(v));
+		}
+
+		int[] order = dag.orderIds();
+		int at = 0;
+		for (int depth = 0; depth < dag.levelCount(); depth++) {
+			int[] ids = dag.levelIds(depth);
+			assertTrue(ids.length > 0);
+			for (int i = 0; i < ids.length; i++) {
+				assertEquals(depth, dag.level(ids[i]));
+				assertEquals(ids[i], order[at++]);
+				assertTrue(i == 0 || ids[i - 1] < ids[i]);
+			}
+			assertEquals(ids.length, dag.levels().get(depth).size());
+		}
+		assertEquals(n, at);
+	}
+
+	/**
+	 * Walks every path from a vertex, keeping the cheapest and the dearest cost to each
+	 * vertex it reaches.
+	 */
+	private static void allPaths(
+		CsrGraph<?> graph,
+		int v,
+		double cost,
+		double[] shortest,
+		double[] longest
+	) {
+		shortest[v] = Math.min(shortest[v], cost);
+		longest[v] = Math.max(longest[v], cost);
+		for (int e = graph.firstEdge(v); e < graph.endEdge(v); e++) {
+			allPaths(graph, graph.target(e), cost + graph.weight(e), shortest, longest);
+		}
+	}
+
+	/**
+	 * @return the cost of a path taking the dearest edge between consecutive vertices
+	 */
+	private static double maxCostOf(GraphTraversalUtils<Integer> graph, List<Integer> path) {
+		double cost = 0.0;
+		for (int i = 1; i < path.size(); i++) {
+			double dearest = Double.NEGATIVE_INFINITY;
+			for (GraphTraversalUtils.Edge<Integer> edge : graph.edgesFrom(path.get(i - 1))) {
+				if (edge.getDestination().equals(path.get(i))) {
+					dearest = Math.max(dearest, edge.getWeight());
+				}
+			}
+			cost += dearest;
+		}
+		return cost;
+	}
+
+	/**
+	 * @return a random DAG on vertices 0 to n - 1, with every edge going forward in a
+	 *         random order and weights drawn from {@code [minWeight, minWeight + 10)}
+	 */
+	private static GraphTraversalUtils<Integer> randomDag(
+		int n,
+		int edges,
+		double minWeight,
+		Random random
+	) {
+		int[] rank = new int[n];
+		for (int v = 0; v < n; v++) {
+			rank[v] = v;
+		}
+		for (int i = n - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int swap = rank[i];
+			rank[i] = rank[j];
+			rank[j] = swap;
+		}
+		GraphTraversalUtils<Integer> graph = new GraphTraversalUtils<>();
+		for (int v = 0; v < n; v++) {
+			graph.addVertex(v);
+		}
+		for (int e = 0; n > 1 && e < edges; e++) {
+			int a = random.nextInt(n);
+			int b = random.nextInt(n);
+			if (a == b) {
+				continue;
+			}
+			graph.addDirectedEdge(
+				rank[Math.min(a, b)],
+				rank[Math.max(a, b)],
+				minWeight + random.nextDouble() * 10.0
+			);
+		}
+		return graph;
+	}
+}
@@ -0,0 +1,137 @@
+package com.demo.java_utilities;
+
+import static com.demo.java_utilities.TestGraphs.randomGraph;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+class DeltaSteppingTests {
+
+	private static final double EPSILON = 1e-9;
+
+	@Test
+	void matchesDijkstraForEveryDelta() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			Random random = new Random(1);
+			for (int round = 0; round < 10; round++) {
+				int n = 1 + random.nextInt(300);
+				CsrGraph<Integer> graph = randomGraph(n, n * 4, 10, random).toCsr();
+				int source = random.nextInt(n);
+				double[] expected = graph.dijkstraIds(source);
+				for (double delta : new double[] { 0.01, 0.5, 3, 17, 1000 }) {
+					assertArrayEquals(
+						expected,
+						DeltaStepping.run(graph, source, delta, pool),
+						EPSILON,
+						"delta " + delta
+					);
+				}
+				assertArrayEquals(
+					expected,
+					DeltaStepping.run(graph, source, DeltaStepping.suggestDelta(graph)),
+					EPSILON
+				);
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void matchesDijkstraOnLargeGraphInParallel() {
+		Random random = new Random(2);
+		CsrGraph<Integer> graph = randomGraph(20_000, 100_000, 10, random).toCsr();
+		DeltaStepping.Split split = DeltaStepping.split(graph, 2.0);
+		for (int query = 0; query < 5; query++) {
+			int source = random.nextInt(graph.vertexCount());
+			assertArrayEquals(
+				graph.dijkstraIds(source),
+				DeltaStepping.run(split, source),
+				EPSILON
+			);
+		}
+	}
+
+	@Test
+	void sharesOneSplitAcrossConcurrentQueries() throws InterruptedException {
+		CsrGraph<Integer> graph = randomGraph(2_000, 8_000, 10, new Random(3)).toCsr();
+		DeltaStepping.Split split = DeltaStepping.split(graph, 1.5);
+		Thread[] threads = new Thread[4];
+		double[][] expected = new double[200][];
+		double[][] actual = new double[200][];
+		for (int t = 0; t < threads.length; t++) {
+			int first = t;
+			threads[t] = new Thread(() -> {
+				for (int source = first; source < 200; source += threads.length) {
+					expected[source] = graph.dijkstraIds(source);
+					actual[source] = DeltaStepping.run(split, source);
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		for (int source = 0; source < 200; source++) {
+			assertArrayEquals(expected[source], actual[source], EPSILON);
+		}
+	}
+
+	@Test
+	void splitIsForItsGraphAndDelta() {
+		CsrGraph<Integer> graph = randomGraph(10, 30, 10, new Random(4)).toCsr();
+		DeltaStepping.Split split = DeltaStepping.split(graph, 2.0);
+		assertTrue(split.isFor(graph, 2.0));
+		assertFalse(split.isFor(graph, 3.0));
+		assertFalse(split.isFor(randomGraph(10, 30, 10, new Random(4)).toCsr(), 2.0));
+		assertEquals(2.0, split.delta());
+	}
+
+	@Test
+	void graphMatchesDijkstraAcrossModifications() {
+		Random random = new Random(5);
+		GraphTraversalUtils<Integer> graph = randomGraph(200, 600, 10, random);
+		for (int round = 0; round < 5; round++) {
+			for (int query = 0; query < 3; query++) {
+				int source = random.nextInt(200);
+				assertSameDistances(
+					graph.dijkstra(source),
+					graph.deltaStepping(source, 2.0)
+				);
+			}
+			graph.addDirectedEdge(random.nextInt(200), random.nextInt(200), 0.1);
+		}
+		assertSameDistances(graph.dijkstra(7), graph.deltaStepping(7));
+	}
+
+	@Test
+	void rejectsNonPositiveDelta() {
+		CsrGraph<Integer> graph = randomGraph(3, 3, 10, new Random(6)).toCsr();
+		assertThrows(
+			IllegalArgumentException.class,
+			() -> DeltaStepping.run(graph, 0, 0)
+		);
+		assertThrows(
+			IllegalArgumentException.class,
+			() -> DeltaStepping.split(graph, Double.NaN)
+		);
+	}
+
+	private static void assertSameDistances(
+		Map<Integer, Double> expected,
+		Map<Integer, Double> actual
+	) {
+		assertEquals(expected.keySet(), actual.keySet());
+		for (Map.Entry<Integer, Double> entry : expected.entrySet()) {
+			assertEquals(entry.getValue(), actual.get(entry.getKey()), EPSILON);
+		}
+	}
+}
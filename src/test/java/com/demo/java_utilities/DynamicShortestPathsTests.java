@@ -0,0 +1,124 @@
+package com.demo.java_utilities;
+
+import static com.demo.java_utilities.TestGraphs.costOf;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class DynamicShortestPathsTests {
+
+	private static final double EPSILON = 1e-9;
+	private static final int[] SOURCES = { 0, 1, 2 };
+
+	@Test
+	void matchesFullRecomputeAfterEveryModification() {
+		for (long seed = 0; seed < 10; seed++) {
+			Random random = new Random(seed);
+			int n = 40;
+			GraphTraversalUtils<Integer> graph = new GraphTraversalUtils<>();
+			List<int[]> edges = new ArrayList<>();
+			for (int v = 0; v < n; v++) {
+				graph.addVertex(v);
+			}
+			for (int e = 0; e < 60; e++) {
+				addEdge(graph, edges, random.nextInt(n), random.nextInt(n), random);
+			}
+			DynamicShortestPaths<Integer> paths = new DynamicShortestPaths<>(graph);
+			for (int source : SOURCES) {
+				paths.addSource(source);
+			}
+			assertMatchesRecompute(graph, paths);
+
+			for (int step = 0; step < 200; step++) {
+				int kind = random.nextInt(3);
+				if (kind == 0) {
+					// Sometimes reaches a vertex that is not in the graph yet
+					int destination = random.nextInt(n + 2);
+					n = Math.max(n, destination + 1);
+					addEdge(graph, edges, random.nextInt(n), destination, random);
+				} else {
+					int[] edge = edges.get(random.nextInt(edges.size()));
+					double weight = kind == 1
+						? random.nextInt(3)
+						: 5 + random.nextInt(20);
+					graph.updateEdgeWeight(edge[0], edge[1], weight);
+				}
+				assertMatchesRecompute(graph, paths);
+			}
+		}
+	}
+
+	@Test
+	void repairsOnlyAffectedVertices() {
+		GraphTraversalUtils<Integer> graph = new GraphTraversalUtils<>();
+		for (int v = 0; v < 100; v++) {
+			graph.addDirectedEdge(v, v + 1, 1.0);
+		}
+		DynamicShortestPaths<Integer> paths = new DynamicShortestPaths<>(graph);
+		paths.addSource(0);
+		long before = paths.repairedCount();
+
+		graph.addDirectedEdge(90, 100, 0.5);
+		assertEquals(90.5, paths.distance(0, 100), EPSILON);
+		assertEquals(1, paths.repairedCount() - before);
+		assertEquals(List.of(0, 1), paths.path(0, 1));
+		paths.close();
+	}
+
+	@Test
+	void followsRaisedWeightOfTreeEdge() {
+		GraphTraversalUtils<Integer> graph = new GraphTraversalUtils<>();
+		graph.addDirectedEdge(0, 1, 1.0);
+		graph.addDirectedEdge(1, 2, 1.0);
+		graph.addDirectedEdge(0, 2, 5.0);
+		DynamicShortestPaths<Integer> paths = new DynamicShortestPaths<>(graph);
+		paths.addSource(0);
+		assertEquals(List.of(0, 1, 2), paths.path(0, 2));
+
+		graph.updateEdgeWeight(1, 2, 10.0);
+		assertEquals(5.0, paths.distance(0, 2), EPSILON);
+		assertEquals(List.of(0, 2), paths.path(0, 2));
+		paths.close();
+	}
+
+	private static void addEdge(
+		GraphTraversalUtils<Integer> graph,
+		List<int[]> edges,
+		int source,
+		int destination,
+		Random random
+	) {
+		graph.addDirectedEdge(source, destination, random.nextInt(10));
+		edges.add(new int[] { source, destination });
+	}
+
+	private static void assertMatchesRecompute(
+		GraphTraversalUtils<Integer> graph,
+		DynamicShortestPaths<Integer> paths
+	) {
+		for (int source : SOURCES) {
+			Map<Integer, Double> expected = graph.dijkstra(source);
+			Map<Integer, Double> actual = paths.distances(source);
+			int reachable = 0;
+			for (Map.Entry<Integer, Double> entry : expected.entrySet()) {
+				Integer target = entry.getKey();
+				double distance = entry.getValue();
+				assertEquals(distance, paths.distance(source, target), EPSILON);
+				if (distance == Double.POSITIVE_INFINITY) {
+					assertTrue(paths.path(source, target).isEmpty());
+					continue;
+				}
+				reachable++;
+				assertEquals(distance, actual.get(target), EPSILON);
+				List<Integer> path = paths.path(source, target);
+				assertEquals(distance, costOf(graph, path), EPSILON);
+			}
+			assertEquals(reachable, actual.size());
+		}
+	}
+}
@@ -0,0 +1,221 @@
+package com.demo.java_utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.Test;
+
+class EdgeListLoaderTests {
+
+	private static final String[] SEPARATORS = { " ", "\t", ",", "  ", " ,\t" };
+
+	@Test
+	void matchesGraphBuiltEdgeByEdge() throws IOException {
+		Random random = new Random(1);
+		String text = randomEdgeList(2_000, 300, random);
+		ForkJoinPool pool = new ForkJoinPool(3);
+		try {
+			for (boolean undirected : new boolean[] { false, true }) {
+				CsrGraph<Long> expected = reference(text, undirected);
+				assertSameGraph(expected, load(text, undirected, pool));
+				// Small blocks cut lines, comments and numbers at every possible byte
+				for (int blockBytes : new int[] { 16, 17, 64, 1_000 }) {
+					assertSameGraph(
+						expected,
+						EdgeListLoader.load(
+							new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII)),
+							undirected,
+							pool,
+							blockBytes
+						)
+					);
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void readsPlainAndGzipFiles() throws IOException {
+		String text = randomEdgeList(500, 100, new Random(2));
+		Path plain = Files.createTempFile("edges", ".txt");
+		Path gzip = Files.createTempFile("edges", ".txt.gz");
+		try {
+			Files.write(plain, text.getBytes(StandardCharsets.US_ASCII));
+			try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gzip))) {
+				out.write(text.getBytes(StandardCharsets.US_ASCII));
+			}
+			CsrGraph<Long> expected = reference(text, false);
+			assertSameGraph(expected, EdgeListLoader.load(plain.toFile()));
+			assertSameGraph(expected, EdgeListLoader.load(gzip.toFile()));
+			assertSameGraph(
+				reference(text, true),
+				EdgeListLoader.load(new File(gzip.toString()), true, ForkJoinPool.commonPool())
+			);
+		} finally {
+			Files.deleteIfExists(plain);
+			Files.deleteIfExists(gzip);
+		}
+	}
+
+	@Test
+	void handlesCommentsBlankLinesAndMissingWeights() throws IOException {
+		String text = "# header\n\n% another comment\r\n  3 1\n1,2,0.5,extra\n\t\n2\t3 7\n";
+		CsrGraph<Long> graph = load(text, false, ForkJoinPool.commonPool());
+		assertEquals(3, graph.vertexCount());
+		assertEquals(3, graph.edgeCount());
+		// Vertex ids are interned in ascending order
+		assertEquals(1L, (long) graph.vertexAt(0));
+		assertEquals(3L, (long) graph.vertexAt(2));
+		assertEquals(1.0, graph.weight(graph.firstEdge(2)), 0.0);
+		assertEquals(0.5, graph.weight(graph.firstEdge(0)), 0.0);
+		assertEquals(7.0, graph.weight(graph.firstEdge(1)), 0.0);
+		assertSameGraph(reference(text, false), graph);
+
+		assertEquals(0, load("", false, ForkJoinPool.commonPool()).vertexCount());
+		assertEquals(0, load("# only\n\n", true, ForkJoinPool.commonPool()).edgeCount());
+	}
+
+	@Test
+	void addsUndirectedSelfLoopOnce() throws IOException {
+		CsrGraph<Long> graph = load("1 1 2.5\n1 2\n", true, ForkJoinPool.commonPool());
+		assertEquals(2, graph.vertexCount());
+		assertEquals(3, graph.edgeCount());
+		assertEquals(2, graph.outDegree(0));
+		assertEquals(0, graph.target(graph.firstEdge(0)));
+		assertEquals(2.5, graph.weight(graph.firstEdge(0)), 0.0);
+		assertEquals(1, graph.outDegree(1));
+		assertSameGraph(reference("1 1 2.5\n1 2\n", true), graph);
+	}
+
+	@Test
+	void growsBlockForLineLongerThanBlock() throws IOException {
+		StringBuilder text = new StringBuilder("1 2 3\n#");
+		for (int i = 0; i < 200; i++) {
+			text.append('x');
+		}
+		text.append("\n2 3 0.25\n");
+		CsrGraph<Long> graph = EdgeListLoader.load(
+			new ByteArrayInputStream(text.toString().getBytes(StandardCharsets.US_ASCII)),
+			false,
+			ForkJoinPool.commonPool(),
+			32
+		);
+		assertSameGraph(reference(text.toString(), false), graph);
+	}
+
+	@Test
+	void rejectsMalformedLines() {
+		for (String text : new String[] { "1\n", "1 x\n", "a 2\n", "1 2 w\n", "1.5 2\n" }) {
+			IOException e = assertThrows(
+				IOException.class,
+				() -> load("0 1\n" + text, false, ForkJoinPool.commonPool())
+			);
+			assertTrue(e.getMessage().contains("byte 4"), e.getMessage());
+		}
+	}
+
+	private static CsrGraph<Long> load(String text, boolean undirected, ForkJoinPool pool)
+		throws IOException {
+		return EdgeListLoader.load(
+			new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII)),
+			undirected,
+			pool
+		);
+	}
+
+	/**
+	 * Random lines with mixed separators, comments, blank lines, CRLF endings, missing
+	 * weights, extra columns and weights in both plain and exponent notation.
+	 */
+	private static String randomEdgeList(int lines, int vertices, Random random) {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < lines; i++) {
+			int kind = random.nextInt(20);
+			if (kind == 0) {
+				text.append(random.nextBoolean() ? "# comment " : "% comment ").append(i);
+			} else if (kind == 1) {
+				text.append(random.nextBoolean() ? "" : " \t");
+			} else {
+				String separator = SEPARATORS[random.nextInt(SEPARATORS.length)];
+				text.append(random.nextInt(vertices) * 1_000_003L);
+				text.append(separator).append(random.nextInt(vertices) * 1_000_003L);
+				if (kind > 4) {
+					text.append(separator).append(
+						kind % 3 == 0
+							? Integer.toString(random.nextInt(100))
+							: Double.toString(
+								random.nextDouble() * Math.pow(10, random.nextInt(12) - 6)
+							)
+					);
+				}
+				if (kind == 5) {
+					text.append(separator).append("label");
+				}
+			}
+			text.append(random.nextInt(10) == 0 ? "\r\n" : "\n");
+		}
+		return text.toString();
+	}
+
+	/**
+	 * Builds the graph edge by edge from a straightforward parse of the same text.
+	 */
+	private static CsrGraph<Long> reference(String text, boolean undirected) {
+		GraphTraversalUtils<Long> graph = new GraphTraversalUtils<>();
+		for (String line : text.split("\n")) {
+			String trimmed = line.trim();
+			if (trimmed.isEmpty() || trimmed.startsWith("#") || trimmed.startsWith("%")) {
+				continue;
+			}
+			String[] fields = trimmed.split("[ \t,\r]+");
+			long source = Long.parseLong(fields[0]);
+			long target = Long.parseLong(fields[1]);
+			double weight = fields.length > 2 ? Double.parseDouble(fields[2]) : 1.0;
+			graph.addDirectedEdge(source, target, weight);
+			if (undirected && source != target) {
+				graph.addDirectedEdge(target, source, weight);
+			}
+		}
+		return graph.toCsr();
+	}
+
+	/**
+	 * Compares by vertex value, since the loader numbers vertices in ascending order and
+	 * the reference in order of appearance. Edges of a vertex keep file order in both.
+	 */
+	private static void assertSameGraph(CsrGraph<Long> expected, CsrGraph<Long> actual) {
+		assertEquals(expected.vertexCount(), actual.vertexCount());
+		assertEquals(expected.edgeCount(), actual.edgeCount());
+		for (int v = 0; v < actual.vertexCount(); v++) {
+			if (v > 0) {
+				assertTrue(actual.vertexAt(v - 1) < actual.vertexAt(v));
+			}
+			int u = expected.idOf(actual.vertexAt(v));
+			assertEquals(edges(expected, u), edges(actual, v));
+			assertEquals(v, actual.idOf(actual.vertexAt(v)));
+		}
+	}
+
+	private static List<String> edges(CsrGraph<Long> graph, int v) {
+		List<String> edges = new ArrayList<>();
+		for (int e = graph.firstEdge(v); e < graph.endEdge(v); e++) {
+			edges.add(graph.vertexAt(graph.target(e)) + ":" + graph.weight(e));
+		}
+		return edges;
+	}
+}
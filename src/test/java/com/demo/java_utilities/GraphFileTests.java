@@ -0,0 +1,120 @@
+package com.demo.java_utilities;
+
+import static com.demo.java_utilities.TestGraphs.randomGraph;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class GraphFileTests {
+
+	private static final double EPSILON = 1e-9;
+
+	@Test
+	void mappedGraphMatchesHeapGraph() throws IOException {
+		GraphTraversalUtils<Integer> graph = randomGraph(500, 2_000, 10, new Random(1));
+		CsrGraph<Integer> heap = graph.toCsr();
+		Path path = Files.createTempFile("graph", ".grf");
+		try {
+			heap.write(path);
+			CsrGraph<Integer> mapped = CsrGraph.open(path);
+			assertTrue(mapped.isMapped());
+			assertFalse(heap.isMapped());
+			assertSameGraph(heap, mapped);
+			assertSameGraph(heap.reverse(), mapped.reverse());
+			assertSameTraversals(heap, mapped);
+		} finally {
+			Files.deleteIfExists(path);
+		}
+	}
+
+	@Test
+	void readsAcrossSegmentBoundaries() throws IOException {
+		GraphTraversalUtils<String> graph = new GraphTraversalUtils<>();
+		Random random = new Random(2);
+		for (int e = 0; e < 300; e++) {
+			graph.addDirectedEdge(
+				"v" + random.nextInt(80),
+				"v" + random.nextInt(80),
+				random.nextDouble()
+			);
+		}
+		CsrGraph<String> heap = graph.toCsr();
+		Path path = Files.createTempFile("graph", ".grf");
+		try {
+			GraphFile.write(heap, path, true);
+			// Segments of 8 to 64 bytes split every section, at each int and double
+			// position modulo the segment size
+			for (int shift = 3; shift <= 6; shift++) {
+				CsrGraph<String> mapped = GraphFile.open(path, shift);
+				assertSameGraph(heap, mapped);
+				assertSameGraph(heap.reverse(), mapped.reverse());
+				assertSameTraversals(heap, mapped);
+			}
+		} finally {
+			Files.deleteIfExists(path);
+		}
+	}
+
+	@Test
+	void mapsEmptyGraph() throws IOException {
+		CsrGraph<Integer> heap = new GraphTraversalUtils<Integer>().toCsr();
+		Path path = Files.createTempFile("graph", ".grf");
+		try {
+			GraphFile.write(heap, path, false);
+			CsrGraph<Integer> mapped = GraphFile.open(path);
+			assertEquals(0, mapped.vertexCount());
+			assertEquals(0, mapped.edgeCount());
+		} finally {
+			Files.deleteIfExists(path);
+		}
+	}
+
+	@Test
+	void rejectsForeignFile() throws IOException {
+		Path path = Files.createTempFile("graph", ".grf");
+		try {
+			Files.write(path, new byte[128]);
+			assertThrows(IOException.class, () -> GraphFile.open(path));
+		} finally {
+			Files.deleteIfExists(path);
+		}
+	}
+
+	private static <V> void assertSameGraph(CsrGraph<V> expected, CsrGraph<V> actual) {
+		assertEquals(expected.vertexCount(), actual.vertexCount());
+		assertEquals(expected.edgeCount(), actual.edgeCount());
+		for (int v = 0; v < expected.vertexCount(); v++) {
+			assertEquals(expected.vertexAt(v), actual.vertexAt(v));
+			assertEquals(expected.firstEdge(v), actual.firstEdge(v));
+			assertEquals(expected.endEdge(v), actual.endEdge(v));
+		}
+		for (int e = 0; e < expected.edgeCount(); e++) {
+			assertEquals(expected.target(e), actual.target(e));
+			assertEquals(expected.weight(e), actual.weight(e), 0.0);
+		}
+	}
+
+	private static <V> void assertSameTraversals(CsrGraph<V> expected, CsrGraph<V> actual) {
+		for (int s = 0; s < expected.vertexCount(); s += 7) {
+			V source = expected.vertexAt(s);
+			assertArrayEquals(expected.bfsIds(s), actual.bfsIds(s));
+			assertArrayEquals(expected.dfsIds(s), actual.dfsIds(s));
+			assertArrayEquals(expected.dijkstraIds(s), actual.dijkstraIds(s), EPSILON);
+			assertEquals(expected.bfs(source), actual.bfs(source));
+			V target = expected.vertexAt((s * 31 + 5) % expected.vertexCount());
+			GraphTraversalUtils.PathResult<V> path = actual.shortestPath(source, target);
+			assertEquals(expected.shortestPath(source, target).getCost(), path.getCost(), EPSILON);
+			List<V> aStar = actual.aStar(source, target, (a, b) -> 0.0);
+			assertEquals(expected.aStar(source, target, (a, b) -> 0.0), aStar);
+		}
+	}
+}
@@ -0,0 +1,164 @@
+package com.demo.java_utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+class GraphStoreTests {
+
+	@Test
+	void reopensLazilyAndMatchesOriginal() throws IOException {
+		Path dir = Files.createTempDirectory("store");
+		try {
+			File file = dir.resolve("graph.db").toFile();
+			Random random = new Random(1);
+			GraphTraversalUtils<Integer> expected = new GraphTraversalUtils<>();
+			try (GraphStore<Integer> store = GraphStore.open(file)) {
+				addRandomEdges(List.of(expected, store.graph()), 200, 800, random);
+				store.graph().addVertex(1_000);
+				expected.addVertex(1_000);
+			}
+
+			try (GraphStore<Integer> store = GraphStore.open(file)) {
+				assertEquals(0, store.loadedCount());
+				assertEquals(expected.vertices().size(), store.vertexCount());
+				assertTrue(store.graph().edgesFrom(1_000).isEmpty());
+				assertEquals(1, store.loadedCount());
+
+				GraphTraversalUtils<Integer> graph = store.graph();
+				for (int source : new int[] { 0, 7, 199, 1_000 }) {
+					assertEquals(expected.bfs(source), graph.bfs(source));
+					assertEquals(expected.dijkstra(source), graph.dijkstra(source));
+				}
+				// Whole-graph operations load every vertex
+				assertEquals(expected.toCsr().edgeCount(), graph.toCsr().edgeCount());
+				assertEquals(store.vertexCount(), store.loadedCount());
+			}
+		} finally {
+			delete(dir);
+		}
+	}
+
+	@Test
+	void appendsEdgesAfterReopening() throws IOException {
+		Path dir = Files.createTempDirectory("store");
+		try {
+			File file = dir.resolve("graph.db").toFile();
+			Random random = new Random(2);
+			GraphTraversalUtils<Integer> expected = new GraphTraversalUtils<>();
+			try (GraphStore<Integer> store = GraphStore.open(file)) {
+				addRandomEdges(List.of(expected, store.graph()), 50, 100, random);
+			}
+			for (int round = 0; round < 3; round++) {
+				try (GraphStore<Integer> store = GraphStore.open(file)) {
+					// Some edges reach vertices the reopened store has not seen yet
+					addRandomEdges(
+						List.of(expected, store.graph()),
+						60 + 10 * round,
+						50,
+						random
+					);
+					assertEquals(expected.vertices().size(), store.vertexCount());
+				}
+			}
+			try (GraphStore<Integer> store = GraphStore.open(file)) {
+				for (int source = 0; source < 50; source += 5) {
+					assertEquals(expected.bfs(source), store.graph().bfs(source));
+					assertEquals(
+						expected.dijkstra(source),
+						store.graph().dijkstra(source)
+					);
+				}
+			}
+		} finally {
+			delete(dir);
+		}
+	}
+
+	@Test
+	void updatesEveryParallelEdgeOnce() throws IOException {
+		Path dir = Files.createTempDirectory("store");
+		try {
+			File file = dir.resolve("graph.db").toFile();
+			try (GraphStore<Integer> store = GraphStore.open(file)) {
+				GraphTraversalUtils<Integer> graph = store.graph();
+				graph.addDirectedEdge(0, 1, 5.0);
+				graph.addDirectedEdge(0, 2, 5.0);
+				graph.addDirectedEdge(0, 1, 3.0);
+				graph.addDirectedEdge(0, 1, 5.0);
+				graph.addDirectedEdge(1, 0, 5.0);
+				graph.addDirectedEdge(2, 3, 2.0);
+				graph.addDirectedEdge(2, 3, 1.0);
+				graph.addDirectedEdge(2, 3, 2.0);
+			}
+			try (GraphStore<Integer> store = GraphStore.open(file)) {
+				// The events name old weights 5, 3 and 5, and after the first one two
+				// parallel edges hold 3, so the store must rewrite the right edge each time
+				assertEquals(3, store.graph().updateEdgeWeight(0, 1, 3.0));
+				// Old weights 2, 1 and 2 towards a new weight of 1
+				assertEquals(3, store.graph().updateEdgeWeight(2, 3, 1.0));
+			}
+			try (GraphStore<Integer> store = GraphStore.open(file)) {
+				assertEquals(List.of("1:3.0", "2:5.0", "1:3.0", "1:3.0"), edges(store, 0));
+				assertEquals(List.of("3:1.0", "3:1.0", "3:1.0"), edges(store, 2));
+				assertEquals(3, store.graph().updateEdgeWeight(0, 1, 7.0));
+			}
+			try (GraphStore<Integer> store = GraphStore.open(file)) {
+				assertEquals(List.of("1:7.0", "2:5.0", "1:7.0", "1:7.0"), edges(store, 0));
+				assertEquals(List.of("0:5.0"), edges(store, 1));
+				assertEquals(7.0, store.graph().shortestPath(0, 1).getCost(), 0.0);
+			}
+		} finally {
+			delete(dir);
+		}
+	}
+
+	/**
+	 * Adds the same random edges to every graph, with some parallel edges.
+	 */
+	private static void addRandomEdges(
+		List<GraphTraversalUtils<Integer>> graphs,
+		int n,
+		int edges,
+		Random random
+	) {
+		for (int e = 0; e < edges; e++) {
+			int source = random.nextInt(n);
+			int target = random.nextInt(n);
+			double weight = 1 + random.nextInt(10);
+			int copies = random.nextInt(10) == 0 ? 2 : 1;
+			for (int copy = 0; copy < copies; copy++) {
+				for (GraphTraversalUtils<Integer> graph : graphs) {
+					graph.addDirectedEdge(source, target, weight + copy);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the edges of a vertex as read back from the store, in insertion order
+	 */
+	private static List<String> edges(GraphStore<Integer> store, int vertex) {
+		List<String> edges = new ArrayList<>();
+		for (GraphTraversalUtils.Edge<Integer> edge : store.graph().edgesFrom(vertex)) {
+			edges.add(edge.getDestination() + ":" + edge.getWeight());
+		}
+		return edges;
+	}
+
+	private static void delete(Path dir) throws IOException {
+		try (Stream<Path> paths = Files.walk(dir)) {
+			paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+		}
+	}
+}
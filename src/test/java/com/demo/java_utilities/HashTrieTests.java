@@ -0,0 +1,105 @@
+package com.demo.java_utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class HashTrieTests {
+
+	@Test
+	void matchesHashMap() {
+		Random random = new Random(1);
+		Map<Integer, Integer> expected = new HashMap<>();
+		HashTrie<Integer, Integer> trie = HashTrie.empty();
+		for (int i = 0; i < 20_000; i++) {
+			int key = random.nextInt(5_000) * (random.nextBoolean() ? 1 : -65_537);
+			expected.put(key, i);
+			trie = trie.put(key, i);
+		}
+		assertSameContent(expected, trie);
+		for (int i = 0; i < 1_000; i++) {
+			int key = random.nextInt();
+			assertEquals(expected.containsKey(key), trie.containsKey(key));
+		}
+	}
+
+	@Test
+	void keepsEarlierVersionsUnchanged() {
+		HashTrie<String, Integer> empty = HashTrie.empty();
+		HashTrie<String, Integer> one = empty.put("a", 1);
+		HashTrie<String, Integer> two = one.put("b", 2);
+		HashTrie<String, Integer> replaced = two.put("a", 3);
+
+		assertEquals(0, empty.size());
+		assertFalse(empty.containsKey("a"));
+		assertEquals(1, one.size());
+		assertNull(one.get("b"));
+		assertEquals(1, (int) two.get("a"));
+		assertEquals(2, replaced.size());
+		assertEquals(3, (int) replaced.get("a"));
+	}
+
+	@Test
+	void separatesKeysWithEqualHashes() {
+		Map<Object, Integer> expected = new HashMap<>();
+		HashTrie<Object, Integer> trie = HashTrie.empty();
+		for (int i = 0; i < 100; i++) {
+			Object key = new Colliding(i % 7, i);
+			expected.put(key, i);
+			trie = trie.put(key, i);
+		}
+		trie = trie.put(null, -1);
+		expected.put(null, -1);
+		assertSameContent(expected, trie);
+		assertFalse(trie.containsKey(new Colliding(3, 1_000)));
+	}
+
+	private static <K> void assertSameContent(
+		Map<K, Integer> expected,
+		HashTrie<K, Integer> trie
+	) {
+		assertEquals(expected.size(), trie.size());
+		for (Map.Entry<K, Integer> entry : expected.entrySet()) {
+			assertTrue(trie.containsKey(entry.getKey()));
+			assertEquals(entry.getValue(), trie.get(entry.getKey()));
+		}
+		Map<K, Integer> iterated = new HashMap<>();
+		Iterator<Map.Entry<K, Integer>> iterator = trie.iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<K, Integer> entry = iterator.next();
+			iterated.put(entry.getKey(), entry.getValue());
+		}
+		assertEquals(expected, iterated);
+	}
+
+	/**
+	 * A key whose hash code is chosen independently of its identity.
+	 */
+	private static final class Colliding {
+
+		private final int hash;
+		private final int id;
+
+		Colliding(int hash, int id) {
+			this.hash = hash;
+			this.id = id;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof Colliding && ((Colliding) o).id == id;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+}
@@ -0,0 +1,133 @@
+package com.demo.java_utilities;
+
+import static com.demo.java_utilities.TestGraphs.costOf;
+import static com.demo.java_utilities.TestGraphs.randomGraph;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+class LandmarksTests {
+
+	private static final double EPSILON = 1e-9;
+
+	@Test
+	void boundsNeverExceedDijkstraDistances() {
+		Random random = new Random(1);
+		GraphTraversalUtils<Integer> graph = randomGraph(300, 1_200, 20, random);
+		// A few vertices outside the big component leave some landmark terms unreachable
+		graph.addDirectedEdge(300, 301, 1.5);
+		graph.addVertex(302);
+		CsrGraph<Integer> csr = graph.toCsr();
+		int n = csr.vertexCount();
+		double[][] distances = new double[n][];
+		for (int v = 0; v < n; v++) {
+			distances[v] = csr.dijkstraIds(v);
+		}
+
+		for (Landmarks.Selection selection : Landmarks.Selection.values()) {
+			Landmarks<Integer> landmarks = Landmarks.build(
+				csr,
+				8,
+				selection,
+				3L,
+				ForkJoinPool.commonPool()
+			);
+			assertEquals(8, landmarks.landmarkCount());
+			assertEquals(8, new HashSet<>(landmarks.landmarks()).size());
+			for (int v = 0; v < n; v++) {
+				for (int t = 0; t < n; t++) {
+					double bound = landmarks.lowerBound(v, t);
+					double exact = distances[v][t];
+					assertTrue(bound >= 0.0);
+					assertTrue(
+						bound <= exact,
+						() -> selection + " bound " + bound + " above " + exact
+					);
+				}
+				assertEquals(0.0, landmarks.lowerBound(v, v), 0.0);
+			}
+		}
+	}
+
+	@Test
+	void floatSlackKeepsBoundsAdmissible() {
+		// On a path L -> v -> t the bound d(L, t) - d(L, v) is exactly d(v, t) before
+		// rounding, so rounding d(L, t) up and d(L, v) down overshoots without the slack
+		Random random = new Random(2);
+		for (int round = 0; round < 2_000; round++) {
+			double head = 1.0 + random.nextDouble() * 1e6;
+			double tail = random.nextDouble() * 10.0;
+			GraphTraversalUtils<Integer> graph = new GraphTraversalUtils<>();
+			graph.addDirectedEdge(0, 1, head);
+			graph.addDirectedEdge(1, 2, tail);
+			CsrGraph<Integer> csr = graph.toCsr();
+			Landmarks<Integer> landmarks = Landmarks.build(
+				csr,
+				3,
+				Landmarks.Selection.FARTHEST
+			);
+			double exact = csr.dijkstraIds(csr.idOf(1))[csr.idOf(2)];
+			double bound = landmarks.calculate(1, 2);
+			assertTrue(bound <= exact, () -> bound + " above " + exact);
+			assertTrue(bound > 0.0 || exact < head * 0x1p-20);
+		}
+	}
+
+	@Test
+	void altSearchFindsShortestPaths() {
+		Random random = new Random(4);
+		GraphTraversalUtils<Integer> graph = randomGraph(400, 2_000, 20, random);
+		CsrGraph<Integer> csr = graph.toCsr();
+		Landmarks<Integer> avoid = graph.landmarks(6);
+		Landmarks<Integer> farthest = Landmarks.build(csr, 6, Landmarks.Selection.FARTHEST);
+		for (int query = 0; query < 100; query++) {
+			int source = random.nextInt(400);
+			int target = random.nextInt(400);
+			double expected = csr.dijkstraIds(csr.idOf(source))[csr.idOf(target)];
+			for (Landmarks<Integer> landmarks : List.of(avoid, farthest)) {
+				GraphTraversalUtils.PathResult<Integer> result = csr.shortestPath(
+					source,
+					target,
+					landmarks
+				);
+				// The A* path leaves out the start vertex
+				List<Integer> aStar = new ArrayList<>(List.of(source));
+				aStar.addAll(csr.aStar(source, target, landmarks));
+				if (Double.isInfinite(expected)) {
+					assertFalse(result.isFound());
+					assertEquals(1, aStar.size());
+					continue;
+				}
+				assertEquals(expected, result.getCost(), EPSILON);
+				assertEquals(expected, costOf(graph, result.getPath()), EPSILON);
+				assertEquals(target, (int) aStar.get(aStar.size() - 1));
+				assertEquals(expected, costOf(graph, aStar), EPSILON);
+			}
+		}
+	}
+
+	@Test
+	void capsLandmarksAtVertexCount() {
+		GraphTraversalUtils<Integer> graph = new GraphTraversalUtils<>();
+		graph.addUndirectedEdge(0, 1, 2.0);
+		graph.addUndirectedEdge(1, 2, 3.0);
+		CsrGraph<Integer> csr = graph.toCsr();
+		Landmarks<Integer> landmarks = Landmarks.build(csr, 10, Landmarks.Selection.AVOID);
+		assertEquals(3, landmarks.landmarkCount());
+		assertEquals(new HashSet<>(List.of(0, 1, 2)), new HashSet<>(landmarks.landmarks()));
+		assertEquals(5.0, landmarks.calculate(0, 2), 1e-5);
+		assertEquals(0.0, landmarks.calculate(0, 99), 0.0);
+		assertThrows(
+			IllegalArgumentException.class,
+			() -> Landmarks.build(csr, 0, Landmarks.Selection.FARTHEST)
+		);
+	}
+}
@@ -0,0 +1,164 @@
+package com.demo.java_utilities;
+
+import static com.demo.java_utilities.TestGraphs.randomGraph;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+class ParallelBfsTests {
+
+	@Test
+	void matchesSequentialBfsOnSmallGraphs() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			Random random = new Random(1);
+			for (int round = 0; round < 30; round++) {
+				int n = 1 + random.nextInt(200);
+				GraphTraversalUtils<Integer> graph = randomGraph(
+					n,
+					random.nextInt(4 * n),
+					1,
+					random
+				);
+				int source = random.nextInt(n);
+				assertMatchesSequential(graph, source, pool);
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void matchesSequentialBfsAcrossBothStepDirections() {
+		// The frontier of a random graph of average degree 8 soon holds more than a
+		// fourteenth of the unexplored edges, which switches to bottom-up steps, and
+		// shrinks below a twenty-fourth of the vertices near the end, which switches
+		// back to top-down steps
+		Random random = new Random(2);
+		GraphTraversalUtils<Integer> graph = randomGraph(20_000, 160_000, 1, random);
+		for (int query = 0; query < 3; query++) {
+			assertMatchesSequential(
+				graph,
+				random.nextInt(20_000),
+				ForkJoinPool.commonPool()
+			);
+		}
+
+		// A source adjacent to every vertex starts bottom-up at the first level
+		GraphTraversalUtils<Integer> star = randomGraph(5_000, 5_000, 1, random);
+		for (int v = 1; v < 5_000; v++) {
+			star.addDirectedEdge(0, v, 1.0);
+		}
+		assertMatchesSequential(star, 0, ForkJoinPool.commonPool());
+	}
+
+	@Test
+	void staysInTheComponentOfTheStart() {
+		GraphTraversalUtils<Integer> graph = new GraphTraversalUtils<>();
+		for (int v = 0; v < 1_000; v++) {
+			graph.addUndirectedEdge(v, (v + 1) % 1_000, 1.0);
+		}
+		graph.addUndirectedEdge(2_000, 2_001, 1.0);
+		graph.addVertex(3_000);
+
+		BfsResult<Integer> isolated = graph.parallelBfs(3_000);
+		assertEquals(1, isolated.reachedCount());
+		assertEquals(0, isolated.depth());
+		assertEquals(List.of(3_000), isolated.orderedVertices());
+		assertEquals(-1, isolated.levelOf(0));
+		assertNull(isolated.parentOf(3_000));
+
+		BfsResult<Integer> pair = graph.parallelBfs(2_001);
+		assertEquals(2, pair.reachedCount());
+		assertEquals(2_001, (int) pair.parentOf(2_000));
+		assertEquals(-1, pair.levelOf(500));
+
+		assertMatchesSequential(graph, 0, ForkJoinPool.commonPool());
+		assertEquals(500, graph.parallelBfs(0).depth());
+	}
+
+	/**
+	 * Checks the levels against a sequential search on the CSR snapshot, and that every
+	 * parent is an in-neighbor one level up. Parents themselves may differ between runs.
+	 */
+	private static void assertMatchesSequential(
+		GraphTraversalUtils<Integer> graph,
+		int source,
+		ForkJoinPool pool
+	) {
+		CsrGraph<Integer> csr = graph.toCsr();
+		int s = csr.idOf(source);
+		BfsResult<Integer> result = ParallelBfs.run(csr, s, pool);
+		int[] expected = levels(csr, s);
+
+		int n = csr.vertexCount();
+		int reached = 0;
+		int depth = 0;
+		for (int v = 0; v < n; v++) {
+			assertEquals(expected[v], result.level(v), "level of " + v);
+			if (expected[v] < 0) {
+				assertEquals(-1, result.parent(v));
+				continue;
+			}
+			reached++;
+			depth = Math.max(depth, expected[v]);
+			int parent = result.parent(v);
+			if (v == s) {
+				assertEquals(-1, parent);
+				continue;
+			}
+			assertEquals(expected[v] - 1, expected[parent]);
+			assertTrue(hasEdge(csr, parent, v), parent + " -> " + v);
+		}
+		assertEquals(reached, result.reachedCount());
+		assertEquals(depth, result.depth());
+
+		int[] order = result.order();
+		assertEquals(reached, order.length);
+		assertEquals(s, order[0]);
+		for (int i = 1; i < order.length; i++) {
+			assertTrue(expected[order[i - 1]] <= expected[order[i]]);
+		}
+		assertEquals(
+			new HashSet<>(graph.bfs(source)),
+			new HashSet<>(result.orderedVertices())
+		);
+		assertEquals(reached, Arrays.stream(order).distinct().count());
+	}
+
+	private static int[] levels(CsrGraph<?> graph, int source) {
+		int[] level = new int[graph.vertexCount()];
+		Arrays.fill(level, -1);
+		int[] queue = new int[graph.vertexCount()];
+		int size = 0;
+		level[source] = 0;
+		queue[size++] = source;
+		for (int head = 0; head < size; head++) {
+			int v = queue[head];
+			for (int e = graph.firstEdge(v); e < graph.endEdge(v); e++) {
+				int next = graph.target(e);
+				if (level[next] < 0) {
+					level[next] = level[v] + 1;
+					queue[size++] = next;
+				}
+			}
+		}
+		return level;
+	}
+
+	private static boolean hasEdge(CsrGraph<?> graph, int from, int to) {
+		for (int e = graph.firstEdge(from); e < graph.endEdge(from); e++) {
+			if (graph.target(e) == to) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
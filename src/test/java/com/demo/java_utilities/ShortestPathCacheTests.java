@@ -0,0 +1,180 @@
+package com.demo.java_utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class ShortestPathCacheTests {
+
+	@Test
+	void mutationsInvalidateCachedResults() {
+		GraphTraversalUtils<Integer> graph = new GraphTraversalUtils<>();
+		graph.addDirectedEdge(0, 1, 5.0);
+		graph.addDirectedEdge(1, 2, 5.0);
+		ShortestPathCache<Integer> cache = new ShortestPathCache<>(
+			1_000,
+			ShortestPathCache.Policy.LRU
+		);
+		graph.setPathCache(cache);
+
+		Map<Integer, Double> first = graph.dijkstra(0);
+		assertTrue(first == graph.dijkstra(0));
+		assertEquals(10.0, graph.shortestPath(0, 2).getCost(), 0.0);
+		assertEquals(10.0, graph.shortestPath(0, 2).getCost(), 0.0);
+		assertEquals(2, cache.hitCount());
+		assertEquals(2, cache.missCount());
+		assertEquals(2, cache.size());
+
+		graph.addVertex(3);
+		Map<Integer, Double> afterVertex = graph.dijkstra(0);
+		assertFalse(first == afterVertex);
+		assertEquals(2, cache.invalidationCount());
+		assertEquals(1, cache.size());
+
+		graph.addDirectedEdge(0, 2, 4.0);
+		assertEquals(4.0, graph.dijkstra(0).get(2), 0.0);
+		assertEquals(4.0, graph.shortestPath(0, 2).getCost(), 0.0);
+
+		assertEquals(1, graph.updateEdgeWeight(0, 2, 20.0));
+		assertEquals(10.0, graph.dijkstra(0).get(2), 0.0);
+		assertEquals(10.0, graph.shortestPath(0, 2).getCost(), 0.0);
+		assertEquals(List.of(1, 2), graph.aStar(0, 2, (a, b) -> 0.0));
+
+		// Updating a missing edge changes nothing, so the cache survives it
+		long misses = cache.missCount();
+		assertEquals(0, graph.updateEdgeWeight(2, 0, 1.0));
+		graph.dijkstra(0);
+		assertEquals(misses, cache.missCount());
+	}
+
+	@Test
+	void lruEvictsLeastRecentlyUsedWithinBudget() {
+		ShortestPathCache<Integer> cache = new ShortestPathCache<>(
+			10,
+			ShortestPathCache.Policy.LRU
+		);
+		assertTrue(computed(cache, "a", 4));
+		assertTrue(computed(cache, "b", 4));
+		assertFalse(computed(cache, "a", 4));
+		assertTrue(computed(cache, "c", 4));
+		assertEquals(8, cache.weight());
+		assertEquals(1, cache.evictionCount());
+		assertFalse(computed(cache, "a", 4));
+		assertFalse(computed(cache, "c", 4));
+		assertTrue(computed(cache, "b", 4));
+
+		// A result heavier than the whole budget is returned but not cached
+		assertTrue(computed(cache, "huge", 11));
+		assertTrue(computed(cache, "huge", 11));
+		assertEquals(2, cache.size());
+	}
+
+	@Test
+	void lfuEvictsLeastFrequentlyUsed() {
+		ShortestPathCache<Integer> cache = new ShortestPathCache<>(
+			9,
+			ShortestPathCache.Policy.LFU
+		);
+		assertTrue(computed(cache, "a", 3));
+		assertTrue(computed(cache, "b", 3));
+		assertTrue(computed(cache, "c", 3));
+		assertFalse(computed(cache, "a", 3));
+		assertFalse(computed(cache, "a", 3));
+		assertFalse(computed(cache, "c", 3));
+
+		// b has the fewest hits
+		assertTrue(computed(cache, "d", 3));
+		assertEquals(9, cache.weight());
+		assertFalse(computed(cache, "a", 3));
+		assertFalse(computed(cache, "c", 3));
+		assertTrue(computed(cache, "b", 3));
+		// d was the only entry used once, b replaced it
+		assertTrue(computed(cache, "d", 3));
+		assertEquals(3, cache.evictionCount());
+	}
+
+	@Test
+	void lfuKeepsNewEntryWhenOthersAreHot() {
+		ShortestPathCache<Integer> cache = new ShortestPathCache<>(
+			6,
+			ShortestPathCache.Policy.LFU
+		);
+		assertTrue(computed(cache, "a", 3));
+		assertTrue(computed(cache, "b", 3));
+		for (int i = 0; i < 3; i++) {
+			assertFalse(computed(cache, "a", 3));
+		}
+		assertFalse(computed(cache, "b", 3));
+
+		// Every cached entry outranks the new one, which must still be cached
+		assertTrue(computed(cache, "c", 3));
+		assertEquals(2, cache.size());
+		assertFalse(computed(cache, "c", 3));
+		assertFalse(computed(cache, "a", 3));
+		assertTrue(computed(cache, "b", 3));
+	}
+
+	@Test
+	void staysWithinBudgetUnderRandomLoad() {
+		Random random = new Random(1);
+		for (ShortestPathCache.Policy policy : ShortestPathCache.Policy.values()) {
+			ShortestPathCache<Integer> cache = new ShortestPathCache<>(50, policy);
+			long hits = 0;
+			long misses = 0;
+			for (int i = 0; i < 5_000; i++) {
+				int key = random.nextInt(40);
+				if (computed(cache, key, 1 + key % 7, i < 2_500 ? 0 : 1)) {
+					misses++;
+				} else {
+					hits++;
+				}
+				assertTrue(cache.weight() <= cache.maxWeight());
+			}
+			assertEquals(hits, cache.hitCount());
+			assertEquals(misses, cache.missCount());
+			assertEquals((double) hits / (hits + misses), cache.hitRate(), 1e-12);
+			assertTrue(cache.invalidationCount() > 0);
+
+			cache.clear();
+			assertEquals(0, cache.size());
+			assertEquals(0, cache.weight());
+			assertEquals(hits, cache.hitCount());
+		}
+		assertThrows(
+			IllegalArgumentException.class,
+			() -> new ShortestPathCache<>(0, ShortestPathCache.Policy.LRU)
+		);
+	}
+
+	private static boolean computed(ShortestPathCache<?> cache, Object key, long weight) {
+		return computed(cache, key, weight, 0);
+	}
+
+	/**
+	 * @return true if the query missed and its result was computed
+	 */
+	private static boolean computed(
+		ShortestPathCache<?> cache,
+		Object key,
+		long weight,
+		long version
+	) {
+		boolean[] computed = new boolean[1];
+		cache.get(
+			key,
+			version,
+			() -> {
+				computed[0] = true;
+				return key;
+			},
+			value -> weight
+		);
+		return computed[0];
+	}
+}
@@ -0,0 +1,56 @@
+package com.demo.java_utilities;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Graphs and path checks shared by the graph tests.
+ */
+final class TestGraphs {
+
+	private TestGraphs() {}
+
+	/**
+	 * @param n         the number of vertices, numbered from 0
+	 * @param edges     the number of directed edges, with random endpoints
+	 * @param maxWeight the weights are drawn from {@code [0, maxWeight)}
+	 * @return a random directed graph
+	 */
+	static GraphTraversalUtils<Integer> randomGraph(
+		int n,
+		int edges,
+		int maxWeight,
+		Random random
+	) {
+		GraphTraversalUtils<Integer> graph = new GraphTraversalUtils<>();
+		for (int v = 0; v < n; v++) {
+			graph.addVertex(v);
+		}
+		for (int e = 0; e < edges; e++) {
+			graph.addDirectedEdge(
+				random.nextInt(n),
+				random.nextInt(n),
+				random.nextInt(maxWeight) + random.nextDouble()
+			);
+		}
+		return graph;
+	}
+
+	/**
+	 * @return the cost of a path taking the cheapest edge between consecutive vertices
+	 */
+	static double costOf(GraphTraversalUtils<Integer> graph, List<Integer> path) {
+		double cost = 0.0;
+		for (int i = 1; i < path.size(); i++) {
+			double cheapest = Double.POSITIVE_INFINITY;
+			Integer from = path.get(i - 1);
+			for (GraphTraversalUtils.Edge<Integer> edge : graph.edgesFrom(from)) {
+				if (edge.getDestination().equals(path.get(i))) {
+					cheapest = Math.min(cheapest, edge.getWeight());
+				}
+			}
+			cost += cheapest;
+		}
+		return cost;
+	}
+}
@@ -0,0 +1,110 @@
+package com.demo.java_utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TraversalStatsTests {
+
+	@Test
+	void countsBreadthAndDepthFirstTraversals() {
+		GraphTraversalUtils<Integer> graph = graph();
+		TraversalStats stats = new TraversalStats();
+		assertEquals(List.of(0, 1, 2, 3), graph.bfs(0, stats));
+		assertCounts(stats, 1, 4, 4, 4, 0, 4, 2);
+
+		stats.reset();
+		assertEquals(List.of(0, 1, 2, 3), graph.dfs(0, stats));
+		// Every vertex of the path 0 -> 1 -> 2 -> 3 is on the stack at the end
+		assertCounts(stats, 1, 4, 4, 4, 0, 4, 4);
+
+		// A second query adds to the same counters
+		graph.bfs(4, stats);
+		assertCounts(stats, 2, 5, 4, 5, 0, 5, 4);
+	}
+
+	@Test
+	void countsDijkstraAndAStar() {
+		GraphTraversalUtils<Integer> graph = graph();
+		TraversalStats stats = new TraversalStats();
+		assertEquals(3.0, graph.dijkstra(0, stats).get(3), 0.0);
+		// Pushes 0, 1, 2 and 3, and lowers 2 from 4 to 2 when 1 is settled
+		assertCounts(stats, 1, 4, 4, 4, 1, 4, 2);
+
+		stats.reset();
+		CsrGraph<Integer> csr = graph.toCsr();
+		csr.dijkstra(csr.idOf(0), csr.newWorkspace(), stats);
+		assertCounts(stats, 1, 4, 4, 4, 1, 4, 2);
+
+		stats.reset();
+		assertEquals(List.of(1, 2, 3), graph.aStar(0, 3, (a, b) -> 0.0, stats));
+		assertCounts(stats, 1, 4, 4, 4, 1, 4, 2);
+	}
+
+	@Test
+	void countsBidirectionalSearches() {
+		GraphTraversalUtils<Integer> graph = graph();
+		TraversalStats stats = new TraversalStats();
+		assertEquals(3.0, graph.shortestPath(0, 3, stats).getCost(), 0.0);
+		assertEquals(1, stats.queryCount());
+		assertTrue(stats.settledCount() > 0);
+		assertTrue(stats.settledCount() <= 8);
+		assertEquals(stats.settledCount(), stats.popCount());
+		assertTrue(stats.pushCount() >= stats.popCount());
+		assertTrue(stats.relaxedCount() > 0);
+
+		// A vertex outside the graph still counts as a query, without any search
+		stats.reset();
+		graph.shortestPath(0, 99, stats);
+		assertCounts(stats, 1, 0, 0, 0, 0, 0, 0);
+	}
+
+	@Test
+	void countsOnlyTimeForCachedResults() {
+		GraphTraversalUtils<Integer> graph = graph();
+		graph.setPathCache(new ShortestPathCache<>(100, ShortestPathCache.Policy.LRU));
+		TraversalStats stats = new TraversalStats();
+		graph.dijkstra(0, stats);
+		graph.dijkstra(0, stats);
+		assertCounts(stats, 2, 4, 4, 4, 1, 4, 2);
+
+		stats.reset();
+		assertCounts(stats, 0, 0, 0, 0, 0, 0, 0);
+		assertEquals(0, stats.elapsedNanos());
+	}
+
+	/**
+	 * 0 -> 1 -> 2 -> 3 with a dearer shortcut 0 -> 2, so Dijkstra lowers the key of 2
+	 * once, and vertex 4 out of reach.
+	 */
+	private static GraphTraversalUtils<Integer> graph() {
+		GraphTraversalUtils<Integer> graph = new GraphTraversalUtils<>();
+		graph.addDirectedEdge(0, 1, 1.0);
+		graph.addDirectedEdge(0, 2, 4.0);
+		graph.addDirectedEdge(1, 2, 1.0);
+		graph.addDirectedEdge(2, 3, 1.0);
+		graph.addVertex(4);
+		return graph;
+	}
+
+	private static void assertCounts(
+		TraversalStats stats,
+		long queries,
+		long settled,
+		long relaxed,
+		long pushes,
+		long decreases,
+		long pops,
+		int peakQueueSize
+	) {
+		assertEquals(queries, stats.queryCount(), "queries");
+		assertEquals(settled, stats.settledCount(), "settled");
+		assertEquals(relaxed, stats.relaxedCount(), "relaxed");
+		assertEquals(pushes, stats.pushCount(), "pushes");
+		assertEquals(decreases, stats.decreaseCount(), "decreases");
+		assertEquals(pops, stats.popCount(), "pops");
+		assertEquals(peakQueueSize, stats.peakQueueSize(), "peak queue size");
+	}
+}